@@ -0,0 +1,82 @@
+package home.anuradha.benchmarks;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+
+import home.anuradha.BatchFIXMessageParser;
+import home.anuradha.FIXMessage;
+import home.anuradha.FIXMessageFixtures;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Parses a batch of messages with {@link BatchFIXMessageParser} on pools of 1 to N threads, to show how throughput
+ * scales with cores: as a list of framed buffers with the results returned in order, and as one buffer of messages
+ * back to back streamed to a sink. One op is one message.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class BatchParseBenchmark {
+
+    private static final int MESSAGES = 100_000;
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    @Param({"TWO_GROUPS"})
+    public BenchmarkMessages message;
+
+    private ForkJoinPool pool;
+    private BatchFIXMessageParser batchParser;
+    private List<ByteBuffer> framed;
+    private ByteBuffer stream;
+    private final LongAdder parsed = new LongAdder();
+    private final BatchFIXMessageParser.Sink sink = new BatchFIXMessageParser.Sink() {
+        @Override
+        public void onMessage(int index, FIXMessage fixMessage) {
+            parsed.increment();
+        }
+
+        @Override
+        public void onError(int index, Exception e) {
+            throw new IllegalStateException(e);
+        }
+    };
+
+    @Setup
+    public void setup() {
+        pool = new ForkJoinPool(threads);
+        batchParser = new BatchFIXMessageParser(pool);
+        ByteBuffer msgBB = FIXMessageFixtures.constructInput(message.getMessage());
+        framed = new ArrayList<>(MESSAGES);
+        for (int i = 0; i < MESSAGES; i++) {
+            framed.add(msgBB);
+        }
+        stream = ByteBuffer.allocate(msgBB.remaining() * MESSAGES);
+        for (int i = 0; i < MESSAGES; i++) {
+            stream.put(msgBB.duplicate());
+        }
+        stream.flip();
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MESSAGES)
+    public List<FIXMessage> parseBatch() throws Exception {
+        return batchParser.parse(framed);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MESSAGES)
+    public int parseStream() throws Exception {
+        return batchParser.parse(stream, sink);
+    }
+}
@@ -0,0 +1,57 @@
+package home.anuradha.benchmarks;
+
+/**
+ * Messages of increasing size and group depth, written in the readable form accepted by
+ * {@link home.anuradha.FIXMessageFixtures#constructInput(String)}.
+ */
+public enum BenchmarkMessages {
+    /** Regular tags only. */
+    PLAIN(header() + trailer()),
+    /** One 269 repeating group with two groups. */
+    ONE_GROUP(header() + mdEntries(2) + trailer()),
+    /** A 269 and a 123 repeating group with two groups each. */
+    TWO_GROUPS(header() + mdEntries(2) + routingEntries(2) + trailer()),
+    /** A 269 and a 123 repeating group with many groups each. */
+    DEEP_GROUPS(header() + mdEntries(100) + routingEntries(100) + trailer());
+
+    private final String message;
+
+    BenchmarkMessages(String message) {
+        this.message = message;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    private static String header() {
+        return "8=FIX.4.4|9=178|35=W|49=SENDER|56=TARGET|34=1024|52=20240102-13:14:15.123|55=IBM|48=459200101|22=1|"
+                + "207=XNYS|40=P|54=1|38=1000|59=0|60=20240102-13:14:15.120|";
+    }
+
+    private static String trailer() {
+        return "44=143.25|10=128|";
+    }
+
+    private static String mdEntries(int n) {
+        StringBuilder sb = new StringBuilder("269=").append(n).append('|');
+        for (int i = 0; i < n; i++) {
+            sb.append("277=").append(i % 2).append('|')
+                    .append("456=").append(1000 + i).append('|')
+                    .append("231=").append(143 + i).append(".25|")
+                    .append("283=").append(i + 1).append('|');
+        }
+        return sb.toString();
+    }
+
+    private static String routingEntries(int n) {
+        StringBuilder sb = new StringBuilder("123=").append(n).append('|');
+        for (int i = 0; i < n; i++) {
+            sb.append("786=R").append(i).append('|')
+                    .append("398=DEST").append(i).append('|')
+                    .append("567=").append(i).append('|')
+                    .append("496=ROUTE|");
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,39 @@
+package home.anuradha.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Main class of benchmarks.jar. Accepts the usual JMH command line options and always adds the GC profiler, so that
+ * every result includes the bytes allocated per op (gc.alloc.rate.norm).
+ * Unless a mode is given on the command line, runs the selected benchmarks twice: once for throughput in ops/s and
+ * once in sample mode for latency percentiles in ns.
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+        if (!commandLineOptions.getBenchModes().isEmpty()) {
+            new Runner(new OptionsBuilder().parent(commandLineOptions)
+                    .addProfiler(GCProfiler.class)
+                    .build()).run();
+            return;
+        }
+
+        new Runner(new OptionsBuilder().parent(commandLineOptions)
+                .mode(Mode.Throughput)
+                .timeUnit(TimeUnit.SECONDS)
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+        new Runner(new OptionsBuilder().parent(commandLineOptions)
+                .mode(Mode.SampleTime)
+                .timeUnit(TimeUnit.NANOSECONDS)
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
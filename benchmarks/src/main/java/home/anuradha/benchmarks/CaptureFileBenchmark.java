@@ -0,0 +1,93 @@
+package home.anuradha.benchmarks;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import home.anuradha.FIXMessageFixtures;
+import home.anuradha.FIXMessageParser;
+import home.anuradha.FIXMessageView;
+import home.anuradha.MappedCaptureFile;
+import home.anuradha.MessageFraming;
+import home.anuradha.StreamingFIXMessageParser;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Scans a whole capture file, parsing every message with the flyweight parser. Compares reading the file into a heap
+ * buffer chunk by chunk against parsing slices of a {@link MappedCaptureFile}. One op is one scan of the file.
+ * The file size defaults to 256 MB. Use e.g. -p fileSizeMB=4096 for a multi-GB file.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class CaptureFileBenchmark {
+
+    private static final int HEAP_BUFFER_SIZE = 64 << 20;
+
+    @Param({"256"})
+    public int fileSizeMB;
+
+    private Path capture;
+    private final FIXMessageParser parser = new FIXMessageParser();
+    private final FIXMessageView view = new FIXMessageView();
+    private ByteBuffer heapBuffer;
+
+    @Setup
+    public void setup() throws IOException {
+        capture = Files.createTempFile("capture", ".bin");
+        ByteBuffer message = FIXMessageFixtures.constructInput(BenchmarkMessages.TWO_GROUPS.getMessage() + "10=128|");
+        ByteBuffer block = ByteBuffer.allocate(1 << 20);
+        long size = (long) fileSizeMB << 20;
+        try (FileChannel out = FileChannel.open(capture, StandardOpenOption.WRITE)) {
+            for (long written = 0; written < size; ) {
+                block.clear();
+                while (block.remaining() >= message.remaining()) {
+                    block.put(message.duplicate());
+                }
+                block.flip();
+                written += out.write(block);
+            }
+        }
+        heapBuffer = ByteBuffer.allocate(HEAP_BUFFER_SIZE);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(capture);
+    }
+
+    @Benchmark
+    public long mapped() throws Exception {
+        try (MappedCaptureFile file = MappedCaptureFile.open(capture)) {
+            return file.forEachMessage((index, message) -> parser.parse(message, view).getFieldCount() > 0);
+        }
+    }
+
+    @Benchmark
+    public long heap() throws Exception {
+        long count = 0;
+        heapBuffer.clear();
+        try (FileChannel in = FileChannel.open(capture, StandardOpenOption.READ)) {
+            while (in.read(heapBuffer) >= 0 || heapBuffer.position() > 0) {
+                heapBuffer.flip();
+                int start = 0;
+                int end;
+                while ((end = MessageFraming.findMessageEnd(heapBuffer, start, heapBuffer.limit(), StreamingFIXMessageParser.CHECKSUM_TAG)) >= 0) {
+                    parser.parse(heapBuffer.slice(start, end - start), view);
+                    count++;
+                    start = end;
+                }
+                heapBuffer.position(start);
+                heapBuffer.compact();
+                if (start == 0 && heapBuffer.position() > 0 && in.position() == in.size()) {
+                    break; // Incomplete message at the end of the file.
+                }
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,145 @@
+package home.anuradha.benchmarks;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+import home.anuradha.ColumnarArchive;
+import home.anuradha.ColumnarArchiveWriter;
+import home.anuradha.Decimal;
+import home.anuradha.FIXMessage;
+import home.anuradha.FIXMessageFixtures;
+import home.anuradha.FIXMessageParser;
+import home.anuradha.FIXMessageView;
+import home.anuradha.MappedCaptureFile;
+import home.anuradha.TypedValues;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Answers "the 44 prices, and the 231 prices of the 269 groups, of the messages where 55=IBM" from a
+ * {@link ColumnarArchive}, and by re-parsing the raw capture file with the flyweight parser. One op is one query over
+ * every message. The sizes of the capture file, of the archive and of the toString() output of the same messages are
+ * printed during setup.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ColumnarArchiveBenchmark {
+
+    private static final String[] SYMBOLS = {"IBM", "MSFT", "AAPL", "GOOG", "AMZN", "META", "NVDA", "TSLA"};
+
+    @Param({"100000"})
+    public int messages;
+
+    private Path capture;
+    private Path archiveFile;
+    private MappedCaptureFile captureFile;
+    private ColumnarArchive archive;
+    private final FIXMessageParser parser = new FIXMessageParser();
+    private final FIXMessageView view = new FIXMessageView();
+    private final Decimal decimal = new Decimal();
+    private long sum;
+
+    @Setup
+    public void setup() throws Exception {
+        capture = Files.createTempFile("capture", ".bin");
+        archiveFile = Files.createTempFile("archive", ".col");
+        Random random = new Random(42);
+        long toStringBytes = 0;
+        try (FileChannel out = FileChannel.open(capture, StandardOpenOption.WRITE);
+             ColumnarArchiveWriter writer = new ColumnarArchiveWriter(archiveFile)) {
+            for (int i = 0; i < messages; i++) {
+                String msg = message(random, i);
+                ByteBuffer bb = FIXMessageFixtures.constructInput(msg);
+                FIXMessage fixMessage = parser.parse(bb.duplicate());
+                writer.write(fixMessage);
+                toStringBytes += fixMessage.toString().getBytes(StandardCharsets.UTF_8).length;
+                while (bb.hasRemaining()) {
+                    out.write(bb);
+                }
+            }
+        }
+        System.out.printf("%nMessages: %d, capture file: %d bytes, toString(): %d bytes, archive: %d bytes%n",
+                messages, Files.size(capture), toStringBytes, Files.size(archiveFile));
+        captureFile = MappedCaptureFile.open(capture);
+        archive = ColumnarArchive.open(archiveFile);
+    }
+
+    private static String message(Random random, int i) {
+        StringBuilder msg = new StringBuilder("8=FIX.4.4|9=178|35=W|49=SENDER|56=TARGET|34=").append(i + 1)
+                .append("|52=20240102-13:14:").append(10 + i % 50).append('.').append(100 + i % 900)
+                .append("|55=").append(SYMBOLS[random.nextInt(SYMBOLS.length)]).append("|40=P|54=").append(1 + i % 2)
+                .append("|38=").append(100 * (1 + random.nextInt(50))).append("|269=2|");
+        for (int j = 0; j < 2; j++) {
+            msg.append("277=").append(j).append("|456=").append(1000 + random.nextInt(100)).append("|231=")
+                    .append(143 + random.nextInt(5)).append('.').append(10 + random.nextInt(90)).append("|283=")
+                    .append(1 + random.nextInt(9)).append('|');
+        }
+        return msg.append("44=").append(140 + random.nextInt(10)).append('.').append(10 + random.nextInt(90))
+                .append("|10=128|").toString();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        captureFile.close();
+        archive.close();
+        Files.deleteIfExists(capture);
+        Files.deleteIfExists(archiveFile);
+    }
+
+    @Benchmark
+    public long archivePrices() {
+        sum = 0;
+        archive.select(44, 55, "IBM", (message, column, row) -> {
+            column.getDecimal(row, decimal);
+            sum += decimal.getMantissa();
+        });
+        return sum;
+    }
+
+    @Benchmark
+    public long reparsePrices() throws Exception {
+        sum = 0;
+        captureFile.forEachMessage((index, message) -> {
+            parser.parse(message, view);
+            if ("IBM".contentEquals(view.getCharSequence(55))) {
+                TypedValues.parseDecimal(view.getCharSequence(44), decimal);
+                sum += decimal.getMantissa();
+            }
+            return true;
+        });
+        return sum;
+    }
+
+    @Benchmark
+    public long archiveGroupPrices() {
+        sum = 0;
+        archive.select(new int[]{269}, 231, 55, "IBM", (message, column, row) -> {
+            column.getDecimal(row, decimal);
+            sum += decimal.getMantissa();
+        });
+        return sum;
+    }
+
+    @Benchmark
+    public long reparseGroupPrices() throws Exception {
+        sum = 0;
+        captureFile.forEachMessage((index, message) -> {
+            parser.parse(message, view);
+            if ("IBM".contentEquals(view.getCharSequence(55))) {
+                for (int i = 0; i < view.getNumberOfGroups(269); i++) {
+                    TypedValues.parseDecimal(view.getGroupCharSequence(269, i, 231), decimal);
+                    sum += decimal.getMantissa();
+                }
+            }
+            return true;
+        });
+        return sum;
+    }
+}
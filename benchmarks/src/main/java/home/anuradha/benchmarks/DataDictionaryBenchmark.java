@@ -0,0 +1,89 @@
+package home.anuradha.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import home.anuradha.DataDictionary;
+import home.anuradha.GroupSchema;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures how long it takes to load and compile a {@link DataDictionary} with many repeating groups, and the cost per
+ * tag of the lookups made while parsing, compared with the List&lt;Integer&gt; lookups the parser used before.
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class DataDictionaryBenchmark {
+
+    private static final int TAGS_PER_LOOKUP = 1024;
+
+    @Param({"2", "50"})
+    public int groups;
+
+    private byte[] spec;
+    private DataDictionary dictionary;
+    private GroupSchema schema;
+    private List<Integer> indicatorTagList;
+    private List<Integer> groupTagList;
+    private int[] tags;
+
+    @Setup
+    public void setup() throws Exception {
+        StringBuilder sb = new StringBuilder("<dictionary>");
+        indicatorTagList = new ArrayList<>();
+        for (int g = 0; g < groups; g++) {
+            int indicatorTag = 1000 + g * 20;
+            indicatorTagList.add(indicatorTag);
+            sb.append("<group tag=\"").append(indicatorTag).append("\">");
+            for (int f = 1; f <= 10; f++) {
+                sb.append("<field tag=\"").append(indicatorTag + f).append(f == 2 ? "\" required=\"true\"/>" : "\"/>");
+            }
+            sb.append("</group>");
+        }
+        spec = sb.append("</dictionary>").toString().getBytes(StandardCharsets.UTF_8);
+        dictionary = DataDictionary.load(new ByteArrayInputStream(spec));
+
+        int lastIndicatorTag = indicatorTagList.get(groups - 1);
+        schema = dictionary.getGroupSchema(lastIndicatorTag);
+        groupTagList = new ArrayList<>();
+        for (int tag : schema.getTags()) {
+            groupTagList.add(tag);
+        }
+
+        // A mix of regular tags, group tags and indicator tags.
+        Random random = new Random(42);
+        tags = new int[TAGS_PER_LOOKUP];
+        for (int i = 0; i < tags.length; i++) {
+            tags[i] = random.nextInt(4) == 0 ? lastIndicatorTag + random.nextInt(11) : 1 + random.nextInt(1000 + groups * 20);
+        }
+    }
+
+    @Benchmark
+    public DataDictionary compile() throws Exception {
+        return DataDictionary.load(new ByteArrayInputStream(spec));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TAGS_PER_LOOKUP)
+    public void lookupDictionary(Blackhole bh) {
+        for (int tag : tags) {
+            bh.consume(dictionary.isRepeatingGroupIndicatorTag(tag));
+            bh.consume(schema.contains(tag));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TAGS_PER_LOOKUP)
+    public void lookupList(Blackhole bh) {
+        for (int tag : tags) {
+            bh.consume(indicatorTagList.contains(tag));
+            bh.consume(groupTagList.contains(tag));
+        }
+    }
+}
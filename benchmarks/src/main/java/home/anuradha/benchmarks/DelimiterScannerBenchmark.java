@@ -0,0 +1,88 @@
+package home.anuradha.benchmarks;
+
+import java.nio.ByteBuffer;
+
+import home.anuradha.DataDictionary;
+import home.anuradha.DelimiterScanner;
+import home.anuradha.FIXMessageFixtures;
+import home.anuradha.FIXMessageParser;
+import home.anuradha.FIXMessageView;
+import home.anuradha.WireFormat;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Finds the end of a value of valueLength chars with each {@link DelimiterScanner}, and parses a message made of fields
+ * of that length into a view with each scanner. The forked JVM adds the jdk.incubator.vector module, so the Vector API
+ * scanner is available.
+ */
+@State(Scope.Thread)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class DelimiterScannerBenchmark {
+
+    public enum Scanner {
+        SCALAR, SWAR, VECTOR;
+
+        DelimiterScanner get() {
+            switch (this) {
+                case SCALAR:
+                    return DelimiterScanner.SCALAR;
+                case SWAR:
+                    return DelimiterScanner.SWAR;
+                default:
+                    DelimiterScanner vector = DelimiterScanner.vector();
+                    if (vector == null) {
+                        throw new IllegalStateException("The jdk.incubator.vector module is not available.");
+                    }
+                    return vector;
+            }
+        }
+    }
+
+    @Param({"4", "16", "64", "256"})
+    public int valueLength;
+
+    @Param({"CHARS", "ASCII"})
+    public WireFormat wireFormat;
+
+    @Param({"SCALAR", "SWAR", "VECTOR"})
+    public Scanner scanner;
+
+    private DelimiterScanner delimiterScanner;
+    private FIXMessageParser parser;
+    private final FIXMessageView view = new FIXMessageView();
+    private ByteBuffer value;
+    private ByteBuffer msgBB;
+
+    @Setup
+    public void setup() {
+        delimiterScanner = scanner.get();
+        parser = new FIXMessageParser(DataDictionary.DEFAULT, wireFormat);
+        parser.setDelimiterScanner(delimiterScanner);
+
+        String chars = "ABCDEFGHIJ".repeat(valueLength / 10 + 1).substring(0, valueLength);
+        StringBuilder msg = new StringBuilder("8=FIX.4.4|35=W|");
+        for (int tag = 100; tag < 120; tag++) {
+            msg.append(tag).append('=').append(chars).append('|');
+        }
+        msg.append("10=128|");
+        value = input("1=" + chars + "|");
+        msgBB = input(msg.toString());
+    }
+
+    private ByteBuffer input(String msg) {
+        return wireFormat == WireFormat.CHARS ? FIXMessageFixtures.constructInput(msg) : FIXMessageFixtures.constructAsciiInput(msg);
+    }
+
+    @Benchmark
+    public int find() {
+        int from = wireFormat == WireFormat.CHARS ? 6 : 2;
+        return delimiterScanner.find(value, wireFormat, from, value.limit());
+    }
+
+    @Benchmark
+    public FIXMessageView parseFlyweight() throws Exception {
+        return parser.parse(msgBB.rewind(), view);
+    }
+}
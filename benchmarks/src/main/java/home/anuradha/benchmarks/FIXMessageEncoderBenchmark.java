@@ -0,0 +1,42 @@
+package home.anuradha.benchmarks;
+
+import java.nio.ByteBuffer;
+
+import home.anuradha.FIXMessage;
+import home.anuradha.FIXMessageEncoder;
+import home.anuradha.FIXMessageFixtures;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Encodes a parsed message of each size into a direct buffer with {@link FIXMessageEncoder}, and measures sizing it
+ * with {@link FIXMessageEncoder#encodedLength(FIXMessage)}.
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class FIXMessageEncoderBenchmark {
+
+    @Param
+    public BenchmarkMessages message;
+
+    private FIXMessage fixMessage;
+    private ByteBuffer out;
+
+    @Setup
+    public void setup() throws Exception {
+        fixMessage = FIXMessageFixtures.getFIXMessage(message.getMessage());
+        out = ByteBuffer.allocateDirect(FIXMessageEncoder.encodedLength(fixMessage));
+    }
+
+    @Benchmark
+    public int encode() {
+        out.clear();
+        return FIXMessageEncoder.encode(fixMessage, out);
+    }
+
+    @Benchmark
+    public int encodedLength() {
+        return FIXMessageEncoder.encodedLength(fixMessage);
+    }
+}
@@ -0,0 +1,39 @@
+package home.anuradha.benchmarks;
+
+import java.nio.ByteBuffer;
+
+import home.anuradha.FIXMessage;
+import home.anuradha.FIXMessageFixtures;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures the fixture builder shared by the tests and benchmarks, so that its cost can be told apart from parsing.
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class FIXMessageFixturesBenchmark {
+
+    @Param
+    public BenchmarkMessages message;
+
+    private final ByteBuffer bb = ByteBuffer.allocate(64);
+
+    @Benchmark
+    public ByteBuffer constructInput() {
+        return FIXMessageFixtures.constructInput(message.getMessage());
+    }
+
+    @Benchmark
+    public FIXMessage getFIXMessage() throws Exception {
+        return FIXMessageFixtures.getFIXMessage(message.getMessage());
+    }
+
+    @Benchmark
+    public ByteBuffer addTV() {
+        bb.clear();
+        FIXMessageFixtures.addTV("52=20240102-13:14:15.123", bb);
+        return bb;
+    }
+}
@@ -0,0 +1,44 @@
+package home.anuradha.benchmarks;
+
+import java.nio.ByteBuffer;
+
+import home.anuradha.FIXMessage;
+import home.anuradha.FIXMessageFixtures;
+import home.anuradha.FIXMessageParser;
+import home.anuradha.FIXMessageView;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Parses messages of each size with {@link FIXMessageParser#parse(ByteBuffer)} and with the flyweight
+ * {@link FIXMessageParser#parse(ByteBuffer, FIXMessageView)}.
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class FIXMessageParserBenchmark {
+
+    @Param
+    public BenchmarkMessages message;
+
+    private final FIXMessageParser parser = new FIXMessageParser();
+    private final FIXMessageView view = new FIXMessageView();
+    private ByteBuffer msgBB;
+
+    @Setup
+    public void setup() {
+        msgBB = FIXMessageFixtures.constructInput(message.getMessage());
+    }
+
+    @Benchmark
+    public FIXMessage parse() throws Exception {
+        msgBB.rewind();
+        return parser.parse(msgBB);
+    }
+
+    @Benchmark
+    public FIXMessageView parseFlyweight() throws Exception {
+        msgBB.rewind();
+        return parser.parse(msgBB, view);
+    }
+}
@@ -0,0 +1,57 @@
+package home.anuradha.benchmarks;
+
+import java.nio.ByteBuffer;
+
+import home.anuradha.DataDictionary;
+import home.anuradha.FIXMessage;
+import home.anuradha.FIXMessageFixtures;
+import home.anuradha.FIXMessageParser;
+import home.anuradha.FIXMessagePool;
+import home.anuradha.WireFormat;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Parses messages with and without a {@link FIXMessagePool}. The pooled benchmark releases every message once it has
+ * been consumed, so compare gc.alloc.rate.norm to see the allocation saved per message.
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class FIXMessagePoolBenchmark {
+
+    @Param
+    public BenchmarkMessages message;
+
+    private final FIXMessageParser parser = new FIXMessageParser();
+    private final FIXMessagePool pool = new FIXMessagePool(DataDictionary.DEFAULT);
+    private final FIXMessageParser pooledParser = new FIXMessageParser(pool, WireFormat.CHARS);
+    private ByteBuffer msgBB;
+
+    @Setup
+    public void setup() {
+        msgBB = FIXMessageFixtures.constructInput(message.getMessage());
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (pool.getBorrowCount() > 0) {
+            System.out.println(pool);
+        }
+    }
+
+    @Benchmark
+    public FIXMessage parse() throws Exception {
+        msgBB.rewind();
+        return parser.parse(msgBB);
+    }
+
+    @Benchmark
+    public void parsePooled(Blackhole blackhole) throws Exception {
+        msgBB.rewind();
+        FIXMessage fixMessage = pooledParser.parse(msgBB);
+        blackhole.consume(fixMessage);
+        pool.release(fixMessage);
+    }
+}
@@ -0,0 +1,46 @@
+package home.anuradha.benchmarks;
+
+import home.anuradha.FIXMessage;
+import home.anuradha.FIXMessageFixtures;
+import home.anuradha.Group;
+import home.anuradha.RepeatingGroup;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Formats parsed messages, their first {@link RepeatingGroup} and its first {@link Group} with toString().
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class FIXMessageToStringBenchmark {
+
+    @Param({"ONE_GROUP", "TWO_GROUPS", "DEEP_GROUPS"})
+    public BenchmarkMessages message;
+
+    private FIXMessage fixMessage;
+    private RepeatingGroup repeatingGroup;
+    private Group group;
+
+    @Setup
+    public void setup() throws Exception {
+        fixMessage = FIXMessageFixtures.getFIXMessage(message.getMessage());
+        repeatingGroup = fixMessage.getRepeatingGroups().values().iterator().next();
+        group = repeatingGroup.getGroups().get(0);
+    }
+
+    @Benchmark
+    public String fixMessageToString() {
+        return fixMessage.toString();
+    }
+
+    @Benchmark
+    public String repeatingGroupToString() {
+        return repeatingGroup.toString();
+    }
+
+    @Benchmark
+    public String groupToString() {
+        return group.toString();
+    }
+}
@@ -0,0 +1,54 @@
+package home.anuradha.benchmarks;
+
+import java.nio.ByteBuffer;
+
+import home.anuradha.FIXMessage;
+import home.anuradha.FIXMessageFixtures;
+import home.anuradha.FIXMessageParser;
+import home.anuradha.LazyFIXMessage;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Reads 3 of the 40 tags of a message (55 Symbol, 44 Price and the 231 of the first 269 entry), after an eager
+ * {@link FIXMessageParser#parse(ByteBuffer)} and after a {@link FIXMessageParser#parseLazy(ByteBuffer, LazyFIXMessage)}.
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class LazyFIXMessageBenchmark {
+
+    private final FIXMessageParser parser = new FIXMessageParser();
+    private final LazyFIXMessage lazyMessage = new LazyFIXMessage();
+    private ByteBuffer msgBB;
+
+    @Setup
+    public void setup() {
+        // 31 regular tags, and a 269 repeating group of 9 tags: the indicator tag and two entries of 4 tags.
+        StringBuilder sb = new StringBuilder("8=FIX.4.4|9=512|35=W|49=SENDER|56=TARGET|34=1024|52=20240102-13:14:15.123|55=IBM|");
+        for (int tag = 5000; sb.toString().split("\\|").length < 30; tag++) {
+            sb.append(tag).append("=VALUE").append(tag).append('|');
+        }
+        sb.append("269=2|277=0|456=1000|231=143.25|283=1|277=1|456=1001|231=143.50|283=2|44=143.25|");
+        msgBB = FIXMessageFixtures.constructInput(sb.toString());
+    }
+
+    @Benchmark
+    public void parse(Blackhole blackhole) throws Exception {
+        msgBB.rewind();
+        FIXMessage fixMessage = parser.parse(msgBB);
+        blackhole.consume(fixMessage.getNonGroupTagValue(55));
+        blackhole.consume(fixMessage.getNonGroupTagValue(44));
+        blackhole.consume(fixMessage.getRepeatingGroup(269).getGroups().get(0).getValue(231));
+    }
+
+    @Benchmark
+    public void parseLazy(Blackhole blackhole) throws Exception {
+        msgBB.rewind();
+        LazyFIXMessage fixMessage = parser.parseLazy(msgBB, lazyMessage);
+        blackhole.consume(fixMessage.getNonGroupTagValue(55));
+        blackhole.consume(fixMessage.getNonGroupTagValue(44));
+        blackhole.consume(fixMessage.getGroupValue(269, 0, 231));
+    }
+}
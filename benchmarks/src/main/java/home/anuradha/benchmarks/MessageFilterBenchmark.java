@@ -0,0 +1,71 @@
+package home.anuradha.benchmarks;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import home.anuradha.FIXMessage;
+import home.anuradha.FIXMessageFixtures;
+import home.anuradha.FIXMessageParser;
+import home.anuradha.MessageFilter;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Selects messages from a stream of TWO_GROUPS messages where a given percentage match, with
+ * {@link FIXMessageParser#parse(ByteBuffer, MessageFilter)} and by parsing every message and checking the tag after.
+ * Filtering on 55 Symbol stops in the header, filtering on 44 Price has to skip both repeating groups. One op is one
+ * message.
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class MessageFilterBenchmark {
+
+    private static final int MESSAGES = 100;
+
+    @Param({"1", "10", "50", "100"})
+    public int selectivity;
+
+    @Param({"55", "44"})
+    public int filterTag;
+
+    private final FIXMessageParser parser = new FIXMessageParser();
+    private final ByteBuffer[] messages = new ByteBuffer[MESSAGES];
+    private MessageFilter filter;
+    private String wanted;
+
+    @Setup
+    public void setup() {
+        String message = BenchmarkMessages.TWO_GROUPS.getMessage();
+        String field = filterTag == 55 ? "55=IBM|" : "44=143.25|";
+        wanted = filterTag == 55 ? "IBM" : "143.25";
+        String other = filterTag + "=OTHER|";
+        filter = MessageFilter.where(filterTag, MessageFilter.equalTo(wanted));
+
+        Random random = new Random(1);
+        for (int i = 0; i < MESSAGES; i++) {
+            boolean matches = random.nextInt(100) < selectivity;
+            messages[i] = FIXMessageFixtures.constructInput(matches ? message : message.replace(field, other));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MESSAGES)
+    public void filterThenParse(Blackhole blackhole) throws Exception {
+        for (ByteBuffer msgBB : messages) {
+            msgBB.rewind();
+            blackhole.consume(parser.parse(msgBB, filter));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MESSAGES)
+    public void parseThenFilter(Blackhole blackhole) throws Exception {
+        for (ByteBuffer msgBB : messages) {
+            msgBB.rewind();
+            FIXMessage fixMessage = parser.parse(msgBB);
+            blackhole.consume(wanted.equals(fixMessage.getNonGroupTagValue(filterTag)) ? fixMessage : null);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package home.anuradha.benchmarks;
+
+import java.util.Locale;
+import java.util.Random;
+
+import home.anuradha.FIXMessage;
+import home.anuradha.FIXMessageFixtures;
+import home.anuradha.FIXMessageParser;
+import home.anuradha.OrderBook;
+import home.anuradha.OrderBookBuilder;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Applies pre-parsed incremental updates to an order book, and reads it while it is being updated.
+ * The updates are random levels within 20 ticks of a fixed mid price, a fifth of which remove their level, in messages
+ * of entriesPerMessage groups. In the apply benchmarks one op is one level update, so updates per second is 1e9 divided
+ * by the score in ns/op. The concurrent group runs a writer applying batches and two readers of the top of the book,
+ * whose score is the read latency while the book is being updated.
+ */
+@State(Scope.Group)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class OrderBookBenchmark {
+
+    private static final int MESSAGES = 1024;
+    private static final int ENTRIES_PER_MESSAGE = 4;
+    private static final int BATCH = 16;
+
+    private OrderBookBuilder builder;
+    private OrderBook book;
+    private FIXMessage[] messages;
+    private int next;
+
+    @State(Scope.Thread)
+    public static class Reader {
+        final OrderBook.TopOfBook top = new OrderBook.TopOfBook();
+        final OrderBook.Snapshot snapshot = new OrderBook.Snapshot(10);
+    }
+
+    @Setup
+    public void setup() throws Exception {
+        Random random = new Random(42);
+        FIXMessageParser parser = new FIXMessageParser();
+        messages = new FIXMessage[MESSAGES];
+        for (int i = 0; i < MESSAGES; i++) {
+            StringBuilder msg = new StringBuilder("35=X|55=IBM|269=").append(ENTRIES_PER_MESSAGE).append('|');
+            for (int j = 0; j < ENTRIES_PER_MESSAGE; j++) {
+                int side = random.nextInt(2);
+                int ticks = 1 + random.nextInt(20);
+                int size = random.nextInt(5) == 0 ? 0 : 100 * (1 + random.nextInt(10));
+                String price = String.format(Locale.ROOT, "%.2f", 143.25 + (side == 0 ? -ticks : ticks) * 0.01);
+                msg.append("277=").append(side).append("|456=").append(size).append("|231=").append(price)
+                        .append("|283=").append(1 + random.nextInt(5)).append('|');
+            }
+            messages[i] = parser.parse(FIXMessageFixtures.constructInput(msg.append("10=128|").toString()));
+        }
+        builder = new OrderBookBuilder(10, 4);
+        builder.apply(messages, 0, MESSAGES);
+        book = builder.getBook("IBM");
+    }
+
+    @Benchmark
+    @Group("applyMessage")
+    @OperationsPerInvocation(ENTRIES_PER_MESSAGE)
+    public void applyMessage() {
+        builder.apply(messages[next]);
+        next = (next + 1) & (MESSAGES - 1);
+    }
+
+    @Benchmark
+    @Group("applyBatch")
+    @OperationsPerInvocation(ENTRIES_PER_MESSAGE * BATCH)
+    public void applyBatch() {
+        builder.apply(messages, next, next + BATCH);
+        next = (next + BATCH) & (MESSAGES - 1);
+    }
+
+    @Benchmark
+    @Group("readTopOfBook")
+    public OrderBook.TopOfBook readTopOfBook(Reader reader) {
+        return book.readTopOfBook(reader.top);
+    }
+
+    @Benchmark
+    @Group("readSnapshot")
+    public OrderBook.Snapshot readSnapshot(Reader reader) {
+        return book.readSnapshot(reader.snapshot);
+    }
+
+    @Benchmark
+    @Group("concurrent")
+    @GroupThreads(1)
+    @OperationsPerInvocation(ENTRIES_PER_MESSAGE * BATCH)
+    public void writer() {
+        builder.apply(messages, next, next + BATCH);
+        next = (next + BATCH) & (MESSAGES - 1);
+    }
+
+    @Benchmark
+    @Group("concurrent")
+    @GroupThreads(2)
+    public OrderBook.TopOfBook concurrentTopOfBook(Reader reader) {
+        return book.readTopOfBook(reader.top);
+    }
+}
@@ -0,0 +1,87 @@
+package home.anuradha.benchmarks;
+
+import java.nio.ByteBuffer;
+
+import home.anuradha.FIXMessage;
+import home.anuradha.FIXMessageFixtures;
+import home.anuradha.FIXMessageParser;
+import home.anuradha.FIXMessageView;
+import home.anuradha.ParseResult;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Parses a stream in which a percentage of the messages are invalid, reporting errors by exception and by
+ * {@link ParseResult}. An invalid message repeats tag 44 just before the trailer, so it takes as much work to read as a
+ * valid one and the difference is the cost of rejecting it. One op is one message.
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ParseResultBenchmark {
+
+    private static final int MESSAGES = 1000;
+
+    @Param({"PLAIN", "TWO_GROUPS"})
+    public BenchmarkMessages message;
+
+    @Param({"0", "1", "50"})
+    public int invalidPercent;
+
+    private final FIXMessageParser parser = new FIXMessageParser();
+    private final FIXMessageView view = new FIXMessageView();
+    private final ParseResult result = new ParseResult();
+    private ByteBuffer[] stream;
+
+    @Setup
+    public void setup() {
+        ByteBuffer valid = FIXMessageFixtures.constructInput(message.getMessage());
+        ByteBuffer invalid = FIXMessageFixtures.constructInput(message.getMessage().replace("10=128|", "44=1|10=128|"));
+        stream = new ByteBuffer[MESSAGES];
+        for (int i = 0; i < MESSAGES; i++) {
+            stream[i] = i % 100 < invalidPercent ? invalid : valid;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MESSAGES)
+    public int parseWithExceptions(Blackhole blackhole) {
+        int errors = 0;
+        for (ByteBuffer msgBB : stream) {
+            try {
+                blackhole.consume(parser.parse(msgBB.rewind()));
+            } catch (Exception e) {
+                errors++;
+            }
+        }
+        return errors;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MESSAGES)
+    public int parseWithResult(Blackhole blackhole) {
+        int errors = 0;
+        for (ByteBuffer msgBB : stream) {
+            FIXMessage fixMessage = parser.parse(msgBB.rewind(), result);
+            if (fixMessage == null) {
+                errors++;
+            }
+            blackhole.consume(fixMessage);
+        }
+        return errors;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MESSAGES)
+    public int parseFlyweightWithResult(Blackhole blackhole) {
+        int errors = 0;
+        for (ByteBuffer msgBB : stream) {
+            if (parser.parse(msgBB.rewind(), view, result) == null) {
+                errors++;
+            }
+            blackhole.consume(view);
+        }
+        return errors;
+    }
+}
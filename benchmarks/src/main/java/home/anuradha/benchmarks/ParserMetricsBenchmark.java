@@ -0,0 +1,51 @@
+package home.anuradha.benchmarks;
+
+import java.nio.ByteBuffer;
+
+import home.anuradha.FIXMessage;
+import home.anuradha.FIXMessageFixtures;
+import home.anuradha.FIXMessageParser;
+import home.anuradha.FIXMessageView;
+import home.anuradha.ParserMetrics;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Cost of recording {@link ParserMetrics} per message: parses with and without metrics, both into a new
+ * {@link FIXMessage} and into a reused {@link FIXMessageView}, where the metrics are a larger share of the work.
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ParserMetricsBenchmark {
+
+    @Param
+    public BenchmarkMessages message;
+
+    @Param({"false", "true"})
+    public boolean instrumented;
+
+    private final FIXMessageParser parser = new FIXMessageParser();
+    private final FIXMessageView view = new FIXMessageView();
+    private ByteBuffer msgBB;
+
+    @Setup
+    public void setup() {
+        msgBB = FIXMessageFixtures.constructInput(message.getMessage());
+        if (instrumented) {
+            parser.setMetrics(new ParserMetrics());
+        }
+    }
+
+    @Benchmark
+    public FIXMessage parse() throws Exception {
+        msgBB.rewind();
+        return parser.parse(msgBB);
+    }
+
+    @Benchmark
+    public FIXMessageView parseFlyweight() throws Exception {
+        msgBB.rewind();
+        return parser.parse(msgBB, view);
+    }
+}
@@ -0,0 +1,83 @@
+package home.anuradha.benchmarks;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import home.anuradha.FIXMessageFixtures;
+import home.anuradha.FIXMessagePipeline;
+import home.anuradha.FIXMessageParser;
+import home.anuradha.LatencyHistogram;
+import home.anuradha.WaitStrategy;
+
+/**
+ * Drives a {@link FIXMessagePipeline} with each producer type and wait strategy, and prints the throughput and the
+ * latency percentiles from publish to handler. Latency under load can't be measured with JMH, which only times the
+ * calling thread, so this is a plain main class:
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar home.anuradha.benchmarks.PipelineLoadGenerator [messages] [parsers] [producers] [rate]
+ * </pre>
+ * rate is the total number of messages per second to offer, or 0 (the default) to publish as fast as possible. At a
+ * fixed rate each producer sends on a schedule, so a stalled pipeline shows up as latency rather than as fewer
+ * messages sent. Results need as many cores as there are threads (producers + parsers + 1).
+ */
+public class PipelineLoadGenerator {
+
+    public static void main(String[] args) throws Exception {
+        int messages = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        int parsers = args.length > 1 ? Integer.parseInt(args[1]) : 2;
+        int producers = args.length > 2 ? Integer.parseInt(args[2]) : 2;
+        long rate = args.length > 3 ? Long.parseLong(args[3]) : 0;
+
+        ByteBuffer msgBB = FIXMessageFixtures.constructInput(BenchmarkMessages.TWO_GROUPS.getMessage());
+        String[] names = {"BUSY_SPIN", "YIELD", "PARK"};
+        WaitStrategy[] waitStrategies = {WaitStrategy.BUSY_SPIN, WaitStrategy.YIELD, WaitStrategy.PARK};
+        System.out.printf("%d messages, %d parsers, %s%n", messages, parsers, rate > 0 ? rate + " msgs/s" : "unthrottled");
+        for (FIXMessagePipeline.ProducerType producerType : FIXMessagePipeline.ProducerType.values()) {
+            int producerCount = producerType == FIXMessagePipeline.ProducerType.SINGLE ? 1 : producers;
+            for (int i = 0; i < waitStrategies.length; i++) {
+                run(msgBB, messages / 10, parsers, producerType, producerCount, waitStrategies[i], rate); // Warm up.
+                long start = System.nanoTime();
+                LatencyHistogram latency = run(msgBB, messages, parsers, producerType, producerCount, waitStrategies[i], rate);
+                double seconds = (System.nanoTime() - start) / 1e9;
+                System.out.printf("%-6s x%d %-9s %,12.0f msgs/s  latency ns %s%n", producerType, producerCount, names[i],
+                        latency.getCount() / seconds, latency);
+            }
+        }
+    }
+
+    private static LatencyHistogram run(ByteBuffer msgBB, int messages, int parsers, FIXMessagePipeline.ProducerType producerType,
+                                        int producerCount, WaitStrategy waitStrategy, long rate) throws InterruptedException {
+        FIXMessagePipeline pipeline = new FIXMessagePipeline(1024, msgBB.remaining(), parsers, producerType, waitStrategy,
+                FIXMessageParser::new, (sequence, fixMessage) -> {
+        });
+        pipeline.start();
+        Thread[] threads = new Thread[producerCount];
+        for (int p = 0; p < producerCount; p++) {
+            int count = messages / producerCount;
+            long intervalNanos = rate > 0 ? TimeUnit.SECONDS.toNanos(1) * producerCount / rate : 0;
+            threads[p] = new Thread(() -> produce(pipeline, msgBB.duplicate(), count, intervalNanos), "producer-" + p);
+            threads[p].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        pipeline.close();
+        return pipeline.getLatencyHistogram();
+    }
+
+    private static void produce(FIXMessagePipeline pipeline, ByteBuffer msgBB, int count, long intervalNanos) {
+        long next = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            if (intervalNanos > 0) {
+                next += intervalNanos;
+                while (System.nanoTime() < next) {
+                    LockSupport.parkNanos(Math.min(next - System.nanoTime(), 10_000));
+                }
+            }
+            long sequence = pipeline.claim();
+            pipeline.getSlot(sequence).put(msgBB.duplicate());
+            pipeline.publish(sequence);
+        }
+    }
+}
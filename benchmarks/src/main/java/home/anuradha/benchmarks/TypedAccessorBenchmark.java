@@ -0,0 +1,63 @@
+package home.anuradha.benchmarks;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+import home.anuradha.Decimal;
+import home.anuradha.FIXMessage;
+import home.anuradha.FIXMessageFixtures;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Reads an int (34 MsgSeqNum), a price (44), a char (40 OrdType) and a timestamp (52 SendingTime) from a parsed
+ * message, with the typed accessors and by parsing the String values with the JDK.
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class TypedAccessorBenchmark {
+
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HH:mm:ss.SSS");
+
+    private FIXMessage fixMessage;
+    private final Decimal price = new Decimal();
+
+    @Setup
+    public void setup() throws Exception {
+        fixMessage = FIXMessageFixtures.getFIXMessage(BenchmarkMessages.TWO_GROUPS.getMessage());
+    }
+
+    @Benchmark
+    public void typed(Blackhole blackhole) {
+        blackhole.consume(fixMessage.getInt(34));
+        fixMessage.getDecimal(44, price);
+        blackhole.consume(price.getMantissa());
+        blackhole.consume(fixMessage.getChar(40));
+        blackhole.consume(fixMessage.getUTCTimestampNanos(52));
+    }
+
+    @Benchmark
+    public void stringAndParseDouble(Blackhole blackhole) {
+        blackhole.consume(Integer.parseInt(fixMessage.getNonGroupTagValue(34)));
+        blackhole.consume(Double.parseDouble(fixMessage.getNonGroupTagValue(44)));
+        blackhole.consume(fixMessage.getNonGroupTagValue(40).charAt(0));
+        blackhole.consume(parseTimestamp(fixMessage.getNonGroupTagValue(52)));
+    }
+
+    @Benchmark
+    public void stringAndBigDecimal(Blackhole blackhole) {
+        blackhole.consume(Integer.parseInt(fixMessage.getNonGroupTagValue(34)));
+        blackhole.consume(new BigDecimal(fixMessage.getNonGroupTagValue(44)));
+        blackhole.consume(fixMessage.getNonGroupTagValue(40).charAt(0));
+        blackhole.consume(parseTimestamp(fixMessage.getNonGroupTagValue(52)));
+    }
+
+    private static long parseTimestamp(String value) {
+        LocalDateTime time = LocalDateTime.parse(value, TIMESTAMP);
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + time.getNano();
+    }
+}
@@ -0,0 +1,53 @@
+package home.anuradha.benchmarks;
+
+import java.nio.ByteBuffer;
+
+import home.anuradha.DataDictionary;
+import home.anuradha.FIXMessage;
+import home.anuradha.FIXMessageFixtures;
+import home.anuradha.FIXMessageParser;
+import home.anuradha.FIXMessageView;
+import home.anuradha.WireFormat;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Parses the same messages in each {@link WireFormat}, eagerly and with the flyweight view. The size of each message
+ * in bytes is printed at setup, to compare the formats per byte as well as per message.
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class WireFormatBenchmark {
+
+    @Param
+    public BenchmarkMessages message;
+
+    @Param
+    public WireFormat wireFormat;
+
+    private FIXMessageParser parser;
+    private final FIXMessageView view = new FIXMessageView();
+    private ByteBuffer msgBB;
+
+    @Setup
+    public void setup() {
+        parser = new FIXMessageParser(DataDictionary.DEFAULT, wireFormat);
+        msgBB = wireFormat == WireFormat.ASCII
+                ? FIXMessageFixtures.constructAsciiInput(message.getMessage())
+                : FIXMessageFixtures.constructInput(message.getMessage());
+        System.out.println(message + " " + wireFormat + ": " + msgBB.remaining() + " bytes/message");
+    }
+
+    @Benchmark
+    public FIXMessage parse() throws Exception {
+        msgBB.rewind();
+        return parser.parse(msgBB);
+    }
+
+    @Benchmark
+    public FIXMessageView parseFlyweight() throws Exception {
+        msgBB.rewind();
+        return parser.parse(msgBB, view);
+    }
+}
@@ -0,0 +1,255 @@
+package home.anuradha;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import home.anuradha.FIXMessage.FIXMessageException;
+
+/**
+ * Parses many messages at once on a {@link ForkJoinPool}.
+ * {@link FIXMessageParser} keeps per-message state, so it can't be shared between threads. Instead, the messages are
+ * split into batches, and each batch is parsed on one worker thread by that thread's own parser, which it keeps from
+ * one batch to the next.
+ * <p>
+ * The main path is {@link #parse(ByteBuffer, Sink)}: one buffer of messages back to back, split at the trailer tag with
+ * {@link MessageFraming} into an array of offsets a window of messages at a time, with each message passed to a
+ * {@link Sink} as it is parsed. Memory use is bounded by the window, whatever the number of messages. Messages can also
+ * be given as a list of framed buffers, and {@link #parse(List)} and {@link #parse(ByteBuffer)} return every message in
+ * order, which suits batches that fit in memory.
+ * The given buffers are not modified: messages are parsed from duplicates.
+ */
+public class BatchFIXMessageParser {
+
+    /**
+     * Receives parsed messages and errors with the index of the message they came from. Called concurrently from the
+     * worker threads, so implementations must be thread safe.
+     */
+    public interface Sink {
+        void onMessage(int index, FIXMessage fixMessage);
+
+        void onError(int index, Exception e);
+    }
+
+    public static final int DEFAULT_BATCH_SIZE = 256;
+    public static final int DEFAULT_WINDOW_SIZE = 64 * 1024;
+
+    private final ForkJoinPool pool;
+    private final int batchSize;
+    private final int windowSize;
+    private final int trailerTag;
+    // One parser per worker thread of the pool.
+    private final ThreadLocal<FIXMessageParser> parsers;
+
+    public BatchFIXMessageParser(ForkJoinPool pool) {
+        this(pool, DataDictionary.DEFAULT, DEFAULT_BATCH_SIZE);
+    }
+
+    public BatchFIXMessageParser(ForkJoinPool pool, DataDictionary dictionary, int batchSize) {
+        this(pool, batchSize, DEFAULT_WINDOW_SIZE, StreamingFIXMessageParser.CHECKSUM_TAG,
+                () -> new FIXMessageParser(dictionary));
+    }
+
+    /**
+     * windowSize is the most messages framed ahead of the parsers by {@link #parse(ByteBuffer, Sink)}. trailerTag is the
+     * tag that ends every message of a buffer, usually {@link StreamingFIXMessageParser#CHECKSUM_TAG}. parserFactory is
+     * called once per worker thread that parses.
+     */
+    public BatchFIXMessageParser(ForkJoinPool pool, int batchSize, int windowSize, int trailerTag,
+                                 Supplier<FIXMessageParser> parserFactory) {
+        if (batchSize <= 0 || windowSize <= 0) {
+            throw new IllegalArgumentException("Batch size and window size must be positive.");
+        }
+        this.pool = pool;
+        this.batchSize = batchSize;
+        this.windowSize = windowSize;
+        this.trailerTag = trailerTag;
+        this.parsers = ThreadLocal.withInitial(parserFactory);
+    }
+
+    /**
+     * Finds the messages of a buffer of messages back to back, from its position. Returns the offsets of their
+     * boundaries: message i is from offsets[i] to offsets[i + 1], and there are offsets.length - 1 messages. An
+     * incomplete message at the end of the buffer is left out.
+     */
+    public static int[] frame(ByteBuffer messages, int trailerTag) throws FIXMessageException {
+        int[] offsets = new int[64];
+        offsets[0] = messages.position();
+        int count = 0;
+        int end;
+        while ((end = MessageFraming.findMessageEnd(messages, offsets[count], messages.limit(), trailerTag)) >= 0) {
+            if (++count == offsets.length) {
+                offsets = Arrays.copyOf(offsets, count * 2);
+            }
+            offsets[count] = end;
+        }
+        return Arrays.copyOf(offsets, count + 1);
+    }
+
+    /**
+     * Finds up to offsets.length - 1 messages from start, into offsets as {@link #frame(ByteBuffer, int)} does, and
+     * returns how many were found. A malformed message ends the messages found; it is thrown by the next call, which
+     * starts at it.
+     */
+    public static int frame(ByteBuffer messages, int start, int trailerTag, int[] offsets) throws FIXMessageException {
+        offsets[0] = start;
+        int count = 0;
+        try {
+            int end;
+            while (count < offsets.length - 1
+                    && (end = MessageFraming.findMessageEnd(messages, offsets[count], messages.limit(), trailerTag)) >= 0) {
+                offsets[++count] = end;
+            }
+        } catch (FIXMessageException e) {
+            if (count == 0) {
+                throw e;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Parses a buffer of messages back to back, each ending with the trailer tag, passing each message to the sink as
+     * soon as it is parsed. Returns the number of messages once all of them have been passed to the sink. An incomplete
+     * message at the end of the buffer is left out.
+     * The calling thread frames the next window of messages while the pool parses the current one. If a message is
+     * malformed so that the messages after it can't be found, throws BAD_FORMAT once the messages before it have been
+     * passed to the sink.
+     */
+    public int parse(ByteBuffer messages, Sink sink) throws FIXMessageException {
+        int[][] windows = {new int[windowSize + 1], new int[windowSize + 1]};
+        int start = messages.position();
+        int index = 0;
+        ForkJoinTask<Void> parsing = null;
+        for (int w = 0; ; w ^= 1) {
+            int count;
+            try {
+                count = frame(messages, start, trailerTag, windows[w]);
+            } finally {
+                if (parsing != null) {
+                    parsing.join();
+                }
+            }
+            if (count == 0) {
+                return index;
+            }
+            // Parses from windows[w] while the other window is framed.
+            parsing = pool.submit(new ParseTask(messages, windows[w], index, null, sink, 0, count));
+            index += count;
+            start = windows[w][count];
+        }
+    }
+
+    /**
+     * Parses a buffer of messages back to back, each ending with the trailer tag, and returns them in order. See
+     * {@link #parse(List)}.
+     */
+    public List<FIXMessage> parse(ByteBuffer messages) throws FIXMessageException, Group.GroupException, RepeatingGroup.RepeatingGroupException {
+        int[] offsets = frame(messages, trailerTag);
+        return collect(offsets.length - 1, sink -> pool.invoke(new ParseTask(messages, offsets, 0, null, sink, 0, offsets.length - 1)));
+    }
+
+    /**
+     * Parses every message and returns them in the same order. If any message is invalid, throws the exception of the
+     * first invalid message, after all messages have been parsed. Every message is held until the end, so use a
+     * {@link Sink} for large inputs.
+     */
+    public List<FIXMessage> parse(List<ByteBuffer> messages) throws FIXMessageException, Group.GroupException, RepeatingGroup.RepeatingGroupException {
+        return collect(messages.size(), sink -> parse(messages, sink));
+    }
+
+    /**
+     * Parses every message, passing each to the sink as soon as it is parsed. Returns when all messages have been
+     * passed to the sink.
+     */
+    public void parse(List<ByteBuffer> messages, Sink sink) {
+        pool.invoke(new ParseTask(null, null, 0, messages, sink, 0, messages.size()));
+    }
+
+    private static List<FIXMessage> collect(int count, Consumer<Sink> parse)
+            throws FIXMessageException, Group.GroupException, RepeatingGroup.RepeatingGroupException {
+        FIXMessage[] results = new FIXMessage[count];
+        Exception[] errors = new Exception[count];
+        parse.accept(new Sink() {
+            @Override
+            public void onMessage(int index, FIXMessage fixMessage) {
+                results[index] = fixMessage;
+            }
+
+            @Override
+            public void onError(int index, Exception e) {
+                errors[index] = e;
+            }
+        });
+
+        for (Exception e : errors) {
+            if (e instanceof FIXMessageException) {
+                throw (FIXMessageException) e;
+            } else if (e instanceof Group.GroupException) {
+                throw (Group.GroupException) e;
+            } else if (e instanceof RepeatingGroup.RepeatingGroupException) {
+                throw (RepeatingGroup.RepeatingGroupException) e;
+            } else if (e != null) {
+                throw (RuntimeException) e;
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Parses messages from to to, either the framed buffers of a list or the messages of one buffer at the given
+     * offsets, whose first message has index base.
+     */
+    private class ParseTask extends RecursiveAction {
+        private final ByteBuffer buffer;
+        private final int[] offsets;
+        private final int base;
+        private final List<ByteBuffer> framed;
+        private final Sink sink;
+        private final int from;
+        private final int to;
+
+        ParseTask(ByteBuffer buffer, int[] offsets, int base, List<ByteBuffer> framed, Sink sink, int from, int to) {
+            this.buffer = buffer;
+            this.offsets = offsets;
+            this.base = base;
+            this.framed = framed;
+            this.sink = sink;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > batchSize) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new ParseTask(buffer, offsets, base, framed, sink, from, middle),
+                        new ParseTask(buffer, offsets, base, framed, sink, middle, to));
+                return;
+            }
+
+            FIXMessageParser parser = parsers.get();
+            ByteBuffer msgBB = buffer != null ? buffer.duplicate() : null;
+            for (int i = from; i < to; i++) {
+                FIXMessage fixMessage;
+                try {
+                    if (msgBB != null) {
+                        msgBB.limit(offsets[i + 1]).position(offsets[i]);
+                        fixMessage = parser.parse(msgBB);
+                    } else {
+                        fixMessage = parser.parse(framed.get(i).duplicate());
+                    }
+                } catch (FIXMessageException | Group.GroupException | RepeatingGroup.RepeatingGroupException | RuntimeException e) {
+                    sink.onError(base + i, e);
+                    continue;
+                }
+                sink.onMessage(base + i, fixMessage);
+            }
+        }
+    }
+}
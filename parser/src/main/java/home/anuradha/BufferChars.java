@@ -0,0 +1,48 @@
+package home.anuradha;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Reusable {@link CharSequence} over the chars of a value in a buffer, in either {@link WireFormat}.
+ */
+final class BufferChars implements CharSequence {
+    ByteBuffer buffer;
+    WireFormat wireFormat = WireFormat.CHARS;
+    int offset;
+    int length;
+
+    BufferChars set(ByteBuffer buffer, WireFormat wireFormat, int offset, int length) {
+        this.buffer = buffer;
+        this.wireFormat = wireFormat;
+        this.offset = offset;
+        this.length = length;
+        return this;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return wireFormat.charAt(buffer, offset, index);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return toString().substring(start, end);
+    }
+
+    @Override
+    public String toString() {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = wireFormat.charAt(buffer, offset, i);
+        }
+        return new String(chars);
+    }
+}
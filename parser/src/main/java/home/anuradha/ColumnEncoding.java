@@ -0,0 +1,148 @@
+package home.anuradha;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Encodings of the columns of a {@link ColumnarArchiveWriter} archive, shared with the {@link ColumnarArchive} reader.
+ * <p>
+ * A column chunk starts with its presence: a byte that is 1 if every row has the tag, or else 0 followed by a bitmap of
+ * the rows that have it. The values of those rows follow, in one of the encodings below. Lengths, counts and codes are
+ * unsigned varints, 7 bits per byte with the high bit set on all but the last byte. Signed numbers are zigzag encoded
+ * first, so that small negative numbers are small too.
+ */
+final class ColumnEncoding {
+
+    static final long MAGIC = 0x4649584152430001L; // "FIXARC", version 1.
+
+    /** Integers written in canonical form, as zigzag deltas from the previous value. */
+    static final byte LONG = 1;
+    /** Decimals with the same number of decimal places: the exponent, then the mantissas as zigzag deltas. */
+    static final byte DECIMAL = 2;
+    /** Strings repeated often enough: the distinct strings, then a code per value. */
+    static final byte DICTIONARY = 3;
+    /** Any other strings: the length and UTF-8 bytes of each value. */
+    static final byte PLAIN = 4;
+
+    private ColumnEncoding() {
+    }
+
+    /**
+     * Growable byte array that values are encoded into before being written.
+     */
+    static final class Sink {
+        private byte[] bytes = new byte[4096];
+        private int size;
+
+        int size() {
+            return size;
+        }
+
+        void clear() {
+            size = 0;
+        }
+
+        ByteBuffer asByteBuffer() {
+            return ByteBuffer.wrap(bytes, 0, size);
+        }
+
+        void put(byte b) {
+            ensure(1);
+            bytes[size++] = b;
+        }
+
+        void put(byte[] b) {
+            ensure(b.length);
+            System.arraycopy(b, 0, bytes, size, b.length);
+            size += b.length;
+        }
+
+        void putVarLong(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[size++] = (byte) value;
+        }
+
+        void putZigZag(long value) {
+            putVarLong((value << 1) ^ (value >> 63));
+        }
+
+        void putString(String value) {
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            putVarLong(utf8.length);
+            put(utf8);
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(size + extra, bytes.length * 2));
+            }
+        }
+    }
+
+    /**
+     * Reads encoded values with absolute gets, keeping its own position so that the buffer can be shared.
+     */
+    static final class Source {
+        private ByteBuffer buffer;
+        private int position;
+
+        Source reset(ByteBuffer buffer, int position) {
+            this.buffer = buffer;
+            this.position = position;
+            return this;
+        }
+
+        byte get() {
+            return buffer.get(position++);
+        }
+
+        long getVarLong() {
+            long result = 0;
+            for (int shift = 0; ; shift += 7) {
+                byte b = buffer.get(position++);
+                result |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return result;
+                }
+            }
+        }
+
+        int getVarInt() {
+            return (int) getVarLong();
+        }
+
+        long getZigZag() {
+            long value = getVarLong();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        String getString() {
+            int length = getVarInt();
+            byte[] utf8 = new byte[length];
+            buffer.get(position, utf8);
+            position += length;
+            return new String(utf8, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Returns true if the value is an integer written the way {@link Long#toString(long)} writes it, so that it can be
+     * stored as a number and read back as the same string.
+     */
+    static boolean isCanonicalLong(String value) {
+        int length = value.length();
+        if (length == 0 || length > 20 || value.charAt(0) == '+') {
+            return false;
+        }
+        int digits = value.charAt(0) == '-' ? 1 : 0;
+        if (length == digits || (value.charAt(digits) == '0' && (length > digits + 1 || digits == 1))) {
+            return false; // "-", a leading zero or "-0".
+        }
+        return TypedValues.parseLong(value) != TypedValues.NULL_LONG;
+    }
+}
@@ -0,0 +1,605 @@
+package home.anuradha;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import home.anuradha.FIXMessage.FIXMessageException;
+
+/**
+ * Read-only, memory-mapped view of an archive written by {@link ColumnarArchiveWriter}.
+ * <p>
+ * Queries such as "every 44 where 55=IBM" are answered with {@link #select(int[], int, int, String, ValueVisitor)},
+ * which decodes only the two columns involved, block by block, from the mapped file. A block whose dictionary doesn't
+ * contain the value of the condition is skipped without decoding the selected column. Whole messages can be read back
+ * with {@link #readMessage(long)}, which decodes every column of a block and keeps it until a message of another block
+ * is read.
+ * <p>
+ * Each block is mapped separately, so the file can be larger than 2 GB as long as each block is smaller. Not thread
+ * safe: use one instance per thread.
+ */
+public class ColumnarArchive implements Closeable {
+
+    public static class ColumnarArchiveException extends IOException {
+        public static String BAD_FILE = "Not a columnar archive, or incomplete.";
+
+        public ColumnarArchiveException(String msg) {
+            super(msg);
+        }
+    }
+
+    public interface ValueVisitor {
+        /**
+         * Called for every row that has the selected tag and matches the condition. The column is only valid during
+         * the call.
+         */
+        void visit(long messageIndex, Column column, int row);
+    }
+
+    /**
+     * Decoded values of one column of one block. Reused from block to block.
+     */
+    public static final class Column {
+        private int tag;
+        private int rowCount;
+        private boolean allPresent;
+        private byte[] presence = new byte[8];
+        private byte encoding;
+        private int exponent;
+        private long[] numbers = new long[64];
+        private int[] codes = new int[64];
+        private String[] strings = new String[64];
+        private String[] dictionary;
+        private int dictionarySize;
+        private final Decimal scratch = new Decimal();
+
+        public int getTag() {
+            return tag;
+        }
+
+        public int getRowCount() {
+            return rowCount;
+        }
+
+        public boolean isPresent(int row) {
+            return allPresent || (presence[row >>> 3] & (1 << (row & 7))) != 0;
+        }
+
+        /**
+         * Returns the value of a row as a long, or {@link TypedValues#NULL_LONG} if it is missing or isn't an integer.
+         */
+        public long getLong(int row) {
+            if (!isPresent(row)) {
+                return TypedValues.NULL_LONG;
+            }
+            if (encoding == ColumnEncoding.LONG) {
+                return numbers[row];
+            }
+            return encoding == ColumnEncoding.DECIMAL ? TypedValues.NULL_LONG : TypedValues.parseLong(getString(row));
+        }
+
+        /**
+         * Reads the value of a row into the holder. Returns false if it is missing or isn't a decimal.
+         */
+        public boolean getDecimal(int row, Decimal decimal) {
+            if (!isPresent(row)) {
+                return false;
+            }
+            if (encoding == ColumnEncoding.LONG || encoding == ColumnEncoding.DECIMAL) {
+                decimal.set(numbers[row], encoding == ColumnEncoding.LONG ? 0 : exponent);
+                return true;
+            }
+            return TypedValues.parseDecimal(getString(row), decimal);
+        }
+
+        /**
+         * Returns the value of a row as it was written, or null if the row doesn't have the tag. Numbers are formatted
+         * on every call. Dictionary and other strings are shared.
+         */
+        public String getString(int row) {
+            if (!isPresent(row)) {
+                return null;
+            }
+            switch (encoding) {
+                case ColumnEncoding.LONG:
+                    return Long.toString(numbers[row]);
+                case ColumnEncoding.DECIMAL:
+                    scratch.set(numbers[row], exponent);
+                    return scratch.toString();
+                case ColumnEncoding.DICTIONARY:
+                    return dictionary[codes[row]];
+                default:
+                    return strings[row];
+            }
+        }
+
+        /**
+         * Returns true if the value of a row is the given string. key is {@link #keyOf(String)} of the value.
+         */
+        boolean matches(int row, long key, String value) {
+            if (!isPresent(row)) {
+                return false;
+            }
+            switch (encoding) {
+                case ColumnEncoding.DICTIONARY:
+                    return codes[row] == key;
+                case ColumnEncoding.LONG:
+                case ColumnEncoding.DECIMAL:
+                    return numbers[row] == key;
+                default:
+                    return value.equals(strings[row]);
+            }
+        }
+
+        /**
+         * Converts a value once per column into what {@link #matches(int, long, String)} compares the rows with: its code
+         * in the dictionary, or the number or mantissa it is stored as. Returns {@link TypedValues#NULL_LONG} if no row
+         * of the column can have the value, e.g. a value written differently from the way the column stores it.
+         */
+        long keyOf(String value) {
+            switch (encoding) {
+                case ColumnEncoding.DICTIONARY:
+                    for (int i = 0; i < dictionarySize; i++) {
+                        if (dictionary[i].equals(value)) {
+                            return i;
+                        }
+                    }
+                    return TypedValues.NULL_LONG;
+                case ColumnEncoding.LONG:
+                    return ColumnEncoding.isCanonicalLong(value) ? TypedValues.parseLong(value) : TypedValues.NULL_LONG;
+                case ColumnEncoding.DECIMAL:
+                    // Stored decimals read back as written, so only a value with the column's exponent written the same
+                    // way can match.
+                    return TypedValues.parseDecimal(value, scratch) && scratch.getExponent() == exponent
+                            && scratch.toString().equals(value) ? scratch.getMantissa() : TypedValues.NULL_LONG;
+                default:
+                    return 0;
+            }
+        }
+
+        void decode(int tag, int rowCount, byte encoding, ColumnEncoding.Source in) {
+            this.tag = tag;
+            this.rowCount = rowCount;
+            this.encoding = encoding;
+            allPresent = in.get() == 1;
+            if (!allPresent) {
+                int bytes = (rowCount + 7) >>> 3;
+                if (presence.length < bytes) {
+                    presence = new byte[bytes * 2];
+                }
+                for (int i = 0; i < bytes; i++) {
+                    presence[i] = in.get();
+                }
+            }
+            if (numbers.length < rowCount) {
+                int capacity = Math.max(rowCount, numbers.length * 2);
+                numbers = new long[capacity];
+                codes = new int[capacity];
+                strings = new String[capacity];
+            }
+            if (encoding == ColumnEncoding.DECIMAL) {
+                exponent = (int) in.getZigZag();
+            }
+            if (encoding == ColumnEncoding.DICTIONARY) {
+                dictionarySize = in.getVarInt();
+                if (dictionary == null || dictionary.length < dictionarySize) {
+                    dictionary = new String[Math.max(dictionarySize, 16)];
+                }
+                for (int i = 0; i < dictionarySize; i++) {
+                    dictionary[i] = in.getString();
+                }
+            } else {
+                dictionarySize = 0;
+            }
+            long previous = 0;
+            for (int row = 0; row < rowCount; row++) {
+                if (!isPresent(row)) {
+                    continue;
+                }
+                switch (encoding) {
+                    case ColumnEncoding.LONG:
+                    case ColumnEncoding.DECIMAL:
+                        previous += in.getZigZag();
+                        numbers[row] = previous;
+                        break;
+                    case ColumnEncoding.DICTIONARY:
+                        codes[row] = in.getVarInt();
+                        break;
+                    default:
+                        strings[row] = in.getString();
+                }
+            }
+        }
+    }
+
+    private static final int[] MESSAGES = new int[0];
+
+    private final FileChannel channel;
+    private final DataDictionary dictionary;
+    private final Block[] blocks;
+    private final long messageCount;
+
+    private final ColumnEncoding.Source source = new ColumnEncoding.Source();
+    private final Column selected = new Column();
+    private final Column condition = new Column();
+    private final Column counts = new Column();
+    private int[] messageRows = new int[64];
+    private int[] parentRows = new int[64];
+
+    // Every table of the block last read by readMessage: its columns, the first child row of each row for the
+    // indicator tag columns, its layouts and the layout code of each row.
+    private int decodedBlock = -1;
+    private Column[][] decodedColumns;
+    private int[][][] decodedChildRows;
+    private int[][][] decodedLayouts;
+    private int[][] decodedLayoutCodes;
+
+    private ColumnarArchive(Path file, DataDictionary dictionary) throws IOException {
+        this.dictionary = dictionary;
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            if (size < 24) {
+                throw new ColumnarArchiveException(ColumnarArchiveException.BAD_FILE);
+            }
+            ByteBuffer trailer = channel.map(FileChannel.MapMode.READ_ONLY, size - 16, 16);
+            long footerOffset = trailer.getLong(0);
+            if (trailer.getLong(8) != ColumnEncoding.MAGIC || footerOffset < 8 || footerOffset > size - 16) {
+                throw new ColumnarArchiveException(ColumnarArchiveException.BAD_FILE);
+            }
+            ByteBuffer footer = channel.map(FileChannel.MapMode.READ_ONLY, footerOffset, size - 16 - footerOffset);
+            ColumnEncoding.Source in = new ColumnEncoding.Source().reset(footer, 0);
+            blocks = new Block[in.getVarInt()];
+            long first = 0;
+            for (int i = 0; i < blocks.length; i++) {
+                blocks[i] = new Block(first, in);
+                first += blocks[i].messageCount;
+            }
+            messageCount = first;
+            for (Block block : blocks) {
+                block.map(channel);
+            }
+        } catch (IndexOutOfBoundsException e) {
+            // The footer ends before all its entries are read.
+            channel.close();
+            throw new ColumnarArchiveException(ColumnarArchiveException.BAD_FILE);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public static ColumnarArchive open(Path file) throws IOException {
+        return open(file, DataDictionary.DEFAULT);
+    }
+
+    /**
+     * Opens an archive. The dictionary is only used to rebuild the repeating groups of messages read back.
+     */
+    public static ColumnarArchive open(Path file, DataDictionary dictionary) throws IOException {
+        return new ColumnarArchive(file, dictionary);
+    }
+
+    public long getMessageCount() {
+        return messageCount;
+    }
+
+    public int getBlockCount() {
+        return blocks.length;
+    }
+
+    /**
+     * Same as {@link #select(int[], int, int, String, ValueVisitor)} for a tag of the messages.
+     */
+    public long select(int tag, int whereTag, String whereValue, ValueVisitor visitor) {
+        return select(MESSAGES, tag, whereTag, whereValue, visitor);
+    }
+
+    /**
+     * Visits the values of a tag in every message, or in every group of a repeating group of the messages, whose message
+     * has whereValue for whereTag. The repeating group is given by the path of indicator tags leading to it, e.g.
+     * {269} for the groups of 269, or an empty path for the tags of the messages themselves. whereTag is always a tag of
+     * the messages themselves, also when selecting from a repeating group, so a group is visited if its message matches.
+     * A null whereValue selects every message. Returns the number of values visited.
+     */
+    public long select(int[] groupPath, int tag, int whereTag, String whereValue, ValueVisitor visitor) {
+        long visited = 0;
+        for (Block block : blocks) {
+            long key = 0;
+            if (whereValue != null) {
+                ColumnChunk where = block.find(MESSAGES, whereTag);
+                if (where == null) {
+                    continue;
+                }
+                where.decode(condition, source);
+                if ((key = condition.keyOf(whereValue)) == TypedValues.NULL_LONG) {
+                    continue; // No message of the block has the value.
+                }
+            }
+            ColumnChunk chunk = block.find(groupPath, tag);
+            if (chunk == null || !mapToMessages(block, groupPath)) {
+                continue;
+            }
+            chunk.decode(selected, source);
+            for (int row = 0; row < selected.rowCount; row++) {
+                int message = groupPath.length == 0 ? row : messageRows[row];
+                if (selected.isPresent(row) && (whereValue == null || condition.matches(message, key, whereValue))) {
+                    visitor.visit(block.firstMessage + message, selected, row);
+                    visited++;
+                }
+            }
+        }
+        return visited;
+    }
+
+    /**
+     * Fills messageRows with the message of each row of the table at the path, following the indicator tag columns
+     * down from the messages. Returns false if the block has no such table.
+     */
+    private boolean mapToMessages(Block block, int[] groupPath) {
+        if (groupPath.length == 0) {
+            return true;
+        }
+        int rows = block.messageCount;
+        if (messageRows.length < rows) {
+            messageRows = new int[Math.max(rows, messageRows.length * 2)];
+        }
+        for (int row = 0; row < rows; row++) {
+            messageRows[row] = row;
+        }
+        for (int depth = 0; depth < groupPath.length; depth++) {
+            ColumnChunk indicator = block.find(Arrays.copyOf(groupPath, depth), groupPath[depth]);
+            if (indicator == null) {
+                return false;
+            }
+            indicator.decode(counts, source);
+            int[] swap = parentRows;
+            parentRows = messageRows;
+            messageRows = swap;
+            int children = 0;
+            for (int row = 0; row < rows; row++) {
+                long n = counts.isPresent(row) ? counts.getLong(row) : 0;
+                if (messageRows.length < children + n) {
+                    messageRows = Arrays.copyOf(messageRows, Math.max(children + (int) n, messageRows.length * 2));
+                }
+                for (int i = 0; i < n; i++) {
+                    messageRows[children++] = parentRows[row];
+                }
+            }
+            rows = children;
+        }
+        return true;
+    }
+
+    /**
+     * Rebuilds a message from the archive.
+     */
+    public FIXMessage readMessage(long index) throws FIXMessageException, Group.GroupException, RepeatingGroup.RepeatingGroupException {
+        if (index < 0 || index >= messageCount) {
+            throw new IndexOutOfBoundsException("Message " + index + " of " + messageCount);
+        }
+        int b = 0;
+        while (index >= blocks[b].firstMessage + blocks[b].messageCount) {
+            b++;
+        }
+        Block block = blocks[b];
+        decodeBlock(b);
+
+        FIXMessage fixMessage = new FIXMessage(dictionary);
+        int row = (int) (index - block.firstMessage);
+        for (int tag : decodedLayouts[0][decodedLayoutCodes[0][row]]) {
+            int c = columnOf(0, tag);
+            Column column = decodedColumns[0][c];
+            int[] childRows = decodedChildRows[0][c];
+            if (childRows != null) {
+                RepeatingGroup repeatingGroup = fixMessage.createRepeatingGroup(tag, (int) column.getLong(row));
+                addGroups(block, block.tables[0].childTable(block, tag), childRows[row], repeatingGroup);
+            } else {
+                fixMessage.putNonRepeatingGroupTag(tag, column.getString(row));
+            }
+        }
+        return fixMessage;
+    }
+
+    private void addGroups(Block block, Table table, int firstRow, RepeatingGroup repeatingGroup) throws FIXMessageException, Group.GroupException, RepeatingGroup.RepeatingGroupException {
+        int t = table.index;
+        for (int row = firstRow; row < firstRow + repeatingGroup.getNumberOfGroups(); row++) {
+            Group group = new Group(repeatingGroup.getSchema());
+            for (int tag : decodedLayouts[t][decodedLayoutCodes[t][row]]) {
+                int c = columnOf(t, tag);
+                Column column = decodedColumns[t][c];
+                int[] childRows = decodedChildRows[t][c];
+                if (childRows != null) {
+                    RepeatingGroup nested = group.createRepeatingGroup(tag, (int) column.getLong(row));
+                    addGroups(block, table.childTable(block, tag), childRows[row], nested);
+                } else {
+                    group.put(tag, column.getString(row));
+                }
+            }
+            repeatingGroup.addGroup(group);
+        }
+    }
+
+    private int columnOf(int table, int tag) {
+        Column[] columns = decodedColumns[table];
+        for (int c = 0; c < columns.length; c++) {
+            if (columns[c].tag == tag) {
+                return c;
+            }
+        }
+        throw new IllegalStateException("No column for tag " + tag);
+    }
+
+    private void decodeBlock(int b) {
+        if (decodedBlock == b) {
+            return;
+        }
+        Block block = blocks[b];
+        int tables = block.tables.length;
+        decodedColumns = new Column[tables][];
+        decodedChildRows = new int[tables][][];
+        decodedLayouts = new int[tables][][];
+        decodedLayoutCodes = new int[tables][];
+        for (int t = 0; t < tables; t++) {
+            Table table = block.tables[t];
+            decodedColumns[t] = new Column[table.columns.length];
+            decodedChildRows[t] = new int[table.columns.length][];
+            for (int c = 0; c < table.columns.length; c++) {
+                Column column = new Column();
+                table.columns[c].decode(column, source);
+                decodedColumns[t][c] = column;
+                if (table.childTable(block, column.tag) != null) {
+                    // The groups of a row follow those of the rows before it.
+                    int[] childRows = new int[table.rowCount];
+                    int next = 0;
+                    for (int row = 0; row < table.rowCount; row++) {
+                        childRows[row] = next;
+                        next += column.isPresent(row) ? (int) column.getLong(row) : 0;
+                    }
+                    decodedChildRows[t][c] = childRows;
+                }
+            }
+            ColumnEncoding.Source in = source.reset(table.layouts.buffer, 0);
+            int[][] layouts = new int[in.getVarInt()][];
+            for (int i = 0; i < layouts.length; i++) {
+                layouts[i] = new int[in.getVarInt()];
+                for (int j = 0; j < layouts[i].length; j++) {
+                    layouts[i][j] = in.getVarInt();
+                }
+            }
+            int[] codes = new int[table.rowCount];
+            for (int row = 0; row < codes.length; row++) {
+                codes[row] = in.getVarInt();
+            }
+            decodedLayouts[t] = layouts;
+            decodedLayoutCodes[t] = codes;
+        }
+        decodedBlock = b;
+    }
+
+    @Override
+    public void close() throws IOException {
+        // The mappings stay valid until they are garbage collected. Closing the channel releases the file handle.
+        channel.close();
+    }
+
+    /**
+     * Location of an encoded column or layout chunk, sliced from its block's mapping once the block is mapped.
+     */
+    private static final class ColumnChunk {
+        final int tag;
+        final int rowCount;
+        final byte encoding;
+        final long offset;
+        final int length;
+        ByteBuffer buffer;
+
+        ColumnChunk(int tag, int rowCount, byte encoding, ColumnEncoding.Source in) {
+            this.tag = tag;
+            this.rowCount = rowCount;
+            this.encoding = encoding;
+            this.offset = in.getVarLong();
+            this.length = in.getVarInt();
+        }
+
+        void decode(Column column, ColumnEncoding.Source source) {
+            column.decode(tag, rowCount, encoding, source.reset(buffer, 0));
+        }
+    }
+
+    private static final class Table {
+        final int index;
+        final int[] path;
+        final int rowCount;
+        final ColumnChunk layouts;
+        final ColumnChunk[] columns;
+
+        Table(int index, ColumnEncoding.Source in) {
+            this.index = index;
+            path = new int[in.getVarInt()];
+            for (int i = 0; i < path.length; i++) {
+                path[i] = in.getVarInt();
+            }
+            rowCount = in.getVarInt();
+            layouts = new ColumnChunk(0, rowCount, (byte) 0, in);
+            columns = new ColumnChunk[in.getVarInt()];
+            for (int i = 0; i < columns.length; i++) {
+                int tag = in.getVarInt();
+                columns[i] = new ColumnChunk(tag, rowCount, in.get(), in);
+            }
+        }
+
+        /**
+         * Returns the table of the groups of an indicator tag of this table, or null if the tag isn't one.
+         */
+        Table childTable(Block block, int tag) {
+            for (Table table : block.tables) {
+                if (table.path.length == path.length + 1 && table.path[path.length] == tag
+                        && Arrays.equals(table.path, 0, path.length, path, 0, path.length)) {
+                    return table;
+                }
+            }
+            return null;
+        }
+    }
+
+    private static final class Block {
+        final long firstMessage;
+        final int messageCount;
+        final Table[] tables;
+
+        Block(long firstMessage, ColumnEncoding.Source in) {
+            this.firstMessage = firstMessage;
+            messageCount = in.getVarInt();
+            tables = new Table[in.getVarInt()];
+            for (int i = 0; i < tables.length; i++) {
+                tables[i] = new Table(i, in);
+            }
+        }
+
+        /**
+         * Maps the block, from its first chunk to the end of its last, and slices every chunk from the mapping.
+         */
+        void map(FileChannel channel) throws IOException {
+            long start = Long.MAX_VALUE;
+            long end = 0;
+            for (Table table : tables) {
+                start = Math.min(start, table.layouts.offset);
+                end = Math.max(end, table.layouts.offset + table.layouts.length);
+                for (ColumnChunk column : table.columns) {
+                    start = Math.min(start, column.offset);
+                    end = Math.max(end, column.offset + column.length);
+                }
+            }
+            if (end - start > Integer.MAX_VALUE) {
+                throw new ColumnarArchiveException(ColumnarArchiveException.BAD_FILE);
+            }
+            MappedByteBuffer mapping = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+            for (Table table : tables) {
+                table.layouts.buffer = mapping.slice((int) (table.layouts.offset - start), table.layouts.length);
+                for (ColumnChunk column : table.columns) {
+                    column.buffer = mapping.slice((int) (column.offset - start), column.length);
+                }
+            }
+        }
+
+        ColumnChunk find(int[] path, int tag) {
+            for (Table table : tables) {
+                if (Arrays.equals(table.path, path)) {
+                    for (ColumnChunk column : table.columns) {
+                        if (column.tag == tag) {
+                            return column;
+                        }
+                    }
+                    return null;
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,361 @@
+package home.anuradha;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes parsed messages to a columnar archive, to be read with {@link ColumnarArchive}.
+ * <p>
+ * Messages are buffered into blocks of blockSize messages. Within a block, the messages are a table with a column per
+ * tag, and each repeating group is a table of its own with a row per group, nested the same way as the groups. A row
+ * of a group table belongs to the row of its parent table that holds the indicator tag, and the indicator tag's column
+ * holds the number of groups. The order of the tags of each row is kept, as a code into a dictionary of layouts, so
+ * that messages can be read back exactly as they were.
+ * <p>
+ * Each column is encoded on its own with the most compact of the {@link ColumnEncoding}s that can hold all its values:
+ * integers and decimals as deltas, and strings through a dictionary if they repeat. The footer at the end of the file
+ * gives the offset of every column of every block, so that a query only reads the columns it needs.
+ * Not thread safe.
+ */
+public class ColumnarArchiveWriter implements Closeable {
+
+    public static final int DEFAULT_BLOCK_SIZE = 64 * 1024;
+
+    private final FileChannel channel;
+    private final int blockSize;
+    private final ColumnEncoding.Sink sink = new ColumnEncoding.Sink();
+    private final ColumnEncoding.Sink footer = new ColumnEncoding.Sink();
+    private final Decimal decimal = new Decimal();
+
+    private TableBuilder messages = new TableBuilder(new int[0]);
+    private int blockCount;
+    private long position;
+
+    public ColumnarArchiveWriter(Path file) throws IOException {
+        this(file, DEFAULT_BLOCK_SIZE);
+    }
+
+    public ColumnarArchiveWriter(Path file, int blockSize) throws IOException {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("blockSize must be positive.");
+        }
+        this.blockSize = blockSize;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        write(ByteBuffer.allocate(8).putLong(0, ColumnEncoding.MAGIC));
+    }
+
+    /**
+     * Adds a message to the current block, writing the block out once it is full. The message isn't kept.
+     */
+    public void write(FIXMessage fixMessage) throws IOException {
+        TagMap<RepeatingGroup> groups = fixMessage.getRepeatingGroups();
+        int[] positions = new int[groups.size()];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = fixMessage.getRepeatingGroupPosition(i);
+        }
+        messages.addRow(fixMessage.getAllNonRepeatingTagsAndValues(), groups, positions);
+        if (messages.rowCount == blockSize) {
+            flush();
+        }
+    }
+
+    /**
+     * Writes the messages added since the last block as a block of their own.
+     */
+    public void flush() throws IOException {
+        if (messages.rowCount == 0) {
+            return;
+        }
+        List<TableBuilder> tables = new ArrayList<>();
+        messages.collect(tables);
+        footer.putVarLong(messages.rowCount);
+        footer.putVarLong(tables.size());
+        for (TableBuilder table : tables) {
+            footer.putVarLong(table.path.length);
+            for (int tag : table.path) {
+                footer.putVarLong(tag);
+            }
+            footer.putVarLong(table.rowCount);
+            writeChunk(table.encodeLayouts(sink));
+            footer.putVarLong(table.columns.size());
+            for (int i = 0; i < table.columns.size(); i++) {
+                ColumnBuilder column = table.columns.valueAt(i);
+                footer.putVarLong(column.tag);
+                footer.put(column.encode(sink, table.rowCount, decimal));
+                writeChunk(sink);
+            }
+        }
+        blockCount++;
+        messages = new TableBuilder(new int[0]);
+    }
+
+    /**
+     * Writes the last block and the footer, and closes the file.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+            ColumnEncoding.Sink trailer = new ColumnEncoding.Sink();
+            trailer.putVarLong(blockCount);
+            long footerOffset = position;
+            write(trailer.asByteBuffer());
+            write(footer.asByteBuffer());
+            write(ByteBuffer.allocate(16).putLong(0, footerOffset).putLong(8, ColumnEncoding.MAGIC));
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void writeChunk(ColumnEncoding.Sink chunk) throws IOException {
+        footer.putVarLong(position);
+        footer.putVarLong(chunk.size());
+        write(chunk.asByteBuffer());
+        chunk.clear();
+    }
+
+    private void write(ByteBuffer bb) throws IOException {
+        while (bb.hasRemaining()) {
+            position += channel.write(bb);
+        }
+    }
+
+    /**
+     * Rows of a table, i.e. the messages of a block or the groups of one repeating group in a block.
+     */
+    private static final class TableBuilder {
+        final int[] path;
+        int rowCount;
+        final TagMap<ColumnBuilder> columns = new TagMap<>();
+        final TagMap<TableBuilder> children = new TagMap<>(2);
+
+        // Dictionary of the orders of tags, and the code of each row's order.
+        final Map<Layout, Integer> layoutCodes = new HashMap<>();
+        final List<int[]> layouts = new ArrayList<>();
+        int[] rowLayouts = new int[64];
+        final Layout probe = new Layout(new int[16], 0);
+
+        TableBuilder(int[] path) {
+            this.path = path;
+        }
+
+        void addRow(TagMap<String> values, TagMap<RepeatingGroup> groups, int[] positions) {
+            int row = rowCount++;
+            int layoutLength = values.size() + (groups != null ? groups.size() : 0);
+            if (probe.tags.length < layoutLength) {
+                probe.tags = new int[layoutLength * 2];
+            }
+            probe.length = 0;
+            int group = 0;
+            for (int i = 0; i <= values.size(); i++) {
+                while (groups != null && group < groups.size() && positions[group] == i) {
+                    RepeatingGroup repeatingGroup = groups.valueAt(group++);
+                    int indicatorTag = repeatingGroup.getIndicatorTag();
+                    probe.tags[probe.length++] = indicatorTag;
+                    column(indicatorTag).set(row, String.valueOf(repeatingGroup.getGroups().size()));
+                    TableBuilder child = children.get(indicatorTag);
+                    if (child == null) {
+                        int[] childPath = Arrays.copyOf(path, path.length + 1);
+                        childPath[path.length] = indicatorTag;
+                        child = new TableBuilder(childPath);
+                        children.put(indicatorTag, child);
+                    }
+                    for (Group g : repeatingGroup.getGroups()) {
+                        int nested = g.getRepeatingGroupCount();
+                        int[] nestedPositions = new int[nested];
+                        for (int j = 0; j < nested; j++) {
+                            nestedPositions[j] = g.getRepeatingGroupPosition(j);
+                        }
+                        child.addRow(g.getAllTagsAndValues(), nested > 0 ? g.getRepeatingGroups() : null, nestedPositions);
+                    }
+                }
+                if (i < values.size()) {
+                    probe.tags[probe.length++] = values.keyAt(i);
+                    column(values.keyAt(i)).set(row, values.valueAt(i));
+                }
+            }
+
+            Integer code = layoutCodes.get(probe);
+            if (code == null) {
+                code = layouts.size();
+                int[] tags = Arrays.copyOf(probe.tags, probe.length);
+                layouts.add(tags);
+                layoutCodes.put(new Layout(tags, tags.length), code);
+            }
+            if (row == rowLayouts.length) {
+                rowLayouts = Arrays.copyOf(rowLayouts, row * 2);
+            }
+            rowLayouts[row] = code;
+        }
+
+        ColumnBuilder column(int tag) {
+            ColumnBuilder column = columns.get(tag);
+            if (column == null) {
+                column = new ColumnBuilder(tag);
+                columns.put(tag, column);
+            }
+            return column;
+        }
+
+        /**
+         * Adds this table and the tables nested in it, parents first.
+         */
+        void collect(List<TableBuilder> tables) {
+            tables.add(this);
+            for (int i = 0; i < children.size(); i++) {
+                children.valueAt(i).collect(tables);
+            }
+        }
+
+        ColumnEncoding.Sink encodeLayouts(ColumnEncoding.Sink sink) {
+            sink.putVarLong(layouts.size());
+            for (int[] tags : layouts) {
+                sink.putVarLong(tags.length);
+                for (int tag : tags) {
+                    sink.putVarLong(tag);
+                }
+            }
+            for (int row = 0; row < rowCount; row++) {
+                sink.putVarLong(rowLayouts[row]);
+            }
+            return sink;
+        }
+    }
+
+    /**
+     * Order of the tags of a row. Mutable, so that a lookup doesn't allocate.
+     */
+    private static final class Layout {
+        int[] tags;
+        int length;
+
+        Layout(int[] tags, int length) {
+            this.tags = tags;
+            this.length = length;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Layout && Arrays.equals(tags, 0, length, ((Layout) o).tags, 0, ((Layout) o).length);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = 1;
+            for (int i = 0; i < length; i++) {
+                result = 31 * result + tags[i];
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Values of a tag, by row. Null for a row that doesn't have the tag.
+     */
+    private static final class ColumnBuilder {
+        final int tag;
+        String[] values = new String[64];
+
+        ColumnBuilder(int tag) {
+            this.tag = tag;
+        }
+
+        void set(int row, String value) {
+            if (row >= values.length) {
+                values = Arrays.copyOf(values, Math.max(row + 1, values.length * 2));
+            }
+            values[row] = value;
+        }
+
+        /**
+         * Encodes the column into the sink and returns its encoding.
+         */
+        byte encode(ColumnEncoding.Sink sink, int rowCount, Decimal decimal) {
+            int count = 0;
+            boolean longs = true;
+            boolean decimals = true;
+            int exponent = 0;
+            Map<String, Integer> codes = new HashMap<>();
+            for (int row = 0; row < rowCount && row < values.length; row++) {
+                String value = values[row];
+                if (value == null) {
+                    continue;
+                }
+                longs = longs && ColumnEncoding.isCanonicalLong(value);
+                if (decimals && !longs) {
+                    decimals = TypedValues.parseDecimal(value, decimal) && (count == 0 || decimal.getExponent() == exponent)
+                            && decimal.toString().equals(value);
+                    exponent = decimal.getExponent();
+                }
+                codes.putIfAbsent(value, codes.size());
+                count++;
+            }
+            byte encoding = longs ? ColumnEncoding.LONG : decimals ? ColumnEncoding.DECIMAL
+                    : codes.size() * 2 <= count ? ColumnEncoding.DICTIONARY : ColumnEncoding.PLAIN;
+
+            if (count == rowCount) {
+                sink.put((byte) 1);
+            } else {
+                sink.put((byte) 0);
+                for (int start = 0; start < rowCount; start += 8) {
+                    int bits = 0;
+                    for (int row = start; row < start + 8 && row < rowCount; row++) {
+                        if (row < values.length && values[row] != null) {
+                            bits |= 1 << (row - start);
+                        }
+                    }
+                    sink.put((byte) bits);
+                }
+            }
+
+            if (encoding == ColumnEncoding.DECIMAL) {
+                sink.putZigZag(exponent);
+            }
+            if (encoding == ColumnEncoding.DICTIONARY) {
+                String[] dictionary = new String[codes.size()];
+                codes.forEach((value, code) -> dictionary[code] = value);
+                sink.putVarLong(dictionary.length);
+                for (String value : dictionary) {
+                    sink.putString(value);
+                }
+            }
+            long previous = 0;
+            for (int row = 0; row < rowCount && row < values.length; row++) {
+                String value = values[row];
+                if (value == null) {
+                    continue;
+                }
+                switch (encoding) {
+                    case ColumnEncoding.LONG:
+                    case ColumnEncoding.DECIMAL:
+                        long number;
+                        if (encoding == ColumnEncoding.LONG) {
+                            number = TypedValues.parseLong(value);
+                        } else {
+                            TypedValues.parseDecimal(value, decimal);
+                            number = decimal.getMantissa();
+                        }
+                        sink.putZigZag(number - previous);
+                        previous = number;
+                        break;
+                    case ColumnEncoding.DICTIONARY:
+                        sink.putVarLong(codes.get(value));
+                        break;
+                    default:
+                        sink.putString(value);
+                }
+            }
+            return encoding;
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package home.anuradha;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * Defines the repeating groups that can appear in a message. Loaded from an XML spec such as:
+ * <pre>
+ * &lt;dictionary&gt;
+ *     &lt;group tag="269" name="NoMDEntries"&gt;
+ *         &lt;field tag="277"/&gt;
+ *         &lt;field tag="456" required="true"/&gt;
+ *         &lt;group tag="1023" name="NoNested"&gt;
+ *             ...
+ *         &lt;/group&gt;
+ *     &lt;/group&gt;
+ * &lt;/dictionary&gt;
+ * </pre>
+ * The first field of a group is the tag that starts every group. Groups may be nested.
+ * The spec is compiled once into {@link TagSet}s and arrays indexed by tag, so that every lookup made while parsing
+ * takes constant time and doesn't box the tag. Large tags are looked up in {@link TagMap}s instead, so that the arrays
+ * stay small.
+ */
+public final class DataDictionary {
+
+    public static class DataDictionaryException extends Exception {
+        public static String BAD_SPEC = "Invalid data dictionary spec.";
+        public static String BAD_TAG = "Invalid tag in data dictionary.";
+        public static String EMPTY_GROUP = "Group must have at least one field.";
+        public static String FIRST_TAG_NOT_FIELD = "First tag of a group must be a field.";
+        public static String DUPLICATE_TAG = "Tag defined twice in the same group or dictionary.";
+        public static String RESOURCE_NOT_FOUND = "Data dictionary resource not found.";
+
+        public DataDictionaryException(String msg) {
+            super(msg);
+        }
+
+        public DataDictionaryException(String msg, Exception e) {
+            super(msg, e);
+        }
+    }
+
+    /**
+     * The default dictionary, containing the 123 and 269 repeating groups.
+     */
+    public static final DataDictionary DEFAULT = loadDefault();
+
+    private final TagSet indicatorTags;
+    private final GroupSchema[] groupSchemas; // Indexed by indicator tag, for tags below TagSet.DENSE_TAG_LIMIT.
+    private final TagMap<GroupSchema> sparseGroupSchemas; // The others.
+    private final List<GroupSchema> groups;
+
+    DataDictionary(List<GroupSchema> groups) {
+        this.groups = List.copyOf(groups);
+        int[] tags = groups.stream().mapToInt(GroupSchema::getIndicatorTag).toArray();
+        this.indicatorTags = new TagSet(tags);
+        int maxTag = -1;
+        for (int tag : tags) {
+            if (tag < TagSet.DENSE_TAG_LIMIT) {
+                maxTag = Math.max(maxTag, tag);
+            }
+        }
+        this.groupSchemas = new GroupSchema[maxTag + 1];
+        this.sparseGroupSchemas = new TagMap<>(1);
+        for (GroupSchema group : groups) {
+            int tag = group.getIndicatorTag();
+            if (tag < TagSet.DENSE_TAG_LIMIT) {
+                groupSchemas[tag] = group;
+            } else {
+                sparseGroupSchemas.put(tag, group);
+            }
+        }
+    }
+
+    public static DataDictionary load(Path spec) throws DataDictionaryException, IOException {
+        try (InputStream in = Files.newInputStream(spec)) {
+            return load(in);
+        }
+    }
+
+    public static DataDictionary load(InputStream spec) throws DataDictionaryException, IOException {
+        Document document;
+        try {
+            document = newDocumentBuilder().parse(spec);
+        } catch (SAXException | ParserConfigurationException e) {
+            throw new DataDictionaryException(DataDictionaryException.BAD_SPEC, e);
+        }
+        Element root = document.getDocumentElement();
+        if (!"dictionary".equals(root.getTagName())) {
+            throw new DataDictionaryException(DataDictionaryException.BAD_SPEC);
+        }
+        return new DataDictionary(compileGroups(root));
+    }
+
+    /**
+     * Returns true if the tag is a top level indicator tag.
+     */
+    public boolean isRepeatingGroupIndicatorTag(int tag) {
+        return indicatorTags.contains(tag);
+    }
+
+    /**
+     * Returns the schema of a top level repeating group, or null if the tag isn't an indicator tag.
+     */
+    public GroupSchema getGroupSchema(int indicatorTag) {
+        if (!indicatorTags.contains(indicatorTag)) {
+            return null;
+        }
+        return indicatorTag < groupSchemas.length ? groupSchemas[indicatorTag] : sparseGroupSchemas.get(indicatorTag);
+    }
+
+    public List<GroupSchema> getGroupSchemas() {
+        return groups;
+    }
+
+    private static List<GroupSchema> compileGroups(Element parent) throws DataDictionaryException {
+        List<GroupSchema> groups = new ArrayList<>();
+        TagMap<Boolean> seen = new TagMap<>();
+        for (Node node = parent.getFirstChild(); node != null; node = node.getNextSibling()) {
+            if (node instanceof Element && "group".equals(((Element) node).getTagName())) {
+                GroupSchema group = compileGroup((Element) node);
+                if (seen.put(group.getIndicatorTag(), Boolean.TRUE) != null) {
+                    throw new DataDictionaryException(DataDictionaryException.DUPLICATE_TAG);
+                }
+                groups.add(group);
+            }
+        }
+        return groups;
+    }
+
+    private static GroupSchema compileGroup(Element element) throws DataDictionaryException {
+        int indicatorTag = parseTag(element);
+        TagMap<Boolean> tags = new TagMap<>();
+        List<Integer> requiredTags = new ArrayList<>();
+        List<GroupSchema> childGroups = new ArrayList<>();
+        for (Node node = element.getFirstChild(); node != null; node = node.getNextSibling()) {
+            if (!(node instanceof Element)) {
+                continue;
+            }
+            Element child = (Element) node;
+            int tag;
+            if ("field".equals(child.getTagName())) {
+                tag = parseTag(child);
+                if (Boolean.parseBoolean(child.getAttribute("required"))) {
+                    requiredTags.add(tag);
+                }
+            } else if ("group".equals(child.getTagName())) {
+                if (tags.size() == 0) {
+                    throw new DataDictionaryException(DataDictionaryException.FIRST_TAG_NOT_FIELD);
+                }
+                GroupSchema childGroup = compileGroup(child);
+                tag = childGroup.getIndicatorTag();
+                childGroups.add(childGroup);
+            } else {
+                throw new DataDictionaryException(DataDictionaryException.BAD_SPEC);
+            }
+            if (tags.put(tag, Boolean.TRUE) != null) {
+                throw new DataDictionaryException(DataDictionaryException.DUPLICATE_TAG);
+            }
+        }
+        if (tags.size() == 0) {
+            throw new DataDictionaryException(DataDictionaryException.EMPTY_GROUP);
+        }
+
+        int[] tagArray = new int[tags.size()];
+        for (int i = 0; i < tagArray.length; i++) {
+            tagArray[i] = tags.keyAt(i);
+        }
+        int[] requiredTagArray = requiredTags.stream().mapToInt(Integer::intValue).toArray();
+        String name = element.hasAttribute("name") ? element.getAttribute("name") : null;
+        return new GroupSchema(indicatorTag, name, tagArray, requiredTagArray, childGroups);
+    }
+
+    private static int parseTag(Element element) throws DataDictionaryException {
+        try {
+            int tag = Integer.parseInt(element.getAttribute("tag"));
+            if (tag <= 0) {
+                throw new DataDictionaryException(DataDictionaryException.BAD_TAG);
+            }
+            return tag;
+        } catch (NumberFormatException e) {
+            throw new DataDictionaryException(DataDictionaryException.BAD_TAG, e);
+        }
+    }
+
+    private static DocumentBuilder newDocumentBuilder() throws ParserConfigurationException {
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        // The spec is plain XML. Don't resolve DTDs or external entities.
+        factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+        factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+        factory.setExpandEntityReferences(false);
+        DocumentBuilder builder = factory.newDocumentBuilder();
+        builder.setErrorHandler(new DefaultHandler()); // Report fatal errors as exceptions only, without printing them.
+        return builder;
+    }
+
+    /**
+     * Loads a spec from a resource next to this class.
+     */
+    static DataDictionary loadResource(String name) throws DataDictionaryException, IOException {
+        try (InputStream in = DataDictionary.class.getResourceAsStream(name)) {
+            if (in == null) {
+                throw new DataDictionaryException(DataDictionaryException.RESOURCE_NOT_FOUND + " " + name);
+            }
+            return load(in);
+        }
+    }
+
+    private static DataDictionary loadDefault() {
+        try {
+            return loadResource("default-dictionary.xml");
+        } catch (DataDictionaryException | IOException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package home.anuradha;
+
+import java.math.BigDecimal;
+
+/**
+ * Reusable holder of a decimal value as a long mantissa and a base 10 exponent, e.g. "143.50" is 14350 and -2. Filled by
+ * the getDecimal accessors of {@link FIXMessage} and {@link Group}, so that prices can be read exactly and without
+ * allocating.
+ */
+public final class Decimal {
+
+    private static final double[] POWERS_OF_TEN = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12,
+            1e13, 1e14, 1e15, 1e16, 1e17, 1e18};
+
+    private long mantissa;
+    private int exponent;
+
+    public long getMantissa() {
+        return mantissa;
+    }
+
+    public int getExponent() {
+        return exponent;
+    }
+
+    void set(long mantissa, int exponent) {
+        this.mantissa = mantissa;
+        this.exponent = exponent;
+    }
+
+    /**
+     * Returns the mantissa scaled to the given number of decimal places, e.g. 143.5 scaled to 4 places is 1435000.
+     * Digits past the scale are truncated. Returns {@link TypedValues#NULL_LONG} if the result doesn't fit in a long.
+     */
+    public long scaledTo(int scale) {
+        long result = mantissa;
+        for (int e = -exponent; e > scale; e--) {
+            result /= 10;
+        }
+        for (int e = -exponent; e < scale; e++) {
+            if (result > Long.MAX_VALUE / 10 || result < -Long.MAX_VALUE / 10) {
+                return TypedValues.NULL_LONG;
+            }
+            result *= 10;
+        }
+        return result;
+    }
+
+    public double toDouble() {
+        return -exponent < POWERS_OF_TEN.length ? mantissa / POWERS_OF_TEN[-exponent] : mantissa * Math.pow(10, exponent);
+    }
+
+    @Override
+    public String toString() {
+        return BigDecimal.valueOf(mantissa, -exponent).toPlainString();
+    }
+}
@@ -0,0 +1,56 @@
+package home.anuradha;
+
+import java.util.Arrays;
+
+/**
+ * Fields of a message found by a {@link DelimiterScanner}: for each field in order, its tag, the offset of the field, and
+ * the offset and length (in chars) of its value, which ends at a delimiter. Built by {@link FIXMessageParser} in one
+ * pass over the message before the fields are decoded and validated. Reused across messages, so it only allocates when
+ * a message has more fields than any message before it.
+ */
+final class DelimiterIndex {
+
+    private int size;
+    private int[] tags = new int[64];
+    private int[] fieldOffsets = new int[64];
+    private int[] valueOffsets = new int[64];
+    private int[] valueLengths = new int[64];
+
+    void clear() {
+        size = 0;
+    }
+
+    void add(int tag, int fieldOffset, int valueOffset, int valueLength) {
+        if (size == tags.length) {
+            tags = Arrays.copyOf(tags, size * 2);
+            fieldOffsets = Arrays.copyOf(fieldOffsets, size * 2);
+            valueOffsets = Arrays.copyOf(valueOffsets, size * 2);
+            valueLengths = Arrays.copyOf(valueLengths, size * 2);
+        }
+        tags[size] = tag;
+        fieldOffsets[size] = fieldOffset;
+        valueOffsets[size] = valueOffset;
+        valueLengths[size] = valueLength;
+        size++;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int getTag(int field) {
+        return tags[field];
+    }
+
+    int getFieldOffset(int field) {
+        return fieldOffsets[field];
+    }
+
+    int getValueOffset(int field) {
+        return valueOffsets[field];
+    }
+
+    int getValueLength(int field) {
+        return valueLengths[field];
+    }
+}
@@ -0,0 +1,33 @@
+package home.anuradha;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Finds the delimiter that ends a value: '|' in {@link WireFormat#CHARS} or SOH in {@link WireFormat#ASCII}. Used by
+ * {@link FIXMessageParser} to index the fields of a message, see {@link FIXMessageParser#setDelimiterScanner}.
+ * <p>
+ * {@link #SCALAR} compares one char at a time. {@link #SWAR} compares 8 bytes at a time in a long, four chars or eight
+ * ASCII bytes, and is the default. {@link #vector()} compares a whole SIMD register at a time with the Vector API, which
+ * is still an incubator module: it is only available when the JVM is started with
+ * {@code --add-modules jdk.incubator.vector}, and only pays off for long values.
+ */
+public interface DelimiterScanner {
+
+    /**
+     * Returns the absolute offset of the first delimiter among the chars from offset from up to offset to, or -1 if
+     * there is none. Chars are counted from from, so in CHARS a '|' that isn't aligned with from is not a delimiter.
+     * Doesn't move the position of the buffer.
+     */
+    int find(ByteBuffer buffer, WireFormat wireFormat, int from, int to);
+
+    DelimiterScanner SCALAR = DelimiterScanners::findScalar;
+
+    DelimiterScanner SWAR = DelimiterScanners::findSwar;
+
+    /**
+     * Returns the Vector API scanner, or null if the jdk.incubator.vector module isn't available.
+     */
+    static DelimiterScanner vector() {
+        return DelimiterScanners.VECTOR;
+    }
+}
@@ -0,0 +1,77 @@
+package home.anuradha;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Implementations of {@link DelimiterScanner}.
+ */
+final class DelimiterScanners {
+
+    // '|' in every 16 bit lane, and SOH in every byte.
+    private static final long PIPES = 0x007C007C007C007CL;
+    private static final long LOW_15_BITS = 0x7FFF7FFF7FFF7FFFL;
+    private static final long SOHS = 0x0101010101010101L;
+    private static final long LOW_7_BITS = 0x7F7F7F7F7F7F7F7FL;
+
+    static final DelimiterScanner VECTOR = loadVector();
+
+    private DelimiterScanners() {
+    }
+
+    static int findScalar(ByteBuffer buffer, WireFormat wireFormat, int from, int to) {
+        if (wireFormat == WireFormat.ASCII) {
+            for (int i = from; i < to; i++) {
+                if (buffer.get(i) == WireFormat.SOH) {
+                    return i;
+                }
+            }
+        } else {
+            for (int i = from; i + 1 < to; i += 2) {
+                if (buffer.getChar(i) == '|') {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Reads 8 bytes at a time as a long in the buffer's byte order, so each lane holds a char, and finds the first lane
+     * equal to the delimiter with a carry-free zero test: a lane is zero exactly when neither adding all ones to its low
+     * bits nor its own top bit sets its top bit. In big endian order the first char is the highest lane.
+     */
+    static int findSwar(ByteBuffer buffer, WireFormat wireFormat, int from, int to) {
+        boolean bigEndian = buffer.order() == ByteOrder.BIG_ENDIAN;
+        int i = from;
+        if (wireFormat == WireFormat.ASCII) {
+            for (; i + 8 <= to; i += 8) {
+                long x = buffer.getLong(i) ^ SOHS;
+                long zeros = ~(((x & LOW_7_BITS) + LOW_7_BITS) | x | LOW_7_BITS);
+                if (zeros != 0) {
+                    return i + ((bigEndian ? Long.numberOfLeadingZeros(zeros) : Long.numberOfTrailingZeros(zeros)) >>> 3);
+                }
+            }
+        } else {
+            for (; i + 8 <= to; i += 8) {
+                long x = buffer.getLong(i) ^ PIPES;
+                long zeros = ~(((x & LOW_15_BITS) + LOW_15_BITS) | x | LOW_15_BITS);
+                if (zeros != 0) {
+                    return i + 2 * ((bigEndian ? Long.numberOfLeadingZeros(zeros) : Long.numberOfTrailingZeros(zeros)) >>> 4);
+                }
+            }
+        }
+        return findScalar(buffer, wireFormat, i, to);
+    }
+
+    private static DelimiterScanner loadVector() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return null;
+        }
+        try {
+            return (DelimiterScanner) Class.forName("home.anuradha.VectorDelimiterScanner").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+}
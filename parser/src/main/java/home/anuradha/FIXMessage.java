@@ -0,0 +1,260 @@
+package home.anuradha;
+
+import java.util.Arrays;
+
+/**
+ * Represents a FIX message.
+ * It contains a {@link TagMap} of all regular (non-group) tags that maintains the order in which the tags
+ * appeared in the message.
+ * Repeating groups are stored in a map of the indicator tag (269 or 123) to a {@link RepeatingGroup} object.
+ * Indicator tags and the tags of their groups are defined by a {@link DataDictionary}.
+ * A message borrowed from a {@link FIXMessagePool} must not be used after it has been released back to the pool.
+ */
+public class FIXMessage {
+
+    public static class FIXMessageException extends Exception {
+        public static String BAD_FORMAT = "Invalid message format.";
+        public static String TAG_ALREADY_EXISTS = "Tag already exists.";
+        public static String NOT_INDICATOR_TAG = "Not an indicator tag.";
+        public static String REPEATING_GROUP_ALREADY_EXISTS = "Repeating group already exists.";
+        public static String NON_POSITIVE_GROUPS = "Cannot create less than one group.";
+
+        public FIXMessageException(String msg) {
+            super(msg);
+        }
+
+        public FIXMessageException(Exception e) {
+            super(e);
+        }
+    }
+
+    private final DataDictionary dictionary;
+
+    private final TagMap<String> nonRepeatingTagsAndValues = new TagMap<>(64);
+
+    private final TagMap<RepeatingGroup> repeatingGroups;
+    // Number of regular tags put before each repeating group, in the order of repeatingGroups. Keeps the position of
+    // the groups among the regular tags, so that the message can be written back in its original order.
+    private int[] repeatingGroupPositions;
+
+    // Pool the message was borrowed from, which its repeating groups are borrowed from too. Null if not pooled.
+    FIXMessagePool pool;
+    boolean released;
+
+
+    public FIXMessage() {
+        this(DataDictionary.DEFAULT);
+    }
+
+    public FIXMessage(DataDictionary dictionary) {
+        this.dictionary = dictionary;
+        this.repeatingGroups = new TagMap<>(dictionary.getGroupSchemas().size());
+        this.repeatingGroupPositions = new int[Math.max(dictionary.getGroupSchemas().size(), 1)];
+    }
+
+    /**
+     * Put a tag that doesn't belong to any repeating group (i.e. group tags and indicator tags). Method caller must
+     * validate the tag.
+     */
+    public void putNonRepeatingGroupTag(int tag, String value) throws FIXMessageException {
+        int error = tryPutNonRepeatingGroupTag(tag, value);
+        if (error != ParseResult.OK) {
+            throw new FIXMessageException(ParseResult.describe(error));
+        }
+    }
+
+    /**
+     * Same as {@link #putNonRepeatingGroupTag(int, String)}, but returns a {@link ParseResult} code instead of throwing.
+     */
+    int tryPutNonRepeatingGroupTag(int tag, String value) {
+        assert !released : FIXMessagePool.RELEASED;
+        if (nonRepeatingTagsAndValues.containsKey(tag)) {
+            // Attempting to put a tag that already exists.
+            return ParseResult.TAG_ALREADY_EXISTS;
+        }
+        nonRepeatingTagsAndValues.put(tag, value);
+        return ParseResult.OK;
+    }
+
+    /**
+     * Creates and returns a {@link RepeatingGroup}.
+     * Called when an indicator tag is first read. Caller can then create and add all groups into the returned object.
+     */
+    public RepeatingGroup createRepeatingGroup(int indicatorTag, int numberOfGroups) throws FIXMessageException {
+        int error = checkRepeatingGroup(indicatorTag, numberOfGroups);
+        if (error != ParseResult.OK) {
+            throw new FIXMessageException(ParseResult.describe(error));
+        }
+        return addRepeatingGroup(indicatorTag, numberOfGroups);
+    }
+
+    /**
+     * Validates a repeating group before {@link #addRepeatingGroup(int, int)}. Returns a {@link ParseResult} code.
+     */
+    int checkRepeatingGroup(int indicatorTag, int numberOfGroups) {
+        assert !released : FIXMessagePool.RELEASED;
+        if (dictionary.getGroupSchema(indicatorTag) == null) {
+            // Attempting to create a repeating group with an invalid indicator tag.
+            return ParseResult.NOT_INDICATOR_TAG;
+        }
+        if (numberOfGroups <= 0) {
+            // Attempting to create less than one group.
+            return ParseResult.NON_POSITIVE_GROUPS;
+        }
+        if(repeatingGroups.containsKey(indicatorTag)) {
+            // Attempting to create repeating group with an indicator tag that has already been seen.
+            return ParseResult.REPEATING_GROUP_ALREADY_EXISTS;
+        }
+        return ParseResult.OK;
+    }
+
+    /**
+     * Creates a repeating group that has passed {@link #checkRepeatingGroup(int, int)}.
+     */
+    RepeatingGroup addRepeatingGroup(int indicatorTag, int numberOfGroups) {
+        GroupSchema schema = dictionary.getGroupSchema(indicatorTag);
+        RepeatingGroup repeatingGroup = pool != null ? pool.borrowRepeatingGroup(schema, numberOfGroups) : new RepeatingGroup(schema, numberOfGroups);
+        if (repeatingGroups.size() == repeatingGroupPositions.length) {
+            repeatingGroupPositions = Arrays.copyOf(repeatingGroupPositions, repeatingGroups.size() * 2);
+        }
+        repeatingGroupPositions[repeatingGroups.size()] = nonRepeatingTagsAndValues.size();
+        repeatingGroups.put(indicatorTag, repeatingGroup);
+        return repeatingGroup;
+    }
+
+    /**
+     * Get the value of any tag that doesn't belong to a group. This includes indicator tags.
+     */
+    public String getNonGroupTagValue(int tag) {
+        assert !released : FIXMessagePool.RELEASED;
+        RepeatingGroup repeatingGroup = repeatingGroups.get(tag);
+        if (repeatingGroup != null) {
+            // Indicator tag. Return numberOfGroups as a String.
+            return String.valueOf(repeatingGroup.getNumberOfGroups());
+        }
+        return nonRepeatingTagsAndValues.get(tag);
+    }
+
+    public String getNonGroupTagValue(Integer tag) {
+        return getNonGroupTagValue(tag.intValue());
+    }
+
+    // Typed accessors. None of these allocate, throw or change the message, so they can be called from several threads at
+    // once: a missing or malformed value returns a sentinel of TypedValues, and hasTag(tag) tells which it was.
+    // Indicator tags can be read with getInt and getLong.
+
+    /**
+     * Returns true if the tag is present, as a tag with a value or as the indicator tag of a repeating group. After a
+     * typed accessor has returned a sentinel, tells a malformed value (present) from a missing one.
+     */
+    public boolean hasTag(int tag) {
+        assert !released : FIXMessagePool.RELEASED;
+        return nonRepeatingTagsAndValues.get(tag) != null || repeatingGroups.get(tag) != null;
+    }
+
+    public int getInt(int tag) {
+        long result = getLong(tag);
+        if (result == TypedValues.NULL_LONG || result < -Integer.MAX_VALUE || result > Integer.MAX_VALUE) {
+            return TypedValues.NULL_INT; // Missing, malformed or out of range.
+        }
+        return (int) result;
+    }
+
+    public long getLong(int tag) {
+        assert !released : FIXMessagePool.RELEASED;
+        RepeatingGroup repeatingGroup = repeatingGroups.get(tag);
+        if (repeatingGroup != null) {
+            return repeatingGroup.getNumberOfGroups();
+        }
+        String value = nonRepeatingTagsAndValues.get(tag);
+        return value != null ? TypedValues.parseLong(value) : TypedValues.NULL_LONG;
+    }
+
+    /**
+     * Reads a decimal value, e.g. a price, into the holder. Returns false, leaving the holder unchanged, if the value is
+     * missing or malformed.
+     */
+    public boolean getDecimal(int tag, Decimal decimal) {
+        assert !released : FIXMessagePool.RELEASED;
+        String value = nonRepeatingTagsAndValues.get(tag);
+        return value != null && TypedValues.parseDecimal(value, decimal);
+    }
+
+    public char getChar(int tag) {
+        assert !released : FIXMessagePool.RELEASED;
+        String value = nonRepeatingTagsAndValues.get(tag);
+        return value != null ? TypedValues.parseChar(value) : TypedValues.NULL_CHAR;
+    }
+
+    /**
+     * Reads a UTCTimestamp as nanoseconds since the epoch. See {@link TypedValues#parseUTCTimestampNanos(CharSequence)}.
+     */
+    public long getUTCTimestampNanos(int tag) {
+        assert !released : FIXMessagePool.RELEASED;
+        String value = nonRepeatingTagsAndValues.get(tag);
+        return value != null ? TypedValues.parseUTCTimestampNanos(value) : TypedValues.NULL_LONG;
+    }
+
+    // Getters
+
+    public DataDictionary getDictionary() {
+        return dictionary;
+    }
+
+    public TagMap<String> getAllNonRepeatingTagsAndValues() {
+        assert !released : FIXMessagePool.RELEASED;
+        return nonRepeatingTagsAndValues;
+    }
+
+    public RepeatingGroup getRepeatingGroup(int indicatorTag) {
+        assert !released : FIXMessagePool.RELEASED;
+        return repeatingGroups.get(indicatorTag);
+    }
+
+    public RepeatingGroup getRepeatingGroup(Integer indicatorTag) {
+        return getRepeatingGroup(indicatorTag.intValue());
+    }
+
+    public TagMap<RepeatingGroup> getRepeatingGroups() {
+        assert !released : FIXMessagePool.RELEASED;
+        return repeatingGroups;
+    }
+
+    /**
+     * Returns the number of regular tags that came before the repeating group at a position of
+     * {@link #getRepeatingGroups()}.
+     */
+    public int getRepeatingGroupPosition(int index) {
+        if (index < 0 || index >= repeatingGroups.size()) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return repeatingGroupPositions[index];
+    }
+
+
+    /**
+     * Clears the message for reuse by a {@link FIXMessagePool}.
+     */
+    void reset() {
+        nonRepeatingTagsAndValues.clear();
+        repeatingGroups.clear();
+    }
+
+    private StringBuffer sb; // Created on the first call to toString().
+    public String toString() {
+        assert !released : FIXMessagePool.RELEASED;
+        if (sb == null) {
+            sb = new StringBuffer();
+        }
+        sb.setLength(0);
+        sb.append("FIXMessage:[");
+        for (int i = 0; i < nonRepeatingTagsAndValues.size(); i++) {
+            sb.append(nonRepeatingTagsAndValues.keyAt(i)).append('=').append(nonRepeatingTagsAndValues.valueAt(i)).append(',');
+        }
+        for (int i = 0; i < repeatingGroups.size(); i++) {
+            sb.append(repeatingGroups.valueAt(i).toString()).append(',');
+        }
+        sb.append(']');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,184 @@
+package home.anuradha;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Writes {@link FIXMessage}s in a {@link WireFormat} read by {@link FIXMessageParser}, {@link WireFormat#CHARS} unless
+ * given: a 4 byte int tag, the '=' char, the value chars and the '|' char for every field, in the byte order of the
+ * buffer. In {@link WireFormat#ASCII}, the tag digits, '=', the value and SOH, one byte per char.
+ * Fields are written in the order they were parsed in. Repeating groups are written at their original position among
+ * the regular tags, with their groups in order and nested repeating groups at their position within each group.
+ * Values are written straight from their Strings, and the number of groups of an indicator tag straight from the int,
+ * so nothing is allocated. {@link #encodedLength(FIXMessage)} gives the exact number of bytes written, to size a buffer.
+ * A value that contains the delimiter of the format, or in ASCII a char above 0xFF, can't be read back and is rejected
+ * with an {@link IllegalArgumentException}.
+ */
+public final class FIXMessageEncoder {
+
+    private FIXMessageEncoder() {
+    }
+
+    /**
+     * Returns the number of bytes that {@link #encode(FIXMessage, ByteBuffer)} writes for the message.
+     */
+    public static int encodedLength(FIXMessage fixMessage) {
+        return encodedLength(fixMessage, WireFormat.CHARS);
+    }
+
+    /**
+     * Returns the number of bytes that {@link #encode(FIXMessage, WireFormat, ByteBuffer)} writes for the message.
+     * Throws {@link IllegalArgumentException} if a value can't be written in the format.
+     */
+    public static int encodedLength(FIXMessage fixMessage, WireFormat wireFormat) {
+        TagMap<String> tags = fixMessage.getAllNonRepeatingTagsAndValues();
+        int length = 0;
+        for (int i = 0; i < tags.size(); i++) {
+            length += fieldLength(tags.keyAt(i), tags.valueAt(i), wireFormat);
+        }
+        TagMap<RepeatingGroup> repeatingGroups = fixMessage.getRepeatingGroups();
+        for (int i = 0; i < repeatingGroups.size(); i++) {
+            length += encodedLength(repeatingGroups.valueAt(i), wireFormat);
+        }
+        return length;
+    }
+
+    /**
+     * Writes the message in {@link WireFormat#CHARS}, see {@link #encode(FIXMessage, WireFormat, ByteBuffer)}.
+     */
+    public static int encode(FIXMessage fixMessage, ByteBuffer out) {
+        return encode(fixMessage, WireFormat.CHARS, out);
+    }
+
+    /**
+     * Writes the message at the position of the buffer, and advances the position past it. Returns the number of bytes
+     * written. The message is measured and checked before anything is written, so if it throws
+     * {@link BufferOverflowException} because the message doesn't fit, or {@link IllegalArgumentException} because a
+     * value can't be written in the format, the buffer is left untouched.
+     */
+    public static int encode(FIXMessage fixMessage, WireFormat wireFormat, ByteBuffer out) {
+        int length = encodedLength(fixMessage, wireFormat);
+        if (length > out.remaining()) {
+            throw new BufferOverflowException();
+        }
+        TagMap<String> tags = fixMessage.getAllNonRepeatingTagsAndValues();
+        TagMap<RepeatingGroup> repeatingGroups = fixMessage.getRepeatingGroups();
+        int nextRepeatingGroup = 0;
+        for (int i = 0; i <= tags.size(); i++) {
+            while (nextRepeatingGroup < repeatingGroups.size() && fixMessage.getRepeatingGroupPosition(nextRepeatingGroup) == i) {
+                encode(repeatingGroups.valueAt(nextRepeatingGroup++), wireFormat, out);
+            }
+            if (i < tags.size()) {
+                putField(tags.keyAt(i), tags.valueAt(i), wireFormat, out);
+            }
+        }
+        return length;
+    }
+
+    private static int encodedLength(RepeatingGroup repeatingGroup, WireFormat wireFormat) {
+        int length = fieldLength(repeatingGroup.getIndicatorTag(), digits(repeatingGroup.getNumberOfGroups()), wireFormat);
+        for (Group group : repeatingGroup.getGroups()) {
+            TagMap<String> tags = group.getAllTagsAndValues();
+            for (int i = 0; i < tags.size(); i++) {
+                length += fieldLength(tags.keyAt(i), tags.valueAt(i), wireFormat);
+            }
+            for (int i = 0; i < group.getRepeatingGroupCount(); i++) {
+                length += encodedLength(group.getRepeatingGroups().valueAt(i), wireFormat);
+            }
+        }
+        return length;
+    }
+
+    private static void encode(RepeatingGroup repeatingGroup, WireFormat wireFormat, ByteBuffer out) {
+        putField(repeatingGroup.getIndicatorTag(), repeatingGroup.getNumberOfGroups(), wireFormat, out);
+        for (Group group : repeatingGroup.getGroups()) {
+            TagMap<String> tags = group.getAllTagsAndValues();
+            int nextRepeatingGroup = 0;
+            for (int i = 0; i <= tags.size(); i++) {
+                while (nextRepeatingGroup < group.getRepeatingGroupCount() && group.getRepeatingGroupPosition(nextRepeatingGroup) == i) {
+                    encode(group.getRepeatingGroups().valueAt(nextRepeatingGroup++), wireFormat, out);
+                }
+                if (i < tags.size()) {
+                    putField(tags.keyAt(i), tags.valueAt(i), wireFormat, out);
+                }
+            }
+        }
+    }
+
+    private static int fieldLength(int tag, String value, WireFormat wireFormat) {
+        char delimiter = delimiter(wireFormat);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == delimiter || (wireFormat == WireFormat.ASCII && c > 0xFF)) {
+                throw new IllegalArgumentException("Value of tag " + tag + " can't be written in " + wireFormat + ".");
+            }
+        }
+        return fieldLength(tag, value.length(), wireFormat);
+    }
+
+    /**
+     * Tag, '=', the value and the delimiter.
+     */
+    private static int fieldLength(int tag, int valueLength, WireFormat wireFormat) {
+        int tagLength = wireFormat == WireFormat.ASCII ? digits(tag) : 4;
+        return tagLength + wireFormat.getCharWidth() * (valueLength + 2);
+    }
+
+    private static void putField(int tag, String value, WireFormat wireFormat, ByteBuffer out) {
+        putTag(tag, wireFormat, out);
+        for (int i = 0; i < value.length(); i++) {
+            putChar(value.charAt(i), wireFormat, out);
+        }
+        putChar(delimiter(wireFormat), wireFormat, out);
+    }
+
+    private static void putField(int tag, int value, WireFormat wireFormat, ByteBuffer out) {
+        putTag(tag, wireFormat, out);
+        putDigits(value, wireFormat, out);
+        putChar(delimiter(wireFormat), wireFormat, out);
+    }
+
+    private static void putTag(int tag, WireFormat wireFormat, ByteBuffer out) {
+        if (wireFormat == WireFormat.ASCII) {
+            putDigits(tag, wireFormat, out);
+        } else {
+            out.putInt(tag);
+        }
+        putChar('=', wireFormat, out);
+    }
+
+    private static void putDigits(int value, WireFormat wireFormat, ByteBuffer out) {
+        if (value < 0) {
+            putChar('-', wireFormat, out);
+        }
+        // Write the digits from the most significant one, without building a String.
+        long remaining = Math.abs((long) value);
+        long divisor = 1;
+        while (divisor * 10 <= remaining) {
+            divisor *= 10;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            putChar((char) ('0' + remaining / divisor % 10), wireFormat, out);
+        }
+    }
+
+    private static void putChar(char c, WireFormat wireFormat, ByteBuffer out) {
+        if (wireFormat == WireFormat.ASCII) {
+            out.put((byte) c);
+        } else {
+            out.putChar(c);
+        }
+    }
+
+    private static char delimiter(WireFormat wireFormat) {
+        return wireFormat == WireFormat.ASCII ? (char) WireFormat.SOH : '|';
+    }
+
+    private static int digits(int value) {
+        int digits = value < 0 ? 2 : 1;
+        for (long remaining = Math.abs((long) value); remaining >= 10; remaining /= 10) {
+            digits++;
+        }
+        return digits;
+    }
+}
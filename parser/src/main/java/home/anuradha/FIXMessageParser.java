@@ -0,0 +1,698 @@
+package home.anuradha;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import home.anuradha.FIXMessage.FIXMessageException;
+
+/**
+ * Parser to convert {@link ByteBuffer}s into {@link FIXMessage}s. Throws exceptions if input does not conform to the
+ * expected format.
+ * Repeating groups are recognised using a {@link DataDictionary}, which defaults to {@link DataDictionary#DEFAULT}.
+ * Each parser reads one {@link WireFormat}, which defaults to {@link WireFormat#CHARS}.
+ * If the parser is given a {@link FIXMessagePool}, parsed messages and their groups are borrowed from the pool, and
+ * should be released to it once they have been used.
+ * Metrics are recorded if the parser is given {@link ParserMetrics}.
+ *
+ */
+public class FIXMessageParser {
+    private final DataDictionary dictionary;
+    private final WireFormat wireFormat;
+    private final FIXMessagePool pool; // Null if messages aren't pooled.
+    // Variables to hold the tag and value that are currently being parsed.
+    private int tag;
+    private String value;
+    // Position of the current value in the buffer, used by the flyweight parse instead of value.
+    private int valueOffset;
+    private int valueLength;
+    // Message currently being parsed by parse(ByteBuffer).
+    private FIXMessage fixMessage;
+    private ParserMetrics.Recorder metrics; // Null if metrics aren't recorded.
+    // Outcome of the last parse, and the offset of the field being read, for error reports.
+    private int errorCode;
+    private int errorTag;
+    private int errorOffset;
+    private int fieldOffset;
+    private DelimiterScanner scanner = DelimiterScanner.SWAR;
+    // Fields of the message being parsed, found before they are decoded.
+    private final DelimiterIndex fields = new DelimiterIndex();
+
+    public FIXMessageParser() {
+        this(DataDictionary.DEFAULT);
+    }
+
+    public FIXMessageParser(DataDictionary dictionary) {
+        this(dictionary, WireFormat.CHARS);
+    }
+
+    public FIXMessageParser(DataDictionary dictionary, WireFormat wireFormat) {
+        this.dictionary = dictionary;
+        this.wireFormat = wireFormat;
+        this.pool = null;
+    }
+
+    /**
+     * Parser that borrows messages from the pool. Uses the pool's dictionary.
+     */
+    public FIXMessageParser(FIXMessagePool pool, WireFormat wireFormat) {
+        this.dictionary = pool.getDictionary();
+        this.wireFormat = wireFormat;
+        this.pool = pool;
+    }
+
+    public WireFormat getWireFormat() {
+        return wireFormat;
+    }
+
+    /**
+     * Records the metrics of this parser's parse methods in the given metrics, or stops recording them if null. The
+     * counts recorded so far stay in the metrics the parser recorded into before.
+     */
+    public void setMetrics(ParserMetrics metrics) {
+        if (this.metrics != null) {
+            this.metrics.getOwner().retire(this.metrics);
+        }
+        this.metrics = metrics != null ? metrics.newRecorder() : null;
+    }
+
+    /**
+     * Sets the scanner used to find the end of each value. Defaults to {@link DelimiterScanner#SWAR}.
+     */
+    public void setDelimiterScanner(DelimiterScanner scanner) {
+        this.scanner = scanner;
+    }
+
+    /**
+     * Parses the ByteBuffer. Does not flip the buffer.
+     * The fields are found first, by scanning for the delimiters many bytes at a time (see {@link DelimiterScanner}) into
+     * a {@link DelimiterIndex}, and are then decoded and validated from the index.
+     * Repeating groups may be nested to any depth. Open groups are tracked on an explicit stack of {@link Frame}s rather
+     * than by recursion. Every tag read is offered to the innermost open repeating group first. A tag that doesn't belong
+     * to it closes its current group and the repeating group itself (validating both), and is offered to the enclosing
+     * group, up to the top level of the message.
+     * Throws the exception for the error that {@link #parse(ByteBuffer, ParseResult)} would report.
+     */
+    public FIXMessage parse(ByteBuffer msgBB) throws FIXMessageException, Group.GroupException, RepeatingGroup.RepeatingGroupException {
+        FIXMessage result = parseMessage(msgBB);
+        if (result == null) {
+            ParseResult.throwIfError(errorCode);
+        }
+        return result;
+    }
+
+    /**
+     * Same as {@link #parse(ByteBuffer)}, but reports an invalid message in the result instead of throwing. Returns the
+     * message, or null if it is invalid. Nothing is thrown, so a burst of invalid messages costs no more than valid
+     * ones.
+     */
+    public FIXMessage parse(ByteBuffer msgBB, ParseResult result) {
+        FIXMessage fixMessage = parseMessage(msgBB);
+        result.set(errorCode, errorTag, errorOffset);
+        return fixMessage;
+    }
+
+    /**
+     * Parses the ByteBuffer if it matches the filter, or returns null. Reads the message only as far as needed to
+     * decide: the fields are scanned without decoding their values, and the contents of repeating groups are skipped by
+     * their schemas. Only the values of top level tags in the filter are read, including indicator tags, whose raw
+     * value is tested. A rejected message is not validated, and the position of the buffer is left after the last field
+     * read.
+     * A matching message is parsed from the fields already scanned, without reading them again, and then from the rest
+     * of the buffer, exactly as by {@link #parse(ByteBuffer)}.
+     */
+    public FIXMessage parse(ByteBuffer msgBB, MessageFilter filter) throws FIXMessageException, Group.GroupException, RepeatingGroup.RepeatingGroupException {
+        long start = metrics != null ? System.nanoTime() : 0;
+        int bytes = msgBB.remaining();
+        long pending = filter.getConditionCount() == 64 ? -1L : (1L << filter.getConditionCount()) - 1; // Bit per condition.
+        fields.clear();
+        int skipDepth = 0;
+        while (pending != 0) {
+            if (msgBB.remaining() == 0) {
+                return filtered(); // Some filter tags are missing.
+            }
+            int error = readField(msgBB);
+            if (error != ParseResult.OK) {
+                failed(error);
+                ParseResult.throwIfError(error);
+            }
+            fields.add(tag, fieldOffset, valueOffset, valueLength);
+
+            // Skip the tag if it belongs to an open repeating group, as in processTagAndValue().
+            while (skipDepth > 0 && !skipStack[skipDepth - 1].contains(tag)) {
+                skipDepth--;
+            }
+            if (skipDepth == 0) {
+                int condition = filter.indexOf(tag);
+                if (condition >= 0) {
+                    if (!filter.test(condition, valueChars.set(msgBB, wireFormat, valueOffset, valueLength))) {
+                        return filtered();
+                    }
+                    pending &= ~(1L << condition);
+                }
+            }
+            GroupSchema schema = skipDepth > 0 ? skipStack[skipDepth - 1].getChildGroup(tag) : dictionary.getGroupSchema(tag);
+            if (schema != null) {
+                if (skipDepth == skipStack.length) {
+                    skipStack = Arrays.copyOf(skipStack, skipDepth * 2);
+                }
+                skipStack[skipDepth++] = schema;
+            }
+        }
+
+        // The fields scanned so far stay in the index, and the rest are added to it.
+        startMessage();
+        int error = parseFields(msgBB, null);
+        FIXMessage result = endParse(error, bytes, start);
+        if (result == null) {
+            ParseResult.throwIfError(error);
+        }
+        return result;
+    }
+
+    /**
+     * Starts a new message, to be filled by {@link #processTagAndValue(int, String)}. Used with {@link #endMessage()}
+     * to parse a message whose tags arrive separately, see {@link StreamingFIXMessageParser}.
+     */
+    void startMessage() {
+        fixMessage = pool != null ? pool.borrowMessage() : new FIXMessage(dictionary);
+        depth = 0;
+    }
+
+    /**
+     * Drops the message being parsed after an error, returning it to the pool if there is one. The groups still being
+     * read haven't been added to their repeating groups yet, so they are returned separately.
+     */
+    void discardMessage() {
+        for (int i = 0; i < depth; i++) {
+            Frame frame = stack[i];
+            if (pool != null && frame.group != null) {
+                pool.release(frame.group);
+            }
+            frame.group = null;
+        }
+        depth = 0;
+        if (pool != null && fixMessage != null) {
+            pool.release(fixMessage);
+        }
+        fixMessage = null;
+    }
+
+    void processTagAndValue(int tag, String value) throws FIXMessageException, Group.GroupException, RepeatingGroup.RepeatingGroupException {
+        this.tag = tag;
+        this.value = value;
+        ParseResult.throwIfError(processTagAndValue());
+    }
+
+    /**
+     * Closes the repeating groups that are still open and returns the message.
+     */
+    FIXMessage endMessage() throws FIXMessageException, Group.GroupException, RepeatingGroup.RepeatingGroupException {
+        ParseResult.throwIfError(closeFrames());
+        FIXMessage result = fixMessage;
+        fixMessage = null;
+        return result;
+    }
+
+    private FIXMessage parseMessage(ByteBuffer msgBB) {
+        long start = metrics != null ? System.nanoTime() : 0;
+        int bytes = msgBB.remaining();
+        fields.clear();
+        startMessage();
+        return endParse(parseFields(msgBB, null), bytes, start);
+    }
+
+    /**
+     * Adds the rest of the buffer to the index of fields, then processes every field in the index, into the view if
+     * there is one or else into the message, and closes the repeating groups that are still open. A malformed field
+     * ends the index, and is reported if the fields before it are valid. Returns a {@link ParseResult} code.
+     */
+    private int parseFields(ByteBuffer msgBB, FIXMessageView view) {
+        int readError = ParseResult.OK;
+        while (msgBB.remaining() > 0) {
+            readError = readField(msgBB);
+            if (readError != ParseResult.OK) {
+                break;
+            }
+            fields.add(tag, fieldOffset, valueOffset, valueLength);
+        }
+        int readErrorTag = errorTag;
+        int readErrorOffset = fieldOffset;
+
+        for (int i = 0; i < fields.size(); i++) {
+            tag = fields.getTag(i);
+            fieldOffset = fields.getFieldOffset(i);
+            valueOffset = fields.getValueOffset(i);
+            valueLength = fields.getValueLength(i);
+            int error;
+            if (view != null) {
+                error = processTagAndOffsets(msgBB, view);
+            } else {
+                value = decodeValue(msgBB);
+                error = processTagAndValue();
+            }
+            if (error != ParseResult.OK) {
+                return error;
+            }
+        }
+        if (readError != ParseResult.OK) {
+            errorTag = readErrorTag;
+            fieldOffset = readErrorOffset;
+            return readError;
+        }
+        fieldOffset = msgBB.position();
+        return closeFrames();
+    }
+
+    /**
+     * Hands over the message if error is OK, or discards it, and records the outcome.
+     */
+    private FIXMessage endParse(int error, int bytes, long start) {
+        if (error != ParseResult.OK) {
+            failed(error);
+            discardMessage();
+            return null;
+        }
+        succeeded(bytes, start);
+        FIXMessage result = fixMessage;
+        fixMessage = null;
+        return result;
+    }
+
+    private void succeeded(int bytes, long start) {
+        errorCode = ParseResult.OK;
+        errorTag = 0;
+        errorOffset = 0;
+        if (metrics != null) {
+            metrics.onMessage(bytes, System.nanoTime() - start);
+        }
+    }
+
+    private void failed(int error) {
+        errorCode = error;
+        errorOffset = fieldOffset;
+        if (metrics != null) {
+            metrics.onError(error);
+        }
+    }
+
+    private FIXMessage filtered() {
+        if (metrics != null) {
+            metrics.onFiltered();
+        }
+        return null;
+    }
+
+    /**
+     * Offers the current tag and value to the innermost open repeating group, see {@link #parse(ByteBuffer)}. Returns a
+     * {@link ParseResult} code.
+     */
+    private int processTagAndValue() {
+        errorTag = tag;
+        while (true) {
+            if (depth == 0) {
+                if (dictionary.isRepeatingGroupIndicatorTag(tag)) {
+                    // Tag 269 or 123. Open the repeating group, the following tags should be its groups.
+                    int numberOfGroups = parseNumberOfGroups();
+                    int error = numberOfGroups == TypedValues.NULL_INT ? ParseResult.BAD_FORMAT : fixMessage.checkRepeatingGroup(tag, numberOfGroups);
+                    if (error != ParseResult.OK) {
+                        return error;
+                    }
+                    push().open(fixMessage.addRepeatingGroup(tag, numberOfGroups));
+                    return ParseResult.OK;
+                }
+                // Regular tag. Put it into the FIX message.
+                return fixMessage.tryPutNonRepeatingGroupTag(tag, value);
+            }
+            Frame frame = stack[depth - 1];
+            GroupSchema schema = frame.schema;
+            if (tag == schema.getFirstTag()) {
+                // First tag of the next group.
+                int error = frame.closeGroup();
+                if (error != ParseResult.OK) {
+                    errorTag = schema.getIndicatorTag();
+                    return error;
+                }
+                frame.group = pool != null ? pool.borrowGroup(schema) : new Group(schema);
+                return frame.group.tryPut(tag, value);
+            } else if (frame.group != null && schema.contains(tag)) {
+                // Another tag of the current group, possibly the indicator tag of a nested repeating group.
+                if (schema.getChildGroup(tag) != null) {
+                    int numberOfGroups = parseNumberOfGroups();
+                    int error = numberOfGroups == TypedValues.NULL_INT ? ParseResult.BAD_FORMAT : frame.group.checkRepeatingGroup(tag, numberOfGroups);
+                    if (error != ParseResult.OK) {
+                        return error;
+                    }
+                    push().open(frame.group.addRepeatingGroup(tag, numberOfGroups));
+                    return ParseResult.OK;
+                }
+                return frame.group.tryPut(tag, value);
+            } else {
+                // Tag doesn't belong to this repeating group. Close it and offer the tag to the enclosing group.
+                int error = frame.close();
+                if (error != ParseResult.OK) {
+                    errorTag = schema.getIndicatorTag();
+                    return error;
+                }
+                depth--;
+            }
+        }
+    }
+
+    /**
+     * Closes the repeating groups that are still open at the end of the message. Returns a {@link ParseResult} code.
+     */
+    private int closeFrames() {
+        while (depth > 0) {
+            Frame frame = stack[depth - 1];
+            int error = frame.close();
+            if (error != ParseResult.OK) {
+                errorTag = frame.schema.getIndicatorTag();
+                return error; // Left open, so that discardMessage releases its group.
+            }
+            depth--;
+        }
+        return ParseResult.OK;
+    }
+
+    /**
+     * Parses the ByteBuffer into a reusable {@link FIXMessageView} in a single pass, without copying any values. Applies
+     * the same validation as {@link #parse(ByteBuffer)}, and handles nested repeating groups the same way. Does not flip
+     * the buffer. The view refers to the buffer, so the buffer must not be modified while the view is in use.
+     */
+    public FIXMessageView parse(ByteBuffer msgBB, FIXMessageView view) throws FIXMessageException, Group.GroupException, RepeatingGroup.RepeatingGroupException {
+        if (parseView(msgBB, view) == null) {
+            ParseResult.throwIfError(errorCode);
+        }
+        return view;
+    }
+
+    /**
+     * Same as {@link #parse(ByteBuffer, FIXMessageView)}, but reports an invalid message in the result instead of
+     * throwing, as {@link #parse(ByteBuffer, ParseResult)} does. Returns the view, or null if the message is invalid.
+     */
+    public FIXMessageView parse(ByteBuffer msgBB, FIXMessageView view, ParseResult result) {
+        FIXMessageView parsed = parseView(msgBB, view);
+        result.set(errorCode, errorTag, errorOffset);
+        return parsed;
+    }
+
+    private FIXMessageView parseView(ByteBuffer msgBB, FIXMessageView view) {
+        long start = metrics != null ? System.nanoTime() : 0;
+        int bytes = msgBB.remaining();
+        view.reset(msgBB, wireFormat);
+        depth = 0;
+        fields.clear();
+        int error = parseFields(msgBB, view);
+        if (error != ParseResult.OK) {
+            failed(error);
+            return null;
+        }
+        succeeded(bytes, start);
+        return view;
+    }
+
+    /**
+     * Same as {@link #processTagAndValue()}, for the flyweight parse.
+     */
+    private int processTagAndOffsets(ByteBuffer msgBB, FIXMessageView view) {
+        errorTag = tag;
+        while (true) {
+            if (depth == 0) {
+                if (dictionary.isRepeatingGroupIndicatorTag(tag)) {
+                    GroupSchema schema = dictionary.getGroupSchema(tag);
+                    int numberOfGroups = parseNumberOfGroups(msgBB);
+                    if (numberOfGroups == TypedValues.NULL_INT) {
+                        return ParseResult.BAD_FORMAT;
+                    }
+                    int repeatingGroup = view.createRepeatingGroup(schema, -1, tag, valueOffset, valueLength, numberOfGroups);
+                    if (repeatingGroup < 0) {
+                        return -repeatingGroup;
+                    }
+                    push().open(view, schema, repeatingGroup);
+                    return ParseResult.OK;
+                }
+                return view.putNonRepeatingGroupTag(tag, valueOffset, valueLength);
+            }
+            Frame frame = stack[depth - 1];
+            GroupSchema schema = frame.schema;
+            if (tag == schema.getFirstTag()) {
+                int error = frame.closeGroup();
+                if (error != ParseResult.OK) {
+                    errorTag = schema.getIndicatorTag();
+                    return error;
+                }
+                frame.groupIndex = view.startGroup(frame.repeatingGroupIndex);
+                return view.putGroupTag(frame.groupIndex, schema, tag, valueOffset, valueLength);
+            } else if (frame.groupIndex >= 0 && schema.contains(tag)) {
+                GroupSchema childSchema = schema.getChildGroup(tag);
+                if (childSchema != null) {
+                    int numberOfGroups = parseNumberOfGroups(msgBB);
+                    if (numberOfGroups == TypedValues.NULL_INT) {
+                        return ParseResult.BAD_FORMAT;
+                    }
+                    int repeatingGroup = view.createRepeatingGroup(childSchema, frame.groupIndex, tag, valueOffset, valueLength, numberOfGroups);
+                    if (repeatingGroup < 0) {
+                        return -repeatingGroup;
+                    }
+                    push().open(view, childSchema, repeatingGroup);
+                    return ParseResult.OK;
+                }
+                return view.putGroupTag(frame.groupIndex, schema, tag, valueOffset, valueLength);
+            } else {
+                int error = frame.close();
+                if (error != ParseResult.OK) {
+                    errorTag = schema.getIndicatorTag();
+                    return error;
+                }
+                depth--;
+            }
+        }
+    }
+
+    /**
+     * Parses the ByteBuffer into a new {@link LazyFIXMessage}, which decodes values when they are first read.
+     */
+    public LazyFIXMessage parseLazy(ByteBuffer msgBB) throws FIXMessageException, Group.GroupException, RepeatingGroup.RepeatingGroupException {
+        return parseLazy(msgBB, new LazyFIXMessage());
+    }
+
+    /**
+     * Parses the ByteBuffer into a reused {@link LazyFIXMessage}, with {@link #parse(ByteBuffer, FIXMessageView)}.
+     */
+    public LazyFIXMessage parseLazy(ByteBuffer msgBB, LazyFIXMessage lazyMessage) throws FIXMessageException, Group.GroupException, RepeatingGroup.RepeatingGroupException {
+        lazyMessage.clearValues();
+        parse(msgBB, lazyMessage.getView());
+        return lazyMessage;
+    }
+
+    /**
+     * Parses the value of an indicator tag, or returns {@link TypedValues#NULL_INT} if it isn't an integer.
+     */
+    private int parseNumberOfGroups() {
+        return recordNumberOfGroups(TypedValues.parseInt(value));
+    }
+
+    private int parseNumberOfGroups(ByteBuffer msgBB) {
+        return recordNumberOfGroups(TypedValues.parseInt(valueChars.set(msgBB, wireFormat, valueOffset, valueLength)));
+    }
+
+    private int recordNumberOfGroups(int numberOfGroups) {
+        if (metrics != null && numberOfGroups != TypedValues.NULL_INT) {
+            metrics.onRepeatingGroup(tag, numberOfGroups);
+        }
+        return numberOfGroups;
+    }
+
+    // Schemas of the repeating groups being skipped by parse(ByteBuffer, MessageFilter).
+    private GroupSchema[] skipStack = new GroupSchema[4];
+    // Value read in place, by the filter and for the number of groups of the flyweight parse.
+    private final BufferChars valueChars = new BufferChars();
+
+    // Stack of open repeating groups, innermost last. Frames are reused across messages, so the stack only allocates
+    // when a message is nested deeper than any message before it.
+    private Frame[] stack = new Frame[4];
+    private int depth;
+
+    private Frame push() {
+        if (depth == stack.length) {
+            stack = Arrays.copyOf(stack, depth * 2);
+        }
+        if (stack[depth] == null) {
+            stack[depth] = new Frame();
+        }
+        return stack[depth++];
+    }
+
+    /**
+     * An open repeating group and the group within it that is currently being read, if any. Used by both parse modes:
+     * by {@link #parse(ByteBuffer)} with {@link RepeatingGroup} and {@link Group} objects, and by
+     * {@link #parse(ByteBuffer, FIXMessageView)} with their indices in the view.
+     */
+    private static final class Frame {
+        private GroupSchema schema;
+
+        private RepeatingGroup repeatingGroup;
+        private Group group;
+
+        private FIXMessageView view;
+        private int repeatingGroupIndex;
+        private int groupIndex;
+
+        void open(RepeatingGroup repeatingGroup) {
+            this.schema = repeatingGroup.getSchema();
+            this.repeatingGroup = repeatingGroup;
+            this.group = null;
+            this.view = null;
+        }
+
+        void open(FIXMessageView view, GroupSchema schema, int repeatingGroupIndex) {
+            this.schema = schema;
+            this.repeatingGroup = null;
+            this.group = null;
+            this.view = view;
+            this.repeatingGroupIndex = repeatingGroupIndex;
+            this.groupIndex = -1;
+        }
+
+        /**
+         * Validates the current group, if any, and adds it to the repeating group. Returns a {@link ParseResult} code.
+         */
+        int closeGroup() {
+            if (view != null) {
+                if (groupIndex >= 0) {
+                    int error = view.endGroup(groupIndex, schema);
+                    groupIndex = -1;
+                    return error;
+                }
+            } else if (group != null) {
+                if (!group.isValid()) {
+                    return ParseResult.INVALID_GROUP;
+                }
+                if (!repeatingGroup.tryAddGroup(group)) {
+                    return ParseResult.TOO_MANY_GROUPS;
+                }
+                group = null;
+            }
+            return ParseResult.OK;
+        }
+
+        /**
+         * Closes the current group, then validates the repeating group. Returns a {@link ParseResult} code.
+         */
+        int close() {
+            int error = closeGroup();
+            boolean valid = view != null ? view.isRepeatingGroupValid(repeatingGroupIndex) : repeatingGroup.isValid();
+            repeatingGroup = null;
+            view = null;
+            if (error != ParseResult.OK) {
+                return error;
+            }
+            return valid ? ParseResult.OK : ParseResult.INVALID_REPEATING_GROUP;
+        }
+    }
+
+    /**
+     * Reads the next field, recording where its value is. Records the offset of the field for error reports. Returns a
+     * {@link ParseResult} code.
+     */
+    private int readField(ByteBuffer msgBB) {
+        fieldOffset = msgBB.position();
+        tag = 0;
+        int error = readAndSetNextTagAndValueOffsets(msgBB);
+        errorTag = tag;
+        return error;
+    }
+
+    /**
+     * Reads the next tag, and finds the end of its value with the delimiter scanner. Checks the remaining bytes before
+     * each read, so a truncated message is reported as BAD_FORMAT rather than running off the end of the buffer.
+     * Returns a {@link ParseResult} code.
+     */
+    private int readAndSetNextTagAndValueOffsets(ByteBuffer msgBB) {
+        if (wireFormat == WireFormat.ASCII) {
+            return readAsciiTagAndValueOffsets(msgBB);
+        }
+        if (msgBB.remaining() < 6) {
+            return ParseResult.BAD_FORMAT;
+        }
+        tag = msgBB.getInt();
+        if (msgBB.getChar() != '=') {
+            return ParseResult.BAD_FORMAT;
+        }
+
+        valueOffset = msgBB.position();
+        int end = scanner.find(msgBB, wireFormat, valueOffset, msgBB.limit());
+        if (end < 0) {
+            msgBB.position(msgBB.limit());
+            return ParseResult.BAD_FORMAT;
+        }
+        valueLength = (end - valueOffset) / 2;
+        msgBB.position(end + 2);
+        return ParseResult.OK;
+    }
+
+    /**
+     * {@link WireFormat#ASCII} version of {@link #readAndSetNextTagAndValueOffsets(ByteBuffer)}. The tag is parsed from its
+     * digits as they are read.
+     */
+    private int readAsciiTagAndValueOffsets(ByteBuffer msgBB) {
+        int position = msgBB.position();
+        int limit = msgBB.limit();
+        int result = 0;
+        int digits = 0;
+        while (true) {
+            if (position == limit) {
+                return ParseResult.BAD_FORMAT;
+            }
+            byte b = msgBB.get(position++);
+            if (b == '=') {
+                break;
+            }
+            int digit = b - '0';
+            if (digit < 0 || digit > 9 || result > (Integer.MAX_VALUE - digit) / 10) {
+                // Not a digit, or the tag doesn't fit in an int.
+                return ParseResult.BAD_FORMAT;
+            }
+            result = result * 10 + digit;
+            digits++;
+        }
+        if (digits == 0) {
+            return ParseResult.BAD_FORMAT;
+        }
+
+        valueOffset = position;
+        int end = scanner.find(msgBB, wireFormat, valueOffset, limit);
+        if (end < 0) {
+            return ParseResult.BAD_FORMAT;
+        }
+        valueLength = end - valueOffset;
+        tag = result;
+        msgBB.position(end + 1);
+        return ParseResult.OK;
+    }
+
+    private char[] chars = new char[64];
+
+    /**
+     * Decodes the value at valueOffset, in either format.
+     */
+    private String decodeValue(ByteBuffer msgBB) {
+        if (wireFormat == WireFormat.ASCII && msgBB.hasArray()) {
+            return new String(msgBB.array(), msgBB.arrayOffset() + valueOffset, valueLength, StandardCharsets.ISO_8859_1);
+        }
+        if (valueLength > chars.length) {
+            chars = new char[Math.max(valueLength, chars.length * 2)];
+        }
+        if (wireFormat == WireFormat.ASCII) {
+            for (int i = 0; i < valueLength; i++) {
+                chars[i] = (char) (msgBB.get(valueOffset + i) & 0xFF);
+            }
+        } else {
+            for (int i = 0; i < valueLength; i++) {
+                chars[i] = msgBB.getChar(valueOffset + 2 * i);
+            }
+        }
+        return new String(chars, 0, valueLength);
+    }
+}
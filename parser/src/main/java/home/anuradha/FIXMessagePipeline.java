@@ -0,0 +1,299 @@
+package home.anuradha;
+
+import java.io.Closeable;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * Lock-free pipeline from the threads that read messages off the network, through parser threads, to a handler.
+ * <p>
+ * Messages pass through a ring of preallocated slots in one direct buffer. A producer claims the next slot, writes the
+ * raw message into it and publishes it. With {@link ProducerType#SINGLE}, one thread produces and publishing is a single
+ * ordered write. With {@link ProducerType#MULTI}, any number of threads claim slots with an atomic increment and publish
+ * each slot with its own flag. Parser threads split the slots between them by sequence number (parser k takes every
+ * Nth slot starting at k), each with its own {@link FIXMessageParser}, so parsers need no coordination. The handler
+ * thread passes the parsed messages to the {@link Handler} in the order they were published, then frees their slots
+ * for reuse.
+ * <p>
+ * Every hand-off is a {@link Sequence} that has a single writer: the producer cursor (claim counter with MULTI), the
+ * last sequence parsed by each parser and the last sequence handled. Threads wait on each other with a
+ * {@link WaitStrategy}, and a producer waits when every slot is in use, which pushes back on the network reader.
+ * The time from publishing to the end of the handler call is recorded for every message in a {@link LatencyHistogram}.
+ */
+public class FIXMessagePipeline implements Closeable {
+
+    public interface Handler {
+        void onMessage(long sequence, FIXMessage fixMessage);
+
+        /**
+         * Called, in order, instead of onMessage for a message that failed to parse, and after onMessage for a message
+         * whose onMessage threw a RuntimeException.
+         */
+        default void onError(long sequence, Exception e) {
+        }
+    }
+
+    public enum ProducerType { SINGLE, MULTI }
+
+    private static final VarHandle AVAILABLE = MethodHandles.arrayElementVarHandle(int[].class);
+
+    private final int slotCount;
+    private final int slotSize;
+    private final int mask;
+    private final int roundShift;
+    private final ProducerType producerType;
+    private final WaitStrategy waitStrategy;
+    private final Handler handler;
+
+    private final ByteBuffer[] slots;
+    private final int[] lengths;
+    private final long[] publishTimes;
+    private final FIXMessage[] messages;
+    private final Exception[] errors;
+    // MULTI only: round (sequence / slotCount) in which each slot was last published, or -1.
+    private final int[] available;
+
+    // SINGLE: the last published sequence. MULTI: the last claimed sequence.
+    private final Sequence cursor = new Sequence(-1);
+    private final Sequence[] parsed;
+    private final Sequence handled = new Sequence(-1);
+    // SINGLE only: the next sequence to claim and a cached value of handled. Only used by the producer thread.
+    private long nextClaim;
+    private long cachedHandled = -1;
+
+    private final Thread[] parserThreads;
+    private final Thread handlerThread;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    // Only written by the handler thread.
+    private volatile long handlerErrorCount;
+    private volatile boolean running = true;
+
+    public FIXMessagePipeline(int slotCount, int slotSize, int parserCount, Handler handler) {
+        this(slotCount, slotSize, parserCount, ProducerType.SINGLE, WaitStrategy.YIELD, FIXMessageParser::new, handler);
+    }
+
+    /**
+     * Creates the pipeline. Call {@link #start()} to start its threads.
+     * slotCount must be a power of two, and slotSize is the largest message in bytes. parserFactory is called once per
+     * parser thread.
+     */
+    public FIXMessagePipeline(int slotCount, int slotSize, int parserCount, ProducerType producerType, WaitStrategy waitStrategy,
+                              Supplier<FIXMessageParser> parserFactory, Handler handler) {
+        if (slotCount <= 0 || Integer.bitCount(slotCount) != 1) {
+            throw new IllegalArgumentException("Slot count must be a power of two.");
+        }
+        if (slotSize <= 0 || (long) slotCount * slotSize > Integer.MAX_VALUE || parserCount <= 0) {
+            throw new IllegalArgumentException("Invalid slot size or parser count.");
+        }
+        this.slotCount = slotCount;
+        this.slotSize = slotSize;
+        this.mask = slotCount - 1;
+        this.roundShift = Integer.numberOfTrailingZeros(slotCount);
+        this.producerType = producerType;
+        this.waitStrategy = waitStrategy;
+        this.handler = handler;
+
+        ByteBuffer memory = ByteBuffer.allocateDirect(slotCount * slotSize);
+        slots = new ByteBuffer[slotCount];
+        for (int i = 0; i < slotCount; i++) {
+            slots[i] = memory.slice(i * slotSize, slotSize);
+        }
+        lengths = new int[slotCount];
+        publishTimes = new long[slotCount];
+        messages = new FIXMessage[slotCount];
+        errors = new Exception[slotCount];
+        available = new int[slotCount];
+        Arrays.fill(available, -1);
+
+        parsed = new Sequence[parserCount];
+        parserThreads = new Thread[parserCount];
+        for (int i = 0; i < parserCount; i++) {
+            parsed[i] = new Sequence(i - parserCount); // The sequence before this parser's first.
+            FIXMessageParser parser = parserFactory.get();
+            int parserIndex = i;
+            parserThreads[i] = new Thread(() -> runParser(parser, parserIndex), "fix-parser-" + i);
+            parserThreads[i].setDaemon(true);
+        }
+        handlerThread = new Thread(this::runHandler, "fix-handler");
+        handlerThread.setDaemon(true);
+    }
+
+    public void start() {
+        for (Thread parserThread : parserThreads) {
+            parserThread.start();
+        }
+        handlerThread.start();
+    }
+
+    /**
+     * Claims the next slot, waiting while all slots are in use. Returns its sequence, to pass to {@link #getSlot(long)}
+     * and {@link #publish(long)}.
+     */
+    public long claim() {
+        long sequence;
+        if (producerType == ProducerType.SINGLE) {
+            sequence = nextClaim++;
+        } else {
+            sequence = cursor.getAndAdd(1) + 1;
+        }
+        // The slot is free once the message that used it a round ago has been handled.
+        long wrapPoint = sequence - slotCount;
+        if (wrapPoint > cachedHandled) {
+            int attempt = 0;
+            long handledSequence;
+            while (wrapPoint > (handledSequence = handled.get())) {
+                waitStrategy.idle(attempt++);
+            }
+            if (producerType == ProducerType.SINGLE) {
+                cachedHandled = handledSequence;
+            }
+        }
+        return sequence;
+    }
+
+    /**
+     * Returns the cleared buffer of a claimed slot, to write one message into, starting at position 0.
+     */
+    public ByteBuffer getSlot(long sequence) {
+        return slots[(int) sequence & mask].clear();
+    }
+
+    /**
+     * Publishes a claimed slot. The message is the bytes from 0 to the position of the slot's buffer.
+     */
+    public void publish(long sequence) {
+        int slot = (int) sequence & mask;
+        lengths[slot] = slots[slot].position();
+        publishTimes[slot] = System.nanoTime();
+        if (producerType == ProducerType.SINGLE) {
+            cursor.set(sequence);
+        } else {
+            AVAILABLE.setRelease(available, slot, (int) (sequence >>> roundShift));
+        }
+    }
+
+    /**
+     * Claims a slot, copies the remaining bytes of the message into it and publishes it. Returns its sequence.
+     */
+    public long publish(ByteBuffer message) {
+        if (message.remaining() > slotSize) {
+            throw new IllegalArgumentException("Message is larger than a slot.");
+        }
+        long sequence = claim();
+        getSlot(sequence).put(message);
+        publish(sequence);
+        return sequence;
+    }
+
+    /**
+     * Returns the number of messages passed to the handler.
+     */
+    public long getHandledCount() {
+        return handled.get() + 1;
+    }
+
+    /**
+     * Returns the number of handler calls, onMessage or onError, that threw a RuntimeException. The pipeline carries on
+     * with the next message after one.
+     */
+    public long getHandlerErrorCount() {
+        return handlerErrorCount;
+    }
+
+    /**
+     * Latency from publish to the end of the handler call, in nanoseconds. Written by the handler thread, so read it
+     * once the pipeline has been closed.
+     */
+    public LatencyHistogram getLatencyHistogram() {
+        return latency;
+    }
+
+    /**
+     * Waits until every published message has been handled, then stops the threads. Producers must have stopped.
+     */
+    @Override
+    public void close() {
+        long last = producerType == ProducerType.SINGLE ? nextClaim - 1 : cursor.get();
+        int attempt = 0;
+        while (handled.get() < last && handlerThread.isAlive()) {
+            waitStrategy.idle(attempt++);
+        }
+        running = false;
+        try {
+            for (Thread parserThread : parserThreads) {
+                parserThread.join();
+            }
+            handlerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean isPublished(long sequence) {
+        if (producerType == ProducerType.SINGLE) {
+            return cursor.get() >= sequence;
+        }
+        return (int) AVAILABLE.getAcquire(available, (int) sequence & mask) == (int) (sequence >>> roundShift);
+    }
+
+    private void runParser(FIXMessageParser parser, int parserIndex) {
+        Sequence parsedSequence = parsed[parserIndex];
+        for (long sequence = parserIndex; ; sequence += parsed.length) {
+            int attempt = 0;
+            while (!isPublished(sequence)) {
+                if (!running) {
+                    return;
+                }
+                waitStrategy.idle(attempt++);
+            }
+            int slot = (int) sequence & mask;
+            ByteBuffer msgBB = slots[slot].duplicate().position(0).limit(lengths[slot]);
+            try {
+                messages[slot] = parser.parse(msgBB);
+            } catch (FIXMessage.FIXMessageException | Group.GroupException | RepeatingGroup.RepeatingGroupException | RuntimeException e) {
+                errors[slot] = e;
+            }
+            parsedSequence.set(sequence);
+        }
+    }
+
+    private void runHandler() {
+        for (long sequence = 0; ; sequence++) {
+            Sequence parsedSequence = parsed[(int) (sequence % parsed.length)];
+            int attempt = 0;
+            while (parsedSequence.get() < sequence) {
+                if (!running) {
+                    return;
+                }
+                waitStrategy.idle(attempt++);
+            }
+            int slot = (int) sequence & mask;
+            FIXMessage fixMessage = messages[slot];
+            Exception error = errors[slot];
+            messages[slot] = null;
+            errors[slot] = null;
+            try {
+                if (error != null) {
+                    handler.onError(sequence, error);
+                } else {
+                    handler.onMessage(sequence, fixMessage);
+                }
+            } catch (RuntimeException e) {
+                // A failing handler must not stop the pipeline, so the failure is counted and passed to onError.
+                handlerErrorCount++;
+                if (error == null) {
+                    try {
+                        handler.onError(sequence, e);
+                    } catch (RuntimeException onErrorFailure) {
+                        handlerErrorCount++;
+                    }
+                }
+            }
+            latency.record(System.nanoTime() - publishTimes[slot]);
+            handled.set(sequence);
+        }
+    }
+}
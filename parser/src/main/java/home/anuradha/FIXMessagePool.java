@@ -0,0 +1,231 @@
+package home.anuradha;
+
+import java.util.List;
+
+/**
+ * Bounded pool of {@link FIXMessage}s, {@link RepeatingGroup}s and {@link Group}s, for a {@link FIXMessageParser} to
+ * reuse instead of allocating new objects for every message.
+ * The parser borrows a message from the pool for every parse, and the message borrows its repeating groups and groups.
+ * Once the consumer is done with a message, it passes it to {@link #release(FIXMessage)}, which clears the message, its
+ * repeating groups and its groups in place and puts them back into the pool. Objects released while their part of the
+ * pool is full are left to the garbage collector. Value Strings are not pooled.
+ * <p>
+ * Releasing a message twice throws an {@link IllegalStateException}. With assertions enabled (-ea), using a message,
+ * repeating group or group after it has been released throws an {@link AssertionError}, until the object is borrowed
+ * again.
+ * <p>
+ * Not thread safe. The pool must only be used by the thread of its parser, so messages must be released on that thread.
+ */
+public class FIXMessagePool {
+
+    public static final String RELEASED = "Object has been released to the pool.";
+    public static final String ALREADY_RELEASED = "Message has already been released.";
+    public static final String NOT_FROM_POOL = "Message was not borrowed from this pool.";
+
+    public static final int DEFAULT_MAX_MESSAGES = 16;
+    public static final int DEFAULT_MAX_REPEATING_GROUPS = 64;
+    public static final int DEFAULT_MAX_GROUPS = 1024;
+
+    private final DataDictionary dictionary;
+    private final Pool<FIXMessage> messages;
+    private final Pool<RepeatingGroup> repeatingGroups;
+    private final Pool<Group> groups;
+
+    public FIXMessagePool(DataDictionary dictionary) {
+        this(dictionary, DEFAULT_MAX_MESSAGES, DEFAULT_MAX_REPEATING_GROUPS, DEFAULT_MAX_GROUPS);
+    }
+
+    public FIXMessagePool(DataDictionary dictionary, int maxMessages, int maxRepeatingGroups, int maxGroups) {
+        this.dictionary = dictionary;
+        this.messages = new Pool<>(maxMessages);
+        this.repeatingGroups = new Pool<>(maxRepeatingGroups);
+        this.groups = new Pool<>(maxGroups);
+    }
+
+    public DataDictionary getDictionary() {
+        return dictionary;
+    }
+
+    /**
+     * Returns an empty message, from the pool if it has one.
+     */
+    public FIXMessage borrowMessage() {
+        FIXMessage fixMessage = messages.borrow();
+        if (fixMessage == null) {
+            fixMessage = new FIXMessage(dictionary);
+            fixMessage.pool = this;
+        }
+        fixMessage.released = false;
+        return fixMessage;
+    }
+
+    /**
+     * Returns an empty group of the given schema, from the pool if it has one.
+     */
+    public Group borrowGroup(GroupSchema schema) {
+        Group group = groups.borrow();
+        if (group == null) {
+            group = new Group(schema);
+            group.pool = this;
+        } else {
+            group.reset(schema);
+        }
+        group.released = false;
+        return group;
+    }
+
+    RepeatingGroup borrowRepeatingGroup(GroupSchema schema, int numberOfGroups) {
+        RepeatingGroup repeatingGroup = repeatingGroups.borrow();
+        if (repeatingGroup == null) {
+            return new RepeatingGroup(schema, numberOfGroups);
+        }
+        repeatingGroup.reset(schema, numberOfGroups);
+        repeatingGroup.released = false;
+        return repeatingGroup;
+    }
+
+    /**
+     * Clears the message and puts it back into the pool, along with all its repeating groups and groups.
+     * The message must have been borrowed from this pool, and must not be used afterwards.
+     */
+    public void release(FIXMessage fixMessage) {
+        if (fixMessage.pool != this) {
+            throw new IllegalArgumentException(NOT_FROM_POOL);
+        }
+        if (fixMessage.released) {
+            throw new IllegalStateException(ALREADY_RELEASED);
+        }
+        TagMap<RepeatingGroup> messageRepeatingGroups = fixMessage.getRepeatingGroups();
+        for (int i = 0; i < messageRepeatingGroups.size(); i++) {
+            release(messageRepeatingGroups.valueAt(i));
+        }
+        fixMessage.reset();
+        fixMessage.released = true;
+        messages.release(fixMessage);
+    }
+
+    private void release(RepeatingGroup repeatingGroup) {
+        List<Group> repeatingGroupGroups = repeatingGroup.getGroups();
+        for (int i = 0; i < repeatingGroupGroups.size(); i++) {
+            release(repeatingGroupGroups.get(i));
+        }
+        repeatingGroup.reset(repeatingGroup.getSchema(), 0);
+        repeatingGroup.released = true;
+        repeatingGroups.release(repeatingGroup);
+    }
+
+    /**
+     * Puts a group that was borrowed but never added to a repeating group back into the pool, along with its repeating
+     * groups.
+     */
+    void release(Group group) {
+        if (group.pool != this) {
+            // A group created by the caller and added to a pooled repeating group. Leave it be.
+            return;
+        }
+        for (int i = 0; i < group.getRepeatingGroupCount(); i++) {
+            release(group.getRepeatingGroups().valueAt(i));
+        }
+        group.reset(group.getSchema());
+        group.released = true;
+        groups.release(group);
+    }
+
+    // Stats
+
+    /**
+     * Returns the number of objects of all kinds currently in the pool.
+     */
+    public int getSize() {
+        return messages.size + repeatingGroups.size + groups.size;
+    }
+
+    public int getMessageCount() {
+        return messages.size;
+    }
+
+    public int getRepeatingGroupCount() {
+        return repeatingGroups.size;
+    }
+
+    public int getGroupCount() {
+        return groups.size;
+    }
+
+    /**
+     * Returns the number of objects of all kinds that have been borrowed.
+     */
+    public long getBorrowCount() {
+        return messages.borrows + repeatingGroups.borrows + groups.borrows;
+    }
+
+    /**
+     * Returns the number of borrowed objects that came from the pool rather than being allocated.
+     */
+    public long getHitCount() {
+        return messages.hits + repeatingGroups.hits + groups.hits;
+    }
+
+    /**
+     * Returns the number of released objects that were dropped because the pool was full.
+     */
+    public long getDropCount() {
+        return messages.drops + repeatingGroups.drops + groups.drops;
+    }
+
+    /**
+     * Returns the fraction of borrowed objects that came from the pool, or 0 if nothing has been borrowed.
+     */
+    public double getHitRate() {
+        long borrows = getBorrowCount();
+        return borrows == 0 ? 0 : (double) getHitCount() / borrows;
+    }
+
+    @Override
+    public String toString() {
+        return "FIXMessagePool:[messages=" + messages + ",repeatingGroups=" + repeatingGroups + ",groups=" + groups + ']';
+    }
+
+    /**
+     * Stack of pooled objects of one kind.
+     */
+    private static final class Pool<T> {
+        private final Object[] objects;
+        private int size;
+        private long borrows;
+        private long hits;
+        private long drops;
+
+        Pool(int maxSize) {
+            if (maxSize < 0) {
+                throw new IllegalArgumentException("Pool size must not be negative.");
+            }
+            objects = new Object[maxSize];
+        }
+
+        @SuppressWarnings("unchecked")
+        T borrow() {
+            borrows++;
+            if (size == 0) {
+                return null;
+            }
+            hits++;
+            T object = (T) objects[--size];
+            objects[size] = null;
+            return object;
+        }
+
+        void release(T object) {
+            if (size == objects.length) {
+                drops++;
+            } else {
+                objects[size++] = object;
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "[size=" + size + ",borrows=" + borrows + ",hits=" + hits + ",drops=" + drops + ']';
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package home.anuradha;
+
+/**
+ * Utilities for FIX message parsing.
+ * Repeating groups are defined by a {@link DataDictionary}. These helpers use {@link DataDictionary#DEFAULT}.
+ */
+public class FIXMessageUtils {
+
+    static boolean isRepeatingGroupIndicatorTag(int tag) {
+        return DataDictionary.DEFAULT.isRepeatingGroupIndicatorTag(tag);
+    }
+}
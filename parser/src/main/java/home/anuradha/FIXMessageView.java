@@ -0,0 +1,464 @@
+package home.anuradha;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Reusable, allocation-free view of a FIX message. This is the flyweight counterpart of {@link FIXMessage}.
+ * Instead of copying values into Strings, it records the tag, value offset (absolute byte position in the buffer) and
+ * value length (in chars) of every field in primitive arrays, in the order the fields appeared in the message.
+ * Each field records the group it belongs to (-1 for the top level). Repeating groups and groups are numbered in the
+ * order they start, and nested repeating groups record their parent group, so groups can be nested to any depth.
+ * A view is filled by {@link FIXMessageParser#parse(ByteBuffer, FIXMessageView)} and is only valid while the parsed
+ * buffer is left untouched. The view is reset on every parse, so it can be reused for every message.
+ */
+public class FIXMessageView {
+
+    private static final int INITIAL_FIELDS = 64;
+    private static final int INITIAL_REPEATING_GROUPS = 4;
+    private static final int INITIAL_GROUPS = 16;
+
+    private ByteBuffer buffer;
+    private WireFormat wireFormat = WireFormat.CHARS;
+
+    // Fields in order of occurrence.
+    private int fieldCount;
+    private int[] tags = new int[INITIAL_FIELDS];
+    private int[] valueOffsets = new int[INITIAL_FIELDS];
+    private int[] valueLengths = new int[INITIAL_FIELDS];
+    private int[] fieldGroups = new int[INITIAL_FIELDS]; // Group the field belongs to, or -1.
+    private int[] fieldRepeatingGroups = new int[INITIAL_FIELDS]; // Repeating group an indicator tag starts, or -1.
+
+    // Open addressing index of non-group tag -> field index. A slot is in use if its stamp equals the current stamp,
+    // so the index is cleared by incrementing the stamp.
+    private int[] slots = new int[INITIAL_FIELDS * 2];
+    private int[] slotStamps = new int[INITIAL_FIELDS * 2];
+    private int stamp = 1;
+
+    // Repeating groups, in order of occurrence.
+    private int repeatingGroupCount;
+    private int[] indicatorTags = new int[INITIAL_REPEATING_GROUPS];
+    private int[] numbersOfGroups = new int[INITIAL_REPEATING_GROUPS];
+    private int[] parentGroups = new int[INITIAL_REPEATING_GROUPS]; // Group the repeating group is nested in, or -1.
+    private int[] groupsAdded = new int[INITIAL_REPEATING_GROUPS];
+    private int[] firstGroups = new int[INITIAL_REPEATING_GROUPS];
+    private int[] lastGroups = new int[INITIAL_REPEATING_GROUPS];
+
+    // Groups, in order of their first tag. A group's fields, including those of its nested groups, are the contiguous
+    // range [start, end) of field indices. The groups of a repeating group are linked through nextGroups.
+    private int groupCount;
+    private int[] groupStarts = new int[INITIAL_GROUPS];
+    private int[] groupEnds = new int[INITIAL_GROUPS];
+    private int[] groupRepeatingGroups = new int[INITIAL_GROUPS];
+    private int[] nextGroups = new int[INITIAL_GROUPS];
+
+    private final BufferChars value = new BufferChars();
+
+    /**
+     * Clears the view so that it can be filled from the given buffer.
+     */
+    void reset(ByteBuffer buffer, WireFormat wireFormat) {
+        this.buffer = buffer;
+        this.wireFormat = wireFormat;
+        fieldCount = 0;
+        repeatingGroupCount = 0;
+        groupCount = 0;
+        if (++stamp == 0) {
+            // Stamp wrapped around. Clear the index so that no slot looks like it is in use.
+            Arrays.fill(slotStamps, 0);
+            stamp = 1;
+        }
+    }
+
+    /**
+     * Put a tag that doesn't belong to any repeating group. Same validation as
+     * {@link FIXMessage#putNonRepeatingGroupTag(int, String)}. Returns a {@link ParseResult} code.
+     */
+    int putNonRepeatingGroupTag(int tag, int valueOffset, int valueLength) {
+        if (indexOf(tag) >= 0) {
+            // Attempting to put a tag that already exists.
+            return ParseResult.TAG_ALREADY_EXISTS;
+        }
+        index(tag, addField(tag, valueOffset, valueLength, -1));
+        return ParseResult.OK;
+    }
+
+    /**
+     * Records the indicator tag and starts a repeating group, either at the top level (parentGroup -1) or nested in a
+     * group. Same validation as {@link FIXMessage#createRepeatingGroup(int, int)} and
+     * {@link Group#createRepeatingGroup(int, int)}. Returns the index of the repeating group, or minus the
+     * {@link ParseResult} code if it is invalid.
+     */
+    int createRepeatingGroup(GroupSchema schema, int parentGroup, int indicatorTag, int valueOffset, int valueLength, int numberOfGroups) {
+        if (schema == null) {
+            // Attempting to create a repeating group with an invalid indicator tag.
+            return -ParseResult.NOT_INDICATOR_TAG;
+        }
+        if (numberOfGroups <= 0) {
+            // Attempting to create less than one group.
+            return -ParseResult.NON_POSITIVE_GROUPS;
+        }
+        if (parentGroup >= 0) {
+            groupEnds[parentGroup] = fieldCount; // The parent group is still open.
+        }
+        if (parentGroup < 0 ? indexOf(indicatorTag) >= 0 : indexInGroup(parentGroup, indicatorTag) >= 0) {
+            // Attempting to create repeating group with an indicator tag that has already been seen.
+            return -ParseResult.REPEATING_GROUP_ALREADY_EXISTS;
+        }
+        int field = addField(indicatorTag, valueOffset, valueLength, parentGroup);
+        if (parentGroup < 0) {
+            index(indicatorTag, field);
+        }
+        fieldRepeatingGroups[field] = repeatingGroupCount;
+
+        if (repeatingGroupCount == indicatorTags.length) {
+            int capacity = repeatingGroupCount * 2;
+            indicatorTags = Arrays.copyOf(indicatorTags, capacity);
+            numbersOfGroups = Arrays.copyOf(numbersOfGroups, capacity);
+            parentGroups = Arrays.copyOf(parentGroups, capacity);
+            groupsAdded = Arrays.copyOf(groupsAdded, capacity);
+            firstGroups = Arrays.copyOf(firstGroups, capacity);
+            lastGroups = Arrays.copyOf(lastGroups, capacity);
+        }
+        indicatorTags[repeatingGroupCount] = indicatorTag;
+        numbersOfGroups[repeatingGroupCount] = numberOfGroups;
+        parentGroups[repeatingGroupCount] = parentGroup;
+        groupsAdded[repeatingGroupCount] = 0;
+        firstGroups[repeatingGroupCount] = -1;
+        lastGroups[repeatingGroupCount] = -1;
+        return repeatingGroupCount++;
+    }
+
+    /**
+     * Starts a new group in a repeating group. Returns the index of the group.
+     */
+    int startGroup(int repeatingGroup) {
+        if (groupCount == groupStarts.length) {
+            int capacity = groupCount * 2;
+            groupStarts = Arrays.copyOf(groupStarts, capacity);
+            groupEnds = Arrays.copyOf(groupEnds, capacity);
+            groupRepeatingGroups = Arrays.copyOf(groupRepeatingGroups, capacity);
+            nextGroups = Arrays.copyOf(nextGroups, capacity);
+        }
+        groupStarts[groupCount] = fieldCount;
+        groupEnds[groupCount] = fieldCount;
+        groupRepeatingGroups[groupCount] = repeatingGroup;
+        nextGroups[groupCount] = -1;
+        return groupCount++;
+    }
+
+    /**
+     * Put a tag into a group that has been started but not ended. Same validation as {@link Group#put(int, String)}.
+     * Returns a {@link ParseResult} code.
+     */
+    int putGroupTag(int group, GroupSchema schema, int tag, int valueOffset, int valueLength) {
+        if (!schema.contains(tag)) {
+            // Attempting to add a tag that doesn't belong to this group.
+            return ParseResult.BAD_GROUP_TAG;
+        }
+        groupEnds[group] = fieldCount; // The group is still open.
+        if (indexInGroup(group, tag) >= 0) {
+            // Attempting to add a tag that has already been seen.
+            return ParseResult.GROUP_TAG_ALREADY_EXISTS;
+        }
+        addField(tag, valueOffset, valueLength, group);
+        return ParseResult.OK;
+    }
+
+    /**
+     * Ends a group, validates it and adds it to its repeating group. Same validation as {@link Group#isValid()}
+     * followed by {@link RepeatingGroup#addGroup(Group)}. Returns a {@link ParseResult} code.
+     */
+    int endGroup(int group, GroupSchema schema) {
+        groupEnds[group] = fieldCount;
+        if (indexInGroup(group, schema.getFirstTag()) < 0) {
+            return ParseResult.INVALID_GROUP;
+        }
+        for (int i = 0; i < schema.getRequiredTagCount(); i++) {
+            if (indexInGroup(group, schema.getRequiredTag(i)) < 0) {
+                return ParseResult.INVALID_GROUP;
+            }
+        }
+        int rg = groupRepeatingGroups[group];
+        if (groupsAdded[rg] >= numbersOfGroups[rg]) {
+            return ParseResult.TOO_MANY_GROUPS;
+        }
+        if (lastGroups[rg] < 0) {
+            firstGroups[rg] = group;
+        } else {
+            nextGroups[lastGroups[rg]] = group;
+        }
+        lastGroups[rg] = group;
+        groupsAdded[rg]++;
+        return ParseResult.OK;
+    }
+
+    /**
+     * Validates a repeating group. Same validation as {@link RepeatingGroup#isValid()}.
+     */
+    boolean isRepeatingGroupValid(int repeatingGroup) {
+        return groupsAdded[repeatingGroup] == numbersOfGroups[repeatingGroup];
+    }
+
+    // Index access
+
+    public ByteBuffer getBuffer() {
+        return buffer;
+    }
+
+    /**
+     * Format of the parsed buffer, which decides how many bytes each value char takes.
+     */
+    public WireFormat getWireFormat() {
+        return wireFormat;
+    }
+
+    public int getFieldCount() {
+        return fieldCount;
+    }
+
+    public int getTag(int fieldIndex) {
+        return tags[fieldIndex];
+    }
+
+    public int getValueOffset(int fieldIndex) {
+        return valueOffsets[fieldIndex];
+    }
+
+    public int getValueLength(int fieldIndex) {
+        return valueLengths[fieldIndex];
+    }
+
+    /**
+     * Returns the group that the field belongs to, or -1 if the field is at the top level of the message.
+     */
+    public int getFieldGroup(int fieldIndex) {
+        return fieldGroups[fieldIndex];
+    }
+
+    /**
+     * Returns the repeating group that the field is the indicator tag of, or -1 if it isn't an indicator tag.
+     */
+    public int getFieldRepeatingGroup(int fieldIndex) {
+        return fieldRepeatingGroups[fieldIndex];
+    }
+
+    /**
+     * Returns the field index of a tag that doesn't belong to a group (including indicator tags), or -1.
+     */
+    public int indexOf(int tag) {
+        int mask = slots.length - 1;
+        for (int i = mix(tag) & mask; slotStamps[i] == stamp; i = (i + 1) & mask) {
+            if (tags[slots[i]] == tag) {
+                return slots[i];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the field index of a tag in a group of a top level repeating group, or -1.
+     */
+    public int indexOf(int indicatorTag, int groupIndex, int tag) {
+        int group = getGroup(indicatorTag, groupIndex);
+        return group >= 0 ? indexInGroup(group, tag) : -1;
+    }
+
+    /**
+     * Returns the field index of a tag in a group, or -1. Tags of nested groups are not included. The indicator tags of
+     * nested repeating groups are.
+     */
+    public int indexInGroup(int group, int tag) {
+        for (int i = groupStarts[group]; i < groupEnds[group]; i++) {
+            if (tags[i] == tag && fieldGroups[i] == group) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Repeating group access
+
+    /**
+     * Returns the number of repeating groups, including nested ones.
+     */
+    public int getRepeatingGroupCount() {
+        return repeatingGroupCount;
+    }
+
+    public int getIndicatorTag(int repeatingGroupIndex) {
+        return indicatorTags[repeatingGroupIndex];
+    }
+
+    /**
+     * Returns the group that a repeating group is nested in, or -1 for a top level repeating group.
+     */
+    public int getParentGroup(int repeatingGroupIndex) {
+        return parentGroups[repeatingGroupIndex];
+    }
+
+    public int getNumberOfGroupsAt(int repeatingGroupIndex) {
+        return numbersOfGroups[repeatingGroupIndex];
+    }
+
+    /**
+     * Returns the number of groups under a top level indicator tag, or 0 if the message has no such repeating group.
+     */
+    public int getNumberOfGroups(int indicatorTag) {
+        return getNumberOfGroups(-1, indicatorTag);
+    }
+
+    /**
+     * Returns the number of groups under an indicator tag nested in a group (or at the top level for parentGroup -1),
+     * or 0 if there is no such repeating group.
+     */
+    public int getNumberOfGroups(int parentGroup, int indicatorTag) {
+        int rg = repeatingGroupOf(parentGroup, indicatorTag);
+        return rg >= 0 ? numbersOfGroups[rg] : 0;
+    }
+
+    /**
+     * Returns the index of a group of a top level repeating group, or -1. Group indices can be passed to
+     * {@link #indexInGroup(int, int)} and {@link #getGroup(int, int, int)}.
+     */
+    public int getGroup(int indicatorTag, int groupIndex) {
+        return getGroup(-1, indicatorTag, groupIndex);
+    }
+
+    /**
+     * Returns the index of a group of a repeating group nested in parentGroup (or at the top level for parentGroup
+     * -1), or -1. Takes time proportional to groupIndex.
+     */
+    public int getGroup(int parentGroup, int indicatorTag, int groupIndex) {
+        int rg = repeatingGroupOf(parentGroup, indicatorTag);
+        if (rg < 0 || groupIndex < 0 || groupIndex >= groupsAdded[rg]) {
+            return -1;
+        }
+        int group = firstGroups[rg];
+        for (int i = 0; i < groupIndex; i++) {
+            group = nextGroups[group];
+        }
+        return group;
+    }
+
+    /**
+     * Returns the index of the first field of a group. The fields of a group, including those of its nested groups, are
+     * contiguous.
+     */
+    public int getGroupStart(int indicatorTag, int groupIndex) {
+        int group = getGroup(indicatorTag, groupIndex);
+        return group >= 0 ? groupStarts[group] : -1;
+    }
+
+    /**
+     * Returns the index after the last field of a group.
+     */
+    public int getGroupEnd(int indicatorTag, int groupIndex) {
+        int group = getGroup(indicatorTag, groupIndex);
+        return group >= 0 ? groupEnds[group] : -1;
+    }
+
+    // Typed accessors. None of these allocate or throw: like the typed accessors of FIXMessage, they return
+    // TypedValues.NULL_INT or NULL_LONG for a missing or malformed value, and indexOf tells the two apart.
+
+    public int getInt(int tag) {
+        int index = indexOf(tag);
+        return index >= 0 ? getIntAt(index) : TypedValues.NULL_INT;
+    }
+
+    public long getLong(int tag) {
+        int index = indexOf(tag);
+        return index >= 0 ? getLongAt(index) : TypedValues.NULL_LONG;
+    }
+
+    /**
+     * Returns the value of a tag that doesn't belong to a group, or null. The returned {@link CharSequence} is shared
+     * by all accessors of this view and is only valid until the next accessor call or parse.
+     */
+    public CharSequence getCharSequence(int tag) {
+        int index = indexOf(tag);
+        return index >= 0 ? getCharSequenceAt(index) : null;
+    }
+
+    public int getGroupInt(int indicatorTag, int groupIndex, int tag) {
+        int index = indexOf(indicatorTag, groupIndex, tag);
+        return index >= 0 ? getIntAt(index) : TypedValues.NULL_INT;
+    }
+
+    public long getGroupLong(int indicatorTag, int groupIndex, int tag) {
+        int index = indexOf(indicatorTag, groupIndex, tag);
+        return index >= 0 ? getLongAt(index) : TypedValues.NULL_LONG;
+    }
+
+    /**
+     * Returns the value of a tag in a group, or null. See {@link #getCharSequence(int)}.
+     */
+    public CharSequence getGroupCharSequence(int indicatorTag, int groupIndex, int tag) {
+        int index = indexOf(indicatorTag, groupIndex, tag);
+        return index >= 0 ? getCharSequenceAt(index) : null;
+    }
+
+    public int getIntAt(int fieldIndex) {
+        return TypedValues.parseInt(getCharSequenceAt(fieldIndex));
+    }
+
+    public long getLongAt(int fieldIndex) {
+        return TypedValues.parseLong(getCharSequenceAt(fieldIndex));
+    }
+
+    public CharSequence getCharSequenceAt(int fieldIndex) {
+        return value.set(buffer, wireFormat, valueOffsets[fieldIndex], valueLengths[fieldIndex]);
+    }
+
+    private int addField(int tag, int valueOffset, int valueLength, int group) {
+        if (fieldCount == tags.length) {
+            int capacity = fieldCount * 2;
+            tags = Arrays.copyOf(tags, capacity);
+            valueOffsets = Arrays.copyOf(valueOffsets, capacity);
+            valueLengths = Arrays.copyOf(valueLengths, capacity);
+            fieldGroups = Arrays.copyOf(fieldGroups, capacity);
+            fieldRepeatingGroups = Arrays.copyOf(fieldRepeatingGroups, capacity);
+        }
+        tags[fieldCount] = tag;
+        valueOffsets[fieldCount] = valueOffset;
+        valueLengths[fieldCount] = valueLength;
+        fieldGroups[fieldCount] = group;
+        fieldRepeatingGroups[fieldCount] = -1;
+        return fieldCount++;
+    }
+
+    private void index(int tag, int fieldIndex) {
+        if (fieldCount * 2 > slots.length) {
+            // Keep the index at most half full. Rebuild it from all indexed fields.
+            int[] oldSlots = slots;
+            int[] oldStamps = slotStamps;
+            slots = new int[oldSlots.length * 2];
+            slotStamps = new int[oldSlots.length * 2];
+            for (int i = 0; i < oldSlots.length; i++) {
+                if (oldStamps[i] == stamp) {
+                    insert(tags[oldSlots[i]], oldSlots[i]);
+                }
+            }
+        }
+        insert(tag, fieldIndex);
+    }
+
+    private void insert(int tag, int fieldIndex) {
+        int mask = slots.length - 1;
+        int i = mix(tag) & mask;
+        while (slotStamps[i] == stamp) {
+            i = (i + 1) & mask;
+        }
+        slots[i] = fieldIndex;
+        slotStamps[i] = stamp;
+    }
+
+    private int repeatingGroupOf(int parentGroup, int indicatorTag) {
+        int field = parentGroup < 0 ? indexOf(indicatorTag) : indexInGroup(parentGroup, indicatorTag);
+        return field >= 0 ? fieldRepeatingGroups[field] : -1;
+    }
+
+    private static int mix(int tag) {
+        return tag * 0x9E3779B9 >>> 16;
+    }
+}
@@ -0,0 +1,275 @@
+package home.anuradha;
+
+import java.util.*;
+
+/**
+ * Represents a group inside a repeating group set in a FIX message.
+ * A Group can only have a fixed set of tags, defined by a {@link GroupSchema}. The first tag of the schema is the first
+ * tag of the group and the required tags of the schema must be present in the group. A group can also be created from a
+ * plain list of tags, in which case the first tag in the list is the first tag of the group and the second tag in the
+ * list is a required tag.
+ * If the schema has nested repeating groups, they are stored in a map of the indicator tag to a {@link RepeatingGroup},
+ * the same way as in {@link FIXMessage}.
+ * This class contains a {@link TagMap} of tags and values of the group, maintained in order of occurrence in the message.
+ * A {@link Group} must be validated after creation by calling the isValid() method.
+ * A group borrowed from a {@link FIXMessagePool} must not be used after it has been released back to the pool.
+ */
+public class Group {
+
+    public static class GroupException extends Exception {
+        public static String BAD_TAG = "Invalid tag.";
+        public static String TAG_ALREADY_EXISTS = "Tag already exists in group.";
+        public static String INVALID_GROUP = "Invalid message. Group is missing a required tag.";
+
+        public GroupException(String msg) {
+            super(msg);
+        }
+    }
+
+    private GroupSchema schema;
+    private final TagMap<String> tagsAndValues;
+    private TagMap<RepeatingGroup> repeatingGroups; // Created when the first nested repeating group is.
+    // Number of tags put before each nested repeating group, see FIXMessage.
+    private int[] repeatingGroupPositions;
+
+    // Pool the group was borrowed from, which its nested repeating groups are borrowed from too. Null if not pooled.
+    FIXMessagePool pool;
+    boolean released;
+
+
+    public Group(List<Integer> groupTags) {
+        this(GroupSchema.of(groupTags));
+    }
+
+    public Group(GroupSchema schema) {
+        this.schema = schema;
+        this.tagsAndValues = new TagMap<>(schema.getTagCount());
+    }
+
+    public GroupSchema getSchema() {
+        return schema;
+    }
+
+    public TagMap<String> getAllTagsAndValues() {
+        assert !released : FIXMessagePool.RELEASED;
+        return tagsAndValues;
+    }
+
+    /**
+     * Get the value of a tag in this group. For the indicator tag of a nested repeating group, returns the number of
+     * groups as a String.
+     */
+    public String getValue(int tag) {
+        assert !released : FIXMessagePool.RELEASED;
+        RepeatingGroup repeatingGroup = getRepeatingGroup(tag);
+        if (repeatingGroup != null) {
+            return String.valueOf(repeatingGroup.getNumberOfGroups());
+        }
+        return tagsAndValues.get(tag);
+    }
+
+    // Typed accessors. None of these allocate, throw or change the group, so they can be called from several threads at
+    // once: a missing or malformed value returns a sentinel of TypedValues, and hasTag(tag) tells which it was.
+    // Indicator tags can be read with getInt and getLong.
+
+    /**
+     * Returns true if the tag is present, as a tag with a value or as the indicator tag of a repeating group. After a
+     * typed accessor has returned a sentinel, tells a malformed value (present) from a missing one.
+     */
+    public boolean hasTag(int tag) {
+        assert !released : FIXMessagePool.RELEASED;
+        return tagsAndValues.get(tag) != null || getRepeatingGroup(tag) != null;
+    }
+
+    public int getInt(int tag) {
+        long result = getLong(tag);
+        if (result == TypedValues.NULL_LONG || result < -Integer.MAX_VALUE || result > Integer.MAX_VALUE) {
+            return TypedValues.NULL_INT; // Missing, malformed or out of range.
+        }
+        return (int) result;
+    }
+
+    public long getLong(int tag) {
+        assert !released : FIXMessagePool.RELEASED;
+        RepeatingGroup repeatingGroup = getRepeatingGroup(tag);
+        if (repeatingGroup != null) {
+            return repeatingGroup.getNumberOfGroups();
+        }
+        String value = tagsAndValues.get(tag);
+        return value != null ? TypedValues.parseLong(value) : TypedValues.NULL_LONG;
+    }
+
+    /**
+     * Reads a decimal value, e.g. a price, into the holder. Returns false, leaving the holder unchanged, if the value is
+     * missing or malformed.
+     */
+    public boolean getDecimal(int tag, Decimal decimal) {
+        assert !released : FIXMessagePool.RELEASED;
+        String value = tagsAndValues.get(tag);
+        return value != null && TypedValues.parseDecimal(value, decimal);
+    }
+
+    public char getChar(int tag) {
+        assert !released : FIXMessagePool.RELEASED;
+        String value = tagsAndValues.get(tag);
+        return value != null ? TypedValues.parseChar(value) : TypedValues.NULL_CHAR;
+    }
+
+    /**
+     * Reads a UTCTimestamp as nanoseconds since the epoch. See {@link TypedValues#parseUTCTimestampNanos(CharSequence)}.
+     */
+    public long getUTCTimestampNanos(int tag) {
+        assert !released : FIXMessagePool.RELEASED;
+        String value = tagsAndValues.get(tag);
+        return value != null ? TypedValues.parseUTCTimestampNanos(value) : TypedValues.NULL_LONG;
+    }
+
+    public RepeatingGroup getRepeatingGroup(int indicatorTag) {
+        assert !released : FIXMessagePool.RELEASED;
+        return repeatingGroups != null ? repeatingGroups.get(indicatorTag) : null;
+    }
+
+    public TagMap<RepeatingGroup> getRepeatingGroups() {
+        if (repeatingGroups == null) {
+            repeatingGroups = new TagMap<>(1);
+        }
+        return repeatingGroups;
+    }
+
+    public int getRepeatingGroupCount() {
+        return repeatingGroups != null ? repeatingGroups.size() : 0;
+    }
+
+    /**
+     * Returns the number of tags that came before the nested repeating group at a position of
+     * {@link #getRepeatingGroups()}.
+     */
+    public int getRepeatingGroupPosition(int index) {
+        if (repeatingGroups == null || index < 0 || index >= repeatingGroups.size()) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return repeatingGroupPositions[index];
+    }
+
+    /**
+     * Creates and returns a nested {@link RepeatingGroup}. Same validation as
+     * {@link FIXMessage#createRepeatingGroup(int, int)}, against the nested groups of this group's schema.
+     */
+    public RepeatingGroup createRepeatingGroup(int indicatorTag, int numberOfGroups) throws FIXMessage.FIXMessageException {
+        int error = checkRepeatingGroup(indicatorTag, numberOfGroups);
+        if (error != ParseResult.OK) {
+            throw new FIXMessage.FIXMessageException(ParseResult.describe(error));
+        }
+        return addRepeatingGroup(indicatorTag, numberOfGroups);
+    }
+
+    /**
+     * Validates a nested repeating group before {@link #addRepeatingGroup(int, int)}. Returns a {@link ParseResult} code.
+     */
+    int checkRepeatingGroup(int indicatorTag, int numberOfGroups) {
+        assert !released : FIXMessagePool.RELEASED;
+        if (schema.getChildGroup(indicatorTag) == null) {
+            // Attempting to create a repeating group with an invalid indicator tag.
+            return ParseResult.NOT_INDICATOR_TAG;
+        }
+        if (numberOfGroups <= 0) {
+            // Attempting to create less than one group.
+            return ParseResult.NON_POSITIVE_GROUPS;
+        }
+        if (getRepeatingGroup(indicatorTag) != null || tagsAndValues.containsKey(indicatorTag)) {
+            // Attempting to create repeating group with an indicator tag that has already been seen.
+            return ParseResult.REPEATING_GROUP_ALREADY_EXISTS;
+        }
+        return ParseResult.OK;
+    }
+
+    /**
+     * Creates a nested repeating group that has passed {@link #checkRepeatingGroup(int, int)}.
+     */
+    RepeatingGroup addRepeatingGroup(int indicatorTag, int numberOfGroups) {
+        GroupSchema childSchema = schema.getChildGroup(indicatorTag);
+        RepeatingGroup repeatingGroup = pool != null ? pool.borrowRepeatingGroup(childSchema, numberOfGroups) : new RepeatingGroup(childSchema, numberOfGroups);
+        TagMap<RepeatingGroup> repeatingGroups = getRepeatingGroups();
+        if (repeatingGroupPositions == null) {
+            repeatingGroupPositions = new int[1];
+        } else if (repeatingGroups.size() == repeatingGroupPositions.length) {
+            repeatingGroupPositions = Arrays.copyOf(repeatingGroupPositions, repeatingGroups.size() * 2);
+        }
+        repeatingGroupPositions[repeatingGroups.size()] = tagsAndValues.size();
+        repeatingGroups.put(indicatorTag, repeatingGroup);
+        return repeatingGroup;
+    }
+
+    public Group put(int tag, String value) throws GroupException{
+        int error = tryPut(tag, value);
+        if (error != ParseResult.OK) {
+            throw new GroupException(ParseResult.describe(error));
+        }
+        return this;
+    }
+
+    /**
+     * Same as {@link #put(int, String)}, but returns a {@link ParseResult} code instead of throwing.
+     */
+    int tryPut(int tag, String value) {
+        assert !released : FIXMessagePool.RELEASED;
+        if (!schema.contains(tag)) {
+            // Attemptng to add a tag that doesn't belong to this group.
+            return ParseResult.BAD_GROUP_TAG;
+        }
+        if (tagsAndValues.containsKey(tag) || getRepeatingGroup(tag) != null) {
+            // Attemptng to add a tag that has already been seen.
+            return ParseResult.GROUP_TAG_ALREADY_EXISTS;
+        }
+        tagsAndValues.put(tag, value);
+        return ParseResult.OK;
+    }
+
+    /**
+     * Validates the group by checking that it contains the first tag and all required tags of the schema. A required
+     * tag that is a nested indicator tag is satisfied by its repeating group.
+     */
+    public boolean isValid() {
+        if (!tagsAndValues.containsKey(schema.getFirstTag())) {
+            return false;
+        }
+        for (int i = 0; i < schema.getRequiredTagCount(); i++) {
+            int requiredTag = schema.getRequiredTag(i);
+            if (!tagsAndValues.containsKey(requiredTag) && getRepeatingGroup(requiredTag) == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Clears the group for reuse by a {@link FIXMessagePool}, with a possibly different schema.
+     */
+    void reset(GroupSchema schema) {
+        this.schema = schema;
+        tagsAndValues.clear();
+        if (repeatingGroups != null) {
+            repeatingGroups.clear();
+        }
+    }
+
+    private StringBuffer sb; // Created on the first call to toString().
+    public String toString() {
+        assert !released : FIXMessagePool.RELEASED;
+        if (sb == null) {
+            sb = new StringBuffer();
+        }
+        sb.setLength(0);
+        sb.append("Group:[");
+        for (int i = 0; i < tagsAndValues.size(); i++) {
+            sb.append(tagsAndValues.keyAt(i)).append('=').append(tagsAndValues.valueAt(i)).append(',');
+        }
+        if (repeatingGroups != null) {
+            for (int i = 0; i < repeatingGroups.size(); i++) {
+                sb.append(repeatingGroups.valueAt(i).toString()).append(',');
+            }
+        }
+        sb.append(']');
+        return sb.toString();
+    }
+}
\ No newline at end of file
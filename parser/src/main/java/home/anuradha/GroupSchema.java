@@ -0,0 +1,85 @@
+package home.anuradha;
+
+import java.util.List;
+
+/**
+ * Compiled definition of the groups under one indicator tag, as loaded from a {@link DataDictionary}.
+ * Lists the tags a {@link Group} may contain in dictionary order. The first tag must start every group, and the
+ * required tags must be present in every group. Tags of nested repeating groups are members of the group too, and
+ * their own schema is available from {@link #getChildGroup(int)}.
+ */
+public final class GroupSchema {
+
+    private final int indicatorTag;
+    private final String name;
+    private final int[] tags;
+    private final int[] requiredTags;
+    private final TagSet tagSet;
+    private final TagMap<GroupSchema> childGroups;
+
+    GroupSchema(int indicatorTag, String name, int[] tags, int[] requiredTags, List<GroupSchema> childGroups) {
+        this.indicatorTag = indicatorTag;
+        this.name = name;
+        this.tags = tags.clone();
+        this.requiredTags = requiredTags.clone();
+        this.tagSet = new TagSet(tags);
+        this.childGroups = new TagMap<>(Math.max(childGroups.size(), 1));
+        for (GroupSchema childGroup : childGroups) {
+            this.childGroups.put(childGroup.getIndicatorTag(), childGroup);
+        }
+    }
+
+    /**
+     * Schema for a plain list of group tags, where the first tag starts the group and the second tag is required.
+     */
+    static GroupSchema of(List<Integer> groupTags) {
+        int[] tags = groupTags.stream().mapToInt(Integer::intValue).toArray();
+        return new GroupSchema(0, null, tags, new int[] {tags[1]}, List.of());
+    }
+
+    public int getIndicatorTag() {
+        return indicatorTag;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getFirstTag() {
+        return tags[0];
+    }
+
+    public int[] getTags() {
+        return tags.clone();
+    }
+
+    public int[] getRequiredTags() {
+        return requiredTags.clone();
+    }
+
+    public int getTagCount() {
+        return tags.length;
+    }
+
+    int getRequiredTagCount() {
+        return requiredTags.length;
+    }
+
+    int getRequiredTag(int index) {
+        return requiredTags[index];
+    }
+
+    /**
+     * Returns true if the tag may appear in a group, including the indicator tags of nested repeating groups.
+     */
+    public boolean contains(int tag) {
+        return tagSet.contains(tag);
+    }
+
+    /**
+     * Returns the schema of a repeating group nested in this group, or null if the tag isn't a nested indicator tag.
+     */
+    public GroupSchema getChildGroup(int indicatorTag) {
+        return childGroups.get(indicatorTag);
+    }
+}
@@ -0,0 +1,130 @@
+package home.anuradha;
+
+import java.util.Arrays;
+
+/**
+ * Histogram of non-negative long values, such as latencies in nanoseconds, with a fixed relative precision in the
+ * style of HdrHistogram. Values below 128 are counted exactly. Larger values are counted in buckets that each cover a
+ * power of two range split into 64 sub-buckets, so a value is reported within 1/64 (about 1.6%) of its true value, and
+ * the whole long range fits in under 4000 counters. Recording is a few shifts and an increment, and never allocates.
+ * Not thread safe. Use one histogram per writing thread and combine them with {@link #add(LatencyHistogram)}.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int HALF_SUB_BUCKETS = SUB_BUCKETS / 2;
+    private static final int COUNTERS = (64 - SUB_BUCKET_BITS) * HALF_SUB_BUCKETS + SUB_BUCKETS;
+
+    private final long[] counts = new long[COUNTERS];
+    private long totalCount;
+    private long min = Long.MAX_VALUE;
+    private long max;
+    private double sum;
+
+    /**
+     * Records a value. Negative values are recorded as 0.
+     */
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        counts[indexOf(value)]++;
+        totalCount++;
+        sum += value;
+        if (value < min) {
+            min = value;
+        }
+        if (value > max) {
+            max = value;
+        }
+    }
+
+    public long getCount() {
+        return totalCount;
+    }
+
+    /**
+     * Returns the smallest value recorded, or 0 if none has been.
+     */
+    public long getMin() {
+        return totalCount == 0 ? 0 : min;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    public double getMean() {
+        return totalCount == 0 ? 0 : sum / totalCount;
+    }
+
+    /**
+     * Returns the value that the given percentage of values are less than or equal to, within the precision of the
+     * histogram, or 0 if no value has been recorded.
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (totalCount == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(percentile / 100 * totalCount));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= target) {
+                return Math.min(highestValueAt(i), max);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Adds the values of another histogram to this one.
+     */
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        totalCount += other.totalCount;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    public void reset() {
+        Arrays.fill(counts, 0);
+        totalCount = 0;
+        min = Long.MAX_VALUE;
+        max = 0;
+        sum = 0;
+    }
+
+    @Override
+    public String toString() {
+        return "LatencyHistogram:[count=" + totalCount + ",min=" + getMin() + ",mean=" + Math.round(getMean())
+                + ",p50=" + getValueAtPercentile(50) + ",p90=" + getValueAtPercentile(90)
+                + ",p99=" + getValueAtPercentile(99) + ",p99.9=" + getValueAtPercentile(99.9)
+                + ",p99.99=" + getValueAtPercentile(99.99) + ",max=" + max + ']';
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        // Shift the value down to a sub-bucket in [64, 128) of its power of two bucket.
+        int shift = 64 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return shift * HALF_SUB_BUCKETS + (int) (value >>> shift);
+    }
+
+    /**
+     * Returns the highest value counted by a counter.
+     */
+    static long highestValueAt(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / HALF_SUB_BUCKETS - 1;
+        long subBucket = index - (long) shift * HALF_SUB_BUCKETS;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
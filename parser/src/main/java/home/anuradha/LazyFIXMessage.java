@@ -0,0 +1,92 @@
+package home.anuradha;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * FIX message that decodes its values on demand. Filled by {@link FIXMessageParser#parseLazy(ByteBuffer)}, which scans
+ * the message into a {@link FIXMessageView}, recording only where each value is, with the same validation as
+ * {@link FIXMessageParser#parse(ByteBuffer)}. A value is decoded into a String the first time it is read, and the String
+ * is cached for later reads, so only the values that are read cost an allocation.
+ * Values are returned as by {@link FIXMessage#getNonGroupTagValue(int)} and {@link Group#getValue(int)}: an indicator
+ * tag returns its number of groups.
+ * Groups are addressed by indicator tag and index, or by the group indices of the view, rather than through
+ * {@link RepeatingGroup} and {@link Group} objects, which would have to be built for every group whether or not it is
+ * read.
+ * The message refers to the parsed buffer, so the buffer must not be modified while the message is in use. A message can
+ * be reused with {@link FIXMessageParser#parseLazy(ByteBuffer, LazyFIXMessage)}, which clears the cached values.
+ */
+public class LazyFIXMessage {
+
+    private final FIXMessageView view = new FIXMessageView();
+
+    // Decoded values by field index. A value is cached if its stamp equals the current stamp, so the cache is cleared by
+    // incrementing the stamp.
+    private String[] values = new String[64];
+    private int[] valueStamps = new int[64];
+    private int stamp = 1;
+
+    /**
+     * The underlying view, for allocation-free access to values.
+     */
+    public FIXMessageView getView() {
+        return view;
+    }
+
+    /**
+     * Get the value of any tag that doesn't belong to a group, or null. This includes indicator tags.
+     */
+    public String getNonGroupTagValue(int tag) {
+        int fieldIndex = view.indexOf(tag);
+        return fieldIndex >= 0 ? valueAt(fieldIndex) : null;
+    }
+
+    /**
+     * Returns the number of groups under a top level indicator tag, or 0 if the message has no such repeating group.
+     */
+    public int getNumberOfGroups(int indicatorTag) {
+        return view.getNumberOfGroups(indicatorTag);
+    }
+
+    /**
+     * Get the value of a tag in a group of a top level repeating group, or null.
+     */
+    public String getGroupValue(int indicatorTag, int groupIndex, int tag) {
+        int group = view.getGroup(indicatorTag, groupIndex);
+        return group >= 0 ? getValueInGroup(group, tag) : null;
+    }
+
+    /**
+     * Get the value of a tag in a group of the view, at any depth, or null. See {@link FIXMessageView#getGroup(int, int, int)}.
+     */
+    public String getValueInGroup(int group, int tag) {
+        int fieldIndex = view.indexInGroup(group, tag);
+        return fieldIndex >= 0 ? valueAt(fieldIndex) : null;
+    }
+
+    /**
+     * Clears the cached values before the message is filled again.
+     */
+    void clearValues() {
+        if (++stamp == 0) {
+            Arrays.fill(valueStamps, 0);
+            stamp = 1;
+        }
+    }
+
+    private String valueAt(int fieldIndex) {
+        if (fieldIndex >= values.length) {
+            int capacity = Math.max(values.length * 2, fieldIndex + 1);
+            values = Arrays.copyOf(values, capacity);
+            valueStamps = Arrays.copyOf(valueStamps, capacity);
+        }
+        if (valueStamps[fieldIndex] != stamp) {
+            int repeatingGroup = view.getFieldRepeatingGroup(fieldIndex);
+            values[fieldIndex] = repeatingGroup >= 0
+                    ? String.valueOf(view.getNumberOfGroupsAt(repeatingGroup)) // Indicator tag.
+                    : view.getCharSequenceAt(fieldIndex).toString();
+            valueStamps[fieldIndex] = stamp;
+        }
+        return values[fieldIndex];
+    }
+}
@@ -0,0 +1,273 @@
+package home.anuradha;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import home.anuradha.FIXMessage.FIXMessageException;
+
+/**
+ * Read-only, memory-mapped view of a capture file, i.e. a file of messages written back to back in the wire format.
+ * Messages are framed in place with {@link MessageFraming} and handed out as slices of the mapped file, so they can be
+ * passed to {@link FIXMessageParser#parse(ByteBuffer)} or {@link FIXMessageParser#parse(ByteBuffer, FIXMessageView)}
+ * without being copied to the heap.
+ * <p>
+ * A {@link MappedByteBuffer} holds at most 2 GB, so the file is mapped in chunks. Each mapping extends past its chunk
+ * by the maximum message size, so that a message starting in a chunk can always be sliced from that chunk's mapping.
+ * <p>
+ * Messages can be scanned in order with {@link #forEachMessage(MessageVisitor)}, or accessed by index once an offset
+ * index has been built. The index can be saved next to the file and loaded on the next open, so that a file is only
+ * scanned once. An incomplete message at the end of the file (e.g. a capture that is still being written) is ignored.
+ */
+public class MappedCaptureFile implements Closeable {
+
+    public interface MessageVisitor {
+        /**
+         * Called with a read-only slice of each message. Return false to stop the scan.
+         */
+        boolean visit(long index, ByteBuffer message) throws FIXMessageException, Group.GroupException, RepeatingGroup.RepeatingGroupException;
+    }
+
+    public static final long DEFAULT_CHUNK_SIZE = 1L << 30;
+    public static final int DEFAULT_MAX_MESSAGE_SIZE = 1 << 20;
+
+    private static final long INDEX_MAGIC = 0x4649584944580002L; // "FIXIDX", version 2.
+    private static final int INDEX_HEADER_LONGS = 6;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final long size;
+    private final long chunkSize;
+    private final int trailerTag;
+    private final MappedByteBuffer[] mappings;
+
+    // Offsets of every message, plus the end of the last message. Null until the index is built or loaded.
+    private long[] offsets;
+
+    private MappedCaptureFile(Path file, long chunkSize, int maxMessageSize, int trailerTag) throws IOException {
+        if (chunkSize <= 0 || maxMessageSize <= 0 || chunkSize + maxMessageSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Each mapping must be less than 2 GB.");
+        }
+        this.file = file;
+        this.chunkSize = chunkSize;
+        this.trailerTag = trailerTag;
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            this.size = channel.size();
+            int chunks = (int) ((size + chunkSize - 1) / chunkSize);
+            this.mappings = new MappedByteBuffer[chunks];
+            for (int i = 0; i < chunks; i++) {
+                long start = i * chunkSize;
+                long length = Math.min(size - start, chunkSize + maxMessageSize);
+                mappings[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public static MappedCaptureFile open(Path file) throws IOException {
+        return open(file, DEFAULT_CHUNK_SIZE, DEFAULT_MAX_MESSAGE_SIZE, StreamingFIXMessageParser.CHECKSUM_TAG);
+    }
+
+    public static MappedCaptureFile open(Path file, long chunkSize, int maxMessageSize, int trailerTag) throws IOException {
+        return new MappedCaptureFile(file, chunkSize, maxMessageSize, trailerTag);
+    }
+
+    /**
+     * Default location of the persisted index of a capture file: the file name with ".idx" appended.
+     */
+    public static Path indexFileFor(Path file) {
+        return file.resolveSibling(file.getFileName() + ".idx");
+    }
+
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Scans the file from the start, passing each message to the visitor. Does not need or build the index.
+     * Returns the number of messages visited.
+     */
+    public long forEachMessage(MessageVisitor visitor) throws FIXMessageException, Group.GroupException, RepeatingGroup.RepeatingGroupException {
+        long position = 0;
+        long index = 0;
+        while (true) {
+            int chunk = (int) (position / chunkSize);
+            if (chunk >= mappings.length) {
+                return index;
+            }
+            MappedByteBuffer mapping = mappings[chunk];
+            int start = (int) (position - chunk * chunkSize);
+            int end = frame(mapping, start, chunk);
+            if (end < 0) {
+                return index;
+            }
+            if (!visitor.visit(index++, mapping.slice(start, end - start).asReadOnlyBuffer())) {
+                return index;
+            }
+            position += end - start;
+        }
+    }
+
+    /**
+     * Returns the number of messages in the file, building the index if it hasn't been built or loaded yet.
+     */
+    public long getMessageCount() throws FIXMessageException {
+        return index().length - 1;
+    }
+
+    /**
+     * Returns a read-only slice of a message, building the index if it hasn't been built or loaded yet.
+     */
+    public ByteBuffer getMessage(long index) throws FIXMessageException {
+        long[] offsets = index();
+        if (index < 0 || index >= offsets.length - 1) {
+            throw new IndexOutOfBoundsException("Message " + index + " of " + (offsets.length - 1));
+        }
+        long offset = offsets[(int) index];
+        int chunk = (int) (offset / chunkSize);
+        int start = (int) (offset - chunk * chunkSize);
+        return mappings[chunk].slice(start, (int) (offsets[(int) index + 1] - offset)).asReadOnlyBuffer();
+    }
+
+    /**
+     * Loads the persisted index from indexFile if it matches this file, see {@link #loadIndex(Path)}. Otherwise scans
+     * the file and saves the index to indexFile. Returns true if the index was loaded.
+     */
+    public boolean loadOrBuildIndex(Path indexFile) throws IOException, FIXMessageException {
+        if (loadIndex(indexFile)) {
+            return true;
+        }
+        index();
+        saveIndex(indexFile);
+        return false;
+    }
+
+    /**
+     * Writes the index, building it first if needed. The index is written to a temporary file and then moved into
+     * place, so a reader never sees a partly written index.
+     */
+    public void saveIndex(Path indexFile) throws IOException, FIXMessageException {
+        long[] offsets = index();
+        Path tmp = indexFile.resolveSibling(indexFile.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp), 1 << 16))) {
+            out.writeLong(INDEX_MAGIC);
+            out.writeLong(size);
+            out.writeLong(Files.getLastModifiedTime(file).toMillis());
+            out.writeLong(trailerTag);
+            out.writeLong(chunkSize);
+            out.writeLong(offsets.length);
+            for (long offset : offsets) {
+                out.writeLong(offset);
+            }
+        }
+        Files.move(tmp, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Loads a persisted index. Returns false, leaving the index unchanged, if the index file doesn't exist, was written
+     * for a different version of the capture file (size or modification time) or with different framing (trailer tag or
+     * chunk size), or has offsets that aren't messages of this file: the offsets must start at 0, increase, and each
+     * message must end within the mapping of the chunk it starts in.
+     */
+    public boolean loadIndex(Path indexFile) throws IOException {
+        if (!Files.isRegularFile(indexFile)) {
+            return false;
+        }
+        try (FileChannel indexChannel = FileChannel.open(indexFile, StandardOpenOption.READ)) {
+            if (indexChannel.size() < 8 * INDEX_HEADER_LONGS) {
+                return false;
+            }
+            LongBuffer longs = indexChannel.map(FileChannel.MapMode.READ_ONLY, 0, indexChannel.size()).asLongBuffer();
+            if (longs.get() != INDEX_MAGIC || longs.get() != size
+                    || longs.get() != Files.getLastModifiedTime(file).toMillis()
+                    || longs.get() != trailerTag || longs.get() != chunkSize) {
+                return false;
+            }
+            long length = longs.get();
+            if (length < 1 || length != longs.remaining()) {
+                return false;
+            }
+            long[] loaded = new long[(int) length];
+            longs.get(loaded);
+            if (!isValid(loaded)) {
+                return false;
+            }
+            offsets = loaded;
+            return true;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        // The mappings stay valid until they are garbage collected. Closing the channel releases the file handle.
+        channel.close();
+    }
+
+    private long[] index() throws FIXMessageException {
+        if (offsets == null) {
+            long[] built = new long[1024];
+            int count = 0;
+            long position = 0;
+            while (true) {
+                if (count == built.length) {
+                    built = Arrays.copyOf(built, count * 2);
+                }
+                built[count++] = position; // Start of the next message, or the end of the last one.
+                int chunk = (int) (position / chunkSize);
+                if (chunk >= mappings.length) {
+                    break;
+                }
+                int start = (int) (position - chunk * chunkSize);
+                int end = frame(mappings[chunk], start, chunk);
+                if (end < 0) {
+                    break;
+                }
+                position += end - start;
+            }
+            offsets = Arrays.copyOf(built, count);
+        }
+        return offsets;
+    }
+
+    private boolean isValid(long[] offsets) {
+        if (offsets[0] != 0) {
+            return false;
+        }
+        for (int i = 1; i < offsets.length; i++) {
+            long offset = offsets[i - 1];
+            if (offsets[i] <= offset || offsets[i] > size) {
+                return false;
+            }
+            int chunk = (int) (offset / chunkSize);
+            if (offsets[i] - chunk * chunkSize > mappings[chunk].limit()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Frames the message at start in a chunk's mapping. Returns its end, or -1 if the file ends before it does.
+     */
+    private int frame(MappedByteBuffer mapping, int start, int chunk) throws FIXMessageException {
+        int end = MessageFraming.findMessageEnd(mapping, start, mapping.limit(), trailerTag);
+        if (end < 0 && chunk * chunkSize + mapping.limit() < size) {
+            // The mapping stops before the end of the file, so the message is longer than the maximum.
+            throw new FIXMessageException(FIXMessageException.BAD_FORMAT);
+        }
+        return end;
+    }
+}
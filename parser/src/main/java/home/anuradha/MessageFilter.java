@@ -0,0 +1,119 @@
+package home.anuradha;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Conditions on the values of top level tags, checked by {@link FIXMessageParser#parse(ByteBuffer, MessageFilter)}
+ * before a message is parsed. A message matches if it has every tag of the filter and every value passes its condition,
+ * e.g. {@code MessageFilter.where(35, equalTo("W")).and(55, in(symbols))}.
+ * Values are tested in place in the buffer, so conditions must not keep the {@link CharSequence} they are given.
+ * Filters are immutable and can be shared between parsers.
+ */
+public final class MessageFilter {
+
+    public interface ValueCondition {
+        boolean test(CharSequence value);
+    }
+
+    private static final int MAX_CONDITIONS = 64;
+
+    private final int[] tags;
+    private final ValueCondition[] conditions;
+
+    private MessageFilter(int[] tags, ValueCondition[] conditions) {
+        this.tags = tags;
+        this.conditions = conditions;
+    }
+
+    public static MessageFilter where(int tag, ValueCondition condition) {
+        return new MessageFilter(new int[]{tag}, new ValueCondition[]{condition});
+    }
+
+    /**
+     * Returns a filter that also requires the tag to pass the condition.
+     */
+    public MessageFilter and(int tag, ValueCondition condition) {
+        if (indexOf(tag) >= 0) {
+            throw new IllegalArgumentException("Tag " + tag + " already has a condition.");
+        }
+        if (tags.length == MAX_CONDITIONS) {
+            throw new IllegalArgumentException("A filter can have at most " + MAX_CONDITIONS + " conditions.");
+        }
+        int[] newTags = Arrays.copyOf(tags, tags.length + 1);
+        ValueCondition[] newConditions = Arrays.copyOf(conditions, conditions.length + 1);
+        newTags[tags.length] = tag;
+        newConditions[conditions.length] = condition;
+        return new MessageFilter(newTags, newConditions);
+    }
+
+    public static ValueCondition equalTo(String expected) {
+        return value -> contentEquals(value, expected);
+    }
+
+    public static ValueCondition in(String... values) {
+        return in(Arrays.asList(values));
+    }
+
+    /**
+     * Condition that passes values in the set. Values are looked up by hash without being copied to a String.
+     */
+    public static ValueCondition in(Collection<String> values) {
+        // Open addressing table of the values, at most half full.
+        String[] table = new String[Integer.highestOneBit(Math.max(values.size(), 1) * 4 - 1)];
+        int mask = table.length - 1;
+        for (String value : values) {
+            int i = value.hashCode() & mask;
+            while (table[i] != null && !table[i].equals(value)) {
+                i = (i + 1) & mask;
+            }
+            table[i] = value;
+        }
+        return value -> {
+            // Same hash as String.hashCode().
+            int hash = 0;
+            for (int i = 0; i < value.length(); i++) {
+                hash = 31 * hash + value.charAt(i);
+            }
+            for (int i = hash & mask; table[i] != null; i = (i + 1) & mask) {
+                if (contentEquals(value, table[i])) {
+                    return true;
+                }
+            }
+            return false;
+        };
+    }
+
+    int getConditionCount() {
+        return tags.length;
+    }
+
+    /**
+     * Returns the index of the condition on a tag, or -1.
+     */
+    int indexOf(int tag) {
+        for (int i = 0; i < tags.length; i++) {
+            if (tags[i] == tag) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    boolean test(int conditionIndex, CharSequence value) {
+        return conditions[conditionIndex].test(value);
+    }
+
+    private static boolean contentEquals(CharSequence value, String expected) {
+        if (value.length() != expected.length()) {
+            return false;
+        }
+        for (int i = 0; i < expected.length(); i++) {
+            if (value.charAt(i) != expected.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
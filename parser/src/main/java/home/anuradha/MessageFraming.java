@@ -0,0 +1,48 @@
+package home.anuradha;
+
+import java.nio.ByteBuffer;
+
+import home.anuradha.FIXMessage.FIXMessageException;
+
+/**
+ * Finds message boundaries in a buffer holding several messages back to back, without parsing them. A message ends
+ * after its trailer tag (10, CheckSum, by default), as in {@link StreamingFIXMessageParser}.
+ * Uses absolute reads only, so the position of the buffer is left untouched.
+ */
+public final class MessageFraming {
+
+    private MessageFraming() {
+    }
+
+    /**
+     * Returns the position just after the message that starts at start, or -1 if the message isn't complete before
+     * limit. Throws BAD_FORMAT if a field is missing its '='.
+     */
+    public static int findMessageEnd(ByteBuffer bb, int start, int limit, int trailerTag) throws FIXMessageException {
+        int position = start;
+        while (true) {
+            // Tag, then '=', then value chars up to the '|'.
+            if (position + 6 > limit) {
+                return -1;
+            }
+            int tag = bb.getInt(position);
+            if (bb.getChar(position + 4) != '=') {
+                throw new FIXMessageException(FIXMessageException.BAD_FORMAT);
+            }
+            position += 6;
+            while (true) {
+                if (position + 2 > limit) {
+                    return -1;
+                }
+                char c = bb.getChar(position);
+                position += 2;
+                if (c == '|') {
+                    break;
+                }
+            }
+            if (tag == trailerTag) {
+                return position;
+            }
+        }
+    }
+}
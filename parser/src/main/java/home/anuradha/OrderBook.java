@@ -0,0 +1,332 @@
+package home.anuradha;
+
+import java.lang.invoke.VarHandle;
+
+/**
+ * Price levels of one symbol, built by {@link OrderBookBuilder}. Written by one thread and read by any number of
+ * threads without locks.
+ * <p>
+ * Each side keeps at most maxLevels levels in primitive arrays allocated up front, sorted from the worst price to the
+ * best, so that the best level is the last one: reading the top of the book takes constant time, and the levels that
+ * change most often are next to the end, where inserting or removing one moves few others. When a side is full, a
+ * better level pushes out the worst one and a worse level is dropped.
+ * <p>
+ * Readers use a seqlock. The writer makes the version odd before changing the levels and even again afterwards, and a
+ * reader copies what it needs and retries if the version was odd or changed while it was copying. Updates are applied
+ * in batches, so a reader sees all of a batch or none of it and the version is bumped once per batch.
+ * Prices are longs with {@link #getPriceScale()} decimal places.
+ */
+public final class OrderBook {
+
+    public static final int BID = 0;
+    public static final int OFFER = 1;
+
+    /**
+     * Reusable copy of the best bid and offer. A price and size of 0 means the side is empty.
+     */
+    public static final class TopOfBook {
+        private long version;
+        private long bidPrice;
+        private long bidSize;
+        private long offerPrice;
+        private long offerSize;
+
+        public long getVersion() {
+            return version;
+        }
+
+        public long getBidPrice() {
+            return bidPrice;
+        }
+
+        public long getBidSize() {
+            return bidSize;
+        }
+
+        public long getOfferPrice() {
+            return offerPrice;
+        }
+
+        public long getOfferSize() {
+            return offerSize;
+        }
+
+        @Override
+        public String toString() {
+            return bidSize + "@" + bidPrice + " / " + offerSize + "@" + offerPrice + " (version " + version + ")";
+        }
+    }
+
+    /**
+     * Reusable copy of every level of a book. Levels are numbered from the best, starting at 0.
+     */
+    public static final class Snapshot {
+        private long version;
+        private final int[] counts = new int[2];
+        private final long[][] prices;
+        private final long[][] sizes;
+        private final int[][] orders;
+
+        public Snapshot(int maxLevels) {
+            prices = new long[][]{new long[maxLevels], new long[maxLevels]};
+            sizes = new long[][]{new long[maxLevels], new long[maxLevels]};
+            orders = new int[][]{new int[maxLevels], new int[maxLevels]};
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public int getLevelCount(int side) {
+            return counts[side];
+        }
+
+        public long getPrice(int side, int level) {
+            return prices[side][index(side, level)];
+        }
+
+        public long getSize(int side, int level) {
+            return sizes[side][index(side, level)];
+        }
+
+        public int getOrderCount(int side, int level) {
+            return orders[side][index(side, level)];
+        }
+
+        private int index(int side, int level) {
+            if (level < 0 || level >= counts[side]) {
+                throw new IndexOutOfBoundsException(level);
+            }
+            return counts[side] - 1 - level;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder("version ").append(version);
+            for (int side = BID; side <= OFFER; side++) {
+                sb.append(side == BID ? " bids" : " offers");
+                for (int level = 0; level < counts[side]; level++) {
+                    sb.append(' ').append(getSize(side, level)).append('@').append(getPrice(side, level));
+                }
+            }
+            return sb.toString();
+        }
+    }
+
+    private final String symbol;
+    private final int maxLevels;
+    private final int priceScale;
+    private final Sequence version = new Sequence(0);
+
+    // Per side, sorted from the worst price to the best.
+    private final int[] counts = new int[2];
+    private final long[][] prices;
+    private final long[][] sizes;
+    private final int[][] orders;
+
+    private boolean inBatch;
+
+    public OrderBook(String symbol, int maxLevels, int priceScale) {
+        if (maxLevels <= 0) {
+            throw new IllegalArgumentException("maxLevels must be positive.");
+        }
+        this.symbol = symbol;
+        this.maxLevels = maxLevels;
+        this.priceScale = priceScale;
+        prices = new long[][]{new long[maxLevels], new long[maxLevels]};
+        sizes = new long[][]{new long[maxLevels], new long[maxLevels]};
+        orders = new int[][]{new int[maxLevels], new int[maxLevels]};
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public int getMaxLevels() {
+        return maxLevels;
+    }
+
+    public int getPriceScale() {
+        return priceScale;
+    }
+
+    /**
+     * Returns the version, which is even when no batch is being applied and goes up by 2 with each batch.
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    // Writer side. Only one thread may update a book.
+
+    /**
+     * Starts a batch of updates. Readers keep seeing the book as it was until {@link #endBatch()}.
+     */
+    public void beginBatch() {
+        if (inBatch) {
+            throw new IllegalStateException("Batch already started.");
+        }
+        inBatch = true;
+        version.set(version.get() + 1);
+        // The odd version must be visible before any level changes.
+        VarHandle.storeStoreFence();
+    }
+
+    public void endBatch() {
+        if (!inBatch) {
+            throw new IllegalStateException("No batch started.");
+        }
+        inBatch = false;
+        version.set(version.get() + 1);
+    }
+
+    /**
+     * Sets the size and order count of the level at a price, adding the level if it doesn't exist. A size of 0 or less
+     * removes the level. Must be called between {@link #beginBatch()} and {@link #endBatch()}.
+     */
+    public void update(int side, long price, long size, int orderCount) {
+        if (!inBatch) {
+            throw new IllegalStateException("No batch started.");
+        }
+        long[] sidePrices = prices[side];
+        long[] sideSizes = sizes[side];
+        int[] sideOrders = orders[side];
+        int count = counts[side];
+        int index = search(side, price);
+        if (index >= 0) {
+            if (size > 0) {
+                sideSizes[index] = size;
+                sideOrders[index] = orderCount;
+            } else {
+                System.arraycopy(sidePrices, index + 1, sidePrices, index, count - index - 1);
+                System.arraycopy(sideSizes, index + 1, sideSizes, index, count - index - 1);
+                System.arraycopy(sideOrders, index + 1, sideOrders, index, count - index - 1);
+                counts[side] = count - 1;
+            }
+            return;
+        }
+        if (size <= 0) {
+            return;
+        }
+
+        int insert = -index - 1;
+        if (count == maxLevels) {
+            if (insert == 0) {
+                return; // Worse than every level of a full side.
+            }
+            // Push out the worst level, shifting the levels below the new one down.
+            insert--;
+            System.arraycopy(sidePrices, 1, sidePrices, 0, insert);
+            System.arraycopy(sideSizes, 1, sideSizes, 0, insert);
+            System.arraycopy(sideOrders, 1, sideOrders, 0, insert);
+        } else {
+            System.arraycopy(sidePrices, insert, sidePrices, insert + 1, count - insert);
+            System.arraycopy(sideSizes, insert, sideSizes, insert + 1, count - insert);
+            System.arraycopy(sideOrders, insert, sideOrders, insert + 1, count - insert);
+            counts[side] = count + 1;
+        }
+        sidePrices[insert] = price;
+        sideSizes[insert] = size;
+        sideOrders[insert] = orderCount;
+    }
+
+    /**
+     * Removes every level. Must be called between {@link #beginBatch()} and {@link #endBatch()}.
+     */
+    public void clear() {
+        if (!inBatch) {
+            throw new IllegalStateException("No batch started.");
+        }
+        counts[BID] = 0;
+        counts[OFFER] = 0;
+    }
+
+    /**
+     * Returns the index of the price, or -(insertion point) - 1. Bids go up towards the best and offers go down.
+     * Searches back from the best level first, as most updates are near the top of the book.
+     */
+    private int search(int side, long price) {
+        long[] sidePrices = prices[side];
+        int count = counts[side];
+        for (int i = count - 1, checked = 0; i >= 0 && checked < 4; i--, checked++) {
+            long level = sidePrices[i];
+            if (level == price) {
+                return i;
+            }
+            if (side == BID ? level < price : level > price) {
+                return -(i + 1) - 1;
+            }
+        }
+        int low = 0;
+        int high = Math.max(count - 5, -1);
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long level = sidePrices[mid];
+            if (level == price) {
+                return mid;
+            }
+            if (side == BID ? level < price : level > price) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return -low - 1;
+    }
+
+    // Reader side. Any thread, without locks.
+
+    /**
+     * Copies the best bid and offer into top, retrying until it gets a consistent copy. Takes constant time.
+     */
+    public TopOfBook readTopOfBook(TopOfBook top) {
+        while (true) {
+            long before = version.get();
+            if ((before & 1) == 0) {
+                int bids = counts[BID];
+                int offers = counts[OFFER];
+                top.bidPrice = bids > 0 ? prices[BID][bids - 1] : 0;
+                top.bidSize = bids > 0 ? sizes[BID][bids - 1] : 0;
+                top.offerPrice = offers > 0 ? prices[OFFER][offers - 1] : 0;
+                top.offerSize = offers > 0 ? sizes[OFFER][offers - 1] : 0;
+                VarHandle.loadLoadFence();
+                if (version.get() == before) {
+                    top.version = before;
+                    return top;
+                }
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Copies every level into snapshot, retrying until it gets a consistent copy. The snapshot must have room for
+     * {@link #getMaxLevels()} levels.
+     */
+    public Snapshot readSnapshot(Snapshot snapshot) {
+        while (true) {
+            long before = version.get();
+            if ((before & 1) == 0) {
+                for (int side = BID; side <= OFFER; side++) {
+                    // A count read while the writer is active may be out of range, and the version check discards it.
+                    int count = Math.min(Math.max(counts[side], 0), maxLevels);
+                    snapshot.counts[side] = count;
+                    System.arraycopy(prices[side], 0, snapshot.prices[side], 0, count);
+                    System.arraycopy(sizes[side], 0, snapshot.sizes[side], 0, count);
+                    System.arraycopy(orders[side], 0, snapshot.orders[side], 0, count);
+                }
+                VarHandle.loadLoadFence();
+                if (version.get() == before) {
+                    snapshot.version = before;
+                    return snapshot;
+                }
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return symbol + " " + readSnapshot(new Snapshot(maxLevels));
+    }
+}
@@ -0,0 +1,165 @@
+package home.anuradha;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Applies the market data entries of parsed messages, the groups of repeating group 269, to an {@link OrderBook} per
+ * symbol. Each group is an incremental update of one price level:
+ * <ul>
+ *     <li>{@link #SIDE_TAG} 277 is the side, 0 for a bid and 1 for an offer.</li>
+ *     <li>{@link #PRICE_TAG} 231 is the price, scaled to the builder's price scale. A price with more decimal places than
+ *     the scale, other than trailing zeros, can't be held exactly and is rejected, rather than being truncated onto
+ *     another level.</li>
+ *     <li>{@link #SIZE_TAG} 456 is the new size of the level. 0 removes the level.</li>
+ *     <li>{@link #ORDER_COUNT_TAG} 283 is the number of orders at the level, and is optional.</li>
+ * </ul>
+ * The symbol is tag 55 of the message. A group without a valid side, price or size is skipped and counted as rejected.
+ * <p>
+ * Can be the {@link FIXMessagePipeline.Handler} of a pipeline, applying each message as one batch, or be given batches of
+ * messages with {@link #apply(FIXMessage[], int, int)}, in which case each book touched by the batch changes version
+ * once. Reads no Strings other than the symbol, and allocates only when it sees a new symbol.
+ * Books are updated by the thread that applies the messages, and can be read from any thread.
+ */
+public class OrderBookBuilder implements FIXMessagePipeline.Handler {
+
+    public static final int SYMBOL_TAG = 55;
+    public static final int ENTRIES_TAG = 269;
+    public static final int SIDE_TAG = 277;
+    public static final int PRICE_TAG = 231;
+    public static final int SIZE_TAG = 456;
+    public static final int ORDER_COUNT_TAG = 283;
+
+    private final int maxLevels;
+    private final int priceScale;
+    private final ConcurrentHashMap<String, OrderBook> books = new ConcurrentHashMap<>();
+
+    // Writer state.
+    private final Decimal price = new Decimal();
+    private final List<OrderBook> batch = new ArrayList<>();
+    private OrderBook lastBook;
+    private long updateCount;
+    private long rejectedCount;
+
+    public OrderBookBuilder(int maxLevels, int priceScale) {
+        this.maxLevels = maxLevels;
+        this.priceScale = priceScale;
+    }
+
+    /**
+     * Returns the book of a symbol, or null if no update for it has been seen yet.
+     */
+    public OrderBook getBook(String symbol) {
+        return books.get(symbol);
+    }
+
+    public Iterable<OrderBook> getBooks() {
+        return books.values();
+    }
+
+    /**
+     * Returns the number of levels updated so far. Only valid on the thread applying the messages.
+     */
+    public long getUpdateCount() {
+        return updateCount;
+    }
+
+    /**
+     * Returns the number of groups skipped for not being a valid update. Only valid on the thread applying the messages.
+     */
+    public long getRejectedCount() {
+        return rejectedCount;
+    }
+
+    @Override
+    public void onMessage(long sequence, FIXMessage fixMessage) {
+        apply(fixMessage);
+    }
+
+    /**
+     * Applies the updates of one message as one batch.
+     */
+    public void apply(FIXMessage fixMessage) {
+        try {
+            applyUpdates(fixMessage);
+        } finally {
+            endBatch();
+        }
+    }
+
+    /**
+     * Applies the updates of messages[from] to messages[to - 1] as one batch.
+     */
+    public void apply(FIXMessage[] messages, int from, int to) {
+        try {
+            for (int i = from; i < to; i++) {
+                applyUpdates(messages[i]);
+            }
+        } finally {
+            endBatch();
+        }
+    }
+
+    private void applyUpdates(FIXMessage fixMessage) {
+        RepeatingGroup entries = fixMessage.getRepeatingGroup(ENTRIES_TAG);
+        String symbol = fixMessage.getNonGroupTagValue(SYMBOL_TAG);
+        if (entries == null || symbol == null) {
+            return;
+        }
+        OrderBook book = bookFor(symbol);
+        List<Group> groups = entries.getGroups();
+        for (int i = 0; i < groups.size(); i++) {
+            Group group = groups.get(i);
+            int side = group.getInt(SIDE_TAG);
+            long size = group.getLong(SIZE_TAG);
+            long scaledPrice = group.getDecimal(PRICE_TAG, price) && fitsScale(price, priceScale)
+                    ? price.scaledTo(priceScale) : TypedValues.NULL_LONG;
+            if ((side != OrderBook.BID && side != OrderBook.OFFER) || size == TypedValues.NULL_LONG
+                    || scaledPrice == TypedValues.NULL_LONG) {
+                rejectedCount++;
+                continue;
+            }
+            int orderCount = group.getInt(ORDER_COUNT_TAG);
+            book.update(side, scaledPrice, size, orderCount == TypedValues.NULL_INT ? 0 : orderCount);
+            updateCount++;
+        }
+    }
+
+    /**
+     * Returns false if the decimal has non-zero digits past the scale, which {@link Decimal#scaledTo(int)} would drop.
+     */
+    private static boolean fitsScale(Decimal decimal, int scale) {
+        long mantissa = decimal.getMantissa();
+        for (int e = -decimal.getExponent(); e > scale; e--) {
+            if (mantissa % 10 != 0) {
+                return false;
+            }
+            mantissa /= 10;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the book of a symbol, starting a batch on it if this is the first update to it in the current batch.
+     */
+    private OrderBook bookFor(String symbol) {
+        OrderBook book = lastBook;
+        if (book == null || !book.getSymbol().equals(symbol)) {
+            book = books.computeIfAbsent(symbol, s -> new OrderBook(s, maxLevels, priceScale));
+            lastBook = book;
+        }
+        if (!batch.contains(book)) {
+            book.beginBatch();
+            batch.add(book);
+        }
+        return book;
+    }
+
+    private void endBatch() {
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).endBatch();
+        }
+        batch.clear();
+    }
+}
@@ -0,0 +1,122 @@
+package home.anuradha;
+
+/**
+ * Outcome of a parse that reports errors instead of throwing them, see {@link FIXMessageParser#parse(java.nio.ByteBuffer,
+ * ParseResult)}. Holds an error code, the tag that was being read when the error was found and the byte offset of its
+ * field in the buffer. Reused from one parse to the next, so rejecting a message allocates nothing and captures no
+ * stack trace.
+ * <p>
+ * Each code stands for one of the exception messages of {@link FIXMessage.FIXMessageException},
+ * {@link Group.GroupException} and {@link RepeatingGroup.RepeatingGroupException}, and the exception-based methods throw
+ * exactly those exceptions for the same inputs.
+ */
+public final class ParseResult {
+
+    public static final int OK = 0;
+    // FIXMessageException
+    public static final int BAD_FORMAT = 1;
+    public static final int TAG_ALREADY_EXISTS = 2;
+    public static final int NOT_INDICATOR_TAG = 3;
+    public static final int REPEATING_GROUP_ALREADY_EXISTS = 4;
+    public static final int NON_POSITIVE_GROUPS = 5;
+    // GroupException
+    public static final int BAD_GROUP_TAG = 6;
+    public static final int GROUP_TAG_ALREADY_EXISTS = 7;
+    public static final int INVALID_GROUP = 8;
+    // RepeatingGroupException
+    public static final int TOO_MANY_GROUPS = 9;
+    public static final int INVALID_REPEATING_GROUP = 10;
+
+    static final int CODE_COUNT = 11;
+
+    private static final String[] NAMES = {"OK", "BAD_FORMAT", "TAG_ALREADY_EXISTS", "NOT_INDICATOR_TAG",
+            "REPEATING_GROUP_ALREADY_EXISTS", "NON_POSITIVE_GROUPS", "BAD_GROUP_TAG", "GROUP_TAG_ALREADY_EXISTS",
+            "INVALID_GROUP", "TOO_MANY_GROUPS", "INVALID_REPEATING_GROUP"};
+
+    private int code;
+    private int tag;
+    private int offset;
+
+    public boolean isOk() {
+        return code == OK;
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    /**
+     * The tag of the field that was being read when the error was found. For an invalid group or repeating group, which
+     * is only found when it ends, the indicator tag of the repeating group.
+     */
+    public int getTag() {
+        return tag;
+    }
+
+    /**
+     * Offset in the buffer of the field that was being read when the error was found, or the end of the message for an
+     * error found when the message ended.
+     */
+    public int getOffset() {
+        return offset;
+    }
+
+    /**
+     * Returns the message of the exception the code stands for, or null if the code is OK.
+     */
+    public String getErrorMessage() {
+        return describe(code);
+    }
+
+    /**
+     * Throws the exception that the exception-based methods throw for this code, if it isn't OK.
+     */
+    public void throwIfError() throws FIXMessage.FIXMessageException, Group.GroupException, RepeatingGroup.RepeatingGroupException {
+        throwIfError(code);
+    }
+
+    void set(int code, int tag, int offset) {
+        this.code = code;
+        this.tag = tag;
+        this.offset = offset;
+    }
+
+    public static String nameOf(int code) {
+        return NAMES[code];
+    }
+
+    public static String describe(int code) {
+        switch (code) {
+            case OK: return null;
+            case BAD_FORMAT: return FIXMessage.FIXMessageException.BAD_FORMAT;
+            case TAG_ALREADY_EXISTS: return FIXMessage.FIXMessageException.TAG_ALREADY_EXISTS;
+            case NOT_INDICATOR_TAG: return FIXMessage.FIXMessageException.NOT_INDICATOR_TAG;
+            case REPEATING_GROUP_ALREADY_EXISTS: return FIXMessage.FIXMessageException.REPEATING_GROUP_ALREADY_EXISTS;
+            case NON_POSITIVE_GROUPS: return FIXMessage.FIXMessageException.NON_POSITIVE_GROUPS;
+            case BAD_GROUP_TAG: return Group.GroupException.BAD_TAG;
+            case GROUP_TAG_ALREADY_EXISTS: return Group.GroupException.TAG_ALREADY_EXISTS;
+            case INVALID_GROUP: return Group.GroupException.INVALID_GROUP;
+            case TOO_MANY_GROUPS: return RepeatingGroup.RepeatingGroupException.TOO_MANY_GROUPS;
+            case INVALID_REPEATING_GROUP: return RepeatingGroup.RepeatingGroupException.INVALID_REPEATING_GROUP;
+            default: throw new IllegalArgumentException("Unknown code " + code);
+        }
+    }
+
+    static void throwIfError(int code) throws FIXMessage.FIXMessageException, Group.GroupException, RepeatingGroup.RepeatingGroupException {
+        if (code == OK) {
+            return;
+        }
+        if (code < BAD_GROUP_TAG) {
+            throw new FIXMessage.FIXMessageException(describe(code));
+        }
+        if (code < TOO_MANY_GROUPS) {
+            throw new Group.GroupException(describe(code));
+        }
+        throw new RepeatingGroup.RepeatingGroupException(describe(code));
+    }
+
+    @Override
+    public String toString() {
+        return code == OK ? "ParseResult:[OK]" : "ParseResult:[" + NAMES[code] + ",tag=" + tag + ",offset=" + offset + ']';
+    }
+}
@@ -0,0 +1,306 @@
+package home.anuradha;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Metrics of the parsers it is given to with {@link FIXMessageParser#setMetrics(ParserMetrics)}: messages and bytes
+ * parsed, messages rejected by a {@link MessageFilter}, errors by kind, parse time and the number of groups of each
+ * indicator tag. Parsers without metrics only pay for a null check.
+ * <p>
+ * Each parser records into its own {@link Recorder}, and parsers are confined to a thread, so the counters are striped
+ * per thread and the hot path never contends or allocates. Counters are written with opaque writes and histograms with
+ * plain writes, so {@link #snapshot()} can combine them from any thread without stopping the parsers. A snapshot may
+ * miss the last few messages, and its histograms may be slightly inconsistent with its counters. Errors are counted by
+ * their {@link ParseResult} code.
+ * <p>
+ * The metrics are pulled, either with {@link #snapshot()} or over JMX once {@link #register(String)} has been called.
+ * A parser's recorder is kept until the parser is given other metrics or null, when its counts are folded into a
+ * retired total and the recorder is dropped. Call setMetrics(null) on a parser that is done with, so that short lived
+ * parsers don't pile up recorders.
+ */
+public class ParserMetrics implements ParserMetricsMXBean {
+
+    private final CopyOnWriteArrayList<Recorder> recorders = new CopyOnWriteArrayList<>();
+    // Counts of the recorders that have been retired. Guarded by this, like the moves from recorders to it.
+    private final Recorder retired = new Recorder(this);
+    private ObjectName objectName;
+
+    /**
+     * Returns a new recorder, for one parser.
+     */
+    Recorder newRecorder() {
+        Recorder recorder = new Recorder(this);
+        recorders.add(recorder);
+        return recorder;
+    }
+
+    /**
+     * Folds a recorder's counts into the retired total and drops it. Called by the thread using the recorder, once it
+     * has stopped recording.
+     */
+    synchronized void retire(Recorder recorder) {
+        if (recorders.remove(recorder)) {
+            for (int i = 0; i < recorder.counts.length; i++) {
+                retired.increment(i, recorder.counts[i]);
+            }
+            retired.parseNanos.add(recorder.parseNanos);
+            TagMap<LatencyHistogram> groupCounts = recorder.groupCounts;
+            for (int i = 0; i < groupCounts.size(); i++) {
+                retired.groupCounts(groupCounts.keyAt(i)).add(groupCounts.valueAt(i));
+            }
+        }
+    }
+
+    /**
+     * Number of recorders of parsers that still record into these metrics.
+     */
+    int getRecorderCount() {
+        return recorders.size();
+    }
+
+    public synchronized Snapshot snapshot() {
+        Snapshot snapshot = new Snapshot();
+        long[] errorCounts = new long[ParseResult.CODE_COUNT];
+        add(retired, snapshot, errorCounts);
+        for (Recorder recorder : recorders) {
+            add(recorder, snapshot, errorCounts);
+        }
+        for (int code = ParseResult.OK + 1; code < ParseResult.CODE_COUNT; code++) {
+            if (errorCounts[code] > 0) {
+                snapshot.errorCounts.put(ParseResult.nameOf(code), errorCounts[code]);
+                snapshot.errorCount += errorCounts[code];
+            }
+        }
+        return snapshot;
+    }
+
+    private static void add(Recorder recorder, Snapshot snapshot, long[] errorCounts) {
+        snapshot.messageCount += (long) Recorder.COUNTS.getOpaque(recorder.counts, Recorder.MESSAGES);
+        snapshot.byteCount += (long) Recorder.COUNTS.getOpaque(recorder.counts, Recorder.BYTES);
+        snapshot.filteredCount += (long) Recorder.COUNTS.getOpaque(recorder.counts, Recorder.FILTERED);
+        for (int code = ParseResult.OK + 1; code < ParseResult.CODE_COUNT; code++) {
+            errorCounts[code] += (long) Recorder.COUNTS.getOpaque(recorder.counts, Recorder.ERRORS + code);
+        }
+        snapshot.parseNanos.add(recorder.parseNanos);
+        TagMap<LatencyHistogram> groupCounts = recorder.groupCounts;
+        for (int i = 0; i < groupCounts.size(); i++) {
+            snapshot.groupCounts.computeIfAbsent(groupCounts.keyAt(i), tag -> new LatencyHistogram()).add(groupCounts.valueAt(i));
+        }
+    }
+
+    /**
+     * Registers the metrics with the platform MBean server as home.anuradha:type=ParserMetrics,name=&lt;name&gt;.
+     */
+    public synchronized ObjectName register(String name) throws JMException {
+        if (objectName != null) {
+            throw new IllegalStateException("Already registered as " + objectName);
+        }
+        ObjectName newName = new ObjectName("home.anuradha:type=ParserMetrics,name=" + ObjectName.quote(name));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, newName);
+        objectName = newName;
+        return newName;
+    }
+
+    public synchronized void unregister() throws JMException {
+        if (objectName != null) {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+            objectName = null;
+        }
+    }
+
+    // ParserMetricsMXBean
+
+    @Override
+    public long getMessageCount() {
+        return snapshot().getMessageCount();
+    }
+
+    @Override
+    public long getByteCount() {
+        return snapshot().getByteCount();
+    }
+
+    @Override
+    public long getErrorCount() {
+        return snapshot().getErrorCount();
+    }
+
+    @Override
+    public long getFilteredCount() {
+        return snapshot().getFilteredCount();
+    }
+
+    @Override
+    public Map<String, Long> getErrorCounts() {
+        return snapshot().getErrorCounts();
+    }
+
+    @Override
+    public double getParseNanosMean() {
+        return snapshot().getParseNanos().getMean();
+    }
+
+    @Override
+    public long getParseNanosP50() {
+        return snapshot().getParseNanos().getValueAtPercentile(50);
+    }
+
+    @Override
+    public long getParseNanosP99() {
+        return snapshot().getParseNanos().getValueAtPercentile(99);
+    }
+
+    @Override
+    public long getParseNanosP999() {
+        return snapshot().getParseNanos().getValueAtPercentile(99.9);
+    }
+
+    @Override
+    public long getParseNanosMax() {
+        return snapshot().getParseNanos().getMax();
+    }
+
+    @Override
+    public Map<Integer, Double> getGroupCountMeans() {
+        Map<Integer, Double> means = new TreeMap<>();
+        snapshot().getGroupCounts().forEach((tag, counts) -> means.put(tag, counts.getMean()));
+        return means;
+    }
+
+    /**
+     * Metrics of one parser. Only written by the thread using the parser.
+     */
+    static final class Recorder {
+        private static final VarHandle COUNTS = MethodHandles.arrayElementVarHandle(long[].class);
+        // Counters sit in the middle of the array, away from the neighbouring objects' cache lines.
+        private static final int MESSAGES = 8;
+        private static final int BYTES = 9;
+        private static final int FILTERED = 10;
+        private static final int ERRORS = 11; // Followed by a counter per ParseResult code.
+
+        private final ParserMetrics owner;
+        private final long[] counts = new long[ERRORS + ParseResult.CODE_COUNT + 8];
+        private final LatencyHistogram parseNanos = new LatencyHistogram();
+        // Replaced by a copy when a tag is added, so that a snapshot never sees the map change.
+        private volatile TagMap<LatencyHistogram> groupCounts = new TagMap<>(4);
+
+        private Recorder(ParserMetrics owner) {
+            this.owner = owner;
+        }
+
+        ParserMetrics getOwner() {
+            return owner;
+        }
+
+        void onMessage(int bytes, long nanos) {
+            increment(MESSAGES, 1);
+            increment(BYTES, bytes);
+            parseNanos.record(nanos);
+        }
+
+        void onFiltered() {
+            increment(FILTERED, 1);
+        }
+
+        void onError(int code) {
+            increment(ERRORS + code, 1);
+        }
+
+        void onRepeatingGroup(int indicatorTag, int numberOfGroups) {
+            groupCounts(indicatorTag).record(numberOfGroups);
+        }
+
+        private LatencyHistogram groupCounts(int indicatorTag) {
+            LatencyHistogram histogram = groupCounts.get(indicatorTag);
+            if (histogram == null) {
+                TagMap<LatencyHistogram> copy = new TagMap<>(groupCounts.size() + 1);
+                copy.putAll(groupCounts);
+                histogram = new LatencyHistogram();
+                copy.put(indicatorTag, histogram);
+                groupCounts = copy;
+            }
+            return histogram;
+        }
+
+        private void increment(int counter, long delta) {
+            COUNTS.setOpaque(counts, counter, (long) COUNTS.getOpaque(counts, counter) + delta);
+        }
+    }
+
+    /**
+     * Metrics of all the parsers at one point in time.
+     */
+    public static class Snapshot {
+        private long messageCount;
+        private long byteCount;
+        private long errorCount;
+        private long filteredCount;
+        private final Map<String, Long> errorCounts = new LinkedHashMap<>();
+        private final LatencyHistogram parseNanos = new LatencyHistogram();
+        private final Map<Integer, LatencyHistogram> groupCounts = new TreeMap<>();
+
+        /**
+         * Messages parsed successfully.
+         */
+        public long getMessageCount() {
+            return messageCount;
+        }
+
+        /**
+         * Bytes of the messages parsed successfully.
+         */
+        public long getByteCount() {
+            return byteCount;
+        }
+
+        public long getErrorCount() {
+            return errorCount;
+        }
+
+        /**
+         * Messages rejected by a {@link MessageFilter}.
+         */
+        public long getFilteredCount() {
+            return filteredCount;
+        }
+
+        /**
+         * Number of errors by the name of their {@link ParseResult} code, e.g. "TOO_MANY_GROUPS", for the codes that
+         * have occurred.
+         */
+        public Map<String, Long> getErrorCounts() {
+            return Collections.unmodifiableMap(errorCounts);
+        }
+
+        /**
+         * Time taken to parse each successful message, in nanoseconds.
+         */
+        public LatencyHistogram getParseNanos() {
+            return parseNanos;
+        }
+
+        /**
+         * Distribution of the number of groups in the repeating groups of each indicator tag, in order of tag.
+         */
+        public Map<Integer, LatencyHistogram> getGroupCounts() {
+            return Collections.unmodifiableMap(groupCounts);
+        }
+
+        @Override
+        public String toString() {
+            return "ParserMetrics:[messages=" + messageCount + ",bytes=" + byteCount + ",errors=" + errorCount
+                    + ",filtered=" + filteredCount + ",errorCounts=" + errorCounts + ",parseNanos=" + parseNanos
+                    + ",groupCounts=" + groupCounts + ']';
+        }
+    }
+}
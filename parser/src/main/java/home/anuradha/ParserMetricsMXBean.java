@@ -0,0 +1,37 @@
+package home.anuradha;
+
+import java.util.Map;
+
+/**
+ * JMX view of {@link ParserMetrics}. Every attribute is read from a fresh {@link ParserMetrics#snapshot()}.
+ */
+public interface ParserMetricsMXBean {
+
+    long getMessageCount();
+
+    long getByteCount();
+
+    long getErrorCount();
+
+    long getFilteredCount();
+
+    /**
+     * Number of errors by code, see {@link ParserMetrics.Snapshot#getErrorCounts()}.
+     */
+    Map<String, Long> getErrorCounts();
+
+    double getParseNanosMean();
+
+    long getParseNanosP50();
+
+    long getParseNanosP99();
+
+    long getParseNanosP999();
+
+    long getParseNanosMax();
+
+    /**
+     * Mean number of groups by indicator tag.
+     */
+    Map<Integer, Double> getGroupCountMeans();
+}
@@ -9,6 +9,7 @@ import java.util.List;
  * Contains the indicator tag, the number of groups expected in this repeating group (i.e. indicator tag value),
  * and a list of {@link Group}s. A {@link RepeatingGroup} must be validated after creation by calling the
  * isValid() method.
+ * A repeating group borrowed from a {@link FIXMessagePool} must not be used after it has been released back to the pool.
  */
 public class RepeatingGroup {
 
@@ -21,33 +22,64 @@ public class RepeatingGroup {
         }
     }
 
-    private final int indicatorTag;
-    private final int numberOfGroups;
+    private int indicatorTag;
+    private GroupSchema schema;
+    private int numberOfGroups;
     private final List<Group> groups;
 
+    boolean released; // Set while the repeating group is in a FIXMessagePool.
+
     public RepeatingGroup(int indicatorTag, int numberOfGroups) {
+        this(indicatorTag, DataDictionary.DEFAULT.getGroupSchema(indicatorTag), numberOfGroups);
+    }
+
+    public RepeatingGroup(GroupSchema schema, int numberOfGroups) {
+        this(schema.getIndicatorTag(), schema, numberOfGroups);
+    }
+
+    private RepeatingGroup(int indicatorTag, GroupSchema schema, int numberOfGroups) {
         this.indicatorTag = indicatorTag;
+        this.schema = schema;
         this.numberOfGroups = numberOfGroups;
         groups = new ArrayList<>(numberOfGroups);
     }
 
     public void addGroup(Group group) throws RepeatingGroupException {
-        if (groups.size() >= numberOfGroups) {
+        if (!tryAddGroup(group)) {
             throw new RepeatingGroupException(RepeatingGroupException.TOO_MANY_GROUPS);
         }
+    }
 
+    /**
+     * Same as {@link #addGroup(Group)}, but returns false instead of throwing if there are too many groups.
+     */
+    boolean tryAddGroup(Group group) {
+        assert !released : FIXMessagePool.RELEASED;
+        if (groups.size() >= numberOfGroups) {
+            return false;
+        }
         groups.add(group);
+        return true;
     }
 
     public int getIndicatorTag() {
         return indicatorTag;
     }
 
+    /**
+     * Returns the schema of the groups in this repeating group, or null if the indicator tag isn't in the dictionary.
+     */
+    public GroupSchema getSchema() {
+        return schema;
+    }
+
     public int getNumberOfGroups() {
+        assert !released : FIXMessagePool.RELEASED;
         return numberOfGroups;
     }
 
     public List<Group> getGroups() {
+        assert !released : FIXMessagePool.RELEASED;
         return groups;
     }
 
@@ -58,8 +90,22 @@ public class RepeatingGroup {
         return groups.size() == numberOfGroups;
     }
 
-    private StringBuffer sb = new StringBuffer();
+    /**
+     * Clears the repeating group for reuse by a {@link FIXMessagePool}. Keeps the capacity of the list of groups.
+     */
+    void reset(GroupSchema schema, int numberOfGroups) {
+        this.indicatorTag = schema.getIndicatorTag();
+        this.schema = schema;
+        this.numberOfGroups = numberOfGroups;
+        groups.clear();
+    }
+
+    private StringBuffer sb; // Created on the first call to toString().
     public String toString() {
+        assert !released : FIXMessagePool.RELEASED;
+        if (sb == null) {
+            sb = new StringBuffer();
+        }
         sb.setLength(0);
         sb.append("RepeatingGroup:[");
         sb.append(indicatorTag).append('=').append(numberOfGroups).append(',');
@@ -0,0 +1,246 @@
+package home.anuradha;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+import home.anuradha.FIXMessage.FIXMessageException;
+
+/**
+ * Push-style parser for a stream of messages that arrives in arbitrary pieces, e.g. from socket reads. Buffers are
+ * passed to {@link #feed(ByteBuffer)} as they arrive. A message may be split across any number of buffers, at any
+ * byte, and a buffer may hold any number of messages. Each complete message is passed to the {@link MessageHandler}.
+ * A message ends with the trailer tag (10, CheckSum, by default), which is kept in the message like any other tag.
+ * <p>
+ * The parser keeps its position in the wire format between calls (part way through a tag, the '=' or a value) and its
+ * position in the message structure (e.g. inside group N of indicator tag 269), using the same frame stack as
+ * {@link FIXMessageParser#parse(ByteBuffer)}. Input is consumed as it is fed: value chars are copied once into the value
+ * being built, and only the bytes of a tag or char that is split between two buffers are held back. Value chars go into
+ * a reusable char array, and each value becomes a String with a single copy.
+ * <p>
+ * A peer that never ends a value or a message would make the parser hold ever more of it, so values are limited to
+ * maxFieldLength chars and messages to maxMessageLength bytes. Going over either fails with BAD_FORMAT, and the rest of
+ * the message is skipped as for an invalid message, so feed can carry on.
+ * <p>
+ * Reads {@link WireFormat#CHARS} only. Not thread safe. Use one instance per stream.
+ */
+public class StreamingFIXMessageParser {
+
+    public interface MessageHandler {
+        void onMessage(FIXMessage fixMessage);
+    }
+
+    public static final int CHECKSUM_TAG = 10;
+    public static final int DEFAULT_MAX_FIELD_LENGTH = 64 * 1024;
+    public static final int DEFAULT_MAX_MESSAGE_LENGTH = 1024 * 1024;
+
+    private enum State { TAG, EQUALS, VALUE }
+
+    private final FIXMessageParser parser;
+    private final MessageHandler handler;
+    private final int trailerTag;
+    private final int maxFieldLength;
+    private final int maxMessageLength;
+
+    private State state = State.TAG;
+    // Bytes of a tag or char that was split between buffers.
+    private int partial;
+    private int partialBytes;
+
+    private int tag;
+    private char[] value;
+    private int valueLength;
+    // Bytes of the fields of the current message so far.
+    private int messageLength;
+    private boolean inMessage;
+    // Set after an invalid message, until its trailer tag has been read.
+    private boolean discarding;
+
+    public StreamingFIXMessageParser(MessageHandler handler) {
+        this(new FIXMessageParser(), handler, CHECKSUM_TAG);
+    }
+
+    public StreamingFIXMessageParser(FIXMessageParser parser, MessageHandler handler, int trailerTag) {
+        this(parser, handler, trailerTag, DEFAULT_MAX_FIELD_LENGTH, DEFAULT_MAX_MESSAGE_LENGTH);
+    }
+
+    /**
+     * maxFieldLength is the most chars in a value, and maxMessageLength the most bytes in a message.
+     */
+    public StreamingFIXMessageParser(FIXMessageParser parser, MessageHandler handler, int trailerTag, int maxFieldLength,
+                                     int maxMessageLength) {
+        if (parser.getWireFormat() != WireFormat.CHARS) {
+            throw new IllegalArgumentException("Only " + WireFormat.CHARS + " is supported.");
+        }
+        if (maxFieldLength <= 0 || maxMessageLength <= 0) {
+            throw new IllegalArgumentException("Maximum lengths must be positive.");
+        }
+        this.parser = parser;
+        this.handler = handler;
+        this.trailerTag = trailerTag;
+        this.maxFieldLength = maxFieldLength;
+        this.maxMessageLength = maxMessageLength;
+        this.value = new char[Math.min(64, maxFieldLength)];
+    }
+
+    /**
+     * Consumes all remaining bytes of the buffer, passing every message completed by them to the handler. Does not
+     * flip the buffer, and keeps no reference to it.
+     * If a message is invalid, throws the same exception as {@link FIXMessageParser#parse(ByteBuffer)} and leaves the
+     * buffer positioned after the offending field. The rest of that message is skipped, so feed can be called again
+     * with the same buffer to carry on with the next message. After a BAD_FORMAT error the position in the stream is
+     * unreliable, and the stream should normally be {@link #reset()} or closed.
+     */
+    public void feed(ByteBuffer data) throws FIXMessageException, Group.GroupException, RepeatingGroup.RepeatingGroupException {
+        while (data.hasRemaining()) {
+            switch (state) {
+                case TAG:
+                    if (partialBytes == 0 && data.remaining() >= 4) {
+                        tag = data.getInt();
+                    } else if (readPartial(data, 4)) {
+                        tag = partial;
+                    } else {
+                        return;
+                    }
+                    state = State.EQUALS;
+                    break;
+
+                case EQUALS:
+                    int equalTo = readChar(data);
+                    if (equalTo < 0) {
+                        return;
+                    }
+                    if (equalTo != '=') {
+                        fail();
+                        throw new FIXMessageException(FIXMessageException.BAD_FORMAT);
+                    }
+                    valueLength = 0;
+                    state = State.VALUE;
+                    break;
+
+                case VALUE:
+                    int nextChar = readChar(data);
+                    while (nextChar >= 0 && nextChar != '|') {
+                        if (!discarding) { // The value of a skipped field isn't kept.
+                            if (valueLength == value.length) {
+                                if (valueLength == maxFieldLength) {
+                                    skipMessage(); // The rest of the value is read and dropped.
+                                    throw new FIXMessageException(FIXMessageException.BAD_FORMAT);
+                                }
+                                value = Arrays.copyOf(value, Math.min(valueLength * 2, maxFieldLength));
+                            }
+                            value[valueLength++] = (char) nextChar;
+                        }
+                        nextChar = readChar(data);
+                    }
+                    if (nextChar < 0) {
+                        return;
+                    }
+                    state = State.TAG;
+                    processField();
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Drops any partly read message, so that the next byte fed is taken as the start of a new message.
+     */
+    public void reset() {
+        state = State.TAG;
+        partialBytes = 0;
+        if (inMessage) {
+            parser.discardMessage();
+        }
+        inMessage = false;
+        discarding = false;
+    }
+
+    /**
+     * Returns true if part of a message has been fed but the message isn't complete yet.
+     */
+    public boolean isMidMessage() {
+        return inMessage || discarding || state != State.TAG || partialBytes > 0;
+    }
+
+    private void processField() throws FIXMessageException, Group.GroupException, RepeatingGroup.RepeatingGroupException {
+        boolean trailer = tag == trailerTag;
+        if (discarding) {
+            discarding = !trailer;
+            return;
+        }
+
+        if (!inMessage) {
+            parser.startMessage();
+            inMessage = true;
+            messageLength = 0;
+        }
+        messageLength += 8 + 2 * valueLength; // Tag, '=', value and '|'.
+        FIXMessage fixMessage = null;
+        try {
+            if (messageLength > maxMessageLength) {
+                throw new FIXMessageException(FIXMessageException.BAD_FORMAT);
+            }
+            parser.processTagAndValue(tag, new String(value, 0, valueLength));
+            if (trailer) {
+                inMessage = false;
+                fixMessage = parser.endMessage();
+            }
+        } catch (FIXMessageException | Group.GroupException | RepeatingGroup.RepeatingGroupException e) {
+            inMessage = false;
+            discarding = !trailer;
+            parser.discardMessage();
+            throw e;
+        }
+        if (fixMessage != null) {
+            handler.onMessage(fixMessage);
+        }
+    }
+
+    private void fail() {
+        state = State.TAG;
+        partialBytes = 0;
+        skipMessage();
+    }
+
+    private void skipMessage() {
+        if (inMessage) {
+            parser.discardMessage();
+        }
+        inMessage = false;
+        discarding = true;
+    }
+
+    /**
+     * Reads a char, or returns -1 if only part of it is available, keeping that part for the next buffer.
+     */
+    private int readChar(ByteBuffer data) {
+        if (partialBytes == 0 && data.remaining() >= 2) {
+            return data.getChar();
+        }
+        return readPartial(data, 2) ? (char) partial : -1;
+    }
+
+    /**
+     * Adds bytes from the buffer to the partial value until it is size bytes long. Returns true if it is complete.
+     */
+    private boolean readPartial(ByteBuffer data, int size) {
+        if (partialBytes == 0) {
+            partial = 0;
+        }
+        while (partialBytes < size && data.hasRemaining()) {
+            int b = data.get() & 0xFF;
+            if (data.order() == ByteOrder.BIG_ENDIAN) {
+                partial = (partial << 8) | b;
+            } else {
+                partial |= b << (8 * partialBytes);
+            }
+            partialBytes++;
+        }
+        if (partialBytes < size) {
+            return false;
+        }
+        partialBytes = 0;
+        return true;
+    }
+}
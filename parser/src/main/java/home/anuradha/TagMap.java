@@ -0,0 +1,260 @@
+package home.anuradha;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Map of int tags to values that maintains the order in which the tags were put.
+ * Keys and values are kept in insertion order in parallel arrays, so iterating by index (keyAt/valueAt) doesn't
+ * allocate. Small maps are searched linearly. Once a map grows past {@link #LINEAR_SCAN_LIMIT} tags, an open
+ * addressing index of tag to position is built. The int overloads (get, containsKey, put) never box the tag.
+ * It is also a regular {@link Map}, so callers that iterate over the entry set or key set keep working, at the cost of
+ * boxing. Removal is not supported.
+ */
+public class TagMap<V> extends AbstractMap<Integer, V> {
+
+    static final int LINEAR_SCAN_LIMIT = 8;
+
+    private int size;
+    private int[] keys;
+    private Object[] values;
+
+    // Open addressing index of tag -> position + 1 (0 marks an empty slot). Null until the map grows past
+    // LINEAR_SCAN_LIMIT.
+    private int[] slots;
+
+    public TagMap() {
+        this(16);
+    }
+
+    public TagMap(int expectedSize) {
+        int capacity = Math.max(expectedSize, 1);
+        keys = new int[capacity];
+        values = new Object[capacity];
+    }
+
+    public boolean containsKey(int tag) {
+        return indexOf(tag) >= 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(int tag) {
+        int index = indexOf(tag);
+        return index >= 0 ? (V) values[index] : null;
+    }
+
+    /**
+     * Puts the value for the tag. Replaces the value if the tag already exists, keeping its original position.
+     */
+    @SuppressWarnings("unchecked")
+    public V put(int tag, V value) {
+        int index = indexOf(tag);
+        if (index >= 0) {
+            V previous = (V) values[index];
+            values[index] = value;
+            return previous;
+        }
+
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            values = Arrays.copyOf(values, size * 2);
+        }
+        keys[size] = tag;
+        values[size] = value;
+        size++;
+
+        if (slots != null) {
+            if (size * 2 > slots.length) {
+                buildIndex();
+            } else {
+                insert(tag, size - 1);
+            }
+        } else if (size > LINEAR_SCAN_LIMIT) {
+            buildIndex();
+        }
+        return null;
+    }
+
+    /**
+     * Returns the tag at a position, in insertion order.
+     */
+    public int keyAt(int index) {
+        checkIndex(index);
+        return keys[index];
+    }
+
+    /**
+     * Returns the value at a position, in insertion order.
+     */
+    @SuppressWarnings("unchecked")
+    public V valueAt(int index) {
+        checkIndex(index);
+        return (V) values[index];
+    }
+
+    /**
+     * Returns the position of the tag, in insertion order, or -1.
+     */
+    public int indexOf(int tag) {
+        if (slots == null) {
+            for (int i = 0; i < size; i++) {
+                if (keys[i] == tag) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        int mask = slots.length - 1;
+        for (int i = mix(tag) & mask; slots[i] != 0; i = (i + 1) & mask) {
+            if (keys[slots[i] - 1] == tag) {
+                return slots[i] - 1;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(values, 0, size, null);
+        if (slots != null) {
+            Arrays.fill(slots, 0);
+        }
+        size = 0;
+    }
+
+    // Map overloads
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof Integer && containsKey(((Integer) key).intValue());
+    }
+
+    @Override
+    public V get(Object key) {
+        return key instanceof Integer ? get(((Integer) key).intValue()) : null;
+    }
+
+    @Override
+    public V put(Integer key, V value) {
+        return put(key.intValue(), value);
+    }
+
+    @Override
+    public Set<Map.Entry<Integer, V>> entrySet() {
+        return new AbstractSet<Map.Entry<Integer, V>>() {
+            @Override
+            public Iterator<Map.Entry<Integer, V>> iterator() {
+                return new Iterator<Map.Entry<Integer, V>>() {
+                    private int next;
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < size;
+                    }
+
+                    @Override
+                    public Map.Entry<Integer, V> next() {
+                        if (next >= size) {
+                            throw new NoSuchElementException();
+                        }
+                        return new Entry(next++);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    private class Entry implements Map.Entry<Integer, V> {
+        private final int index;
+
+        private Entry(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public Integer getKey() {
+            return keys[index];
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V getValue() {
+            return (V) values[index];
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V setValue(V value) {
+            V previous = (V) values[index];
+            values[index] = value;
+            return previous;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Map.Entry)) {
+                return false;
+            }
+            Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+            return getKey().equals(e.getKey()) && (getValue() == null ? e.getValue() == null : getValue().equals(e.getValue()));
+        }
+
+        @Override
+        public int hashCode() {
+            return keys[index] ^ (values[index] == null ? 0 : values[index].hashCode());
+        }
+
+        @Override
+        public String toString() {
+            return keys[index] + "=" + values[index];
+        }
+    }
+
+    private void buildIndex() {
+        // Keep the index at most half full.
+        int capacity = Integer.highestOneBit(Math.max(size, LINEAR_SCAN_LIMIT) * 4 - 1);
+        if (slots == null || slots.length != capacity) {
+            slots = new int[capacity];
+        } else {
+            Arrays.fill(slots, 0);
+        }
+        for (int i = 0; i < size; i++) {
+            insert(keys[i], i);
+        }
+    }
+
+    private void insert(int tag, int index) {
+        int mask = slots.length - 1;
+        int i = mix(tag) & mask;
+        while (slots[i] != 0) {
+            i = (i + 1) & mask;
+        }
+        slots[i] = index + 1;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+    }
+
+    private static int mix(int tag) {
+        int h = tag * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,50 @@
+package home.anuradha;
+
+/**
+ * Immutable set of tags compiled into a bitset, for constant time membership checks without boxing.
+ * The bitset is sized by the largest tag in the set, so it suits the small, dense tag numbers used by FIX. Tags from
+ * {@link #DENSE_TAG_LIMIT} up, such as large user defined tags, are kept in a {@link TagMap} instead, so that one of
+ * them doesn't blow up the bitset.
+ */
+public final class TagSet {
+
+    /**
+     * Tags below this are kept in the bitset, which is then at most 2 KB.
+     */
+    static final int DENSE_TAG_LIMIT = 1 << 14;
+
+    private final long[] bits;
+    private final TagMap<Boolean> sparseTags; // Null if there are none.
+
+    public TagSet(int... tags) {
+        int maxTag = -1;
+        int sparseCount = 0;
+        for (int tag : tags) {
+            if (tag < 0) {
+                throw new IllegalArgumentException("Negative tag: " + tag);
+            }
+            if (tag < DENSE_TAG_LIMIT) {
+                maxTag = Math.max(maxTag, tag);
+            } else {
+                sparseCount++;
+            }
+        }
+        bits = new long[(maxTag >> 6) + 1];
+        sparseTags = sparseCount > 0 ? new TagMap<>(sparseCount) : null;
+        for (int tag : tags) {
+            if (tag < DENSE_TAG_LIMIT) {
+                bits[tag >> 6] |= 1L << tag;
+            } else {
+                sparseTags.put(tag, Boolean.TRUE);
+            }
+        }
+    }
+
+    public boolean contains(int tag) {
+        int word = tag >>> 6; // Negative tags map to a word past the end.
+        if (word < bits.length) {
+            return (bits[word] & (1L << tag)) != 0;
+        }
+        return sparseTags != null && tag >= DENSE_TAG_LIMIT && sparseTags.containsKey(tag);
+    }
+}
@@ -0,0 +1,194 @@
+package home.anuradha;
+
+/**
+ * Decodes values from their chars without allocating or throwing. A malformed value decodes to a sentinel:
+ * {@link #NULL_INT}, {@link #NULL_LONG} or {@link #NULL_CHAR}. The sentinels are outside the range of valid values, so a
+ * result can be checked against them directly. The typed accessors of {@link FIXMessage} and {@link Group} use these
+ * methods, returning the same sentinels for a missing tag. hasTag(tag) tells the two apart.
+ */
+public final class TypedValues {
+
+    public static final int NULL_INT = Integer.MIN_VALUE;
+    public static final long NULL_LONG = Long.MIN_VALUE;
+    public static final char NULL_CHAR = 0;
+
+    private static final int MAX_DECIMAL_DIGITS = 18;
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    private static final long MAX_SECONDS = Long.MAX_VALUE / NANOS_PER_SECOND - 1;
+    private static final long MIN_SECONDS = -MAX_SECONDS;
+    private static final int[] POWERS_OF_TEN = {1, 10, 100, 1_000, 10_000, 100_000, 1_000_000, 10_000_000, 100_000_000,
+            1_000_000_000};
+
+    private TypedValues() {
+    }
+
+    /**
+     * Parses an optionally signed decimal integer between -Long.MAX_VALUE and Long.MAX_VALUE, or returns
+     * {@link #NULL_LONG}.
+     */
+    public static long parseLong(CharSequence value) {
+        int length = value.length();
+        if (length == 0) {
+            return NULL_LONG;
+        }
+        int i = 0;
+        char first = value.charAt(0);
+        boolean negative = first == '-';
+        if (negative || first == '+') {
+            if (length == 1) {
+                return NULL_LONG;
+            }
+            i++;
+        }
+        long result = 0;
+        for (; i < length; i++) {
+            int digit = value.charAt(i) - '0';
+            if (digit < 0 || digit > 9 || result > (Long.MAX_VALUE - digit) / 10) {
+                return NULL_LONG;
+            }
+            result = result * 10 + digit;
+        }
+        return negative ? -result : result;
+    }
+
+    /**
+     * Parses an optionally signed decimal integer between -Integer.MAX_VALUE and Integer.MAX_VALUE, or returns
+     * {@link #NULL_INT}.
+     */
+    public static int parseInt(CharSequence value) {
+        long result = parseLong(value);
+        return result >= -Integer.MAX_VALUE && result <= Integer.MAX_VALUE ? (int) result : NULL_INT;
+    }
+
+    /**
+     * Parses an optionally signed decimal number with an optional decimal point, e.g. "-143.50", into the holder.
+     * Returns false, leaving the holder unchanged, if the value is malformed or has more than 18 digits, counting leading
+     * zeros and the digits on both sides of the decimal point.
+     */
+    public static boolean parseDecimal(CharSequence value, Decimal decimal) {
+        int length = value.length();
+        int i = 0;
+        boolean negative = false;
+        if (length > 0 && (value.charAt(0) == '-' || value.charAt(0) == '+')) {
+            negative = value.charAt(0) == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int fractionDigits = -1; // -1 until the decimal point.
+        for (; i < length; i++) {
+            char c = value.charAt(i);
+            if (c == '.') {
+                if (fractionDigits >= 0) {
+                    return false;
+                }
+                fractionDigits = 0;
+                continue;
+            }
+            int digit = c - '0';
+            if (digit < 0 || digit > 9 || ++digits > MAX_DECIMAL_DIGITS) {
+                return false;
+            }
+            mantissa = mantissa * 10 + digit; // 18 digits always fit in a long.
+            if (fractionDigits >= 0) {
+                fractionDigits++;
+            }
+        }
+        if (digits == 0) {
+            return false;
+        }
+        decimal.set(negative ? -mantissa : mantissa, fractionDigits > 0 ? -fractionDigits : 0);
+        return true;
+    }
+
+    /**
+     * Returns the value if it is a single char, or {@link #NULL_CHAR}.
+     */
+    public static char parseChar(CharSequence value) {
+        return value.length() == 1 ? value.charAt(0) : NULL_CHAR;
+    }
+
+    /**
+     * Parses a UTCTimestamp, YYYYMMDD-HH:MM:SS with an optional fraction of 1 to 9 digits (.sss, .ssssss or
+     * .sssssssss), into nanoseconds since the epoch. Returns {@link #NULL_LONG} if the value is malformed, or outside the
+     * range of a long in nanoseconds (about 1677 to 2262). A leap second (60) rolls over into the next minute.
+     */
+    public static long parseUTCTimestampNanos(CharSequence value) {
+        int length = value.length();
+        if (length < 17 || value.charAt(8) != '-' || value.charAt(11) != ':' || value.charAt(14) != ':') {
+            return NULL_LONG;
+        }
+        int year = parseDigits(value, 0, 4);
+        int month = parseDigits(value, 4, 2);
+        int day = parseDigits(value, 6, 2);
+        int hour = parseDigits(value, 9, 2);
+        int minute = parseDigits(value, 12, 2);
+        int second = parseDigits(value, 15, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > daysInMonth(year, month)
+                || hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 60) {
+            return NULL_LONG;
+        }
+
+        long nanos = 0;
+        if (length > 17) {
+            int fractionDigits = length - 18;
+            if (value.charAt(17) != '.' || fractionDigits < 1 || fractionDigits > 9) {
+                return NULL_LONG;
+            }
+            int fraction = parseDigits(value, 18, fractionDigits);
+            if (fraction < 0) {
+                return NULL_LONG;
+            }
+            nanos = (long) fraction * POWERS_OF_TEN[9 - fractionDigits];
+        }
+
+        long seconds = ((epochDay(year, month, day) * 24 + hour) * 60 + minute) * 60 + second;
+        if (seconds > MAX_SECONDS || seconds < MIN_SECONDS) {
+            return NULL_LONG;
+        }
+        return seconds * NANOS_PER_SECOND + nanos;
+    }
+
+    /**
+     * Parses count digits starting at offset, or returns -1.
+     */
+    private static int parseDigits(CharSequence value, int offset, int count) {
+        int result = 0;
+        for (int i = offset; i < offset + count; i++) {
+            int digit = value.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            result = result * 10 + digit;
+        }
+        return result;
+    }
+
+    private static int daysInMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                boolean leap = (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+                return leap ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    /**
+     * Days since 1970-01-01 of a date in the proleptic Gregorian calendar.
+     */
+    private static long epochDay(int year, int month, int day) {
+        // Count years from March, so that the leap day is the last day of the year.
+        long y = month <= 2 ? year - 1 : year;
+        long era = (y >= 0 ? y : y - 399) / 400;
+        long yearOfEra = y - era * 400;
+        long dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+}
@@ -0,0 +1,59 @@
+package home.anuradha;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * {@link DelimiterScanner} on the Vector API. Only loaded by {@link DelimiterScanner#vector()} when the
+ * jdk.incubator.vector module is present. Reads heap buffers a register at a time. Other buffers, and the bytes left
+ * after the last full register, are scanned with SWAR.
+ */
+final class VectorDelimiterScanner implements DelimiterScanner {
+
+    // Masks are read as a long, so at most 64 lanes.
+    private static final VectorSpecies<Byte> SPECIES = ByteVector.SPECIES_PREFERRED.length() <= 64
+            ? ByteVector.SPECIES_PREFERRED : ByteVector.SPECIES_512;
+
+    @Override
+    public int find(ByteBuffer buffer, WireFormat wireFormat, int from, int to) {
+        if (!buffer.hasArray()) {
+            return DelimiterScanners.findSwar(buffer, wireFormat, from, to);
+        }
+        byte[] array = buffer.array();
+        int base = buffer.arrayOffset();
+        int length = SPECIES.length();
+        int i = from;
+        if (wireFormat == WireFormat.ASCII) {
+            for (; i + length <= to; i += length) {
+                int lane = ByteVector.fromArray(SPECIES, array, base + i).compare(VectorOperators.EQ, WireFormat.SOH).firstTrue();
+                if (lane < length) {
+                    return i + lane;
+                }
+            }
+        } else {
+            // Look for the 0x7C byte of '|', then check that it is the low byte of an aligned char whose high byte is 0.
+            // The low byte comes second in big endian order. Registers hold whole chars, as their length is even.
+            int lowByte = buffer.order() == ByteOrder.BIG_ENDIAN ? 1 : 0;
+            for (; i + length <= to; i += length) {
+                VectorMask<Byte> mask = ByteVector.fromArray(SPECIES, array, base + i).compare(VectorOperators.EQ, (byte) '|');
+                if (!mask.anyTrue()) {
+                    continue;
+                }
+                long matches = mask.toLong();
+                while (matches != 0) {
+                    int lane = Long.numberOfTrailingZeros(matches);
+                    if ((lane & 1) == lowByte && array[base + i + lane - lowByte + (1 - lowByte)] == 0) {
+                        return i + lane - lowByte;
+                    }
+                    matches &= matches - 1;
+                }
+            }
+        }
+        return DelimiterScanners.findSwar(buffer, wireFormat, i, to);
+    }
+}
@@ -0,0 +1,43 @@
+package home.anuradha;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * What a thread of a {@link FIXMessagePipeline} does while it waits for a sequence to advance. Trades latency against
+ * CPU use: {@link #BUSY_SPIN} reacts fastest but keeps a core busy, {@link #YIELD} lets other threads run on the core,
+ * and {@link #park(long)} sleeps once the wait gets long, at the cost of waking up late.
+ */
+public interface WaitStrategy {
+
+    /**
+     * Called on each check that finds nothing to do. attempt counts the calls since the thread last found work.
+     */
+    void idle(int attempt);
+
+    WaitStrategy BUSY_SPIN = attempt -> Thread.onSpinWait();
+
+    WaitStrategy YIELD = attempt -> {
+        if (attempt < 100) {
+            Thread.onSpinWait();
+        } else {
+            Thread.yield();
+        }
+    };
+
+    WaitStrategy PARK = park(50_000);
+
+    /**
+     * Spins, then yields, then parks for parkNanos at a time.
+     */
+    static WaitStrategy park(long parkNanos) {
+        return attempt -> {
+            if (attempt < 100) {
+                Thread.onSpinWait();
+            } else if (attempt < 200) {
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(parkNanos);
+            }
+        };
+    }
+}
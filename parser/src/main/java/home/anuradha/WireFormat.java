@@ -0,0 +1,40 @@
+package home.anuradha;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Encoding of the messages read by a {@link FIXMessageParser}.
+ */
+public enum WireFormat {
+    /**
+     * Every field is a 4 byte int tag, the '=' char, the value chars and the '|' char. Chars take 2 bytes each.
+     */
+    CHARS(2),
+    /**
+     * Standard tag=value FIX: every field is the tag in ASCII digits, '=', the value and the SOH (0x01) delimiter, one
+     * byte per char. Bytes are read as ISO-8859-1, so every byte value maps to a char.
+     */
+    ASCII(1);
+
+    public static final byte SOH = 0x01;
+
+    private final int charWidth;
+
+    WireFormat(int charWidth) {
+        this.charWidth = charWidth;
+    }
+
+    /**
+     * Bytes per value char.
+     */
+    public int getCharWidth() {
+        return charWidth;
+    }
+
+    /**
+     * Returns a char of the value that starts at an absolute offset in the buffer.
+     */
+    char charAt(ByteBuffer bb, int offset, int index) {
+        return charWidth == 2 ? bb.getChar(offset + 2 * index) : (char) (bb.get(offset + index) & 0xFF);
+    }
+}
@@ -0,0 +1,148 @@
+package home.anuradha;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static home.anuradha.FIXMessageFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchFIXMessageParserTests {
+
+    private static final String[] MESSAGES = {
+            "8=345|9=12|55=IBM|40=P|269=2|277=12|456=7|283=5|277=1|231=56|456=7|44=12|10=001|",
+            "8=345|9=12|55=IBM|40=P|123=2|786=9|398=ABC|786=QAS|567=12|496=SDF|398=12|44=12|10=002|",
+            "8=345|55=MSFT|10=003|"};
+    private static final String INVALID = "8=345|9=12|9=13|10=004|"; // 9 shows up twice.
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+    private final BatchFIXMessageParser batchParser = new BatchFIXMessageParser(pool, DataDictionary.DEFAULT, 8);
+
+    @AfterEach
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    public void testResultsInOrder() throws Exception {
+        StringBuilder stream = new StringBuilder();
+        List<ByteBuffer> framed = new ArrayList<>();
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            String msg = MESSAGES[(i * 7) % MESSAGES.length];
+            stream.append(msg);
+            framed.add(constructInput(msg));
+            expected.add(getFIXMessage(msg).toString());
+        }
+
+        assertEquals(expected, toStrings(batchParser.parse(framed)));
+        assertEquals(expected, toStrings(batchParser.parse(constructInput(stream.toString()))));
+        assertEquals(0, framed.get(0).position()); // Buffers are left untouched.
+    }
+
+    @Test
+    public void testOtherTrailerTag() throws Exception {
+        // Messages ending with 44 instead of 10, as MappedCaptureFile and StreamingFIXMessageParser can be told to frame.
+        String[] messages = {"8=345|55=IBM|44=12|", "8=345|55=MSFT|269=1|277=12|456=7|44=13|"};
+        StringBuilder stream = new StringBuilder();
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            stream.append(messages[i % 2]);
+            expected.add(getFIXMessage(messages[i % 2]).toString());
+        }
+        BatchFIXMessageParser byPrice = new BatchFIXMessageParser(pool, 4, 8, 44, FIXMessageParser::new);
+        assertEquals(expected, toStrings(byPrice.parse(constructInput(stream.toString()))));
+        ConcurrentHashMap<Integer, String> streamed = new ConcurrentHashMap<>();
+        assertEquals(50, byPrice.parse(constructInput(stream.toString()), new BatchFIXMessageParser.Sink() {
+            @Override
+            public void onMessage(int index, FIXMessage fixMessage) {
+                streamed.put(index, fixMessage.toString());
+            }
+
+            @Override
+            public void onError(int index, Exception e) {
+                fail(e);
+            }
+        }));
+        assertEquals(expected.get(49), streamed.get(49));
+        assertEquals(0, batchParser.parse(constructInput(stream.toString())).size()); // No tag 10 to end them.
+    }
+
+    @Test
+    public void testSinkAndErrors() throws Exception {
+        List<ByteBuffer> framed = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            framed.add(constructInput(i == 42 || i == 77 ? INVALID : MESSAGES[i % MESSAGES.length]));
+        }
+
+        ConcurrentHashMap<Integer, String> messages = new ConcurrentHashMap<>();
+        ConcurrentHashMap<Integer, Exception> errors = new ConcurrentHashMap<>();
+        batchParser.parse(framed, new BatchFIXMessageParser.Sink() {
+            @Override
+            public void onMessage(int index, FIXMessage fixMessage) {
+                messages.put(index, fixMessage.toString());
+            }
+
+            @Override
+            public void onError(int index, Exception e) {
+                errors.put(index, e);
+            }
+        });
+        assertEquals(98, messages.size());
+        assertEquals(getFIXMessage(MESSAGES[43 % MESSAGES.length]).toString(), messages.get(43));
+        assertEquals(2, errors.size());
+        assertEquals(FIXMessage.FIXMessageException.TAG_ALREADY_EXISTS, errors.get(42).getMessage());
+
+        FIXMessage.FIXMessageException e = assertThrows(FIXMessage.FIXMessageException.class, () -> batchParser.parse(framed));
+        assertSame(FIXMessage.FIXMessageException.TAG_ALREADY_EXISTS, e.getMessage());
+    }
+
+    @Test
+    public void testStreamInWindows() throws Exception {
+        // Windows of 10 messages, a malformed message after 995 and an incomplete one at the end.
+        BatchFIXMessageParser windowed = new BatchFIXMessageParser(pool, 4, 10, StreamingFIXMessageParser.CHECKSUM_TAG,
+                FIXMessageParser::new);
+        StringBuilder stream = new StringBuilder();
+        for (int i = 0; i < 995; i++) {
+            stream.append(MESSAGES[i % MESSAGES.length]);
+        }
+        ByteBuffer valid = constructInput(stream.toString());
+        ByteBuffer incomplete = constructInput("8=345|55=MSFT|");
+        ByteBuffer msgBB = ByteBuffer.allocate(valid.remaining() + incomplete.remaining() + 6);
+        msgBB.put(valid.duplicate()).put(incomplete).flip();
+
+        ConcurrentHashMap<Integer, String> messages = new ConcurrentHashMap<>();
+        BatchFIXMessageParser.Sink sink = new BatchFIXMessageParser.Sink() {
+            @Override
+            public void onMessage(int index, FIXMessage fixMessage) {
+                assertNull(messages.put(index, fixMessage.getNonGroupTagValue(55)));
+            }
+
+            @Override
+            public void onError(int index, Exception e) {
+                fail(e);
+            }
+        };
+        assertEquals(995, windowed.parse(msgBB, sink));
+        assertEquals(995, messages.size());
+        assertEquals("MSFT", messages.get(992));
+        assertEquals(0, msgBB.position());
+
+        messages.clear();
+        msgBB.clear().put(valid).putInt(8).putChar('x').flip(); // 8x, missing its '='.
+        FIXMessage.FIXMessageException e = assertThrows(FIXMessage.FIXMessageException.class, () -> windowed.parse(msgBB, sink));
+        assertSame(FIXMessage.FIXMessageException.BAD_FORMAT, e.getMessage());
+        assertEquals(995, messages.size());
+    }
+
+    private static List<String> toStrings(List<FIXMessage> fixMessages) {
+        List<String> strings = new ArrayList<>();
+        fixMessages.forEach(m -> strings.add(m.toString()));
+        return strings;
+    }
+}
@@ -0,0 +1,113 @@
+package home.anuradha;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static home.anuradha.FIXMessageFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ColumnarArchiveTests {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void testRoundTripAndSelect() throws Exception {
+        // Integers, decimals, repeated and unique strings, a non-canonical integer, missing tags and empty values.
+        List<String> messages = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            String symbol = i % 3 == 0 ? "IBM" : i % 3 == 1 ? "MSFT" : "é中";
+            messages.add("8=FIX.4.4|34=" + (1000 - i * 7) + "|55=" + symbol + "|11=ORDER" + i + "|"
+                    + (i % 5 == 0 ? "" : "38=" + (i % 4 == 0 ? "007" : String.valueOf(100 * i)) + "|")
+                    + "269=2|277=0|456=" + (i + 1) + "|231=143." + (10 + i) + "|277=1|456=1|283=2|"
+                    + "44=" + (100 + i) + ".25|58=|10=128|");
+        }
+        Path file = dir.resolve("archive.col");
+        try (ColumnarArchiveWriter writer = new ColumnarArchiveWriter(file, 16)) {
+            for (String msg : messages) {
+                writer.write(getFIXMessage(msg));
+            }
+        }
+
+        try (ColumnarArchive archive = ColumnarArchive.open(file)) {
+            assertEquals(50, archive.getMessageCount());
+            assertEquals(4, archive.getBlockCount());
+            for (int i = 0; i < messages.size(); i++) {
+                ByteBuffer expected = constructInput(messages.get(i));
+                assertEquals(expected, encode(archive.readMessage(i)), messages.get(i));
+            }
+
+            List<String> prices = new ArrayList<>();
+            Decimal decimal = new Decimal();
+            assertEquals(17, archive.select(44, 55, "IBM", (message, column, row) -> {
+                assertTrue(column.getDecimal(row, decimal));
+                prices.add(message + ":" + decimal);
+            }));
+            assertEquals("0:100.25", prices.get(0));
+            assertEquals("48:148.25", prices.get(16));
+
+            // Group values, mapped back to their messages.
+            List<String> sizes = new ArrayList<>();
+            assertEquals(34, archive.select(new int[]{269}, 456, 55, "IBM",
+                    (message, column, row) -> sizes.add(message + ":" + column.getLong(row))));
+            assertEquals("[0:1, 0:1, 3:4, 3:1]", sizes.subList(0, 4).toString());
+            assertEquals(0, archive.select(new int[]{269}, 283, 55, "AAPL", (message, column, row) -> fail()));
+            assertEquals(50, archive.select(new int[]{269}, 283, 0, null, (message, column, row) -> {}));
+            assertEquals(1, archive.select(44, 34, "1000", (message, column, row) -> {})); // A condition on a number column.
+            // A condition on a decimal column only matches the value as it was written.
+            List<String> symbols = new ArrayList<>();
+            assertEquals(1, archive.select(55, 44, "133.25", (message, column, row) -> symbols.add(message + ":" + column.getString(row))));
+            assertEquals(List.of("33:IBM"), symbols);
+            assertEquals(0, archive.select(55, 44, "133.250", (message, column, row) -> fail()));
+            assertEquals(0, archive.select(55, 44, "+133.25", (message, column, row) -> fail()));
+            assertEquals(0, archive.select(55, 44, "x", (message, column, row) -> fail()));
+        }
+    }
+
+    @Test
+    public void testNestedGroups() throws Exception {
+        DataDictionary dictionary = DataDictionary.load(new ByteArrayInputStream(("<dictionary>"
+                + "<group tag=\"555\"><field tag=\"600\"/><field tag=\"624\"/>"
+                + "<group tag=\"604\"><field tag=\"605\"/><field tag=\"606\"/></group>"
+                + "</group>"
+                + "</dictionary>").getBytes(StandardCharsets.UTF_8)));
+        String[] messages = {"8=345|555=2|600=IBM|604=2|605=A|606=1|605=B|624=1|600=MSFT|604=1|605=C|44=12|",
+                "8=346|555=1|600=AAPL|624=2|44=13|", "8=347|44=14|"};
+        FIXMessageParser parser = new FIXMessageParser(dictionary);
+        Path file = dir.resolve("nested.col");
+        try (ColumnarArchiveWriter writer = new ColumnarArchiveWriter(file)) {
+            for (String msg : messages) {
+                writer.write(parser.parse(constructInput(msg)));
+            }
+        }
+        try (ColumnarArchive archive = ColumnarArchive.open(file, dictionary)) {
+            for (int i = 0; i < messages.length; i++) {
+                assertEquals(constructInput(messages[i]), encode(archive.readMessage(i)), messages[i]);
+            }
+            List<String> legs = new ArrayList<>();
+            archive.select(new int[]{555, 604}, 605, 8, "345", (message, column, row) -> legs.add(column.getString(row)));
+            assertEquals(List.of("A", "B", "C"), legs);
+        }
+    }
+
+    @Test
+    public void testNotAnArchive() throws IOException {
+        Path file = Files.write(dir.resolve("bad.col"), new byte[64]);
+        assertThrows(ColumnarArchive.ColumnarArchiveException.class, () -> ColumnarArchive.open(file));
+    }
+
+    private static ByteBuffer encode(FIXMessage fixMessage) {
+        ByteBuffer out = ByteBuffer.allocate(FIXMessageEncoder.encodedLength(fixMessage));
+        FIXMessageEncoder.encode(fixMessage, out);
+        return out.flip();
+    }
+}
@@ -0,0 +1,124 @@
+package home.anuradha;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+import static home.anuradha.FIXMessageFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DataDictionaryTests {
+
+    private static final String PARTIES_SPEC = "<dictionary>"
+            + "<group tag=\"453\" name=\"NoPartyIDs\">"
+            + "<field tag=\"448\"/><field tag=\"447\" required=\"true\"/><field tag=\"452\" required=\"true\"/>"
+            + "</group>"
+            + "</dictionary>";
+
+    @Test
+    public void testDefaultDictionary() {
+        DataDictionary dictionary = DataDictionary.DEFAULT;
+        assertTrue(dictionary.isRepeatingGroupIndicatorTag(269));
+        assertTrue(dictionary.isRepeatingGroupIndicatorTag(123));
+        assertFalse(dictionary.isRepeatingGroupIndicatorTag(277));
+        assertFalse(dictionary.isRepeatingGroupIndicatorTag(-269));
+        assertFalse(dictionary.isRepeatingGroupIndicatorTag(100_000));
+
+        GroupSchema schema = dictionary.getGroupSchema(269);
+        assertEquals(277, schema.getFirstTag());
+        assertArrayEquals(new int[] {277, 456, 231, 283}, schema.getTags());
+        assertArrayEquals(new int[] {456}, schema.getRequiredTags());
+        assertTrue(schema.contains(231));
+        assertFalse(schema.contains(398));
+        assertNull(dictionary.getGroupSchema(55));
+    }
+
+    @Test
+    public void testParseWithLoadedDictionary() throws Exception {
+        DataDictionary dictionary = load(PARTIES_SPEC);
+        FIXMessageParser parser = new FIXMessageParser(dictionary);
+        String msg = "8=345|55=IBM|453=2|448=A|447=D|452=1|448=B|447=D|452=3|44=12|";
+
+        FIXMessage fixMessage = parser.parse(constructInput(msg));
+        assertEquals("FIXMessage:[8=345,55=IBM,44=12,RepeatingGroup:[453=2,Group:[448=A,447=D,452=1,],Group:[448=B,447=D,452=3,],],]", fixMessage.toString());
+        FIXMessageView view = parser.parse(constructInput(msg), new FIXMessageView());
+        assertEquals(3, view.getGroupInt(453, 1, 452));
+
+        // 269 is a regular tag in this dictionary.
+        assertEquals("2", parser.parse(constructInput("8=345|269=2|")).getNonGroupTagValue(269));
+
+        String missingRequiredTag = "8=345|453=1|448=A|447=D|44=12|";
+        Group.GroupException e = assertThrows(Group.GroupException.class, () -> parser.parse(constructInput(missingRequiredTag)));
+        assertEquals(Group.GroupException.INVALID_GROUP, e.getMessage());
+        e = assertThrows(Group.GroupException.class, () -> parser.parse(constructInput(missingRequiredTag), new FIXMessageView()));
+        assertEquals(Group.GroupException.INVALID_GROUP, e.getMessage());
+    }
+
+    @Test
+    public void testNestedGroups() throws Exception {
+        DataDictionary dictionary = load("<dictionary><group tag=\"555\"><field tag=\"600\"/>"
+                + "<group tag=\"604\"><field tag=\"605\"/><field tag=\"606\"/></group>"
+                + "</group></dictionary>");
+        GroupSchema legs = dictionary.getGroupSchema(555);
+        assertTrue(legs.contains(604));
+        assertEquals(605, legs.getChildGroup(604).getFirstTag());
+        assertNull(legs.getChildGroup(600));
+        assertFalse(dictionary.isRepeatingGroupIndicatorTag(604));
+    }
+
+    @Test
+    public void testLargeTags() throws Exception {
+        // Large user defined tags are kept out of the arrays and bitsets indexed by tag.
+        DataDictionary dictionary = load("<dictionary>"
+                + "<group tag=\"2000000000\"><field tag=\"600\"/><field tag=\"1999999999\" required=\"true\"/>"
+                + "<group tag=\"70000\"><field tag=\"605\"/></group>"
+                + "</group>"
+                + "<group tag=\"453\"><field tag=\"448\"/></group>"
+                + "</dictionary>");
+        assertTrue(dictionary.isRepeatingGroupIndicatorTag(2_000_000_000));
+        assertFalse(dictionary.isRepeatingGroupIndicatorTag(1_999_999_999));
+        assertTrue(dictionary.isRepeatingGroupIndicatorTag(453));
+        GroupSchema schema = dictionary.getGroupSchema(2_000_000_000);
+        assertTrue(schema.contains(1_999_999_999));
+        assertTrue(schema.contains(70_000));
+        assertTrue(schema.contains(600));
+        assertFalse(schema.contains(70_001));
+        assertFalse(schema.contains(-600));
+        assertNull(dictionary.getGroupSchema(70_000));
+        assertEquals(448, dictionary.getGroupSchema(453).getFirstTag());
+
+        FIXMessage fixMessage = new FIXMessageParser(dictionary)
+                .parse(constructInput("8=345|2000000000=1|600=A|1999999999=B|70000=1|605=C|44=12|"));
+        Group group = fixMessage.getRepeatingGroup(2_000_000_000).getGroups().get(0);
+        assertEquals("B", group.getValue(1_999_999_999));
+        assertEquals("C", group.getRepeatingGroup(70_000).getGroups().get(0).getValue(605));
+    }
+
+    @Test
+    public void testMissingResource() {
+        DataDictionary.DataDictionaryException e = assertThrows(DataDictionary.DataDictionaryException.class,
+                () -> DataDictionary.loadResource("missing-dictionary.xml"));
+        assertEquals(DataDictionary.DataDictionaryException.RESOURCE_NOT_FOUND + " missing-dictionary.xml", e.getMessage());
+    }
+
+    @Test
+    public void testInvalidSpecs() {
+        assertInvalid(DataDictionary.DataDictionaryException.BAD_SPEC, "<groups/>");
+        assertInvalid(DataDictionary.DataDictionaryException.BAD_SPEC, "<dictionary>");
+        assertInvalid(DataDictionary.DataDictionaryException.BAD_TAG, "<dictionary><group tag=\"x\"><field tag=\"1\"/></group></dictionary>");
+        assertInvalid(DataDictionary.DataDictionaryException.EMPTY_GROUP, "<dictionary><group tag=\"1\"/></dictionary>");
+        assertInvalid(DataDictionary.DataDictionaryException.FIRST_TAG_NOT_FIELD, "<dictionary><group tag=\"1\"><group tag=\"2\"><field tag=\"3\"/></group></group></dictionary>");
+        assertInvalid(DataDictionary.DataDictionaryException.DUPLICATE_TAG, "<dictionary><group tag=\"1\"><field tag=\"2\"/><field tag=\"2\"/></group></dictionary>");
+        assertInvalid(DataDictionary.DataDictionaryException.BAD_SPEC, "<!DOCTYPE dictionary [<!ENTITY x SYSTEM \"file:///etc/passwd\">]><dictionary/>");
+    }
+
+    private static void assertInvalid(String expectedMessage, String spec) {
+        DataDictionary.DataDictionaryException e = assertThrows(DataDictionary.DataDictionaryException.class, () -> load(spec));
+        assertEquals(expectedMessage, e.getMessage());
+    }
+
+    private static DataDictionary load(String spec) throws Exception {
+        return DataDictionary.load(new ByteArrayInputStream(spec.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,71 @@
+package home.anuradha;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import static home.anuradha.FIXMessageFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DelimiterScannerTests {
+
+    private static List<DelimiterScanner> scanners() {
+        List<DelimiterScanner> scanners = new ArrayList<>(List.of(DelimiterScanner.SCALAR, DelimiterScanner.SWAR));
+        if (DelimiterScanner.vector() != null) {
+            scanners.add(DelimiterScanner.vector());
+        }
+        return scanners;
+    }
+
+    @Test
+    public void testFindAtEveryLength() {
+        Random random = new Random(42);
+        for (ByteOrder order : new ByteOrder[]{ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN}) {
+            for (int length = 0; length < 300; length++) {
+                // A value of chars that look like delimiters in the other format or byte order, e.g. '|' << 8 and SOH.
+                ByteBuffer chars = ByteBuffer.allocate(2 * length + 4).order(order);
+                ByteBuffer ascii = ByteBuffer.allocate(length + 2).order(order);
+                chars.put((byte) 0);
+                ascii.put((byte) '=');
+                for (int i = 0; i < length; i++) {
+                    char c = "AB}\u7C00\u0001\u7C7C9".charAt(random.nextInt(7));
+                    chars.putChar(1 + 2 * i, c);
+                    ascii.put((byte) (c == 0x0001 ? '|' : c));
+                }
+                chars.putChar(1 + 2 * length, '|');
+                ascii.put(WireFormat.SOH);
+
+                for (DelimiterScanner scanner : scanners()) {
+                    assertEquals(1 + 2 * length, scanner.find(chars, WireFormat.CHARS, 1, chars.capacity()), length + " " + order);
+                    assertEquals(-1, scanner.find(chars, WireFormat.CHARS, 1, 1 + 2 * length), length + " " + order);
+                    assertEquals(1 + length, scanner.find(ascii, WireFormat.ASCII, 1, ascii.capacity()), length + " " + order);
+                    assertEquals(-1, scanner.find(ascii, WireFormat.ASCII, 1, 1 + length), length + " " + order);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testParseWithEachScanner() throws Exception {
+        // Tag 124 is 0x0000007C, so its last bytes look like a '|' that isn't aligned with the value.
+        String msg = "8=FIX.4.4|124=" + "x".repeat(100) + "|269=2|277=0|456=1|277=1|456=2|10=128|";
+        FIXMessage expected = getFIXMessage(msg);
+        for (DelimiterScanner scanner : scanners()) {
+            FIXMessageParser parser = new FIXMessageParser();
+            parser.setDelimiterScanner(scanner);
+            assertEquals(expected.toString(), parser.parse(constructInput(msg)).toString());
+
+            FIXMessageParser asciiParser = new FIXMessageParser(DataDictionary.DEFAULT, WireFormat.ASCII);
+            asciiParser.setDelimiterScanner(scanner);
+            assertEquals(expected.toString(), asciiParser.parse(constructAsciiInput(msg)).toString());
+
+            ByteBuffer truncated = constructInput(msg);
+            truncated.limit(truncated.limit() - 2);
+            assertThrows(FIXMessage.FIXMessageException.class, () -> parser.parse(truncated));
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package home.anuradha;
+
+import java.io.ByteArrayInputStream;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import static home.anuradha.FIXMessageFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FIXMessageEncoderTests {
+
+    @Test
+    public void testEncodesInOriginalOrder() throws Exception {
+        List<String> messages = Arrays.asList(
+                "8=345|9=12|55=IBM|40=P|269=2|277=12|456=7|283=5|277=1|231=56|456=7|100=ABC|123=2|786=9|398=ABC|786=QAS|567=12|496=SDF|398=12|44=12|",
+                "269=1|277=12|456=7|8=345|", // Repeating group before any regular tag.
+                "8=345|269=2|277=12|456=7|277=1|456=8|", // Message ending in a group.
+                "8=345|55=é中|10=|"); // Non-ASCII and empty values.
+        for (String msg : messages) {
+            ByteBuffer input = constructInput(msg);
+            FIXMessage fixMessage = new FIXMessageParser().parse(input.duplicate());
+            assertEquals(input, encode(fixMessage, ByteOrder.BIG_ENDIAN), msg);
+        }
+
+        DataDictionary dictionary = DataDictionary.load(new ByteArrayInputStream(("<dictionary>"
+                + "<group tag=\"555\"><field tag=\"600\"/><field tag=\"624\"/>"
+                + "<group tag=\"604\"><field tag=\"605\"/><field tag=\"606\"/></group>"
+                + "</group>"
+                + "</dictionary>").getBytes(StandardCharsets.UTF_8)));
+        String nested = "8=345|555=2|600=IBM|604=2|605=A|606=1|605=B|624=1|600=MSFT|604=1|605=C|44=12|";
+        ByteBuffer input = constructInput(nested);
+        assertEquals(input, encode(new FIXMessageParser(dictionary).parse(input.duplicate()), ByteOrder.BIG_ENDIAN));
+    }
+
+    @Test
+    public void testRoundTripRandomMessages() throws Exception {
+        Random random = new Random(42);
+        FIXMessageParser parser = new FIXMessageParser();
+        for (int n = 0; n < 500; n++) {
+            String msg = randomMessage(random);
+            FIXMessage fixMessage = getFIXMessage(msg);
+            ByteOrder order = random.nextBoolean() ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN;
+
+            ByteBuffer encoded = encode(fixMessage, order);
+            FIXMessage decoded = parser.parse(encoded.duplicate().order(order));
+            assertEquals(fixMessage.toString(), decoded.toString(), msg);
+            assertEquals(encoded, encode(decoded, order), msg);
+        }
+    }
+
+    @Test
+    public void testBufferTooSmall() throws Exception {
+        FIXMessage fixMessage = getFIXMessage("8=345|269=1|277=12|456=7|44=12|");
+        ByteBuffer out = ByteBuffer.allocate(FIXMessageEncoder.encodedLength(fixMessage) + 7);
+        out.position(8);
+        assertThrows(BufferOverflowException.class, () -> FIXMessageEncoder.encode(fixMessage, out));
+        assertEquals(8, out.position());
+    }
+
+    @Test
+    public void testEncodesAscii() throws Exception {
+        String msg = "8=FIX.4.4|55=IBM|269=2|277=12|456=7|277=1|456=8|58=é=x|10=000|";
+        FIXMessage fixMessage = getFIXMessage(msg);
+        int length = FIXMessageEncoder.encodedLength(fixMessage, WireFormat.ASCII);
+        ByteBuffer out = ByteBuffer.allocate(length);
+        assertEquals(length, FIXMessageEncoder.encode(fixMessage, WireFormat.ASCII, out));
+        assertEquals(constructAsciiInput(msg), out.flip());
+        FIXMessage decoded = new FIXMessageParser(DataDictionary.DEFAULT, WireFormat.ASCII).parse(out);
+        assertEquals(fixMessage.toString(), decoded.toString());
+    }
+
+    @Test
+    public void testRejectsValuesWithDelimiter() throws Exception {
+        FIXMessage pipe = new FIXMessage();
+        pipe.putNonRepeatingGroupTag(8, "FIX");
+        pipe.putNonRepeatingGroupTag(58, "a|b");
+        ByteBuffer out = ByteBuffer.allocate(256);
+        out.position(8);
+        assertThrows(IllegalArgumentException.class, () -> FIXMessageEncoder.encode(pipe, out));
+        assertEquals(8, out.position());
+        assertEquals(0, out.getInt(8)); // Nothing written.
+        assertEquals("8=FIX_58=a|b_".length(), FIXMessageEncoder.encodedLength(pipe, WireFormat.ASCII)); // Fine in ASCII.
+
+        FIXMessage soh = new FIXMessage();
+        soh.putNonRepeatingGroupTag(58, "a\001b");
+        assertThrows(IllegalArgumentException.class, () -> FIXMessageEncoder.encodedLength(soh, WireFormat.ASCII));
+        FIXMessage wide = new FIXMessage();
+        wide.putNonRepeatingGroupTag(58, "中");
+        assertThrows(IllegalArgumentException.class, () -> FIXMessageEncoder.encode(wide, WireFormat.ASCII, out));
+    }
+
+    private static ByteBuffer encode(FIXMessage fixMessage, ByteOrder order) {
+        int length = FIXMessageEncoder.encodedLength(fixMessage);
+        ByteBuffer out = ByteBuffer.allocateDirect(length).order(order);
+        assertEquals(length, FIXMessageEncoder.encode(fixMessage, out));
+        assertFalse(out.hasRemaining()); // Sized exactly.
+        return out.flip();
+    }
+
+    /**
+     * Builds a valid message from regular tags and 269 and 123 repeating groups, in random order.
+     */
+    private static String randomMessage(Random random) {
+        StringBuilder sb = new StringBuilder();
+        int[] regularTags = {8, 9, 35, 44, 49, 55, 56, 100};
+        boolean[] used = new boolean[regularTags.length];
+        boolean mdEntries = random.nextBoolean();
+        boolean routingEntries = random.nextBoolean();
+        for (int i = 0; i < 10; i++) {
+            int choice = random.nextInt(regularTags.length + 2);
+            if (choice < regularTags.length) {
+                if (!used[choice]) {
+                    used[choice] = true;
+                    sb.append(regularTags[choice]).append('=').append(randomValue(random)).append('|');
+                }
+            } else if (choice == regularTags.length && mdEntries) {
+                mdEntries = false;
+                appendGroups(sb, random, 269, new int[]{277, 456, 231, 283});
+            } else if (choice == regularTags.length + 1 && routingEntries) {
+                routingEntries = false;
+                appendGroups(sb, random, 123, new int[]{786, 398, 567, 496});
+            }
+        }
+        return sb.toString();
+    }
+
+    private static void appendGroups(StringBuilder sb, Random random, int indicatorTag, int[] tags) {
+        int numberOfGroups = 1 + random.nextInt(20);
+        sb.append(indicatorTag).append('=').append(numberOfGroups).append('|');
+        for (int i = 0; i < numberOfGroups; i++) {
+            // First tag, then the required second tag, then any of the others.
+            sb.append(tags[0]).append('=').append(randomValue(random)).append('|');
+            sb.append(tags[1]).append('=').append(randomValue(random)).append('|');
+            for (int j = 2; j < tags.length; j++) {
+                if (random.nextBoolean()) {
+                    sb.append(tags[j]).append('=').append(randomValue(random)).append('|');
+                }
+            }
+        }
+    }
+
+    private static String randomValue(Random random) {
+        char[] chars = new char[random.nextInt(12)];
+        for (int i = 0; i < chars.length; i++) {
+            char c;
+            do {
+                c = (char) (random.nextInt(8) == 0 ? 0x80 + random.nextInt(0x1000) : 0x20 + random.nextInt(0x5f));
+            } while (c == '|' || c == '=');
+            chars[i] = c;
+        }
+        return new String(chars);
+    }
+}
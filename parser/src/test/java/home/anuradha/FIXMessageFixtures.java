@@ -0,0 +1,59 @@
+package home.anuradha;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Builds input buffers from readable messages such as "8=345|9=12|55=IBM|", in the format read by
+ * {@link FIXMessageParser}: a 4 byte int tag, the '=' char, the value chars and the '|' char.
+ * Tags that aren't integers are written as chars, so that invalid messages can be built too.
+ * {@link #constructAsciiInput(String)} builds the same message in {@link WireFormat#ASCII}.
+ * Shared by the tests and the benchmarks.
+ */
+public class FIXMessageFixtures {
+
+    public static FIXMessage getFIXMessage(String msg) throws RepeatingGroup.RepeatingGroupException, FIXMessage.FIXMessageException, Group.GroupException {
+        ByteBuffer bb1 = constructInput(msg);
+        FIXMessageParser parser = new FIXMessageParser();
+        return parser.parse(bb1);
+    }
+
+    public static ByteBuffer constructInput(String msg) {
+        // Every char takes at most 2 bytes, except the chars of an int tag which take at most 4 bytes.
+        ByteBuffer bb = ByteBuffer.allocate(4 * msg.length() + 4);
+
+        String[] tagsValues = msg.split("\\|");
+        Arrays.stream(tagsValues).forEach(tv -> addTV(tv, bb));
+
+        bb.flip();
+        return bb;
+    }
+
+    public static ByteBuffer constructAsciiInput(String msg) {
+        return ByteBuffer.wrap(msg.replace('|', (char) WireFormat.SOH).getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    public static void addTV(String tv, ByteBuffer bb) {
+        if (tv!=null) {
+            String[] tvsplit = tv.split("=", 2);
+            try {
+                int tag = Integer.parseInt(tvsplit[0]);
+                bb.putInt(tag);
+            } catch (NumberFormatException e) {
+                char[] tagChars = tvsplit[0].toCharArray();
+                for (char c : tagChars) {
+                    bb.putChar(c);
+                }
+            }
+            if (tvsplit.length == 2) {
+                bb.putChar('=');
+                char[] valueChars = tvsplit[1].toCharArray();
+                for (char c : valueChars) {
+                    bb.putChar(c);
+                }
+            }
+        }
+        bb.putChar('|');
+    }
+}
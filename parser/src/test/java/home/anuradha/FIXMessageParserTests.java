@@ -0,0 +1,292 @@
+package home.anuradha;
+
+import java.io.ByteArrayInputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static home.anuradha.FIXMessageFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FIXMessageParserTests {
+
+    FIXMessageParser parser = new FIXMessageParser();
+
+    @Test
+    public void testValidMessages() throws RepeatingGroup.RepeatingGroupException, FIXMessage.FIXMessageException, Group.GroupException {
+        String msg1 = "8=345|9=12|55=IBM|40=P|269=2|277=12|456=7|283=5|277=1|231=56|456=7|44=12|";
+        String msg2 = "8=345|9=12|55=IBM|40=P|123=2|786=9|398=ABC|786=QAS|567=12|496=SDF|398=12|44=12|";
+        String msg3 = "8=345|9=12|55=IBM|40=P|269=2|277=12|456=7|283=5|277=1|231=56|456=7|123=2|786=9|398=ABC|786=QAS|567=12|496=SDF|398=12|44=12|";
+        String msg4 = "8=345|9=12|55=IBM|40=P|269=2|277=12|456=7|283=5|277=1|231=56|456=7|100=ABC|123=2|786=9|398=ABC|786=QAS|567=12|496=SDF|398=12|44=12|";
+
+        String res1 = "FIXMessage:[8=345,9=12,55=IBM,40=P,44=12,RepeatingGroup:[269=2,Group:[277=12,456=7,283=5,],Group:[277=1,231=56,456=7,],],]";
+        String res2 = "FIXMessage:[8=345,9=12,55=IBM,40=P,44=12,RepeatingGroup:[123=2,Group:[786=9,398=ABC,],Group:[786=QAS,567=12,496=SDF,398=12,],],]";
+        String res3 = "FIXMessage:[8=345,9=12,55=IBM,40=P,44=12,RepeatingGroup:[269=2,Group:[277=12,456=7,283=5,],Group:[277=1,231=56,456=7,],],RepeatingGroup:[123=2,Group:[786=9,398=ABC,],Group:[786=QAS,567=12,496=SDF,398=12,],],]";
+        String res4 = "FIXMessage:[8=345,9=12,55=IBM,40=P,100=ABC,44=12,RepeatingGroup:[269=2,Group:[277=12,456=7,283=5,],Group:[277=1,231=56,456=7,],],RepeatingGroup:[123=2,Group:[786=9,398=ABC,],Group:[786=QAS,567=12,496=SDF,398=12,],],]";
+
+        FIXMessage fixMessage1 = getFIXMessage(msg1);
+        assertEquals(fixMessage1.toString(), res1);
+        FIXMessage fixMessage2 = getFIXMessage(msg2);
+        assertEquals(fixMessage2.toString(), res2);
+        FIXMessage fixMessage3 = getFIXMessage(msg3);
+        assertEquals(fixMessage3.toString(), res3);
+        FIXMessage fixMessage4 = getFIXMessage(msg4);
+        assertEquals(fixMessage4.toString(), res4);
+    }
+
+    @Test
+    public void testTagWithNoValue() {
+        String tagWithNoValue = "8=345|9=12|55=IBM|40=P|222|44=12"; // 222 has no value.
+        assertThrows(FIXMessage.FIXMessageException.class, () -> getFIXMessage(tagWithNoValue));
+    }
+
+    @Test
+    public void testMissingTag() {
+        String missingTag = "8=345|9=12|55=IBM|40=P||44=12|"; // Empty tag between 40 and 44.
+        assertThrows(FIXMessage.FIXMessageException.class, () -> getFIXMessage(missingTag));
+    }
+
+    @Test
+    public void testNonIntegerTag() {
+        String nonIntegerTag  = "8=345|9=12|55=IBM|40=P|TAG=VALUE|44=12|"; // A tag called "TAG" instead of a number.
+        assertThrows(FIXMessage.FIXMessageException.class, () -> getFIXMessage(nonIntegerTag));
+    }
+
+    @Test
+    public void testTagRepeated() {
+        String nonIntegerTag  = "8=345|9=12|55=IBM|40=P|9=13|44=12|"; // 9 shows up twice.
+        assertThrows(FIXMessage.FIXMessageException.class, () -> getFIXMessage(nonIntegerTag));
+    }
+
+    @Test
+    public void testTooManyRepeatingGroups() {
+        String tooManyRepeatingGroups  = "8=345|9=12|55=IBM|40=P|269=2|277=12|456=7|283=5|277=1|231=56|456=7|277=17|456=9|44=12|"; // 269=2 but there are 3 groups.
+        RepeatingGroup.RepeatingGroupException e = assertThrows(RepeatingGroup.RepeatingGroupException.class, () -> getFIXMessage(tooManyRepeatingGroups));
+        assertEquals(RepeatingGroup.RepeatingGroupException.TOO_MANY_GROUPS, e.getMessage());
+    }
+
+    @Test
+    public void testTooFewRepeatingGroups() {
+        String tooManyRepeatingGroups  = "8=345|9=12|55=IBM|40=P|123=3|786=9|398=ABC|786=QAS|567=12|496=SDF|398=12|44=12|"; // 123=3 but there are only 2 groups.
+        RepeatingGroup.RepeatingGroupException e = assertThrows(RepeatingGroup.RepeatingGroupException.class, () -> getFIXMessage(tooManyRepeatingGroups));
+        assertEquals(RepeatingGroup.RepeatingGroupException.INVALID_REPEATING_GROUP, e.getMessage());
+    }
+
+    @Test
+    public void testSameIndicatorTagTwice() {
+        String tooManyRepeatingGroups  = "8=345|9=12|55=IBM|40=P|269=2|277=12|456=7|283=5|277=1|231=56|456=7|100=ABC|269=2|277=12|456=7|283=5|277=1|231=56|456=7|44=12|"; // 269 shows up twice.
+        FIXMessage.FIXMessageException e = assertThrows(FIXMessage.FIXMessageException.class, () -> getFIXMessage(tooManyRepeatingGroups));
+        assertEquals(FIXMessage.FIXMessageException.REPEATING_GROUP_ALREADY_EXISTS, e.getMessage());
+    }
+
+    @Test
+    public void testGroupMissingFirstTag() {
+        String groupMissingFirstTag  = "8=345|9=12|55=IBM|40=P|123=2|398=ABC|786=QAS|567=12|496=SDF|398=12|44=12|"; // First group after 123 doesn't start with 786
+        RepeatingGroup.RepeatingGroupException e = assertThrows(RepeatingGroup.RepeatingGroupException.class, () -> getFIXMessage(groupMissingFirstTag));
+        assertEquals(RepeatingGroup.RepeatingGroupException.INVALID_REPEATING_GROUP, e.getMessage());
+    }
+
+    @Test
+    public void testFirstTagMisplacedInGroup() {
+        String firstTagMisplaced  = "8=345|9=12|55=IBM|40=P|123=2|398=ABC|786=9|567=25|786=QAS|567=12|496=SDF|398=12|44=12|"; // 786 is not the first tag after 123.
+        RepeatingGroup.RepeatingGroupException e = assertThrows(RepeatingGroup.RepeatingGroupException.class, () -> getFIXMessage(firstTagMisplaced));
+        assertEquals(RepeatingGroup.RepeatingGroupException.INVALID_REPEATING_GROUP, e.getMessage());
+    }
+
+    @Test
+    public void testGroupMissingRequiredTag() {
+        String groupMissingRequiredTag  = "8=345|9=12|55=IBM|40=P|123=2|786=9|567=25|786=QAS|567=12|496=SDF|398=12|44=12|"; // No 398 tag in first group.
+        Group.GroupException e = assertThrows(Group.GroupException.class, () -> getFIXMessage(groupMissingRequiredTag));
+        assertEquals(Group.GroupException.INVALID_GROUP, e.getMessage());
+    }
+
+    @Test
+    public void testNonRepeatingTagInGroup() {
+        String tooManyRepeatingGroups  = "8=345|9=12|55=IBM|40=P|123=2|786=9|222=BAD_TAG|398=ABC|786=QAS|567=12|496=SDF|398=12|44=12|"; // 222 shouldn't be in group.
+        Group.GroupException e = assertThrows(Group.GroupException.class, () -> getFIXMessage(tooManyRepeatingGroups));
+        assertEquals(Group.GroupException.INVALID_GROUP, e.getMessage());
+    }
+
+    @Test
+    public void testFlyweightMatchesParse() throws RepeatingGroup.RepeatingGroupException, FIXMessage.FIXMessageException, Group.GroupException {
+        String msg = "8=345|9=12|55=IBM|40=P|269=2|277=12|456=7|283=5|277=1|231=56|456=7|100=ABC|123=2|786=9|398=ABC|786=QAS|567=12|496=SDF|398=12|44=12|";
+        FIXMessage fixMessage = getFIXMessage(msg);
+        FIXMessageView view = parser.parse(constructInput(msg), new FIXMessageView());
+
+        for (Integer tag : fixMessage.getAllNonRepeatingTagsAndValues().keySet()) {
+            assertEquals(fixMessage.getNonGroupTagValue(tag), view.getCharSequence(tag).toString());
+        }
+        for (RepeatingGroup rg : fixMessage.getRepeatingGroups().values()) {
+            assertEquals(rg.getNumberOfGroups(), view.getInt(rg.getIndicatorTag()));
+            assertEquals(rg.getNumberOfGroups(), view.getNumberOfGroups(rg.getIndicatorTag()));
+            for (int i = 0; i < rg.getGroups().size(); i++) {
+                Group group = rg.getGroups().get(i);
+                for (Integer tag : group.getAllTagsAndValues().keySet()) {
+                    assertEquals(group.getValue(tag), view.getGroupCharSequence(rg.getIndicatorTag(), i, tag).toString());
+                }
+            }
+        }
+        assertEquals(345, view.getInt(8));
+        assertEquals(12L, view.getLong(44));
+        assertEquals(12, view.getGroupInt(269, 0, 277));
+        assertNull(view.getCharSequence(222));
+        assertEquals(TypedValues.NULL_INT, view.getInt(55));
+        assertEquals(TypedValues.NULL_LONG, view.getGroupLong(269, 0, 9999));
+    }
+
+    @Test
+    public void testFlyweightValidatesLikeParse() {
+        List<String> invalidMessages = Arrays.asList(
+                "8=345|9=12|55=IBM|40=P|222|44=12",
+                "8=345|9=12|55=IBM|40=P|9=13|44=12|",
+                "8=345|9=12|55=IBM|40=P|269=2|277=12|456=7|283=5|277=1|231=56|456=7|277=17|456=9|44=12|",
+                "8=345|9=12|55=IBM|40=P|123=3|786=9|398=ABC|786=QAS|567=12|496=SDF|398=12|44=12|",
+                "8=345|9=12|55=IBM|40=P|269=2|277=12|456=7|283=5|277=1|231=56|456=7|100=ABC|269=2|277=12|456=7|283=5|277=1|231=56|456=7|44=12|",
+                "8=345|9=12|55=IBM|40=P|123=2|398=ABC|786=9|567=25|786=QAS|567=12|496=SDF|398=12|44=12|",
+                "8=345|9=12|55=IBM|40=P|123=2|786=9|567=25|786=QAS|567=12|496=SDF|398=12|44=12|",
+                "8=345|9=12|55=IBM|40=P|123=2|786=9|222=BAD_TAG|398=ABC|786=QAS|567=12|496=SDF|398=12|44=12|",
+                "8=345|9=12|55=IBM|40=P|123=0|44=12|");
+        FIXMessageView view = new FIXMessageView();
+        for (String msg : invalidMessages) {
+            Exception expected = assertThrows(Exception.class, () -> getFIXMessage(msg));
+            Exception actual = assertThrows(Exception.class, () -> parser.parse(constructInput(msg), view));
+            assertEquals(expected.getClass(), actual.getClass(), msg);
+            assertEquals(expected.getMessage(), actual.getMessage(), msg);
+        }
+    }
+
+    @Test
+    public void testAsciiWireFormat() throws Exception {
+        FIXMessageParser asciiParser = new FIXMessageParser(DataDictionary.DEFAULT, WireFormat.ASCII);
+        String msg = "8=FIX.4.4|9=12|55=IBM|40=P|269=2|277=12|456=7|283=5|277=1|231=56|456=7|100=ABC|123=2|786=9|398=ABC|786=QAS|567=12|496=SDF|398=12|44=-12|10=|";
+        String expected = getFIXMessage(msg).toString();
+        assertEquals(expected, asciiParser.parse(constructAsciiInput(msg)).toString());
+        ByteBuffer direct = ByteBuffer.allocateDirect(msg.length()).put(constructAsciiInput(msg)).flip();
+        assertEquals(expected, asciiParser.parse(direct).toString());
+
+        FIXMessageView view = asciiParser.parse(constructAsciiInput(msg), new FIXMessageView());
+        assertEquals(WireFormat.ASCII, view.getWireFormat());
+        assertEquals("FIX.4.4", view.getCharSequence(8).toString());
+        assertEquals(-12L, view.getLong(44));
+        assertEquals(2, view.getNumberOfGroups(123));
+        assertEquals("QAS", view.getGroupCharSequence(123, 1, 786).toString());
+        assertEquals(0, view.getCharSequence(10).length());
+    }
+
+    @Test
+    public void testAsciiWireFormatValidatesLikeParse() {
+        FIXMessageParser asciiParser = new FIXMessageParser(DataDictionary.DEFAULT, WireFormat.ASCII);
+        List<String> invalidMessages = Arrays.asList(
+                "8=345|9=12|55=IBM|40=P|9=13|44=12|",
+                "8=345|9=12|55=IBM|40=P|269=2|277=12|456=7|283=5|277=1|231=56|456=7|277=17|456=9|44=12|",
+                "8=345|9=12|55=IBM|40=P|123=2|786=9|567=25|786=QAS|567=12|496=SDF|398=12|44=12|",
+                "8=345|9=12|55=IBM|40=P|123=X|44=12|");
+        for (String msg : invalidMessages) {
+            Exception expected = assertThrows(Exception.class, () -> getFIXMessage(msg));
+            Exception actual = assertThrows(Exception.class, () -> asciiParser.parse(constructAsciiInput(msg)));
+            Exception actualView = assertThrows(Exception.class, () -> asciiParser.parse(constructAsciiInput(msg), new FIXMessageView()));
+            assertEquals(expected.getClass(), actual.getClass(), msg);
+            assertEquals(expected.getClass(), actualView.getClass(), msg);
+        }
+
+        List<String> badFormats = Arrays.asList(
+                "8=345|222|44=12|", // No '='.
+                "8=345|TAG=VALUE|", // Tag isn't a number.
+                "8=345|=VALUE|", // Empty tag.
+                "8=345|4294967296=1|", // Tag doesn't fit in an int.
+                "8=345|44=12"); // No SOH after the last value.
+        for (String msg : badFormats) {
+            FIXMessage.FIXMessageException e = assertThrows(FIXMessage.FIXMessageException.class, () -> asciiParser.parse(constructAsciiInput(msg)), msg);
+            assertEquals(FIXMessage.FIXMessageException.BAD_FORMAT, e.getMessage(), msg);
+        }
+    }
+
+    @Test
+    public void testFlyweightSteadyStateAllocatesNothing() throws RepeatingGroup.RepeatingGroupException, FIXMessage.FIXMessageException, Group.GroupException {
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        ByteBuffer bb = constructInput("8=345|9=12|55=IBM|40=P|269=2|277=12|456=7|283=5|277=1|231=56|456=7|100=ABC|123=2|786=9|398=ABC|786=QAS|567=12|496=SDF|398=12|44=12|");
+        FIXMessageView view = new FIXMessageView();
+        int iterations = 100_000;
+        long checksum = 0;
+
+        for (int i = 0; i < iterations; i++) { // Warm up.
+            bb.rewind();
+            checksum += parser.parse(bb, view).getLong(44) + view.getGroupCharSequence(123, 1, 496).length();
+        }
+        long before = threadMXBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < iterations; i++) {
+            bb.rewind();
+            checksum += parser.parse(bb, view).getLong(44) + view.getGroupCharSequence(123, 1, 496).length();
+        }
+        long after = threadMXBean.getThreadAllocatedBytes(threadId);
+
+        assertEquals(30L * iterations, checksum);
+        assertEquals(0, (after - before) / iterations, "Bytes allocated per message");
+    }
+
+    @Test
+    public void testMessageEndingInGroup() throws RepeatingGroup.RepeatingGroupException, FIXMessage.FIXMessageException, Group.GroupException {
+        String msg = "8=345|269=2|277=12|456=7|277=1|456=8|"; // The last tag belongs to a group, not the message.
+        FIXMessage fixMessage = getFIXMessage(msg);
+        assertEquals("FIXMessage:[8=345,RepeatingGroup:[269=2,Group:[277=12,456=7,],Group:[277=1,456=8,],],]", fixMessage.toString());
+        assertNull(fixMessage.getNonGroupTagValue(456));
+        assertEquals(-1, parser.parse(constructInput(msg), new FIXMessageView()).indexOf(456));
+
+        String endsAfterIndicatorTag = "8=345|269=2|";
+        RepeatingGroup.RepeatingGroupException e = assertThrows(RepeatingGroup.RepeatingGroupException.class, () -> getFIXMessage(endsAfterIndicatorTag));
+        assertEquals(RepeatingGroup.RepeatingGroupException.INVALID_REPEATING_GROUP, e.getMessage());
+    }
+
+    @Test
+    public void testNestedRepeatingGroups() throws Exception {
+        // NoLegs -> NoLegSecurityAltID -> a third level, to check that nesting isn't limited to two levels.
+        DataDictionary dictionary = DataDictionary.load(new ByteArrayInputStream(("<dictionary>"
+                + "<group tag=\"555\"><field tag=\"600\"/><field tag=\"624\"/>"
+                + "<group tag=\"604\"><field tag=\"605\"/><field tag=\"606\" required=\"true\"/>"
+                + "<group tag=\"900\"><field tag=\"901\"/></group>"
+                + "</group>"
+                + "</group>"
+                + "</dictionary>").getBytes(StandardCharsets.UTF_8)));
+        FIXMessageParser nestedParser = new FIXMessageParser(dictionary);
+        String msg = "8=345|555=2|600=IBM|604=2|605=A|606=1|900=1|901=X|605=B|606=2|624=1|600=MSFT|604=1|605=C|606=3|44=12|";
+
+        FIXMessage fixMessage = nestedParser.parse(constructInput(msg));
+        assertEquals("FIXMessage:[8=345,44=12,RepeatingGroup:[555=2,"
+                + "Group:[600=IBM,624=1,RepeatingGroup:[604=2,Group:[605=A,606=1,RepeatingGroup:[900=1,Group:[901=X,],],],Group:[605=B,606=2,],],],"
+                + "Group:[600=MSFT,RepeatingGroup:[604=1,Group:[605=C,606=3,],],],],]", fixMessage.toString());
+        Group leg = fixMessage.getRepeatingGroup(555).getGroups().get(0);
+        assertEquals("2", leg.getValue(604));
+        assertEquals("B", leg.getRepeatingGroup(604).getGroups().get(1).getValue(605));
+
+        FIXMessageView view = nestedParser.parse(constructInput(msg), new FIXMessageView());
+        int firstLeg = view.getGroup(555, 0);
+        assertEquals(2, view.getNumberOfGroups(firstLeg, 604));
+        int altId = view.getGroup(firstLeg, 604, 1);
+        assertEquals("B", view.getCharSequenceAt(view.indexInGroup(altId, 605)).toString());
+        assertEquals(-1, view.indexInGroup(firstLeg, 605)); // Belongs to the nested group.
+        assertEquals(1, view.getIntAt(view.indexInGroup(firstLeg, 624)));
+        int nested = view.getGroup(view.getGroup(firstLeg, 604, 0), 900, 0);
+        assertEquals("X", view.getCharSequenceAt(view.indexInGroup(nested, 901)).toString());
+        assertEquals("C", view.getCharSequenceAt(view.indexInGroup(view.getGroup(view.getGroup(555, 1), 604, 0), 605)).toString());
+
+        List<String> invalidMessages = Arrays.asList(
+                "8=345|555=1|600=IBM|604=2|605=A|606=1|44=12|", // Too few nested groups.
+                "8=345|555=1|600=IBM|604=1|605=A|606=1|605=B|606=2|44=12|", // Too many nested groups.
+                "8=345|555=1|600=IBM|604=1|605=A|44=12|", // Nested group missing required tag.
+                "8=345|555=1|600=IBM|604=1|605=A|606=1|605=A|44=12|", // Nested group repeated.
+                "8=345|555=1|600=IBM|604=1|605=A|606=1|604=1|605=A|606=1|44=12|", // Nested indicator tag twice.
+                "8=345|555=1|600=IBM|604=0|44=12|", // No nested groups.
+                "8=345|555=1|600=IBM|604=1|605=A|606=1|900=2|901=X|"); // Too few nested groups at end of message.
+        for (String invalidMessage : invalidMessages) {
+            Exception expected = assertThrows(Exception.class, () -> nestedParser.parse(constructInput(invalidMessage)), invalidMessage);
+            Exception actual = assertThrows(Exception.class, () -> nestedParser.parse(constructInput(invalidMessage), view), invalidMessage);
+            assertEquals(expected.getClass(), actual.getClass(), invalidMessage);
+            assertEquals(expected.getMessage(), actual.getMessage(), invalidMessage);
+        }
+    }
+}
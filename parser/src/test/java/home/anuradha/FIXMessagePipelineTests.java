@@ -0,0 +1,135 @@
+package home.anuradha;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static home.anuradha.FIXMessageFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FIXMessagePipelineTests {
+
+    private static final String[] MESSAGES = {
+            "8=345|9=12|55=IBM|40=P|269=2|277=12|456=7|283=5|277=1|231=56|456=7|44=12|10=001|",
+            "8=345|9=12|55=IBM|40=P|123=2|786=9|398=ABC|786=QAS|567=12|496=SDF|398=12|44=12|10=002|",
+            "8=345|55=MSFT|10=003|"};
+    private static final String INVALID = "8=345|9=12|9=13|10=004|"; // 9 shows up twice.
+
+    @Test
+    public void testInOrderWithErrors() throws Exception {
+        for (WaitStrategy waitStrategy : new WaitStrategy[]{WaitStrategy.BUSY_SPIN, WaitStrategy.YIELD, WaitStrategy.PARK}) {
+            List<String> expected = new ArrayList<>();
+            List<String> received = new ArrayList<>();
+            FIXMessagePipeline pipeline = new FIXMessagePipeline(8, 256, 3, FIXMessagePipeline.ProducerType.SINGLE, waitStrategy,
+                    FIXMessageParser::new, new FIXMessagePipeline.Handler() {
+                @Override
+                public void onMessage(long sequence, FIXMessage fixMessage) {
+                    received.add(sequence + ":" + fixMessage);
+                }
+
+                @Override
+                public void onError(long sequence, Exception e) {
+                    received.add(sequence + ":" + e.getMessage());
+                }
+            });
+            pipeline.start();
+            for (int i = 0; i < 500; i++) {
+                boolean invalid = i % 50 == 7;
+                String msg = invalid ? INVALID : MESSAGES[i % MESSAGES.length];
+                expected.add(i + ":" + (invalid ? FIXMessage.FIXMessageException.TAG_ALREADY_EXISTS : getFIXMessage(msg).toString()));
+                assertEquals(i, pipeline.publish(constructInput(msg)));
+            }
+            pipeline.close();
+
+            assertEquals(expected, received); // Read after close, which joins the handler thread.
+            assertEquals(500, pipeline.getHandledCount());
+            assertEquals(500, pipeline.getLatencyHistogram().getCount());
+        }
+    }
+
+    @Test
+    public void testMultipleProducers() throws Exception {
+        int producers = 4;
+        int perProducer = 1000;
+        long[] lastSeen = new long[producers];
+        long[] count = new long[1];
+        FIXMessagePipeline pipeline = new FIXMessagePipeline(16, 64, 2, FIXMessagePipeline.ProducerType.MULTI,
+                WaitStrategy.YIELD, FIXMessageParser::new, (sequence, fixMessage) -> {
+            // Each producer sends 8=<producer>|9=<n>|, and its messages must arrive in the order it sent them.
+            int producer = Integer.parseInt(fixMessage.getNonGroupTagValue(8));
+            long n = Long.parseLong(fixMessage.getNonGroupTagValue(9));
+            assertEquals(lastSeen[producer] + 1, n);
+            lastSeen[producer] = n;
+            count[0]++;
+        });
+        pipeline.start();
+
+        Thread[] threads = new Thread[producers];
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            threads[p] = new Thread(() -> {
+                for (int n = 1; n <= perProducer; n++) {
+                    pipeline.publish(constructInput("8=" + producer + "|9=" + n + "|10=000|"));
+                }
+            });
+            threads[p].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        pipeline.close();
+
+        assertEquals(producers * perProducer, count[0]);
+        for (long last : lastSeen) {
+            assertEquals(perProducer, last);
+        }
+    }
+
+    @Test
+    public void testFailingHandler() throws Exception {
+        // onMessage throws for every other message, and onError throws for the invalid message: the pipeline carries
+        // on, and every failure is passed on and counted.
+        List<String> errors = new ArrayList<>();
+        FIXMessagePipeline pipeline = new FIXMessagePipeline(8, 256, 2, new FIXMessagePipeline.Handler() {
+            @Override
+            public void onMessage(long sequence, FIXMessage fixMessage) {
+                if (sequence % 2 == 0) {
+                    throw new IllegalStateException("handler " + sequence);
+                }
+            }
+
+            @Override
+            public void onError(long sequence, Exception e) {
+                if (!(e instanceof IllegalStateException)) {
+                    throw new IllegalStateException("onError " + sequence);
+                }
+                errors.add(e.getMessage());
+            }
+        });
+        pipeline.start();
+        for (int i = 0; i < 10; i++) {
+            pipeline.publish(constructInput(i == 5 ? INVALID : MESSAGES[0]));
+        }
+        pipeline.close();
+
+        assertEquals(List.of("handler 0", "handler 2", "handler 4", "handler 6", "handler 8"), errors);
+        assertEquals(6, pipeline.getHandlerErrorCount());
+        assertEquals(10, pipeline.getHandledCount());
+    }
+
+    @Test
+    public void testLatencyHistogram() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000L);
+        }
+        assertEquals(1000, histogram.getCount());
+        assertEquals(1000, histogram.getMin());
+        assertEquals(1_000_000, histogram.getMax());
+        // Buckets are accurate to 1 part in 128.
+        assertEquals(500_000, histogram.getValueAtPercentile(50), 500_000 / 128.0);
+        assertEquals(990_000, histogram.getValueAtPercentile(99), 990_000 / 128.0);
+        assertEquals(1_000_000, histogram.getValueAtPercentile(100), 1_000_000 / 128.0);
+    }
+}
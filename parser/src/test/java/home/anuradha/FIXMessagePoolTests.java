@@ -0,0 +1,96 @@
+package home.anuradha;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+import static home.anuradha.FIXMessageFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FIXMessagePoolTests {
+
+    private static final String MSG = "8=345|9=12|55=IBM|40=P|269=2|277=12|456=7|283=5|277=1|231=56|456=7|100=ABC|123=2|786=9|398=ABC|786=QAS|567=12|496=SDF|398=12|44=12|";
+    private static final String MSG2 = "8=345|123=1|786=9|398=ABC|269=1|277=12|456=7|44=13|";
+
+    private final FIXMessagePool pool = new FIXMessagePool(DataDictionary.DEFAULT);
+    private final FIXMessageParser parser = new FIXMessageParser(pool, WireFormat.CHARS);
+
+    @Test
+    public void testReusesReleasedObjects() throws Exception {
+        FIXMessage fixMessage = parser.parse(constructInput(MSG));
+        assertEquals(getFIXMessage(MSG).toString(), fixMessage.toString());
+        assertEquals(0, pool.getHitCount());
+        pool.release(fixMessage);
+        assertEquals(1, pool.getMessageCount());
+        assertEquals(2, pool.getRepeatingGroupCount());
+        assertEquals(4, pool.getGroupCount());
+
+        // Groups are reused with another schema and repeating groups in another order.
+        FIXMessage reused = parser.parse(constructInput(MSG2));
+        assertSame(fixMessage, reused);
+        assertEquals(getFIXMessage(MSG2).toString(), reused.toString());
+        assertEquals(0, pool.getMessageCount());
+        assertEquals(2, pool.getGroupCount());
+        assertEquals(5, pool.getHitCount());
+        assertEquals(5.0 / 12, pool.getHitRate(), 1e-9);
+    }
+
+    @Test
+    public void testReleaseErrors() throws Exception {
+        FIXMessage fixMessage = parser.parse(constructInput(MSG));
+        Group group = fixMessage.getRepeatingGroup(269).getGroups().get(0);
+        pool.release(fixMessage);
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> pool.release(fixMessage));
+        assertEquals(FIXMessagePool.ALREADY_RELEASED, e.getMessage());
+        // Tests run with assertions enabled.
+        assertThrows(AssertionError.class, () -> fixMessage.getNonGroupTagValue(55));
+        assertThrows(AssertionError.class, () -> group.getValue(277));
+
+        FIXMessage notPooled = getFIXMessage(MSG);
+        assertThrows(IllegalArgumentException.class, () -> pool.release(notPooled));
+    }
+
+    @Test
+    public void testInvalidMessageIsReturnedToPool() throws Exception {
+        String tooManyGroups = "8=345|269=1|277=12|456=7|277=1|456=7|44=12|";
+        assertThrows(RepeatingGroup.RepeatingGroupException.class, () -> parser.parse(constructInput(tooManyGroups)));
+        assertEquals(1, pool.getMessageCount());
+        assertEquals(1, pool.getRepeatingGroupCount());
+        assertEquals(2, pool.getGroupCount()); // Including the second group, which was never added.
+
+        FIXMessagePool tinyPool = new FIXMessagePool(DataDictionary.DEFAULT, 1, 1, 1);
+        FIXMessageParser tinyParser = new FIXMessageParser(tinyPool, WireFormat.CHARS);
+        tinyPool.release(tinyParser.parse(constructInput(MSG)));
+        assertEquals(3, tinyPool.getSize());
+        assertEquals(4, tinyPool.getDropCount()); // 1 repeating group and 3 groups didn't fit.
+    }
+
+    @Test
+    public void testGroupsBeingReadAreReturnedToPool() throws Exception {
+        DataDictionary dictionary = DataDictionary.load(new ByteArrayInputStream(("<dictionary>"
+                + "<group tag=\"555\"><field tag=\"600\"/><field tag=\"624\"/>"
+                + "<group tag=\"604\"><field tag=\"605\"/><field tag=\"606\" required=\"true\"/></group>"
+                + "</group>"
+                + "</dictionary>").getBytes(StandardCharsets.UTF_8)));
+        FIXMessagePool nestedPool = new FIXMessagePool(dictionary);
+        FIXMessageParser nestedParser = new FIXMessageParser(nestedPool, WireFormat.CHARS);
+        ParseResult result = new ParseResult();
+
+        // A duplicate tag in a nested group, while the enclosing group is open too.
+        String duplicateInNestedGroup = "8=345|555=1|600=IBM|604=2|605=A|606=1|605=B|606=2|606=3|44=12|";
+        assertNull(nestedParser.parse(constructInput(duplicateInNestedGroup), result));
+        assertEquals(ParseResult.GROUP_TAG_ALREADY_EXISTS, result.getCode());
+        assertEquals(1, nestedPool.getMessageCount());
+        assertEquals(2, nestedPool.getRepeatingGroupCount());
+        assertEquals(3, nestedPool.getGroupCount()); // 600, and 605=A and 605=B of 604.
+
+        // A group missing a required tag at the end of the message, found when the open groups are closed.
+        String missingTagAtEnd = "8=345|555=1|600=IBM|604=1|605=A|";
+        assertNull(nestedParser.parse(constructInput(missingTagAtEnd), result));
+        assertEquals(ParseResult.INVALID_GROUP, result.getCode());
+        assertEquals(3, nestedPool.getGroupCount());
+        assertEquals(0, nestedPool.getDropCount());
+    }
+}
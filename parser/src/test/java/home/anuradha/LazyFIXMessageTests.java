@@ -0,0 +1,64 @@
+package home.anuradha;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static home.anuradha.FIXMessageFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LazyFIXMessageTests {
+
+    private final FIXMessageParser parser = new FIXMessageParser();
+
+    @Test
+    public void testValuesMatchParse() throws Exception {
+        String msg = "8=345|9=12|55=IBM|40=P|269=02|277=12|456=7|283=5|277=1|231=56|456=7|100=ABC|123=2|786=9|398=ABC|786=QAS|567=12|496=SDF|398=12|44=12|";
+        FIXMessage fixMessage = getFIXMessage(msg);
+        LazyFIXMessage lazyMessage = parser.parseLazy(constructInput(msg));
+
+        for (Integer tag : fixMessage.getAllNonRepeatingTagsAndValues().keySet()) {
+            assertEquals(fixMessage.getNonGroupTagValue(tag), lazyMessage.getNonGroupTagValue(tag));
+        }
+        for (RepeatingGroup rg : fixMessage.getRepeatingGroups().values()) {
+            assertEquals(fixMessage.getNonGroupTagValue(rg.getIndicatorTag()), lazyMessage.getNonGroupTagValue(rg.getIndicatorTag()));
+            assertEquals(rg.getNumberOfGroups(), lazyMessage.getNumberOfGroups(rg.getIndicatorTag()));
+            for (int i = 0; i < rg.getGroups().size(); i++) {
+                Group group = rg.getGroups().get(i);
+                for (Integer tag : group.getAllTagsAndValues().keySet()) {
+                    assertEquals(group.getValue(tag), lazyMessage.getGroupValue(rg.getIndicatorTag(), i, tag));
+                }
+            }
+        }
+        assertEquals("2", lazyMessage.getNonGroupTagValue(269)); // Same as parse, not the raw "02".
+        assertSame(lazyMessage.getNonGroupTagValue(55), lazyMessage.getNonGroupTagValue(55)); // Cached.
+        assertNull(lazyMessage.getNonGroupTagValue(222));
+        assertNull(lazyMessage.getGroupValue(269, 2, 277));
+        FIXMessageView view = lazyMessage.getView();
+        assertEquals(2, view.getNumberOfGroupsAt(view.getFieldRepeatingGroup(view.indexOf(123))));
+        assertEquals(-1, view.getFieldRepeatingGroup(view.indexOf(55)));
+
+        // Reusing the message clears the cache.
+        parser.parseLazy(constructInput("8=345|55=MSFT|"), lazyMessage);
+        assertEquals("MSFT", lazyMessage.getNonGroupTagValue(55));
+        assertNull(lazyMessage.getNonGroupTagValue(44));
+        assertEquals(0, lazyMessage.getNumberOfGroups(269));
+    }
+
+    @Test
+    public void testValidatesLikeParse() {
+        List<String> invalidMessages = Arrays.asList(
+                "8=345|9=12|55=IBM|40=P|9=13|44=12|",
+                "8=345|9=12|55=IBM|40=P|269=2|277=12|456=7|283=5|277=1|231=56|456=7|277=17|456=9|44=12|",
+                "8=345|9=12|55=IBM|40=P|123=3|786=9|398=ABC|786=QAS|567=12|496=SDF|398=12|44=12|",
+                "8=345|9=12|55=IBM|40=P|123=2|786=9|567=25|786=QAS|567=12|496=SDF|398=12|44=12|");
+        LazyFIXMessage lazyMessage = new LazyFIXMessage();
+        for (String msg : invalidMessages) {
+            Exception expected = assertThrows(Exception.class, () -> getFIXMessage(msg));
+            Exception actual = assertThrows(Exception.class, () -> parser.parseLazy(constructInput(msg), lazyMessage));
+            assertEquals(expected.getClass(), actual.getClass(), msg);
+            assertEquals(expected.getMessage(), actual.getMessage(), msg);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package home.anuradha;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static home.anuradha.FIXMessageFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MappedCaptureFileTests {
+
+    private static final String[] MESSAGES = {
+            "8=345|9=12|55=IBM|40=P|269=2|277=12|456=7|283=5|277=1|231=56|456=7|44=12|10=001|",
+            "8=345|9=12|55=IBM|40=P|123=2|786=9|398=ABC|786=QAS|567=12|496=SDF|398=12|44=12|10=002|",
+            "8=345|55=MSFT|10=003|"};
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void testScanAndRandomAccessAcrossChunks() throws Exception {
+        List<String> expected = new ArrayList<>();
+        Path capture = writeCapture(100, expected, "8=345|55=PARTIAL|1"); // Ends with an incomplete message.
+
+        // Small chunks, so that most messages cross a chunk boundary.
+        try (MappedCaptureFile file = MappedCaptureFile.open(capture, 100, 1024, 10)) {
+            FIXMessageParser parser = new FIXMessageParser();
+            List<String> scanned = new ArrayList<>();
+            long count = file.forEachMessage((index, message) -> scanned.add(parser.parse(message).toString()));
+            assertEquals(expected.size(), count);
+            assertEquals(expected, scanned);
+
+            assertEquals(expected.size(), file.getMessageCount());
+            FIXMessageView view = new FIXMessageView();
+            for (int i = expected.size() - 1; i >= 0; i--) {
+                assertEquals(expected.get(i), parser.parse(file.getMessage(i)).toString());
+                assertEquals(i % 3 == 2 ? "MSFT" : "IBM", parser.parse(file.getMessage(i), view).getCharSequence(55).toString());
+            }
+            assertThrows(IndexOutOfBoundsException.class, () -> file.getMessage(expected.size()));
+        }
+    }
+
+    @Test
+    public void testMessageLongerThanMaximum() throws Exception {
+        Path capture = writeCapture(3, new ArrayList<>(), "");
+        try (MappedCaptureFile file = MappedCaptureFile.open(capture, 16, 16, 10)) {
+            FIXMessage.FIXMessageException e = assertThrows(FIXMessage.FIXMessageException.class, file::getMessageCount);
+            assertEquals(FIXMessage.FIXMessageException.BAD_FORMAT, e.getMessage());
+        }
+    }
+
+    @Test
+    public void testPersistedIndex() throws Exception {
+        List<String> expected = new ArrayList<>();
+        Path capture = writeCapture(10, expected, "");
+        Path indexFile = MappedCaptureFile.indexFileFor(capture);
+
+        try (MappedCaptureFile file = MappedCaptureFile.open(capture)) {
+            assertFalse(file.loadOrBuildIndex(indexFile)); // Built and saved.
+        }
+        try (MappedCaptureFile file = MappedCaptureFile.open(capture)) {
+            assertTrue(file.loadOrBuildIndex(indexFile)); // Loaded without scanning.
+            assertEquals(expected.size(), file.getMessageCount());
+            assertEquals(expected.get(7), new FIXMessageParser().parse(file.getMessage(7)).toString());
+        }
+
+        // A modified capture file doesn't match the index any more.
+        Files.setLastModifiedTime(capture, FileTime.fromMillis(Files.getLastModifiedTime(capture).toMillis() + 1000));
+        try (MappedCaptureFile file = MappedCaptureFile.open(capture)) {
+            assertFalse(file.loadIndex(indexFile));
+            assertFalse(file.loadOrBuildIndex(indexFile));
+            assertTrue(file.loadIndex(indexFile));
+        }
+    }
+
+    @Test
+    public void testIndexWithOtherFramingOrBadOffsets() throws Exception {
+        List<String> expected = new ArrayList<>();
+        Path capture = writeCapture(10, expected, "");
+        Path indexFile = MappedCaptureFile.indexFileFor(capture);
+        try (MappedCaptureFile file = MappedCaptureFile.open(capture)) {
+            file.saveIndex(indexFile);
+        }
+
+        // Framed with another trailer tag or chunk size.
+        try (MappedCaptureFile file = MappedCaptureFile.open(capture, MappedCaptureFile.DEFAULT_CHUNK_SIZE,
+                MappedCaptureFile.DEFAULT_MAX_MESSAGE_SIZE, 44)) {
+            assertFalse(file.loadIndex(indexFile));
+        }
+        try (MappedCaptureFile file = MappedCaptureFile.open(capture, 100, 1024, 10)) {
+            assertFalse(file.loadIndex(indexFile));
+        }
+
+        // An offset past the end of the file, and offsets out of order. The header is 6 longs, then the offsets.
+        byte[] saved = Files.readAllBytes(indexFile);
+        for (long bad : new long[]{Files.size(capture) + 2, 2}) {
+            ByteBuffer corrupted = ByteBuffer.wrap(saved.clone());
+            corrupted.putLong(8 * (6 + 5), bad);
+            Files.write(indexFile, corrupted.array());
+            try (MappedCaptureFile file = MappedCaptureFile.open(capture)) {
+                assertFalse(file.loadIndex(indexFile), String.valueOf(bad));
+                assertFalse(file.loadOrBuildIndex(indexFile)); // Rebuilt.
+                assertEquals(expected.get(5), new FIXMessageParser().parse(file.getMessage(5)).toString());
+            }
+        }
+    }
+
+    private Path writeCapture(int messages, List<String> expected, String tail) throws Exception {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < messages; i++) {
+            sb.append(MESSAGES[i % MESSAGES.length]);
+            expected.add(getFIXMessage(MESSAGES[i % MESSAGES.length]).toString());
+        }
+        ByteBuffer bb = constructInput(sb.toString());
+        if (!tail.isEmpty()) {
+            // Drop the last '|' so that the tail is incomplete.
+            ByteBuffer tailBB = constructInput(tail);
+            ByteBuffer combined = ByteBuffer.allocate(bb.remaining() + tailBB.remaining() - 2);
+            combined.put(bb).put(tailBB.limit(tailBB.limit() - 2)).flip();
+            bb = combined;
+        }
+        byte[] bytes = new byte[bb.remaining()];
+        bb.get(bytes);
+        Path capture = dir.resolve("capture.bin");
+        Files.write(capture, bytes);
+        return capture;
+    }
+}
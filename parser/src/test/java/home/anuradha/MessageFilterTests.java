@@ -0,0 +1,51 @@
+package home.anuradha;
+
+import java.nio.ByteBuffer;
+
+import org.junit.jupiter.api.Test;
+
+import static home.anuradha.FIXMessageFixtures.*;
+import static home.anuradha.MessageFilter.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MessageFilterTests {
+
+    private static final String MSG = "8=345|35=W|55=IBM|269=2|277=12|456=7|283=5|277=1|231=56|456=7|123=1|786=9|398=ABC|44=12|";
+
+    private final FIXMessageParser parser = new FIXMessageParser();
+
+    @Test
+    public void testMatchingMessagesAreFullyParsed() throws Exception {
+        String expected = getFIXMessage(MSG).toString();
+        MessageFilter[] matching = {
+                where(55, equalTo("IBM")),
+                where(35, equalTo("W")).and(55, in("MSFT", "IBM", "AAPL")),
+                where(44, equalTo("12")), // After the repeating groups.
+                where(123, equalTo("1"))}; // Indicator tag.
+        for (MessageFilter filter : matching) {
+            FIXMessage fixMessage = parser.parse(constructInput(MSG), filter);
+            assertNotNull(fixMessage);
+            assertEquals(expected, fixMessage.toString());
+        }
+
+        FIXMessageParser asciiParser = new FIXMessageParser(DataDictionary.DEFAULT, WireFormat.ASCII);
+        assertEquals(expected, asciiParser.parse(constructAsciiInput(MSG), where(55, in("IBM"))).toString());
+    }
+
+    @Test
+    public void testNonMatchingMessagesAreRejectedEarly() throws Exception {
+        ByteBuffer msgBB = constructInput(MSG);
+        assertNull(parser.parse(msgBB, where(55, equalTo("MSFT"))));
+        assertTrue(msgBB.hasRemaining()); // Stopped at 55.
+
+        assertNull(parser.parse(constructInput(MSG), where(35, equalTo("D")).and(55, equalTo("IBM"))));
+        assertNull(parser.parse(constructInput(MSG), where(100, equalTo("X")))); // Missing tag.
+        // 456 is only inside the 269 groups, which are skipped.
+        assertNull(parser.parse(constructInput(MSG), where(456, equalTo("7"))));
+
+        // Invalid messages are rejected without being validated if they don't match, and fail if they do.
+        String invalid = "8=345|55=IBM|9=1|9=2|";
+        assertNull(parser.parse(constructInput(invalid), where(55, equalTo("MSFT"))));
+        assertThrows(FIXMessage.FIXMessageException.class, () -> parser.parse(constructInput(invalid), where(55, equalTo("IBM"))));
+    }
+}
@@ -0,0 +1,104 @@
+package home.anuradha;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+import static home.anuradha.FIXMessageFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OrderBookTests {
+
+    private final FIXMessageParser parser = new FIXMessageParser();
+
+    @Test
+    public void testIncrementalUpdates() throws Exception {
+        OrderBookBuilder builder = new OrderBookBuilder(3, 2);
+        builder.apply(parser.parse(constructInput("35=X|55=IBM|269=4|277=0|456=100|231=143.25|283=2|"
+                + "277=0|456=50|231=143.5|277=1|456=70|231=143.75|277=1|456=10|231=144|10=001|")));
+        OrderBook.Snapshot snapshot = builder.getBook("IBM").readSnapshot(new OrderBook.Snapshot(3));
+        assertEquals("version 2 bids 50@14350 100@14325 offers 70@14375 10@14400", snapshot.toString());
+        assertEquals(2, snapshot.getOrderCount(OrderBook.BID, 1));
+
+        // Change a level, remove one, add a new best bid and a bid that is worse than every level of the full side.
+        // The bad side and the missing price are skipped.
+        builder.apply(parser.parse(constructInput("35=X|55=IBM|269=6|277=0|456=60|231=143.5|277=1|456=0|231=143.75|"
+                + "277=0|456=5|231=143.6|277=0|456=1|231=143|277=2|456=1|231=1|277=0|456=1|10=001|")));
+        assertEquals(2, builder.getRejectedCount());
+        assertEquals(8, builder.getUpdateCount());
+        OrderBook.TopOfBook top = builder.getBook("IBM").readTopOfBook(new OrderBook.TopOfBook());
+        assertEquals("5@14360 / 10@14400 (version 4)", top.toString());
+        assertEquals("version 4 bids 5@14360 60@14350 100@14325 offers 10@14400",
+                builder.getBook("IBM").readSnapshot(snapshot).toString());
+
+        // A better bid pushes the worst one out of a full side.
+        builder.apply(parser.parse(constructInput("35=X|55=IBM|269=1|277=0|456=7|231=143.7|10=001|")));
+        assertEquals("version 6 bids 7@14370 5@14360 60@14350 offers 10@14400",
+                builder.getBook("IBM").readSnapshot(snapshot).toString());
+        assertNull(builder.getBook("MSFT"));
+    }
+
+    @Test
+    public void testPriceFinerThanScale() throws Exception {
+        // 143.259 would be truncated onto the 143.25 level, so it is rejected. 143.250 is the same price as 143.25.
+        OrderBookBuilder builder = new OrderBookBuilder(3, 2);
+        builder.apply(parser.parse(constructInput("55=IBM|269=3|277=0|456=100|231=143.25|277=0|456=5|231=143.259|"
+                + "277=1|456=7|231=143.750|10=001|")));
+        assertEquals(1, builder.getRejectedCount());
+        assertEquals(2, builder.getUpdateCount());
+        assertEquals("IBM version 2 bids 100@14325 offers 7@14375", builder.getBook("IBM").toString());
+    }
+
+    @Test
+    public void testBatchTouchingSeveralBooks() throws Exception {
+        OrderBookBuilder builder = new OrderBookBuilder(10, 2);
+        FIXMessage[] batch = new FIXMessage[3];
+        batch[0] = parser.parse(constructInput("55=IBM|269=1|277=0|456=100|231=143.25|10=001|"));
+        batch[1] = parser.parse(constructInput("55=MSFT|269=1|277=1|456=20|231=410|10=001|"));
+        batch[2] = parser.parse(constructInput("55=IBM|269=1|277=1|456=30|231=143.5|10=001|"));
+        builder.apply(batch, 0, batch.length);
+        assertEquals(2, builder.getBook("IBM").getVersion());
+        assertEquals(2, builder.getBook("MSFT").getVersion());
+        assertEquals(3, builder.getUpdateCount());
+        assertEquals("IBM version 2 bids 100@14325 offers 30@14350", builder.getBook("IBM").toString());
+    }
+
+    @Test
+    public void testReadersSeeWholeBatches() throws Exception {
+        // Every batch sets the bid and the offer to the same size, and moves both prices, so a torn read would see
+        // different sizes or more than one level on a side.
+        OrderBook book = new OrderBook("IBM", 8, 0);
+        book.beginBatch();
+        book.update(OrderBook.BID, 0, 1, 1);
+        book.update(OrderBook.OFFER, 1, 1, 1);
+        book.endBatch();
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicReference<String> torn = new AtomicReference<>();
+        Thread reader = new Thread(() -> {
+            OrderBook.TopOfBook top = new OrderBook.TopOfBook();
+            OrderBook.Snapshot snapshot = new OrderBook.Snapshot(8);
+            while (!done.get() && torn.get() == null) {
+                book.readTopOfBook(top);
+                if (top.getBidSize() != top.getOfferSize() || top.getOfferPrice() != top.getBidPrice() + 1) {
+                    torn.set(top.toString());
+                }
+                book.readSnapshot(snapshot);
+                if (snapshot.getLevelCount(OrderBook.BID) != snapshot.getLevelCount(OrderBook.OFFER)) {
+                    torn.set(snapshot.toString());
+                }
+            }
+        });
+        reader.start();
+        for (long i = 1; i <= 200_000 && torn.get() == null; i++) {
+            book.beginBatch();
+            book.clear();
+            book.update(OrderBook.BID, i, i, 1);
+            book.update(OrderBook.OFFER, i + 1, i, 1);
+            book.endBatch();
+        }
+        done.set(true);
+        reader.join();
+        assertNull(torn.get());
+    }
+}
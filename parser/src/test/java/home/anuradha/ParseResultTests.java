@@ -0,0 +1,70 @@
+package home.anuradha;
+
+import java.nio.ByteBuffer;
+
+import org.junit.jupiter.api.Test;
+
+import static home.anuradha.FIXMessageFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParseResultTests {
+
+    private final FIXMessageParser parser = new FIXMessageParser();
+    private final ParseResult result = new ParseResult();
+
+    @Test
+    public void testCodeTagAndOffset() throws Exception {
+        String valid = "8=345|9=12|55=IBM|269=2|277=12|456=7|283=5|277=1|231=56|456=7|44=12|10=001|";
+        FIXMessage fixMessage = parser.parse(constructInput(valid), result);
+        assertTrue(result.isOk());
+        assertEquals(getFIXMessage(valid).toString(), fixMessage.toString());
+
+        // Fields of 4 tag bytes and 2 bytes per char: "8=345|" is 14 bytes, "9=12|" is 12.
+        assertError(ParseResult.TAG_ALREADY_EXISTS, 9, 26, "8=345|9=12|9=13|");
+        assertError(ParseResult.BAD_FORMAT, 269, 26, "8=345|9=12|269=X|277=12|456=7|");
+        assertError(ParseResult.NON_POSITIVE_GROUPS, 269, 14, "8=345|269=0|");
+        assertError(ParseResult.GROUP_TAG_ALREADY_EXISTS, 456, 46, "8=345|269=1|277=12|456=7|456=8|");
+        // Invalid groups are found when they end, and are reported against their indicator tag.
+        assertError(ParseResult.INVALID_GROUP, 269, 46, "8=345|269=1|277=12|283=7|44=1|"); // 456 is required.
+        assertError(ParseResult.TOO_MANY_GROUPS, 269, 66, "8=345|269=1|277=12|456=7|277=1|456=7|");
+        assertError(ParseResult.INVALID_REPEATING_GROUP, 269, 46, "8=345|269=2|277=12|456=7|");
+
+        // Truncated in the middle of a value.
+        ByteBuffer truncated = constructInput("8=345|9=12|");
+        truncated.limit(truncated.limit() - 3);
+        assertNull(parser.parse(truncated, result));
+        assertEquals(ParseResult.BAD_FORMAT, result.getCode());
+        assertEquals(14, result.getOffset());
+        assertThrows(FIXMessage.FIXMessageException.class, () -> parser.parse(truncated.rewind()));
+
+        // The result is reset by the next parse.
+        assertNotNull(parser.parse(constructInput(valid), result));
+        assertTrue(result.isOk());
+    }
+
+    @Test
+    public void testSameErrorsAsExceptions() {
+        String[] invalid = {"8=345|9=12|9=13|", "8=345|269=X|", "8=345|269=-1|", "8=345|269=1|277=12|456=7|456=8|",
+                "8=345|269=1|277=12|283=7|", "8=345|269=1|277=12|456=7|277=1|456=7|", "8=345|269=2|277=12|456=7|",
+                "8=345|269=1|277=12|456=7|269=1|", "8=345|269=1|277=12|456=7|12=1|44=1|12=2|"};
+        FIXMessageView view = new FIXMessageView();
+        ParseResult viewResult = new ParseResult();
+        for (String msg : invalid) {
+            assertNull(parser.parse(constructInput(msg), result), msg);
+            assertNull(parser.parse(constructInput(msg), view, viewResult), msg);
+            assertEquals(result.toString(), viewResult.toString(), msg);
+
+            Exception e = assertThrows(Exception.class, () -> parser.parse(constructInput(msg)));
+            assertSame(result.getErrorMessage(), e.getMessage(), msg);
+            Exception thrown = assertThrows(Exception.class, result::throwIfError);
+            assertSame(e.getClass(), thrown.getClass(), msg);
+        }
+    }
+
+    private void assertError(int code, int tag, int offset, String msg) {
+        assertNull(parser.parse(constructInput(msg), result), msg);
+        assertEquals(ParseResult.nameOf(code), ParseResult.nameOf(result.getCode()), msg);
+        assertEquals(tag, result.getTag(), msg);
+        assertEquals(offset, result.getOffset(), msg);
+    }
+}
@@ -0,0 +1,104 @@
+package home.anuradha;
+
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.jupiter.api.Test;
+
+import static home.anuradha.FIXMessageFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParserMetricsTests {
+
+    private static final String MSG = "8=345|9=12|55=IBM|40=P|269=2|277=12|456=7|283=5|277=1|231=56|456=7|44=12|10=001|";
+
+    @Test
+    public void testSnapshot() throws Exception {
+        ParserMetrics metrics = new ParserMetrics();
+        FIXMessageParser parser = new FIXMessageParser();
+        FIXMessageParser viewParser = new FIXMessageParser();
+        parser.setMetrics(metrics);
+        viewParser.setMetrics(metrics);
+
+        ByteBuffer msgBB = constructInput(MSG);
+        int bytes = msgBB.remaining();
+        for (int i = 0; i < 10; i++) {
+            parser.parse(msgBB.duplicate());
+            viewParser.parse(msgBB.duplicate(), new FIXMessageView());
+        }
+        assertNull(parser.parse(msgBB.duplicate(), MessageFilter.where(55, MessageFilter.equalTo("MSFT"))));
+        assertThrows(FIXMessage.FIXMessageException.class, () -> parser.parse(constructInput("8=345|9=12|9=13|")));
+        assertThrows(FIXMessage.FIXMessageException.class, () -> parser.parse(constructInput("8=345|269=X|")));
+        assertThrows(RepeatingGroup.RepeatingGroupException.class, () -> parser.parse(constructInput("8=345|269=1|277=12|456=7|277=1|456=7|")));
+
+        ParserMetrics.Snapshot snapshot = metrics.snapshot();
+        assertEquals(20, snapshot.getMessageCount());
+        assertEquals(20L * bytes, snapshot.getByteCount());
+        assertEquals(1, snapshot.getFilteredCount());
+        assertEquals(3, snapshot.getErrorCount());
+        assertEquals(1, snapshot.getErrorCounts().get("TAG_ALREADY_EXISTS"));
+        assertEquals(1, snapshot.getErrorCounts().get("BAD_FORMAT"));
+        assertEquals(1, snapshot.getErrorCounts().get("TOO_MANY_GROUPS"));
+        assertEquals(20, snapshot.getParseNanos().getCount());
+        // 20 messages with 2 groups, and the message with too many groups.
+        assertEquals(21, snapshot.getGroupCounts().get(269).getCount());
+        assertEquals(2, snapshot.getGroupCounts().get(269).getMax());
+        assertEquals(1, snapshot.getGroupCounts().get(269).getMin());
+
+        parser.setMetrics(null);
+        parser.parse(msgBB.duplicate());
+        assertEquals(20, metrics.snapshot().getMessageCount());
+    }
+
+    @Test
+    public void testRetiredParsers() throws Exception {
+        ParserMetrics metrics = new ParserMetrics();
+        ByteBuffer msgBB = constructInput(MSG);
+        for (int i = 0; i < 100; i++) {
+            FIXMessageParser parser = new FIXMessageParser();
+            parser.setMetrics(metrics);
+            parser.parse(msgBB.duplicate());
+            assertThrows(FIXMessage.FIXMessageException.class, () -> parser.parse(constructInput("8=345|9=12|9=13|")));
+            parser.setMetrics(null);
+        }
+        assertEquals(0, metrics.getRecorderCount());
+
+        // A parser moved to other metrics leaves its counts behind.
+        FIXMessageParser parser = new FIXMessageParser();
+        parser.setMetrics(metrics);
+        parser.parse(msgBB.duplicate());
+        parser.setMetrics(new ParserMetrics());
+        parser.parse(msgBB.duplicate());
+        assertEquals(0, metrics.getRecorderCount());
+
+        ParserMetrics.Snapshot snapshot = metrics.snapshot();
+        assertEquals(101, snapshot.getMessageCount());
+        assertEquals(101L * msgBB.remaining(), snapshot.getByteCount());
+        assertEquals(100, snapshot.getErrorCounts().get("TAG_ALREADY_EXISTS"));
+        assertEquals(101, snapshot.getParseNanos().getCount());
+        assertEquals(101, snapshot.getGroupCounts().get(269).getCount());
+    }
+
+    @Test
+    public void testJmx() throws Exception {
+        ParserMetrics metrics = new ParserMetrics();
+        FIXMessageParser parser = new FIXMessageParser();
+        parser.setMetrics(metrics);
+        parser.parse(constructInput(MSG));
+
+        ObjectName name = metrics.register("test");
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            assertEquals(1L, server.getAttribute(name, "MessageCount"));
+            assertEquals(0L, server.getAttribute(name, "ErrorCount"));
+            assertTrue((Long) server.getAttribute(name, "ParseNanosMax") > 0);
+            assertThrows(IllegalStateException.class, () -> metrics.register("again"));
+        } finally {
+            metrics.unregister();
+        }
+        assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+    }
+}
@@ -0,0 +1,109 @@
+package home.anuradha;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import static home.anuradha.FIXMessageFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StreamingFIXMessageParserTests {
+
+    private static final List<String> MESSAGES = Arrays.asList(
+            "8=345|9=12|55=IBM|40=P|269=2|277=12|456=7|283=5|277=1|231=56|456=7|44=12|10=001|",
+            "8=345|9=12|55=IBM|40=P|123=2|786=9|398=ABC|786=QAS|567=12|496=SDF|398=12|44=12|10=002|",
+            "8=345|9=12|55=IBM|40=P|269=2|277=12|456=7|283=5|277=1|231=56|456=7|123=2|786=9|398=ABC|786=QAS|567=12|496=SDF|398=12|44=12|10=003|",
+            "8=345|9=12|55=IBM|40=P|269=2|277=12|456=7|283=5|277=1|231=56|456=7|100=ABC|123=2|786=9|398=ABC|786=QAS|567=12|496=SDF|398=12|44=12|10=004|",
+            "8=345|9=12|55=MSFT|269=1|277=0|456=1|10=005|", // Ends in a group.
+            "8=345|9==|55=|10=006|"); // Values containing '=' and empty values.
+
+    @Test
+    public void testRandomFragmentation() throws Exception {
+        List<String> expected = new ArrayList<>();
+        StringBuilder stream = new StringBuilder();
+        Random random = new Random(7);
+        for (int i = 0; i < 200; i++) {
+            String msg = MESSAGES.get(random.nextInt(MESSAGES.size()));
+            expected.add(getFIXMessage(msg).toString());
+            stream.append(msg);
+        }
+        byte[] bytes = toBytes(constructInput(stream.toString()));
+
+        for (int run = 0; run < 50; run++) {
+            List<String> actual = new ArrayList<>();
+            StreamingFIXMessageParser streamingParser = new StreamingFIXMessageParser(m -> actual.add(m.toString()));
+            int maxRead = 1 + random.nextInt(run < 10 ? 8 : 600); // Some runs split nearly every field.
+            for (int offset = 0; offset < bytes.length; ) {
+                int length = Math.min(1 + random.nextInt(maxRead), bytes.length - offset);
+                // A fresh buffer per read, as if read from a socket.
+                streamingParser.feed(ByteBuffer.wrap(Arrays.copyOfRange(bytes, offset, offset + length)));
+                offset += length;
+            }
+            assertEquals(expected, actual, "maxRead " + maxRead);
+            assertFalse(streamingParser.isMidMessage());
+        }
+    }
+
+    @Test
+    public void testLittleEndianSplitTags() throws Exception {
+        String msg = MESSAGES.get(3);
+        ByteBuffer little = ByteBuffer.allocate(4 * msg.length()).order(ByteOrder.LITTLE_ENDIAN);
+        for (String tv : msg.split("\\|")) {
+            addTV(tv, little);
+        }
+        little.flip();
+        byte[] bytes = toBytes(little);
+
+        List<String> actual = new ArrayList<>();
+        StreamingFIXMessageParser streamingParser = new StreamingFIXMessageParser(m -> actual.add(m.toString()));
+        for (byte b : bytes) {
+            streamingParser.feed(ByteBuffer.wrap(new byte[] {b}).order(ByteOrder.LITTLE_ENDIAN));
+        }
+        assertEquals(Arrays.asList(getFIXMessage(msg).toString()), actual);
+    }
+
+    @Test
+    public void testInvalidMessageIsSkipped() throws Exception {
+        String invalid = "8=345|9=12|9=13|55=IBM|269=1|277=0|456=1|10=000|"; // 9 shows up twice.
+        ByteBuffer bb = constructInput(MESSAGES.get(0) + invalid + MESSAGES.get(1));
+
+        List<String> actual = new ArrayList<>();
+        StreamingFIXMessageParser streamingParser = new StreamingFIXMessageParser(m -> actual.add(m.toString()));
+        FIXMessage.FIXMessageException e = assertThrows(FIXMessage.FIXMessageException.class, () -> streamingParser.feed(bb));
+        assertEquals(FIXMessage.FIXMessageException.TAG_ALREADY_EXISTS, e.getMessage());
+        streamingParser.feed(bb); // Carry on after the offending field.
+
+        assertEquals(Arrays.asList(getFIXMessage(MESSAGES.get(0)).toString(), getFIXMessage(MESSAGES.get(1)).toString()), actual);
+    }
+
+    @Test
+    public void testLengthLimits() throws Exception {
+        // Values of at most 8 chars and messages of at most 80 bytes.
+        String longValue = "8=345|58=123456789|55=IBM|10=000|";
+        String longMessage = "8=345|55=IBM|40=P|44=12|38=100|54=1|10=000|"; // 88 bytes.
+        ByteBuffer bb = constructInput(longValue + MESSAGES.get(5) + longMessage + MESSAGES.get(5));
+
+        List<String> actual = new ArrayList<>();
+        StreamingFIXMessageParser streamingParser = new StreamingFIXMessageParser(new FIXMessageParser(),
+                m -> actual.add(m.toString()), StreamingFIXMessageParser.CHECKSUM_TAG, 8, 80);
+        for (int i = 0; i < 2; i++) {
+            FIXMessage.FIXMessageException e = assertThrows(FIXMessage.FIXMessageException.class, () -> streamingParser.feed(bb));
+            assertEquals(FIXMessage.FIXMessageException.BAD_FORMAT, e.getMessage());
+        }
+        streamingParser.feed(bb);
+        String expected = getFIXMessage(MESSAGES.get(5)).toString();
+        assertEquals(Arrays.asList(expected, expected), actual);
+        assertFalse(streamingParser.isMidMessage());
+    }
+
+    private static byte[] toBytes(ByteBuffer bb) {
+        byte[] bytes = new byte[bb.remaining()];
+        bb.get(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,62 @@
+package home.anuradha;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TagMapTests {
+
+    @Test
+    public void testKeepsInsertionOrderPastLinearScanLimit() {
+        TagMap<String> tagMap = new TagMap<>(4);
+        Map<Integer, String> expected = new LinkedHashMap<>();
+        for (int i = 0; i < 100; i++) {
+            int tag = (i * 7919) % 1000; // Out of order, and far apart.
+            tagMap.put(tag, "V" + i);
+            expected.put(tag, "V" + i);
+        }
+
+        assertEquals(expected, tagMap);
+        assertEquals(new ArrayList<>(expected.keySet()), new ArrayList<>(tagMap.keySet()));
+        for (int i = 0; i < tagMap.size(); i++) {
+            assertEquals(expected.get(tagMap.keyAt(i)), tagMap.valueAt(i));
+            assertEquals(i, tagMap.indexOf(tagMap.keyAt(i)));
+        }
+        assertFalse(tagMap.containsKey(1001));
+        assertNull(tagMap.get(1001));
+    }
+
+    @Test
+    public void testPutExistingTagReplacesValueInPlace() {
+        TagMap<String> tagMap = new TagMap<>();
+        tagMap.put(8, "345");
+        tagMap.put(55, "IBM");
+        assertEquals("345", tagMap.put(8, "346"));
+
+        assertEquals(Arrays.asList(8, 55), new ArrayList<>(tagMap.keySet()));
+        assertEquals("346", tagMap.get(8));
+        assertEquals("346", tagMap.get(Integer.valueOf(8)));
+        assertNull(tagMap.get("8"));
+    }
+
+    @Test
+    public void testClear() {
+        TagMap<String> tagMap = new TagMap<>();
+        for (int i = 0; i < 20; i++) {
+            tagMap.put(i, String.valueOf(i));
+        }
+        tagMap.clear();
+
+        assertEquals(0, tagMap.size());
+        assertFalse(tagMap.containsKey(5));
+        tagMap.put(5, "five");
+        List<Integer> keys = new ArrayList<>(tagMap.keySet());
+        assertEquals(Arrays.asList(5), keys);
+    }
+}
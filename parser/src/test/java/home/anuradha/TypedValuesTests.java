@@ -0,0 +1,101 @@
+package home.anuradha;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import static home.anuradha.FIXMessageFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TypedValuesTests {
+
+    @Test
+    public void testNumbers() {
+        assertEquals(12, TypedValues.parseInt("12"));
+        assertEquals(-12, TypedValues.parseInt("-12"));
+        assertEquals(12, TypedValues.parseInt("+12"));
+        assertEquals(Long.MAX_VALUE, TypedValues.parseLong(String.valueOf(Long.MAX_VALUE)));
+        assertEquals(TypedValues.NULL_LONG, TypedValues.parseLong(String.valueOf(Long.MIN_VALUE)));
+        assertEquals(TypedValues.NULL_INT, TypedValues.parseInt("2147483648"));
+        for (String malformed : new String[]{"", "-", "1.5", "12A", " 1", "99999999999999999999"}) {
+            assertEquals(TypedValues.NULL_LONG, TypedValues.parseLong(malformed), malformed);
+        }
+
+        Decimal decimal = new Decimal();
+        assertTrue(TypedValues.parseDecimal("-143.50", decimal));
+        assertEquals(-14350, decimal.getMantissa());
+        assertEquals(-2, decimal.getExponent());
+        assertEquals(-143.5, decimal.toDouble());
+        assertEquals("-143.50", decimal.toString());
+        assertEquals(-1435000, decimal.scaledTo(4));
+        assertEquals(-143, decimal.scaledTo(0));
+        assertTrue(TypedValues.parseDecimal(".5", decimal));
+        assertEquals(5, decimal.getMantissa());
+        assertEquals(-1, decimal.getExponent());
+        assertTrue(TypedValues.parseDecimal("-1.23456789012345678", decimal)); // 18 digits.
+        assertEquals(-123456789012345678L, decimal.getMantissa());
+        assertEquals(-17, decimal.getExponent());
+        assertTrue(TypedValues.parseDecimal("12", decimal));
+        assertEquals(0, decimal.getExponent());
+        for (String malformed : new String[]{"", ".", "-", "1.2.3", "1,5", "1e5", "1234567890123456789",
+                "1.234567890123456789", "0000000000000000001", "1234567890123456789.0"}) {
+            assertFalse(TypedValues.parseDecimal(malformed, decimal), malformed);
+        }
+        assertEquals(12, decimal.getMantissa()); // Left unchanged.
+
+        assertEquals('P', TypedValues.parseChar("P"));
+        assertEquals(TypedValues.NULL_CHAR, TypedValues.parseChar("PP"));
+        assertEquals(TypedValues.NULL_CHAR, TypedValues.parseChar(""));
+    }
+
+    @Test
+    public void testTimestamps() {
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyyMMdd-HH:mm:ss.SSSSSSSSS");
+        Random random = new Random(7);
+        for (int i = 0; i < 10_000; i++) {
+            long nanos = (random.nextLong() % (200L * 365 * 86400)) * 1_000_000_000L + random.nextInt(1_000_000_000);
+            LocalDateTime time = LocalDateTime.ofEpochSecond(Math.floorDiv(nanos, 1_000_000_000L), (int) Math.floorMod(nanos, 1_000_000_000L), ZoneOffset.UTC);
+            String value = formatter.format(time);
+            assertEquals(nanos, TypedValues.parseUTCTimestampNanos(value), value);
+            long millis = Math.floorDiv(nanos, 1_000_000L) * 1_000_000L;
+            assertEquals(millis, TypedValues.parseUTCTimestampNanos(value.substring(0, 21)), value);
+            assertEquals(Math.floorDiv(nanos, 1_000_000_000L) * 1_000_000_000L, TypedValues.parseUTCTimestampNanos(value.substring(0, 17)), value);
+        }
+        for (String malformed : new String[]{"20240102-13:14", "20240230-13:14:15", "20240102-24:00:00", "20240102 13:14:15",
+                "20240102-13:14:15.", "20240102-13:14:15.1234567890", "20240102-13:14:15,123", "25000102-13:14:15"}) {
+            assertEquals(TypedValues.NULL_LONG, TypedValues.parseUTCTimestampNanos(malformed), malformed);
+        }
+        assertEquals(951782400L * 1_000_000_000L, TypedValues.parseUTCTimestampNanos("20000229-00:00:00")); // Leap day.
+    }
+
+    @Test
+    public void testMessageAndGroupAccessors() throws Exception {
+        FIXMessage fixMessage = getFIXMessage("8=345|40=P|52=20240102-13:14:15.123|269=2|277=12|456=7|231=143.25|277=1|456=X|44=-12.5|");
+        assertEquals(345, fixMessage.getInt(8));
+        assertEquals(2, fixMessage.getInt(269));
+        assertEquals('P', fixMessage.getChar(40));
+        assertEquals(1704201255123000000L, fixMessage.getUTCTimestampNanos(52));
+        Decimal price = new Decimal();
+        assertTrue(fixMessage.getDecimal(44, price));
+        assertEquals(-125, price.getMantissa());
+
+        assertEquals(TypedValues.NULL_INT, fixMessage.getInt(40));
+        assertTrue(fixMessage.hasTag(40)); // Malformed.
+        assertEquals(TypedValues.NULL_LONG, fixMessage.getLong(55));
+        assertFalse(fixMessage.hasTag(55)); // Missing.
+        assertTrue(fixMessage.hasTag(269));
+
+        Group group = fixMessage.getRepeatingGroup(269).getGroups().get(0);
+        assertEquals(12, group.getInt(277));
+        assertTrue(group.getDecimal(231, price));
+        assertEquals(14325, price.getMantissa());
+        Group second = fixMessage.getRepeatingGroup(269).getGroups().get(1);
+        assertEquals(TypedValues.NULL_LONG, second.getLong(456));
+        assertTrue(second.hasTag(456));
+        assertFalse(second.getDecimal(231, price));
+        assertFalse(second.hasTag(231));
+    }
+}
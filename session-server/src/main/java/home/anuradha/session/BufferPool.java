@@ -0,0 +1,69 @@
+package home.anuradha.session;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool of direct buffers of one size. Direct buffers are read into by the socket without a copy, but are slow to
+ * allocate and are only freed by the garbage collector, so the buffers of closed sessions are kept for new ones. At
+ * most maxPooled idle buffers are kept. Thread safe, and never blocks.
+ */
+public final class BufferPool {
+
+    private final int bufferSize;
+    private final int maxPooled;
+    private final ConcurrentLinkedQueue<ByteBuffer> buffers = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pooled = new AtomicInteger();
+    private final AtomicInteger allocated = new AtomicInteger();
+
+    public BufferPool(int bufferSize, int maxPooled) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("bufferSize must be positive.");
+        }
+        if (maxPooled < 0) {
+            throw new IllegalArgumentException("maxPooled must not be negative.");
+        }
+        this.bufferSize = bufferSize;
+        this.maxPooled = maxPooled;
+    }
+
+    /**
+     * Returns a cleared buffer, from the pool if there is one.
+     */
+    public ByteBuffer acquire() {
+        ByteBuffer bb = buffers.poll();
+        if (bb == null) {
+            allocated.incrementAndGet();
+            return ByteBuffer.allocateDirect(bufferSize);
+        }
+        pooled.decrementAndGet();
+        return bb.clear();
+    }
+
+    /**
+     * Gives a buffer back to the pool. It must not be used afterwards.
+     */
+    public void release(ByteBuffer bb) {
+        if (pooled.incrementAndGet() <= maxPooled) {
+            buffers.offer(bb);
+        } else {
+            pooled.decrementAndGet();
+        }
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * Number of buffers allocated since the pool was created, i.e. the number of acquires the pool couldn't serve.
+     */
+    public int getAllocatedCount() {
+        return allocated.get();
+    }
+
+    public int getPooledCount() {
+        return pooled.get();
+    }
+}
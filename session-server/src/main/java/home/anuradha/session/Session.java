@@ -0,0 +1,105 @@
+package home.anuradha.session;
+
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * One connection accepted by a {@link SessionServer}. The counters are only written by the session's own thread, so
+ * they are exact when read from the handler and approximate when read from elsewhere.
+ */
+public final class Session {
+
+    private final long id;
+    private final SocketChannel channel;
+    private final SocketAddress remoteAddress;
+    // A lock rather than synchronized, which would pin a virtual thread to its carrier while it blocks in write.
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    private volatile long messageCount;
+    private volatile long byteCount;
+    private Object attachment;
+
+    Session(long id, SocketChannel channel, SocketAddress remoteAddress) {
+        this.id = id;
+        this.channel = channel;
+        this.remoteAddress = remoteAddress;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public SocketAddress getRemoteAddress() {
+        return remoteAddress;
+    }
+
+    /**
+     * Number of messages delivered to the handler, including the ones that couldn't be parsed.
+     */
+    public long getMessageCount() {
+        return messageCount;
+    }
+
+    /**
+     * Number of bytes read from the connection.
+     */
+    public long getByteCount() {
+        return byteCount;
+    }
+
+    /**
+     * Object of the handler's choosing, e.g. the state of the session. Only for use from the session's own thread.
+     */
+    public Object getAttachment() {
+        return attachment;
+    }
+
+    public void setAttachment(Object attachment) {
+        this.attachment = attachment;
+    }
+
+    /**
+     * Writes all remaining bytes of the buffer to the peer, blocking until they are sent. Can be called from any thread.
+     */
+    public void write(ByteBuffer bb) throws IOException {
+        writeLock.lock();
+        try {
+            while (bb.hasRemaining()) {
+                channel.write(bb);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Closes the connection. The session's thread then ends and the handler's onDisconnect is called.
+     */
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    public boolean isOpen() {
+        return channel.isOpen();
+    }
+
+    void addRead(int bytes) {
+        byteCount += bytes;
+    }
+
+    void addMessage() {
+        messageCount++;
+    }
+
+    SocketChannel getChannel() {
+        return channel;
+    }
+
+    @Override
+    public String toString() {
+        return "Session{id=" + id + ", remoteAddress=" + remoteAddress + '}';
+    }
+}
@@ -0,0 +1,35 @@
+package home.anuradha.session;
+
+import home.anuradha.FIXMessage;
+import home.anuradha.ParseResult;
+
+/**
+ * Receives the messages of the sessions of a {@link SessionServer}. Every method is called on the thread of the session
+ * it is for, so the calls for one session never overlap and come in the order the messages arrived. Calls for different
+ * sessions run at the same time, so state shared between sessions must be thread safe.
+ * <p>
+ * The server reads no more from a session while its handler is running, so a slow handler slows down its own sender
+ * (through TCP flow control) rather than piling up messages in memory.
+ */
+public interface SessionHandler {
+
+    void onMessage(Session session, FIXMessage fixMessage);
+
+    default void onConnect(Session session) {
+    }
+
+    /**
+     * Called for a message that couldn't be parsed. The session carries on with the next message. The result is reused
+     * for the next message of the session.
+     */
+    default void onError(Session session, ParseResult result) {
+    }
+
+    /**
+     * Called once when the session has ended, if {@link #onConnect(Session)} returned normally. cause is null if the
+     * connection was closed by the peer, by {@link Session#close()} or by the server, or else the exception that ended
+     * the session.
+     */
+    default void onDisconnect(Session session, Throwable cause) {
+    }
+}
@@ -0,0 +1,206 @@
+package home.anuradha.session;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+import home.anuradha.FIXMessage;
+import home.anuradha.FIXMessageEncoder;
+import home.anuradha.FIXMessageParser;
+import home.anuradha.LatencyHistogram;
+
+/**
+ * Connects many simulated sessions to a {@link SessionServer} on the loopback address, with each {@link
+ * SessionServer.ThreadMode}, and prints the throughput, the latency from send to handler over all messages, and the
+ * spread of the p99 latency of the individual sessions. A plain main class, like the load generators of the benchmarks
+ * module:
+ * <pre>
+ * java -cp session-server/target/classes:parser/target/classes home.anuradha.session.SessionLoadGenerator [sessions] [messages] [rate] [senders]
+ * </pre>
+ * messages is the number of messages per session, and rate the messages per second each session sends, or 0 to send as
+ * fast as possible. At a fixed rate, each message carries the time it was due to be sent in SendingTime (60), as
+ * nanoseconds since the start of the run, so a server that falls behind shows up as latency rather than as fewer
+ * messages sent. The sessions are driven by a few sender threads (half the cores by default) in the same JVM, the same
+ * way for both thread modes, so the clients cost the server the same share of the cores in both. The peak thread count
+ * includes them.
+ */
+public class SessionLoadGenerator {
+
+    private static final int SENDING_TIME_TAG = 60;
+    private static final int TIME_DIGITS = 19;
+
+    public static void main(String[] args) throws Exception {
+        int sessions = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int messages = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        long rate = args.length > 2 ? Long.parseLong(args[2]) : 10;
+        int senders = args.length > 3 ? Integer.parseInt(args[3]) : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+        ByteBuffer template = template();
+        System.out.printf("%d sessions, %d messages each, %s, %d sender threads%n", sessions, messages,
+                rate > 0 ? rate + " msgs/s per session" : "unthrottled", senders);
+        for (SessionServer.ThreadMode threadMode : SessionServer.ThreadMode.values()) {
+            run(template, threadMode, Math.min(sessions, 100), messages, rate, senders, false); // Warm up.
+            run(template, threadMode, sessions, messages, rate, senders, true);
+        }
+    }
+
+    private static void run(ByteBuffer template, SessionServer.ThreadMode threadMode, int sessions, int messages,
+                            long rate, int senders, boolean print) throws Exception {
+        LatencyHistogram latency = new LatencyHistogram();
+        LatencyHistogram sessionP99 = new LatencyHistogram();
+        ReentrantLock lock = new ReentrantLock();
+        CountDownLatch disconnected = new CountDownLatch(sessions);
+        // System.nanoTime() may be negative, so messages are stamped with the time since this instead.
+        long epoch = System.nanoTime();
+        SessionServer server = new SessionServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), threadMode,
+                SessionServer.DEFAULT_BUFFER_SIZE, SessionServer.DEFAULT_MAX_POOLED_BUFFERS, 0, FIXMessageParser::new,
+                new SessionHandler() {
+            @Override
+            public void onConnect(Session session) {
+                session.setAttachment(new LatencyHistogram());
+            }
+
+            @Override
+            public void onMessage(Session session, FIXMessage fixMessage) {
+                ((LatencyHistogram) session.getAttachment()).record(System.nanoTime() - epoch - fixMessage.getLong(SENDING_TIME_TAG));
+            }
+
+            @Override
+            public void onDisconnect(Session session, Throwable cause) {
+                LatencyHistogram histogram = (LatencyHistogram) session.getAttachment();
+                lock.lock();
+                try {
+                    if (histogram != null) {
+                        latency.add(histogram);
+                        sessionP99.record(histogram.getValueAtPercentile(99));
+                    }
+                } finally {
+                    lock.unlock();
+                }
+                disconnected.countDown();
+            }
+        });
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        threadMXBean.resetPeakThreadCount();
+        InetSocketAddress address = server.start();
+
+        long start = System.nanoTime();
+        long intervalNanos = rate > 0 ? TimeUnit.SECONDS.toNanos(1) / rate : 0;
+        for (int t = 0; t < senders; t++) {
+            int count = sessions / senders + (t < sessions % senders ? 1 : 0);
+            Thread sender = new Thread(() -> send(address, template, count, messages, intervalNanos, epoch), "sender-" + t);
+            sender.setDaemon(true);
+            sender.start();
+        }
+        if (!disconnected.await(10, TimeUnit.MINUTES)) {
+            throw new IllegalStateException(disconnected.getCount() + " sessions didn't finish.");
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        int peakThreads = threadMXBean.getPeakThreadCount();
+        server.close();
+        if (print) {
+            System.out.printf("%-8s %,10.0f msgs/s  %,6d peak threads  latency ns %s%n", threadMode,
+                    server.getMessageCount() / seconds, peakThreads, latency);
+            System.out.printf("%-8s per-session p99 ns: p50=%d p90=%d p99=%d max=%d%n", threadMode,
+                    sessionP99.getValueAtPercentile(50), sessionP99.getValueAtPercentile(90),
+                    sessionP99.getValueAtPercentile(99), sessionP99.getMax());
+        }
+    }
+
+    /**
+     * Sends the messages of a share of the sessions from one thread, each on its session's schedule and stamped with
+     * the time it was due since epoch, then disconnects them. The sessions start at random points of the first
+     * interval, so that they don't all send at once. The channels are non-blocking, so that a session the server isn't
+     * reading can't hold up the others for long.
+     */
+    private static void send(InetSocketAddress address, ByteBuffer template, int sessions, int messages,
+                             long intervalNanos, long epoch) {
+        ByteBuffer msgBB = ByteBuffer.allocateDirect(template.remaining()).put(template.duplicate()).flip();
+        int timeOffset = valueOffset(msgBB, SENDING_TIME_TAG);
+        SocketChannel[] channels = new SocketChannel[sessions];
+        long[] next = new long[sessions];
+        try {
+            for (int s = 0; s < sessions; s++) {
+                channels[s] = SocketChannel.open(address);
+                channels[s].socket().setTcpNoDelay(true);
+                channels[s].configureBlocking(false);
+            }
+            long start = System.nanoTime(); // After connecting, so that connecting isn't counted as latency.
+            long[] phases = ThreadLocalRandom.current().longs(sessions, 0, Math.max(intervalNanos, 1)).sorted().toArray();
+            for (int s = 0; s < sessions; s++) {
+                next[s] = start + phases[s];
+            }
+            // The sessions have the same interval, so taking them in turn is taking them in order of due time.
+            for (int i = 0; i < messages; i++) {
+                for (int s = 0; s < sessions; s++) {
+                    if (intervalNanos > 0) {
+                        while (System.nanoTime() < next[s]) {
+                            LockSupport.parkNanos(next[s] - System.nanoTime());
+                        }
+                    }
+                    long due = (intervalNanos > 0 ? next[s] : System.nanoTime()) - epoch;
+                    for (int d = TIME_DIGITS - 1; d >= 0; d--) {
+                        msgBB.putChar(timeOffset + 2 * d, (char) ('0' + due % 10));
+                        due /= 10;
+                    }
+                    msgBB.rewind();
+                    while (msgBB.hasRemaining()) {
+                        if (channels[s].write(msgBB) == 0) {
+                            LockSupport.parkNanos(1000);
+                        }
+                    }
+                    next[s] += intervalNanos;
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        } finally {
+            for (SocketChannel channel : channels) {
+                try {
+                    if (channel != null) {
+                        channel.close();
+                    }
+                } catch (IOException ignored) {
+                    // Nothing more to do with it.
+                }
+            }
+        }
+    }
+
+    private static ByteBuffer template() throws FIXMessage.FIXMessageException {
+        FIXMessage fixMessage = new FIXMessage();
+        String[][] fields = {{"8", "FIX.4.4"}, {"35", "D"}, {"49", "CLIENT"}, {"56", "SERVER"}, {"34", "1"},
+                {"60", "0".repeat(TIME_DIGITS)}, {"11", "ORDER-1"}, {"55", "IBM"}, {"54", "1"}, {"38", "100"},
+                {"40", "2"}, {"44", "123.45"}, {"10", "000"}};
+        for (String[] field : fields) {
+            fixMessage.putNonRepeatingGroupTag(Integer.parseInt(field[0]), field[1]);
+        }
+        ByteBuffer bb = ByteBuffer.allocate(FIXMessageEncoder.encodedLength(fixMessage));
+        FIXMessageEncoder.encode(fixMessage, bb);
+        return bb.flip();
+    }
+
+    /**
+     * Offset of the first value char of the tag in a message in CHARS format.
+     */
+    private static int valueOffset(ByteBuffer msgBB, int tag) {
+        int position = 0;
+        while (msgBB.getInt(position) != tag) {
+            position += 6;
+            while (msgBB.getChar(position) != '|') {
+                position += 2;
+            }
+            position += 2;
+        }
+        return position + 6;
+    }
+}
@@ -0,0 +1,261 @@
+package home.anuradha.session;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import home.anuradha.FIXMessage;
+import home.anuradha.FIXMessage.FIXMessageException;
+import home.anuradha.FIXMessageParser;
+import home.anuradha.MessageFraming;
+import home.anuradha.ParseResult;
+import home.anuradha.StreamingFIXMessageParser;
+import home.anuradha.WireFormat;
+
+/**
+ * Accepts TCP connections and passes the messages that arrive on each of them to a {@link SessionHandler}.
+ * <p>
+ * Each session has a thread of its own, which blocks in a plain read of the socket and runs everything for the session:
+ * framing the messages with {@link MessageFraming}, parsing them with a {@link FIXMessageParser} that no other thread
+ * touches, and calling the handler. With {@link ThreadMode#VIRTUAL}, the default, these are virtual threads, so a
+ * blocked session costs a small stack on the heap instead of an OS thread, and thousands of sessions need only as many
+ * OS threads as there are cores. {@link ThreadMode#PLATFORM} gives each session an OS thread instead, as a baseline.
+ * Handlers that block while holding a monitor (a synchronized block or method) pin the virtual thread to its carrier
+ * for that time, and should use java.util.concurrent locks instead.
+ * <p>
+ * Reads go into a direct buffer from a {@link BufferPool}, which is returned to the pool when the session ends. Messages
+ * are parsed in place from the buffer, and a message split between reads is moved to the front of the buffer before
+ * the next read, so a message must fit in one buffer. A session that sends a larger one is closed.
+ * <p>
+ * Backpressure: messages are passed to the handler on the session's thread, and the socket isn't read again until the
+ * handler returns. A session whose handler falls behind fills its buffer and then the socket's receive window, and TCP
+ * makes the sender wait, so no messages are queued in the server. maxConcurrentHandlers additionally limits how many
+ * handler calls run at once across all sessions; sessions beyond the limit wait for a permit before their next message.
+ * <p>
+ * Reads {@link WireFormat#CHARS} only, like {@link StreamingFIXMessageParser}. A message ends after its CheckSum (10).
+ */
+public class SessionServer implements Closeable {
+
+    public enum ThreadMode { VIRTUAL, PLATFORM }
+
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+    public static final int DEFAULT_MAX_POOLED_BUFFERS = 4096;
+    private static final int BACKLOG = 4096;
+
+    private final InetSocketAddress bindAddress;
+    private final ThreadMode threadMode;
+    private final Supplier<FIXMessageParser> parsers;
+    private final SessionHandler handler;
+    private final BufferPool bufferPool;
+    // Null if handler calls aren't limited.
+    private final Semaphore handlerPermits;
+
+    private final Map<Session, Thread> sessions = new ConcurrentHashMap<>();
+    private final AtomicLong nextSessionId = new AtomicLong();
+    private final LongAdder messageCount = new LongAdder();
+    private ServerSocketChannel serverChannel;
+    private Thread acceptorThread;
+    private volatile boolean running;
+
+    /**
+     * Server on a free port of the loopback address, see {@link #start()}.
+     */
+    public SessionServer(SessionHandler handler) {
+        this(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), ThreadMode.VIRTUAL, DEFAULT_BUFFER_SIZE,
+                DEFAULT_MAX_POOLED_BUFFERS, 0, FIXMessageParser::new, handler);
+    }
+
+    /**
+     * maxPooledBuffers is the most buffers of ended sessions kept for new ones, see {@link BufferPool}.
+     * maxConcurrentHandlers is the most handler calls that may run at once across all sessions, or 0 for no limit.
+     * parsers is called once per session, on the session's thread.
+     */
+    public SessionServer(InetSocketAddress bindAddress, ThreadMode threadMode, int bufferSize, int maxPooledBuffers,
+                         int maxConcurrentHandlers, Supplier<FIXMessageParser> parsers, SessionHandler handler) {
+        if (maxConcurrentHandlers < 0) {
+            throw new IllegalArgumentException("maxConcurrentHandlers must not be negative.");
+        }
+        this.bindAddress = bindAddress;
+        this.threadMode = threadMode;
+        this.parsers = parsers;
+        this.handler = handler;
+        this.bufferPool = new BufferPool(bufferSize, maxPooledBuffers);
+        this.handlerPermits = maxConcurrentHandlers > 0 ? new Semaphore(maxConcurrentHandlers) : null;
+    }
+
+    /**
+     * Binds the server socket and starts accepting connections. Returns the address bound to, with the actual port if
+     * the port asked for was 0.
+     */
+    public InetSocketAddress start() throws IOException {
+        if (serverChannel != null) {
+            throw new IllegalStateException("Already started.");
+        }
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(bindAddress, BACKLOG);
+        running = true;
+        acceptorThread = new Thread(this::accept, "fix-acceptor");
+        acceptorThread.setDaemon(true);
+        acceptorThread.start();
+        return (InetSocketAddress) serverChannel.getLocalAddress();
+    }
+
+    public ThreadMode getThreadMode() {
+        return threadMode;
+    }
+
+    /**
+     * Number of sessions currently connected.
+     */
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    /**
+     * Number of messages passed to the handler across all sessions, including the ones that couldn't be parsed.
+     */
+    public long getMessageCount() {
+        return messageCount.sum();
+    }
+
+    public BufferPool getBufferPool() {
+        return bufferPool;
+    }
+
+    /**
+     * Stops accepting, closes every session and waits for their threads to end, so that every onDisconnect has
+     * returned when close returns.
+     */
+    @Override
+    public void close() throws IOException {
+        running = false;
+        if (serverChannel == null) {
+            return;
+        }
+        serverChannel.close();
+        try {
+            acceptorThread.join(); // No sessions are added after this.
+            for (Map.Entry<Session, Thread> entry : sessions.entrySet()) {
+                entry.getKey().close();
+                entry.getValue().join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void accept() {
+        // A builder isn't thread safe, and only this thread starts session threads.
+        Thread.Builder threads = threadMode == ThreadMode.VIRTUAL
+                ? Thread.ofVirtual().name("fix-session-", 0)
+                : Thread.ofPlatform().daemon().name("fix-session-", 0);
+        while (running) {
+            SocketChannel channel;
+            try {
+                channel = serverChannel.accept();
+            } catch (IOException e) {
+                return; // Closed.
+            }
+            try {
+                channel.socket().setTcpNoDelay(true);
+                Session session = new Session(nextSessionId.incrementAndGet(), channel, channel.getRemoteAddress());
+                Thread thread = threads.unstarted(() -> run(session));
+                sessions.put(session, thread);
+                thread.start();
+            } catch (IOException e) {
+                closeQuietly(channel);
+            }
+        }
+    }
+
+    private void run(Session session) {
+        SocketChannel channel = session.getChannel();
+        ByteBuffer buffer = bufferPool.acquire();
+        ParseResult result = new ParseResult();
+        Throwable cause = null;
+        boolean connected = false;
+        FIXMessageParser parser = null;
+        try {
+            parser = parsers.get();
+            if (parser.getWireFormat() != WireFormat.CHARS) {
+                throw new IllegalArgumentException("Only " + WireFormat.CHARS + " is supported.");
+            }
+            handler.onConnect(session);
+            connected = true;
+            int read;
+            while ((read = channel.read(buffer)) >= 0) {
+                session.addRead(read);
+                int limit = buffer.position();
+                int start = 0;
+                int end;
+                while ((end = MessageFraming.findMessageEnd(buffer, start, limit, StreamingFIXMessageParser.CHECKSUM_TAG)) >= 0) {
+                    buffer.limit(end).position(start);
+                    deliver(session, parser.parse(buffer, result), result);
+                    buffer.limit(buffer.capacity());
+                    start = end;
+                }
+                buffer.limit(limit).position(start);
+                buffer.compact();
+                if (!buffer.hasRemaining()) {
+                    throw new IOException("Message longer than the buffer of " + buffer.capacity() + " bytes.");
+                }
+            }
+        } catch (ClosedChannelException e) {
+            // Closed by the handler or by close().
+        } catch (IOException | FIXMessageException | RuntimeException e) {
+            cause = e;
+        } finally {
+            closeQuietly(channel);
+            bufferPool.release(buffer);
+            sessions.remove(session);
+            if (parser != null) {
+                parser.setMetrics(null); // The parser ends with the session. Keep its counts in the metrics, if any.
+            }
+            if (connected) {
+                handler.onDisconnect(session, cause);
+            }
+        }
+        if (!connected && cause != null) {
+            // The handler never saw the session, so leave the failure to the thread's uncaught exception handler.
+            throw new IllegalStateException("Session " + session.getId() + " failed to start.", cause);
+        }
+    }
+
+    private void deliver(Session session, FIXMessage fixMessage, ParseResult result) {
+        if (handlerPermits != null) {
+            handlerPermits.acquireUninterruptibly();
+        }
+        try {
+            session.addMessage();
+            messageCount.increment();
+            if (fixMessage != null) {
+                handler.onMessage(session, fixMessage);
+            } else {
+                handler.onError(session, result);
+            }
+        } finally {
+            if (handlerPermits != null) {
+                handlerPermits.release();
+            }
+        }
+    }
+
+    private static void closeQuietly(SocketChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            // Nothing more to do with it.
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package home.anuradha.session;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import home.anuradha.DataDictionary;
+import home.anuradha.FIXMessage;
+import home.anuradha.FIXMessageParser;
+import home.anuradha.ParseResult;
+import home.anuradha.WireFormat;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SessionServerTests {
+
+    private static final InetSocketAddress LOOPBACK = new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+
+    @Test
+    public void testSessionsInOrderWithErrors() throws Exception {
+        for (SessionServer.ThreadMode threadMode : SessionServer.ThreadMode.values()) {
+            int sessions = 20;
+            int messages = 200;
+            CountDownLatch disconnected = new CountDownLatch(sessions);
+            Map<Long, List<String>> received = new ConcurrentHashMap<>();
+            List<Throwable> causes = new CopyOnWriteArrayList<>();
+            SessionServer server = new SessionServer(LOOPBACK, threadMode, 256, sessions, 0, FIXMessageParser::new, new SessionHandler() {
+                @Override
+                public void onConnect(Session session) {
+                    session.setAttachment(new ArrayList<String>());
+                }
+
+                @Override
+                @SuppressWarnings("unchecked")
+                public void onMessage(Session session, FIXMessage fixMessage) {
+                    ((List<String>) session.getAttachment()).add(fixMessage.getNonGroupTagValue(34));
+                }
+
+                @Override
+                @SuppressWarnings("unchecked")
+                public void onError(Session session, ParseResult result) {
+                    ((List<String>) session.getAttachment()).add(ParseResult.nameOf(result.getCode()));
+                }
+
+                @Override
+                @SuppressWarnings("unchecked")
+                public void onDisconnect(Session session, Throwable cause) {
+                    received.put(session.getId(), (List<String>) session.getAttachment());
+                    if (cause != null) {
+                        causes.add(cause);
+                    }
+                    disconnected.countDown();
+                }
+            });
+            InetSocketAddress address = server.start();
+
+            // Each client sends its messages in pieces of random sizes, split anywhere, with an invalid message every 50.
+            Random random = new Random(42);
+            for (int s = 0; s < sessions; s++) {
+                ByteBuffer stream = ByteBuffer.allocate(messages * 64);
+                for (int n = 1; n <= messages; n++) {
+                    put(stream, n % 50 == 0 ? "8=FIX|34=" + n + "|34=" + n + "|10=000|" : "8=FIX|34=" + n + "|55=IBM|10=000|");
+                }
+                stream.flip();
+                try (SocketChannel client = SocketChannel.open(address)) {
+                    while (stream.hasRemaining()) {
+                        ByteBuffer piece = stream.slice(stream.position(), Math.min(stream.remaining(), 1 + random.nextInt(100)));
+                        stream.position(stream.position() + piece.remaining());
+                        while (piece.hasRemaining()) {
+                            client.write(piece);
+                        }
+                    }
+                }
+            }
+            assertTrue(disconnected.await(10, TimeUnit.SECONDS), threadMode.toString());
+            server.close();
+
+            assertEquals(List.of(), causes);
+            assertEquals(sessions, received.size());
+            for (List<String> values : received.values()) {
+                assertEquals(messages, values.size());
+                for (int n = 1; n <= messages; n++) {
+                    assertEquals(n % 50 == 0 ? "TAG_ALREADY_EXISTS" : String.valueOf(n), values.get(n - 1));
+                }
+            }
+            assertEquals((long) sessions * messages, server.getMessageCount());
+            assertEquals(0, server.getSessionCount());
+            assertTrue(server.getBufferPool().getAllocatedCount() <= sessions);
+        }
+    }
+
+    @Test
+    public void testBackpressure() throws Exception {
+        // One handler call at a time: while the first session's handler is blocked, its client can only send until the
+        // socket buffers are full, and the second session's message waits for the permit.
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger concurrent = new AtomicInteger();
+        AtomicInteger maxConcurrent = new AtomicInteger();
+        AtomicLong handled = new AtomicLong();
+        SessionServer server = new SessionServer(LOOPBACK, SessionServer.ThreadMode.VIRTUAL, 1024, 2, 1,
+                FIXMessageParser::new, (session, fixMessage) -> {
+            maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+            if (blocked.getCount() > 0) {
+                blocked.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            handled.incrementAndGet();
+            concurrent.decrementAndGet();
+        });
+        InetSocketAddress address = server.start();
+
+        int messages = 500_000;
+        ByteBuffer stream = ByteBuffer.allocate(messages * 48);
+        for (int n = 1; n <= messages; n++) {
+            put(stream, "8=FIX|34=" + n + "|10=000|");
+        }
+        stream.flip();
+        int total = stream.remaining();
+        AtomicLong written = new AtomicLong();
+        try (SocketChannel first = SocketChannel.open(address); SocketChannel second = SocketChannel.open(address)) {
+            Thread writer = Thread.ofVirtual().start(() -> {
+                try {
+                    while (stream.hasRemaining()) {
+                        written.addAndGet(first.write(stream));
+                    }
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            });
+            assertTrue(blocked.await(10, TimeUnit.SECONDS));
+            write(second, "8=FIX|34=1|10=000|");
+            long before;
+            do {
+                before = written.get();
+                Thread.sleep(200);
+            } while (written.get() != before);
+            assertTrue(written.get() < total, written.get() + " of " + total);
+            assertEquals(0, handled.get());
+
+            release.countDown();
+            writer.join(10_000);
+            assertEquals(total, written.get());
+            first.shutdownOutput();
+            second.shutdownOutput();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (handled.get() < messages + 1 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+        }
+        server.close();
+        assertEquals(messages + 1, handled.get());
+        assertEquals(1, maxConcurrent.get());
+    }
+
+    @Test
+    public void testMessageLongerThanBuffer() throws Exception {
+        CountDownLatch disconnected = new CountDownLatch(1);
+        Throwable[] cause = new Throwable[1];
+        List<String> received = new CopyOnWriteArrayList<>();
+        SessionServer server = new SessionServer(LOOPBACK, SessionServer.ThreadMode.VIRTUAL, 64, 1, 0, FIXMessageParser::new,
+                new SessionHandler() {
+            @Override
+            public void onMessage(Session session, FIXMessage fixMessage) {
+                received.add(fixMessage.getNonGroupTagValue(34));
+            }
+
+            @Override
+            public void onDisconnect(Session session, Throwable t) {
+                cause[0] = t;
+                disconnected.countDown();
+            }
+        });
+        try (SocketChannel client = SocketChannel.open(server.start())) {
+            write(client, "8=FIX|34=1|10=000|8=FIX|34=2|58=" + "x".repeat(40) + "|10=000|");
+            assertTrue(disconnected.await(10, TimeUnit.SECONDS));
+        }
+        server.close();
+        assertEquals(List.of("1"), received);
+        assertInstanceOf(IOException.class, cause[0]);
+    }
+
+    @Test
+    public void testNoDisconnectWithoutConnect() throws Exception {
+        // The parser is for the wrong wire format, so the session fails before the handler hears of it.
+        AtomicInteger calls = new AtomicInteger();
+        SessionServer server = new SessionServer(LOOPBACK, SessionServer.ThreadMode.VIRTUAL, 64, 0, 0,
+                () -> new FIXMessageParser(DataDictionary.DEFAULT, WireFormat.ASCII), new SessionHandler() {
+            @Override
+            public void onConnect(Session session) {
+                calls.incrementAndGet();
+            }
+
+            @Override
+            public void onMessage(Session session, FIXMessage fixMessage) {
+                calls.incrementAndGet();
+            }
+
+            @Override
+            public void onDisconnect(Session session, Throwable cause) {
+                calls.incrementAndGet();
+            }
+        });
+        try (SocketChannel client = SocketChannel.open(server.start())) {
+            assertEquals(-1, client.read(ByteBuffer.allocate(16))); // Closed by the server.
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (server.getSessionCount() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        server.close();
+        assertEquals(0, calls.get());
+        assertEquals(0, server.getSessionCount());
+        assertEquals(0, server.getBufferPool().getPooledCount()); // maxPooledBuffers is 0.
+    }
+
+    private static void write(SocketChannel channel, String msg) throws IOException {
+        ByteBuffer bb = ByteBuffer.allocate(msg.length() * 4);
+        put(bb, msg);
+        bb.flip();
+        while (bb.hasRemaining()) {
+            channel.write(bb);
+        }
+    }
+
+    /**
+     * Appends tag=value| fields in {@link home.anuradha.WireFormat#CHARS}: an int tag, then '=', the value and '|' as
+     * chars.
+     */
+    private static void put(ByteBuffer bb, String msg) {
+        for (String field : msg.split("\\|")) {
+            int equals = field.indexOf('=');
+            bb.putInt(Integer.parseInt(field.substring(0, equals)));
+            for (int i = equals; i < field.length(); i++) {
+                bb.putChar(field.charAt(i));
+            }
+            bb.putChar('|');
+        }
+    }
+}